@@ -319,6 +319,11 @@ public class CoreMessages extends NLS {
 	public static String pref_page_query_manager_label_days_to_store_log;
 	public static String pref_page_query_manager_label_entries_per_page;
 	public static String pref_page_query_manager_log_file_hint;
+    public static String pref_page_query_manager_label_log_format;
+    public static String pref_page_query_manager_log_format_text;
+    public static String pref_page_query_manager_log_format_json;
+    public static String pref_page_query_manager_label_log_max_file_size;
+    public static String pref_page_query_manager_checkbox_log_compress;
 
 	public static String pref_page_ui_general_checkbox_automatic_updates;
 	public static String pref_page_ui_general_combo_language;
@@ -395,6 +400,10 @@ public class CoreMessages extends NLS {
 	public static String pref_page_database_general_checkbox_show_row_count_tip;
 	public static String pref_page_database_general_server_side_object_filters;
 	public static String pref_page_database_general_server_side_object_filters_tip;
+	public static String pref_page_database_general_structure_index;
+	public static String pref_page_database_general_structure_index_tip;
+	public static String pref_page_database_general_persistent_cache;
+	public static String pref_page_database_general_persistent_cache_tip;
 	public static String pref_page_database_general_group_query_metadata;
 	// EntityEditor
 	public static String pref_page_ui_general_keep_database_editors_tip;
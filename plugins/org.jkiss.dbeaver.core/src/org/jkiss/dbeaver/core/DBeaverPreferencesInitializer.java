@@ -68,6 +68,9 @@ public class DBeaverPreferencesInitializer extends AbstractPreferenceInitializer
             DBCExecutionPurpose.USER + "," + DBCExecutionPurpose.USER_FILTERED + "," + DBCExecutionPurpose.USER_SCRIPT);
         PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_STORE_LOG_FILE, false);
         PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_LOG_DIRECTORY, GeneralUtils.getMetadataFolder().getAbsolutePath());
+        PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_LOG_FORMAT, QMConstants.LOG_FORMAT_TEXT);
+        PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_LOG_MAX_FILE_SIZE, 100);
+        PrefUtils.setDefaultPreferenceValue(store, QMConstants.PROP_LOG_COMPRESS, false);
 
         // Logs
         PrefUtils.setDefaultPreferenceValue(store, DBeaverPreferences.LOGS_DEBUG_ENABLED, true);
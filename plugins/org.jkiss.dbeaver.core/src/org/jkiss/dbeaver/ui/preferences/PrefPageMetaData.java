@@ -40,6 +40,8 @@ public class PrefPageMetaData extends TargetPrefPage
     private Button separateMetaConnectionCheck;
     private Button caseSensitiveNamesCheck;
     private Button serverSideFiltersCheck;
+    private Button structureIndexCheck;
+    private Button persistentCacheCheck;
 
     public PrefPageMetaData()
     {
@@ -54,7 +56,9 @@ public class PrefPageMetaData extends TargetPrefPage
             store.contains(ModelPreferences.READ_EXPENSIVE_PROPERTIES) ||
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
             store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
-            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS)
+            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+            store.contains(ModelPreferences.META_STRUCTURE_INDEX) ||
+            store.contains(ModelPreferences.META_PERSISTENT_CACHE)
             ;
     }
 
@@ -75,6 +79,8 @@ public class PrefPageMetaData extends TargetPrefPage
             caseSensitiveNamesCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names_tip, false, 1);
             readExpensiveCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_show_row_count, CoreMessages.pref_page_database_general_checkbox_show_row_count_tip, false, 1);
             serverSideFiltersCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_server_side_object_filters, CoreMessages.pref_page_database_general_server_side_object_filters_tip, false, 1);
+            structureIndexCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_structure_index, CoreMessages.pref_page_database_general_structure_index_tip, false, 1);
+            persistentCacheCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_persistent_cache, CoreMessages.pref_page_database_general_persistent_cache_tip, false, 1);
         }
 
         return composite;
@@ -88,6 +94,8 @@ public class PrefPageMetaData extends TargetPrefPage
             separateMetaConnectionCheck.setSelection(store.getBoolean(ModelPreferences.META_SEPARATE_CONNECTION));
             caseSensitiveNamesCheck.setSelection(store.getBoolean(ModelPreferences.META_CASE_SENSITIVE));
             serverSideFiltersCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+            structureIndexCheck.setSelection(store.getBoolean(ModelPreferences.META_STRUCTURE_INDEX));
+            persistentCacheCheck.setSelection(store.getBoolean(ModelPreferences.META_PERSISTENT_CACHE));
 
         } catch (Exception e) {
             log.warn(e);
@@ -102,6 +110,8 @@ public class PrefPageMetaData extends TargetPrefPage
             store.setValue(ModelPreferences.META_SEPARATE_CONNECTION, separateMetaConnectionCheck.getSelection());
             store.setValue(ModelPreferences.META_CASE_SENSITIVE, caseSensitiveNamesCheck.getSelection());
             store.setValue(ModelPreferences.META_USE_SERVER_SIDE_FILTERS, serverSideFiltersCheck.getSelection());
+            store.setValue(ModelPreferences.META_STRUCTURE_INDEX, structureIndexCheck.getSelection());
+            store.setValue(ModelPreferences.META_PERSISTENT_CACHE, persistentCacheCheck.getSelection());
 
         } catch (Exception e) {
             log.warn(e);
@@ -116,6 +126,8 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_SEPARATE_CONNECTION);
         store.setToDefault(ModelPreferences.META_CASE_SENSITIVE);
         store.setToDefault(ModelPreferences.META_USE_SERVER_SIDE_FILTERS);
+        store.setToDefault(ModelPreferences.META_STRUCTURE_INDEX);
+        store.setToDefault(ModelPreferences.META_PERSISTENT_CACHE);
 
     }
 
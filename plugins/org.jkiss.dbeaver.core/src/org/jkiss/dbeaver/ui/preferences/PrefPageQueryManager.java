@@ -61,6 +61,9 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
     private Text textEntriesPerPage;
     private Button checkStoreLog;
     private Text textOutputFolder;
+    private Combo comboLogFormat;
+    private Text textLogMaxFileSize;
+    private Button checkLogCompress;
 
 
     @Override
@@ -107,10 +110,15 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
                 @Override
                 public void widgetSelected(SelectionEvent e)
                 {
-                    UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
+                    enableLogFileControls();
                 }
             });
             textOutputFolder = DialogUtils.createOutputFolderChooser(storageSettings, CoreMessages.pref_page_query_manager_logs_folder, null);
+            comboLogFormat = UIUtils.createLabelCombo(storageSettings, CoreMessages.pref_page_query_manager_label_log_format, SWT.DROP_DOWN | SWT.READ_ONLY);
+            comboLogFormat.add(CoreMessages.pref_page_query_manager_log_format_text);
+            comboLogFormat.add(CoreMessages.pref_page_query_manager_log_format_json);
+            textLogMaxFileSize = UIUtils.createLabelText(storageSettings, CoreMessages.pref_page_query_manager_label_log_max_file_size, "", SWT.BORDER, new GridData(50, SWT.DEFAULT)); //$NON-NLS-2$
+            checkLogCompress = UIUtils.createCheckbox(storageSettings, CoreMessages.pref_page_query_manager_checkbox_log_compress, null, false, 2);
             textHistoryDays = UIUtils.createLabelText(storageSettings, CoreMessages.pref_page_query_manager_label_days_to_store_log, "", SWT.BORDER, new GridData(50, SWT.DEFAULT)); //$NON-NLS-2$
             textHistoryDays.setEnabled(false);
 
@@ -145,7 +153,10 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
 
         checkStoreLog.setSelection(store.getBoolean(QMConstants.PROP_STORE_LOG_FILE));
         textOutputFolder.setText(store.getString(QMConstants.PROP_LOG_DIRECTORY));
-        UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
+        comboLogFormat.select(QMConstants.LOG_FORMAT_JSON.equals(store.getString(QMConstants.PROP_LOG_FORMAT)) ? 1 : 0);
+        textLogMaxFileSize.setText(store.getString(QMConstants.PROP_LOG_MAX_FILE_SIZE));
+        checkLogCompress.setSelection(store.getBoolean(QMConstants.PROP_LOG_COMPRESS));
+        enableLogFileControls();
 
         super.performDefaults();
     }
@@ -168,6 +179,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
 
         Integer historyDays = UIUtils.getTextInteger(textHistoryDays);
         Integer entriesPerPage = UIUtils.getTextInteger(textEntriesPerPage);
+        Integer logMaxFileSize = UIUtils.getTextInteger(textLogMaxFileSize);
 
         DBPPreferenceStore store = DBWorkbench.getPlatform().getPreferenceStore();
         store.setValue(QMConstants.PROP_OBJECT_TYPES, QMObjectType.toString(objectTypes));
@@ -180,11 +192,25 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
         }
         store.setValue(QMConstants.PROP_STORE_LOG_FILE, checkStoreLog.getSelection());
         store.setValue(QMConstants.PROP_LOG_DIRECTORY, textOutputFolder.getText());
+        store.setValue(QMConstants.PROP_LOG_FORMAT, comboLogFormat.getSelectionIndex() == 1 ? QMConstants.LOG_FORMAT_JSON : QMConstants.LOG_FORMAT_TEXT);
+        if (logMaxFileSize != null && logMaxFileSize > 0) {
+            store.setValue(QMConstants.PROP_LOG_MAX_FILE_SIZE, logMaxFileSize);
+        }
+        store.setValue(QMConstants.PROP_LOG_COMPRESS, checkLogCompress.getSelection());
         PrefUtils.savePreferenceStore(store);
 
         return super.performOk();
     }
 
+    private void enableLogFileControls()
+    {
+        boolean enabled = checkStoreLog.getSelection();
+        UIUtils.enableWithChildren(textOutputFolder.getParent(), enabled);
+        comboLogFormat.setEnabled(enabled);
+        textLogMaxFileSize.setEnabled(enabled);
+        checkLogCompress.setEnabled(enabled);
+    }
+
     @Override
     public IAdaptable getElement()
     {
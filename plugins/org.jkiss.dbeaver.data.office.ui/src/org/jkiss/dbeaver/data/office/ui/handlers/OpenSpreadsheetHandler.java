@@ -123,6 +123,9 @@ public class OpenSpreadsheetHandler extends AbstractHandler
                     producer.transferData(monitor, consumer, null, producerSettings, null);
 
                     consumer.finishTransfer(monitor, false);
+                    if (consumer.getFinishError() != null) {
+                        throw consumer.getFinishError();
+                    }
 
                     UIUtils.asyncExec(() -> {
                         if (!UIUtils.launchProgram(tempFile.getAbsolutePath())) {
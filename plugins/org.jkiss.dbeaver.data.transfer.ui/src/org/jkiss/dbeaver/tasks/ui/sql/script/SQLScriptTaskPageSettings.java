@@ -59,6 +59,9 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
     private Button ignoreErrorsCheck;
     private Button dumpQueryCheck;
     private Button autoCommitCheck;
+    private Button streamScriptCheck;
+    private Spinner batchSizeSpinner;
+    private Spinner commitLinesSpinner;
     private TableViewer scriptsViewer;
     private TableViewer dataSourceViewer;
 
@@ -287,6 +290,18 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
             dumpQueryCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_dump_results, "", dtSettings.isDumpQueryResultsToLog(), 1);
             dumpQueryCheck.setEnabled(false);
             autoCommitCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_auto_commit, "", dtSettings.isAutoCommit(), 1);
+            autoCommitCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    commitLinesSpinner.setEnabled(!autoCommitCheck.getSelection());
+                }
+            });
+            streamScriptCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_stream_script, DTMessages.sql_script_task_page_settings_option_stream_script_tip, dtSettings.isStreamScript(), 3);
+            batchSizeSpinner = UIUtils.createLabelSpinner(settingsGroup, DTMessages.sql_script_task_page_settings_option_batch_size, DTMessages.sql_script_task_page_settings_option_batch_size_tip, dtSettings.getBatchSize(), 0, 100000);
+            UIUtils.createPlaceholder(settingsGroup, 1);
+            commitLinesSpinner = UIUtils.createLabelSpinner(settingsGroup, DTMessages.sql_script_task_page_settings_option_commit_lines, DTMessages.sql_script_task_page_settings_option_commit_lines_tip, dtSettings.getCommitLines(), 0, Integer.MAX_VALUE);
+            commitLinesSpinner.setEnabled(!dtSettings.isAutoCommit());
+            UIUtils.createPlaceholder(settingsGroup, 1);
         }
 
         getWizard().createTaskSaveButtons(composite, true, 1);
@@ -423,6 +438,9 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
         settings.setIgnoreErrors(ignoreErrorsCheck.getSelection());
         settings.setDumpQueryResultsToLog(dumpQueryCheck.getSelection());
         settings.setAutoCommit(autoCommitCheck.getSelection());
+        settings.setStreamScript(streamScriptCheck.getSelection());
+        settings.setBatchSize(batchSizeSpinner.getSelection());
+        settings.setCommitLines(commitLinesSpinner.getSelection());
     }
 
 }
\ No newline at end of file
@@ -170,6 +170,30 @@ public class DatabaseConsumerPageLoadSettings extends ActiveWizardPage<DataTrans
                     settings.setDisableUsingBatches(useBatchCheck.getSelection());
                 }
             });
+
+            final Button useBulkLoadCheck = UIUtils.createCheckbox(performanceSettings, DTUIMessages.database_consumer_wizard_use_bulk_load_label, DTUIMessages.database_consumer_wizard_use_bulk_load_description, settings.isUseBulkLoad(), 4);
+            useBulkLoadCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseBulkLoad(useBulkLoadCheck.getSelection());
+                }
+            });
+
+            final Button useMultiRowInsertCheck = UIUtils.createCheckbox(performanceSettings, DTUIMessages.database_consumer_wizard_use_multi_row_insert_label, DTUIMessages.database_consumer_wizard_use_multi_row_insert_description, settings.isUseMultiRowInsert(), 4);
+            useMultiRowInsertCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseMultiRowInsert(useMultiRowInsertCheck.getSelection());
+                }
+            });
+
+            final Button adaptiveBatchSizeCheck = UIUtils.createCheckbox(performanceSettings, DTUIMessages.database_consumer_wizard_adaptive_batch_size_label, DTUIMessages.database_consumer_wizard_adaptive_batch_size_description, settings.isAdaptiveBatchSize(), 4);
+            adaptiveBatchSizeCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setAdaptiveBatchSize(adaptiveBatchSizeCheck.getSelection());
+                }
+            });
         }
 
         {
@@ -36,6 +36,7 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
 
     private static final int EXTRACT_TYPE_SINGLE_QUERY = 0;
     private static final int EXTRACT_TYPE_SEGMENTS = 1;
+    private static final int EXTRACT_TYPE_SEGMENTS_BY_KEY = 2;
 
     private Text threadsNumText;
     private Combo rowsExtractType;
@@ -46,6 +47,7 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
     private Text fetchSizeText;
+    private Text parallelRangesText;
 
     public DatabaseProducerPageExtractSettings() {
         super(DTUIMessages.database_producer_page_extract_settings_name_and_title);
@@ -89,12 +91,14 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 rowsExtractType.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
                 rowsExtractType.setItems(
                     DTMessages.data_transfer_wizard_output_combo_extract_type_item_single_query,
-                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments);
+                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments,
+                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_key_segments);
                 rowsExtractType.addSelectionListener(new SelectionAdapter() {
                     @Override
                     public void widgetSelected(SelectionEvent e) {
                         switch (rowsExtractType.getSelectionIndex()) {
                             case EXTRACT_TYPE_SEGMENTS: settings.setExtractType(DatabaseProducerSettings.ExtractType.SEGMENTS); break;
+                            case EXTRACT_TYPE_SEGMENTS_BY_KEY: settings.setExtractType(DatabaseProducerSettings.ExtractType.SEGMENTS_BY_KEY); break;
                             case EXTRACT_TYPE_SINGLE_QUERY: settings.setExtractType(DatabaseProducerSettings.ExtractType.SINGLE_QUERY); break;
                         }
                         updatePageCompletion();
@@ -137,6 +141,17 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 settings.setFetchSize(Integer.parseInt(fetchSizeText.getText()));
             });
 
+            parallelRangesText = UIUtils.createLabelText(generalSettings, DTMessages.data_transfer_wizard_output_label_parallel_ranges, "", SWT.BORDER);
+            parallelRangesText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_parallel_ranges_tooltip);
+            parallelRangesText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+            parallelRangesText.addModifyListener(e -> {
+                try {
+                    settings.setParallelRanges(Integer.parseInt(parallelRangesText.getText()));
+                } catch (NumberFormatException e1) {
+                    // just skip it
+                }
+            });
+
             IStructuredSelection curSelection = getWizard().getCurrentSelection();
             boolean hasSelection = curSelection != null && !curSelection.isEmpty() && curSelection.getFirstElement() instanceof DBDCellValue;
 
@@ -187,9 +202,11 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
             switch (settings.getExtractType()) {
                 case SINGLE_QUERY: rowsExtractType.select(EXTRACT_TYPE_SINGLE_QUERY); break;
                 case SEGMENTS: rowsExtractType.select(EXTRACT_TYPE_SEGMENTS); break;
+                case SEGMENTS_BY_KEY: rowsExtractType.select(EXTRACT_TYPE_SEGMENTS_BY_KEY); break;
             }
         }
         fetchSizeText.setText(String.valueOf(settings.getFetchSize()));
+        parallelRangesText.setText(String.valueOf(settings.getParallelRanges()));
         if (selectedColumnsOnlyCheckbox != null) {
             selectedColumnsOnlyCheckbox.setSelection(settings.isSelectedColumnsOnly());
         }
@@ -205,7 +222,7 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     {
         if (rowsExtractType != null) {
             int selectionIndex = rowsExtractType.getSelectionIndex();
-            if (selectionIndex == EXTRACT_TYPE_SEGMENTS) {
+            if (selectionIndex == EXTRACT_TYPE_SEGMENTS || selectionIndex == EXTRACT_TYPE_SEGMENTS_BY_KEY) {
                 segmentSizeLabel.setEnabled(true);
                 segmentSizeText.setEnabled(true);
             } else {
@@ -45,6 +45,7 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
     private Text directoryText;
     private Text fileNameText;
     private Button compressCheckbox;
+    private Button backgroundWriterCheckbox;
     private Button showFolderCheckbox;
     private Button execProcessCheckbox;
     private Text execProcessText;
@@ -165,6 +166,14 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
                 }
             });
 
+            backgroundWriterCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_background_writer, DTMessages.data_transfer_wizard_output_checkbox_background_writer_tip, false, 4);
+            backgroundWriterCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseBackgroundWriter(backgroundWriterCheckbox.getSelection());
+                }
+            });
+
             {
                 Composite outFilesSettings = UIUtils.createComposite(generalSettings, 3);
                 outFilesSettings.setLayoutData(new GridData(GridData.BEGINNING, GridData.BEGINNING, true, false, 5, 1));
@@ -257,6 +266,7 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setEnabled(!clipboard);
         fileNameText.setEnabled(!clipboard);
         compressCheckbox.setEnabled(!clipboard);
+        backgroundWriterCheckbox.setEnabled(!clipboard);
         splitFilesCheckbox.setEnabled(!clipboard);
         maximumFileSizeLabel.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
         maximumFileSizeText.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
@@ -280,6 +290,7 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setText(CommonUtils.toString(settings.getOutputFolder()));
         fileNameText.setText(CommonUtils.toString(settings.getOutputFilePattern()));
         compressCheckbox.setSelection(settings.isCompressResults());
+        backgroundWriterCheckbox.setSelection(settings.isUseBackgroundWriter());
         splitFilesCheckbox.setSelection(settings.isSplitOutFiles());
         maximumFileSizeText.setText(String.valueOf(settings.getMaxOutFileSize()));
         encodingCombo.setText(CommonUtils.toString(settings.getOutputEncoding()));
@@ -50,6 +50,10 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
     private boolean ignoreErrors;
     private boolean dumpQueryResultsToLog;
 
+    private boolean streamScript;
+    private int batchSize;
+    private int commitLines;
+
     public List<String> getScriptFiles() {
         return scriptFiles;
     }
@@ -98,6 +102,33 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         this.transactionIsolation = transactionIsolation;
     }
 
+    /**
+     * Script is read and executed statement by statement without loading the whole file in memory
+     */
+    public boolean isStreamScript() {
+        return streamScript;
+    }
+
+    public void setStreamScript(boolean streamScript) {
+        this.streamScript = streamScript;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getCommitLines() {
+        return commitLines;
+    }
+
+    public void setCommitLines(int commitLines) {
+        this.commitLines = commitLines;
+    }
+
     public void loadConfiguration(DBRRunnableContext runnableContext, Map<String, Object> config) {
         // Legacy config support (single datasource
         String projectName = JSONUtils.getString(config, "project");
@@ -133,6 +164,10 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         dumpQueryResultsToLog = JSONUtils.getBoolean(config, "dumpQueryResultsToLog");
 
         autoCommit = JSONUtils.getBoolean(config, "autoCommit");
+
+        streamScript = JSONUtils.getBoolean(config, "streamScript");
+        batchSize = JSONUtils.getInteger(config, "batchSize");
+        commitLines = JSONUtils.getInteger(config, "commitLines");
     }
 
     public void saveConfiguration(Map<String, Object> config) {
@@ -150,6 +185,10 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         config.put("dumpQueryResultsToLog", dumpQueryResultsToLog);
 
         config.put("autoCommit", autoCommit);
+
+        config.put("streamScript", streamScript);
+        config.put("batchSize", batchSize);
+        config.put("commitLines", commitLines);
     }
 
     public static IFile getWorkspaceFile(String filePath) {
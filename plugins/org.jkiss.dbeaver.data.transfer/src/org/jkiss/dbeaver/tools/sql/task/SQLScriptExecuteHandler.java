@@ -17,6 +17,8 @@
 package org.jkiss.dbeaver.tools.sql.task;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
@@ -32,6 +34,7 @@ import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.SQLScriptErrorHandling;
 import org.jkiss.dbeaver.model.sql.exec.SQLScriptProcessor;
 import org.jkiss.dbeaver.model.sql.parser.SQLScriptParser;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptStreamParser;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.model.task.DBTTask;
@@ -43,6 +46,11 @@ import org.jkiss.utils.IOUtils;
 
 import java.io.*;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Locale;
 
@@ -98,37 +106,40 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
 
         for (String filePath : settings.getScriptFiles()) {
             IFile sqlFile = SQLScriptExecuteSettings.getWorkspaceFile(filePath);
-            try (InputStream sqlStream = sqlFile.getContents(true)) {
-                try (Reader fileReader = new InputStreamReader(sqlStream, sqlFile.getCharset())) {
-                    String sqlScriptContent = IOUtils.readToString(fileReader);
-                    try {
-                        for (DBPDataSourceContainer dataSourceContainer : dataSources) {
-                            if (!dataSourceContainer.isConnected()) {
-                                dataSourceContainer.connect(monitor, true, true);
-                            }
-                            DBPDataSource dataSource = dataSourceContainer.getDataSource();
-                            if (dataSource == null) {
-                                throw new DBException("Can't obtain data source connection");
-                            }
-                            DBCExecutionContext executionContext = dataSource.getDefaultInstance().getDefaultContext(monitor, false);
-
-                            log.debug("> Execute script [" + filePath + "] in [" + dataSourceContainer.getName() + "]");
-                            DBCExecutionContextDefaults contextDefaults = executionContext.getContextDefaults();
-                            if (contextDefaults != null) {
-                                DBSCatalog defaultCatalog = contextDefaults.getDefaultCatalog();
-                                if (defaultCatalog != null) {
-                                    log.debug("> Default catalog: " + defaultCatalog.getName());
-                                }
-                                DBSSchema defaultSchema = contextDefaults.getDefaultSchema();
-                                if (defaultSchema != null) {
-                                    log.debug("> Default schema: " + defaultSchema.getName());
-                                }
-                            }
+            try {
+                // Streamed script is read separately for each connection
+                String sqlScriptContent = settings.isStreamScript() ? null : readScriptContent(sqlFile);
+                for (DBPDataSourceContainer dataSourceContainer : dataSources) {
+                    if (!dataSourceContainer.isConnected()) {
+                        dataSourceContainer.connect(monitor, true, true);
+                    }
+                    DBPDataSource dataSource = dataSourceContainer.getDataSource();
+                    if (dataSource == null) {
+                        throw new DBException("Can't obtain data source connection");
+                    }
+                    DBCExecutionContext executionContext = dataSource.getDefaultInstance().getDefaultContext(monitor, false);
+
+                    log.debug("> Execute script [" + filePath + "] in [" + dataSourceContainer.getName() + "]");
+                    DBCExecutionContextDefaults contextDefaults = executionContext.getContextDefaults();
+                    if (contextDefaults != null) {
+                        DBSCatalog defaultCatalog = contextDefaults.getDefaultCatalog();
+                        if (defaultCatalog != null) {
+                            log.debug("> Default catalog: " + defaultCatalog.getName());
+                        }
+                        DBSSchema defaultSchema = contextDefaults.getDefaultSchema();
+                        if (defaultSchema != null) {
+                            log.debug("> Default schema: " + defaultSchema.getName());
+                        }
+                    }
 
-                            processScript(monitor, task, settings, executionContext, filePath, sqlScriptContent, log, logStream);
+                    if (sqlScriptContent == null) {
+                        try (ReadableByteChannel channel = openScriptChannel(sqlFile)) {
+                            try (SQLScriptStreamParser scriptParser = new SQLScriptStreamParser(executionContext, channel, Charset.forName(sqlFile.getCharset()))) {
+                                processScriptStream(monitor, task, settings, executionContext, scriptParser, log, logStream);
+                            }
                         }
-                    } catch (Exception e) {
-                        throw new InvocationTargetException(e);
+                    } else {
+                        processScript(monitor, task, settings, executionContext, filePath, sqlScriptContent, log, logStream);
                     }
                 }
             } catch (Throwable e) {
@@ -138,6 +149,22 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
         }
     }
 
+    private String readScriptContent(IFile sqlFile) throws CoreException, IOException {
+        try (InputStream sqlStream = sqlFile.getContents(true)) {
+            try (Reader fileReader = new InputStreamReader(sqlStream, sqlFile.getCharset())) {
+                return IOUtils.readToString(fileReader);
+            }
+        }
+    }
+
+    private ReadableByteChannel openScriptChannel(IFile sqlFile) throws CoreException, IOException {
+        IPath location = sqlFile.getLocation();
+        if (location != null) {
+            return FileChannel.open(location.toFile().toPath(), StandardOpenOption.READ);
+        }
+        return Channels.newChannel(sqlFile.getContents(true));
+    }
+
     private void processScript(DBRProgressMonitor monitor, DBTTask task, SQLScriptExecuteSettings settings, DBCExecutionContext executionContext, String filePath, String sqlScriptContent, Log log, PrintStream logStream) throws DBException {
         PrintWriter logWriter = new PrintWriter(logStream, true);
         List<SQLScriptElement> scriptElements = SQLScriptParser.parseScript(executionContext, sqlScriptContent);
@@ -146,7 +173,29 @@ public class SQLScriptExecuteHandler implements DBTTaskHandler {
         SQLScriptDataReceiver dataReceiver = new SQLScriptDataReceiver();
         SQLScriptProcessor scriptProcessor = new SQLScriptProcessor(executionContext, scriptElements, scriptContext, dataReceiver, log);
 
-        scriptProcessor.setCommitType(settings.isAutoCommit() ? SQLScriptCommitType.AUTOCOMMIT : SQLScriptCommitType.AT_END);
+        runScriptProcessor(monitor, settings, scriptProcessor, dataReceiver, logWriter);
+    }
+
+    private void processScriptStream(DBRProgressMonitor monitor, DBTTask task, SQLScriptExecuteSettings settings, DBCExecutionContext executionContext, SQLScriptStreamParser scriptParser, Log log, PrintStream logStream) throws DBException {
+        PrintWriter logWriter = new PrintWriter(logStream, true);
+        SQLScriptContext scriptContext = new SQLScriptContext(null, () -> executionContext, null, logWriter, null);
+        scriptContext.setVariables(DBTaskUtils.getVariables(task));
+        SQLScriptDataReceiver dataReceiver = new SQLScriptDataReceiver();
+        SQLScriptProcessor scriptProcessor = new SQLScriptProcessor(executionContext, scriptParser, scriptContext, dataReceiver, log);
+
+        runScriptProcessor(monitor, settings, scriptProcessor, dataReceiver, logWriter);
+    }
+
+    private void runScriptProcessor(DBRProgressMonitor monitor, SQLScriptExecuteSettings settings, SQLScriptProcessor scriptProcessor, SQLScriptDataReceiver dataReceiver, PrintWriter logWriter) throws DBException {
+        if (settings.isAutoCommit()) {
+            scriptProcessor.setCommitType(SQLScriptCommitType.AUTOCOMMIT);
+        } else if (settings.getCommitLines() > 0) {
+            scriptProcessor.setCommitType(SQLScriptCommitType.NLINES);
+            scriptProcessor.setCommitLines(settings.getCommitLines());
+        } else {
+            scriptProcessor.setCommitType(SQLScriptCommitType.AT_END);
+        }
+        scriptProcessor.setBatchSize(settings.getBatchSize());
         scriptProcessor.setErrorHandling(settings.isIgnoreErrors() ? SQLScriptErrorHandling.IGNORE : SQLScriptErrorHandling.STOP_ROLLBACK);
         if (settings.isDumpQueryResultsToLog()) {
             dataReceiver.setDumpWriter(logWriter);
@@ -17,12 +17,15 @@
 package org.jkiss.dbeaver.tools.transfer;
 
 import org.eclipse.osgi.util.NLS;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTTaskExecutionListener;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
@@ -41,14 +44,25 @@ public class DataTransferJob implements DBRRunnableWithProgress {
     private Locale locale;
     private Log log;
     private DBTTaskExecutionListener listener;
+    @Nullable
+    private DataTransferScheduler scheduler;
 
     public DataTransferJob(DataTransferSettings settings, DBTTask task, Locale locale, Log log, DBTTaskExecutionListener listener)
+    {
+        this(settings, task, locale, log, listener, null);
+    }
+
+    /**
+     * Creates job which takes pipes from the scheduler queue instead of settings
+     */
+    public DataTransferJob(DataTransferSettings settings, DBTTask task, Locale locale, Log log, DBTTaskExecutionListener listener, @Nullable DataTransferScheduler scheduler)
     {
         this.settings = settings;
         this.task = task;
         this.locale = locale;
         this.log = log;
         this.listener = listener;
+        this.scheduler = scheduler;
     }
 
     public DataTransferSettings getSettings() {
@@ -72,7 +86,7 @@ public class DataTransferJob implements DBRRunnableWithProgress {
             if (monitor.isCanceled()) {
                 break;
             }
-            DataTransferPipe transferPipe = settings.acquireDataPipe(monitor);
+            DataTransferPipe transferPipe = scheduler != null ? scheduler.acquireDataPipe() : settings.acquireDataPipe(monitor);
             if (transferPipe == null) {
                 break;
             }
@@ -81,12 +95,16 @@ public class DataTransferJob implements DBRRunnableWithProgress {
                     hasErrors = true;
                 }
             } catch (Exception e) {
-                listener.subTaskFinished(e);
+                if (scheduler != null) {
+                    scheduler.releaseDataPipe(transferPipe, e);
+                }
                 throw new InvocationTargetException(e);
             }
+            if (scheduler != null) {
+                scheduler.releaseDataPipe(transferPipe, null);
+            }
         }
         monitor.done();
-        listener.subTaskFinished(null);
         elapsedTime = System.currentTimeMillis() - startTime;
     }
 
@@ -105,6 +123,8 @@ public class DataTransferJob implements DBRRunnableWithProgress {
             //consumer.initTransfer(producer.getDatabaseObject(), consumerSettings, );
 
             IDataTransferProcessor processor = settings.getProcessor() == null ? null : settings.getProcessor().getInstance();
+            transferPipe.startTransfer();
+            Throwable transferError = null;
             try {
                 producer.transferData(
                     monitor,
@@ -112,9 +132,24 @@ public class DataTransferJob implements DBRRunnableWithProgress {
                     processor,
                     nodeSettings,
                     task);
+            } catch (Throwable e) {
+                transferError = e;
+                throw e;
             } finally {
+                transferPipe.endTransfer();
                 consumer.finishTransfer(monitor, false);
+                DBException finishError = consumer.getFinishError();
+                if (finishError != null) {
+                    if (transferError != null) {
+                        transferError.addSuppressed(finishError);
+                    } else {
+                        throw finishError;
+                    }
+                }
             }
+            log.info("Transferred " + transferPipe.getRowsTransferred() + " row(s) from " + producer.getObjectName() +
+                " to " + consumer.getObjectName() + " in " + RuntimeUtils.formatExecutionTime(transferPipe.getTransferTime()) +
+                " (" + (long) transferPipe.getRowsPerSecond() + " rows/sec)");
             return true;
         } catch (Exception e) {
             log.error("Error transfering data from " + producer.getObjectName() + " to " + consumer.getObjectName(), e);
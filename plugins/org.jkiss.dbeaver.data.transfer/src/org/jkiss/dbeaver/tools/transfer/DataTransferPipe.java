@@ -29,6 +29,12 @@ public class DataTransferPipe {
     private IDataTransferProducer producer;
     private IDataTransferConsumer consumer;
 
+    // Transfer statistics
+    private long estimatedSize = -1;
+    private volatile long startTime;
+    private volatile long endTime;
+    private volatile long rowsTransferred;
+
     public DataTransferPipe(IDataTransferProducer producer, IDataTransferConsumer consumer)
     {
         this.producer = producer;
@@ -55,6 +61,48 @@ public class DataTransferPipe {
         this.consumer = consumer;
     }
 
+    /**
+     * Estimated size of the source object (in bytes) or -1 if unknown.
+     * Used to schedule the largest pipes first.
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    public void setEstimatedSize(long estimatedSize) {
+        this.estimatedSize = estimatedSize;
+    }
+
+    public long getRowsTransferred() {
+        return rowsTransferred;
+    }
+
+    /**
+     * Transfer time in milliseconds. For running transfer returns time elapsed since its start.
+     */
+    public long getTransferTime() {
+        if (startTime == 0) {
+            return 0;
+        }
+        return (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+    }
+
+    public double getRowsPerSecond() {
+        long transferTime = getTransferTime();
+        return transferTime <= 0 ? 0 : rowsTransferred * 1000.0 / transferTime;
+    }
+
+    void startTransfer() {
+        this.startTime = System.currentTimeMillis();
+        this.endTime = 0;
+        this.rowsTransferred = 0;
+    }
+
+    void endTransfer() {
+        this.endTime = System.currentTimeMillis();
+        this.rowsTransferred = consumer == null ? 0 : consumer.getTransferredRowCount();
+    }
+
     public void initPipe(DataTransferSettings settings, int pipeIndex, int totalPipes) throws DBException {
         if (consumer == null || producer == null) {
             throw new DBException("Empty pipe");
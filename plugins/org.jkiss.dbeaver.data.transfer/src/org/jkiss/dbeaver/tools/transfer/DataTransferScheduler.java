@@ -0,0 +1,329 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPObjectStatistics;
+import org.jkiss.dbeaver.model.DBPObjectStatisticsCollector;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAssociation;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.task.DBTTask;
+import org.jkiss.dbeaver.model.task.DBTTaskExecutionListener;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseConsumerSettings;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel data transfer scheduler.
+ * Runs a fixed number of workers. Each worker takes the next pipe from the shared queue as soon as it is done
+ * with the previous one, so small tables do not wait for big ones. The biggest pipes (by estimated size) go first.
+ * Each worker transfers one pipe at a time, so the number of workers is the number of producer/consumer
+ * connection pairs used at once.
+ * Database pipes which reference each other (foreign keys) are started only after the pipes they depend on,
+ * unless referential integrity is disabled for the transfer.
+ * See {@link #isParallelTransferSupported(DataTransferSettings)}.
+ */
+public class DataTransferScheduler implements DBRRunnableWithProgress {
+
+    private static final long WORKERS_CHECK_PERIOD = 200;
+
+    private final DataTransferSettings settings;
+    private final DBTTask task;
+    private final Locale locale;
+    private final Log log;
+    private final DBTTaskExecutionListener listener;
+    private final int workerCount;
+
+    private final Deque<DataTransferPipe> pipeQueue = new ArrayDeque<>();
+    private final List<Throwable> errors = new ArrayList<>();
+    private final Map<DataTransferPipe, Set<DataTransferPipe>> pipeDependencies = new IdentityHashMap<>();
+    private final Set<DataTransferPipe> finishedPipes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int activePipes;
+    private long elapsedTime;
+
+    public DataTransferScheduler(DataTransferSettings settings, DBTTask task, Locale locale, Log log, DBTTaskExecutionListener listener, int workerCount) {
+        this.settings = settings;
+        this.task = task;
+        this.locale = locale;
+        this.log = log;
+        this.listener = listener;
+        this.workerCount = workerCount;
+    }
+
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Pipes may be transferred in parallel and reordered only if they write to separate files.
+     * Single output file (and clipboard) must be written in the pipes order.
+     * Database targets are loaded in parallel if each consumer opens its own connection,
+     * foreign key order is kept by the scheduler.
+     */
+    public static boolean isParallelTransferSupported(@NotNull DataTransferSettings settings) {
+        IDataTransferSettings consumerSettings = settings.getConsumer() == null ? null : settings.getNodeSettings(settings.getConsumer());
+        if (consumerSettings instanceof StreamConsumerSettings) {
+            StreamConsumerSettings streamSettings = (StreamConsumerSettings) consumerSettings;
+            return !streamSettings.isUseSingleFile() && !streamSettings.isOutputClipboard();
+        }
+        if (consumerSettings instanceof DatabaseConsumerSettings) {
+            // Without own connections all consumers write to the same default context
+            return ((DatabaseConsumerSettings) consumerSettings).isOpenNewConnections();
+        }
+        return false;
+    }
+
+    /**
+     * Returns next pipe from the queue or null if all pipes were acquired or transfer was aborted because of error.
+     * Waits while all queued pipes depend on pipes which are still in progress.
+     */
+    @Nullable
+    public synchronized DataTransferPipe acquireDataPipe() throws InterruptedException {
+        for (;;) {
+            if (!errors.isEmpty() || pipeQueue.isEmpty()) {
+                return null;
+            }
+            DataTransferPipe nextPipe = null;
+            for (DataTransferPipe pipe : pipeQueue) {
+                Set<DataTransferPipe> dependencies = pipeDependencies.get(pipe);
+                if (dependencies == null || finishedPipes.containsAll(dependencies)) {
+                    nextPipe = pipe;
+                    break;
+                }
+            }
+            if (nextPipe == null && activePipes == 0) {
+                // Circular references. Nothing else can finish, so take pipes in their order
+                nextPipe = pipeQueue.peekFirst();
+            }
+            if (nextPipe != null) {
+                pipeQueue.remove(nextPipe);
+                activePipes++;
+                return nextPipe;
+            }
+            wait(WORKERS_CHECK_PERIOD);
+        }
+    }
+
+    /**
+     * Marks pipe as finished. Pipes which depend on it may be acquired after this.
+     */
+    public synchronized void releaseDataPipe(@NotNull DataTransferPipe pipe, @Nullable Throwable error) {
+        activePipes--;
+        if (error == null) {
+            finishedPipes.add(pipe);
+        } else if (!errors.contains(error)) {
+            // Register error before waiting workers wake up, so they will not take dependent pipes
+            errors.add(error);
+        }
+        notifyAll();
+    }
+
+    @Override
+    public void run(DBRProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        List<DataTransferPipe> dataPipes = settings.getDataPipes();
+
+        monitor.beginTask("Estimate transfer size", dataPipes.size());
+        List<DataTransferPipe> pipes = new ArrayList<>(dataPipes);
+        try {
+            estimatePipeSizes(monitor, pipes);
+        } finally {
+            monitor.done();
+        }
+        // Sort is stable so pipes with unknown size keep their original order
+        pipes.sort(Comparator.comparingLong(DataTransferPipe::getEstimatedSize).reversed());
+        Map<DataTransferPipe, Set<DataTransferPipe>> dependencies = collectPipeDependencies(monitor, pipes);
+        synchronized (this) {
+            pipeQueue.clear();
+            pipeQueue.addAll(pipes);
+            pipeDependencies.clear();
+            pipeDependencies.putAll(dependencies);
+            finishedPipes.clear();
+            activePipes = 0;
+            errors.clear();
+        }
+
+        int totalWorkers = Math.min(workerCount, pipes.size());
+        monitor.beginTask("Perform data transfer (" + totalWorkers + " threads)", pipes.size());
+        try {
+            CountDownLatch finishLatch = new CountDownLatch(totalWorkers);
+            List<TransferWorker> workers = new ArrayList<>(totalWorkers);
+            for (int i = 0; i < totalWorkers; i++) {
+                TransferWorker worker = new TransferWorker(i + 1, finishLatch);
+                workers.add(worker);
+                worker.schedule();
+            }
+            boolean canceled = false;
+            while (!finishLatch.await(WORKERS_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
+                if (!canceled && monitor.isCanceled()) {
+                    canceled = true;
+                    synchronized (this) {
+                        pipeQueue.clear();
+                        notifyAll();
+                    }
+                    for (TransferWorker worker : workers) {
+                        worker.cancel();
+                    }
+                }
+                synchronized (this) {
+                    monitor.subTask(pipeQueue.size() + " of " + pipes.size() + " pipe(s) are waiting for transfer");
+                }
+            }
+        } finally {
+            monitor.done();
+        }
+
+        if (!dataPipes.isEmpty()) {
+            // Signal last pipe only when all workers are finished
+            dataPipes.get(dataPipes.size() - 1).getConsumer().finishTransfer(monitor, true);
+        }
+        elapsedTime = System.currentTimeMillis() - startTime;
+
+        synchronized (this) {
+            if (!errors.isEmpty()) {
+                throw new InvocationTargetException(errors.get(0));
+            }
+        }
+    }
+
+    private void estimatePipeSizes(@NotNull DBRProgressMonitor monitor, @NotNull List<DataTransferPipe> pipes) {
+        Set<DBPObjectStatisticsCollector> readCollectors = new HashSet<>();
+        for (DataTransferPipe pipe : pipes) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            IDataTransferProducer<?> producer = pipe.getProducer();
+            DBSObject object = producer == null ? null : producer.getDatabaseObject();
+            if (object instanceof DBPObjectStatistics) {
+                DBSObject parent = object.getParentObject();
+                if (parent instanceof DBPObjectStatisticsCollector && readCollectors.add((DBPObjectStatisticsCollector) parent)) {
+                    try {
+                        ((DBPObjectStatisticsCollector) parent).collectObjectStatistics(monitor, false, false);
+                    } catch (DBException e) {
+                        log.debug("Error reading statistics of '" + parent.getName() + "'", e);
+                    }
+                }
+                if (((DBPObjectStatistics) object).hasStatistics()) {
+                    pipe.setEstimatedSize(((DBPObjectStatistics) object).getStatObjectSize());
+                }
+            }
+            monitor.worked(1);
+        }
+    }
+
+    /**
+     * Finds pipes which read tables referenced by other pipes tables. Referenced tables must be loaded first.
+     * Nothing to wait for if target is not a database or referential integrity is disabled during the transfer.
+     */
+    @NotNull
+    private Map<DataTransferPipe, Set<DataTransferPipe>> collectPipeDependencies(@NotNull DBRProgressMonitor monitor, @NotNull List<DataTransferPipe> pipes) {
+        Map<DataTransferPipe, Set<DataTransferPipe>> result = new IdentityHashMap<>();
+        IDataTransferSettings consumerSettings = settings.getConsumer() == null ? null : settings.getNodeSettings(settings.getConsumer());
+        if (!(consumerSettings instanceof DatabaseConsumerSettings) || ((DatabaseConsumerSettings) consumerSettings).isDisableReferentialIntegrity()) {
+            return result;
+        }
+        Map<DBSObject, DataTransferPipe> sourcePipes = new IdentityHashMap<>();
+        for (DataTransferPipe pipe : pipes) {
+            DBSObject object = pipe.getProducer() == null ? null : pipe.getProducer().getDatabaseObject();
+            if (object != null) {
+                sourcePipes.put(object, pipe);
+            }
+        }
+        monitor.beginTask("Read foreign keys", pipes.size());
+        try {
+            for (Map.Entry<DBSObject, DataTransferPipe> entry : sourcePipes.entrySet()) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                if (entry.getKey() instanceof DBSEntity) {
+                    try {
+                        Collection<? extends DBSEntityAssociation> associations = ((DBSEntity) entry.getKey()).getAssociations(monitor);
+                        if (associations != null) {
+                            for (DBSEntityAssociation association : associations) {
+                                DataTransferPipe referencedPipe = sourcePipes.get(association.getAssociatedEntity());
+                                if (referencedPipe != null && referencedPipe != entry.getValue()) {
+                                    result.computeIfAbsent(entry.getValue(), p -> Collections.newSetFromMap(new IdentityHashMap<>())).add(referencedPipe);
+                                }
+                            }
+                        }
+                    } catch (DBException e) {
+                        log.debug("Error reading foreign keys of '" + entry.getKey().getName() + "'", e);
+                    }
+                }
+                monitor.worked(1);
+            }
+        } finally {
+            monitor.done();
+        }
+        return result;
+    }
+
+    private synchronized void addError(Throwable error) {
+        if (!errors.contains(error)) {
+            errors.add(error);
+        }
+    }
+
+    private class TransferWorker extends AbstractJob {
+
+        TransferWorker(int workerNumber, CountDownLatch finishLatch) {
+            super("Data transfer worker #" + workerNumber);
+            setUser(false);
+            // Job may be canceled before it starts, so count it down on job finish rather than in run()
+            addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent event) {
+                    finishLatch.countDown();
+                }
+            });
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                DataTransferJob job = new DataTransferJob(settings, task, locale, log, listener, DataTransferScheduler.this);
+                job.run(monitor);
+                return Status.OK_STATUS;
+            } catch (InvocationTargetException e) {
+                addError(e.getTargetException());
+                return GeneralUtils.makeExceptionStatus(e.getTargetException());
+            } catch (InterruptedException e) {
+                return Status.CANCEL_STATUS;
+            } catch (Throwable e) {
+                addError(e);
+                return GeneralUtils.makeExceptionStatus(e);
+            }
+        }
+    }
+
+}
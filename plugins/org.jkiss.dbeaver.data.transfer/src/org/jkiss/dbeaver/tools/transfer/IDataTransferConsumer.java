@@ -58,6 +58,20 @@ public interface IDataTransferConsumer<SETTINGS extends IDataTransferSettings, P
      */
     void finishTransfer(DBRProgressMonitor monitor, boolean last);
 
+    /**
+     * Error of the last {@link #finishTransfer(DBRProgressMonitor, boolean)} call (e.g. output flush error).
+     * Transfer must be reported as failed if it is not null.
+     */
+    @Nullable
+    default DBException getFinishError() {
+        return null;
+    }
+
+    /**
+     * Number of rows passed to the target by this consumer
+     */
+    long getTransferredRowCount();
+
     // Target object. May be null or target database object (table)
     @Nullable
     Object getTargetObject();
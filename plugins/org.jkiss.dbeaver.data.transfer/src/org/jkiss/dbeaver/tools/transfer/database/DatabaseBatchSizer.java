@@ -0,0 +1,87 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+/**
+ * Adjusts number of rows per INSERT statement and commit interval at runtime.
+ * Sizes grow while blocks are executed fast (round trips dominate) and shrink on slow blocks or errors.
+ */
+public class DatabaseBatchSizer {
+
+    public static final int DEFAULT_ROWS_PER_STATEMENT = 100;
+    public static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    // Desired execution time of a single commit block
+    private static final long TARGET_BLOCK_TIME = 2000;
+    private static final int COMMIT_INTERVAL_SCALE = 8;
+
+    private final boolean adaptive;
+    private final int minCommitInterval;
+    private final int maxCommitInterval;
+    private int rowsPerStatement;
+    private int commitInterval;
+
+    public DatabaseBatchSizer(int commitAfterRows, int rowsPerStatement, boolean adaptive) {
+        this.adaptive = adaptive;
+        this.commitInterval = Math.max(commitAfterRows, 1);
+        this.minCommitInterval = Math.max(commitInterval / COMMIT_INTERVAL_SCALE, 1);
+        this.maxCommitInterval = commitInterval > Integer.MAX_VALUE / COMMIT_INTERVAL_SCALE ? Integer.MAX_VALUE : commitInterval * COMMIT_INTERVAL_SCALE;
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    public int getRowsPerStatement() {
+        return rowsPerStatement;
+    }
+
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    /**
+     * Block of rows was executed successfully
+     * @param rowCount      number of rows in block
+     * @param executeTime   block execution time in ms
+     */
+    public void onBlockExecuted(long rowCount, long executeTime) {
+        if (!adaptive || rowCount < commitInterval) {
+            // Do not adapt on the last (partial) block
+            return;
+        }
+        if (executeTime < TARGET_BLOCK_TIME / 4) {
+            commitInterval = (int) Math.min((long) commitInterval * 2, maxCommitInterval);
+            if (rowsPerStatement > 1) {
+                rowsPerStatement = Math.min(rowsPerStatement * 2, MAX_ROWS_PER_STATEMENT);
+            }
+        } else if (executeTime > TARGET_BLOCK_TIME * 2) {
+            commitInterval = Math.max(commitInterval / 2, minCommitInterval);
+        }
+    }
+
+    /**
+     * Block execution failed. Smaller statements reduce the amount of rows affected by the next retry.
+     */
+    public void onBlockFailed() {
+        if (!adaptive) {
+            return;
+        }
+        if (rowsPerStatement > 1) {
+            rowsPerStatement = Math.max(rowsPerStatement / 2, 2);
+        }
+        commitInterval = Math.max(commitInterval / 2, minCommitInterval);
+    }
+
+}
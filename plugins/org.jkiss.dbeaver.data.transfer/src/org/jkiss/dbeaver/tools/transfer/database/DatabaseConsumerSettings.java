@@ -58,6 +58,9 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
     private boolean truncateBeforeLoad = false;
     private boolean openTableOnFinish = true;
     private boolean disableUsingBatches = false;
+    private boolean useBulkLoad = false;
+    private boolean useMultiRowInsert = false;
+    private boolean adaptiveBatchSize = false;
     private String onDuplicateKeyInsertMethodId;
     private boolean disableReferentialIntegrity;
 
@@ -153,6 +156,30 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         this.disableUsingBatches = disableUsingBatches;
     }
 
+    public boolean isUseBulkLoad() {
+        return useBulkLoad;
+    }
+
+    public void setUseBulkLoad(boolean useBulkLoad) {
+        this.useBulkLoad = useBulkLoad;
+    }
+
+    public boolean isUseMultiRowInsert() {
+        return useMultiRowInsert;
+    }
+
+    public void setUseMultiRowInsert(boolean useMultiRowInsert) {
+        this.useMultiRowInsert = useMultiRowInsert;
+    }
+
+    public boolean isAdaptiveBatchSize() {
+        return adaptiveBatchSize;
+    }
+
+    public void setAdaptiveBatchSize(boolean adaptiveBatchSize) {
+        this.adaptiveBatchSize = adaptiveBatchSize;
+    }
+
     public String getOnDuplicateKeyInsertMethodId() {
         return onDuplicateKeyInsertMethodId;
     }
@@ -191,6 +218,9 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         onDuplicateKeyInsertMethodId = CommonUtils.toString(settings.get("onDuplicateKeyMethod"), onDuplicateKeyInsertMethodId);
         commitAfterRows = CommonUtils.toInt(settings.get("commitAfterRows"), commitAfterRows);
         disableUsingBatches = CommonUtils.getBoolean(settings.get("disableUsingBatches"), disableUsingBatches);
+        useBulkLoad = CommonUtils.getBoolean(settings.get("useBulkLoad"), useBulkLoad);
+        useMultiRowInsert = CommonUtils.getBoolean(settings.get("useMultiRowInsert"), useMultiRowInsert);
+        adaptiveBatchSize = CommonUtils.getBoolean(settings.get("adaptiveBatchSize"), adaptiveBatchSize);
         transferAutoGeneratedColumns = CommonUtils.getBoolean(settings.get("transferAutoGeneratedColumns"), transferAutoGeneratedColumns);
         disableReferentialIntegrity = CommonUtils.getBoolean(settings.get("disableReferentialIntegrity"), disableReferentialIntegrity);
         truncateBeforeLoad = CommonUtils.getBoolean(settings.get("truncateBeforeLoad"), truncateBeforeLoad);
@@ -256,6 +286,9 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         settings.put("useTransactions", useTransactions);
         settings.put("commitAfterRows", commitAfterRows);
         settings.put("disableUsingBatches", disableUsingBatches);
+        settings.put("useBulkLoad", useBulkLoad);
+        settings.put("useMultiRowInsert", useMultiRowInsert);
+        settings.put("adaptiveBatchSize", adaptiveBatchSize);
         settings.put("onDuplicateKeyMethod", onDuplicateKeyInsertMethodId);
         settings.put("transferAutoGeneratedColumns", transferAutoGeneratedColumns);
         settings.put("disableReferentialIntegrity", disableReferentialIntegrity);
@@ -286,6 +319,9 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
             DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_commit_after, commitAfterRows);
         }
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_batches, disableUsingBatches);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_bulk_load, useBulkLoad);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_multi_row_insert, useMultiRowInsert);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_adaptive_batch_size, adaptiveBatchSize);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_on_duplicate_key_method_label, onDuplicateKeyInsertMethodId);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_transfer_auto_generated_columns, transferAutoGeneratedColumns);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_referential_integrity, disableReferentialIntegrity);
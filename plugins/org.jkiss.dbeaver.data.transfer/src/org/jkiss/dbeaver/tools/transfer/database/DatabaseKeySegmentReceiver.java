@@ -0,0 +1,184 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data receiver for keyset (seek) segmented reads.
+ * Remembers unique key of the last fetched row, so the next segment can be read with
+ * {@code WHERE key > last ORDER BY key} condition instead of OFFSET (which re-scans all skipped rows).
+ * Passes the number of already read rows as a fetch offset to the target receiver.
+ */
+class DatabaseKeySegmentReceiver implements DBDDataReceiver {
+
+    private static final Log log = Log.getLog(DatabaseKeySegmentReceiver.class);
+
+    private final DBDDataReceiver target;
+    private final List<? extends DBSEntityAttribute> keyAttributes;
+    private final int[] keyIndexes;
+    private final Object[] lastKeyValues;
+    private boolean hasLastKey;
+    private boolean keyResolved = true;
+    private long rowsRead;
+
+    DatabaseKeySegmentReceiver(@NotNull DBDDataReceiver target, @NotNull List<? extends DBSEntityAttribute> keyAttributes) {
+        this.target = target;
+        this.keyAttributes = keyAttributes;
+        this.keyIndexes = new int[keyAttributes.size()];
+        this.lastKeyValues = new Object[keyAttributes.size()];
+    }
+
+    /**
+     * Returns unique key attributes which can be used for keyset reads or empty list.
+     * Key columns must be not null and have numeric or string type (their values can be safely converted to literals).
+     */
+    @NotNull
+    static List<? extends DBSEntityAttribute> getSegmentKey(@NotNull DBRProgressMonitor monitor, @NotNull DBSDataContainer dataContainer, @Nullable DBDDataFilter dataFilter) {
+        if (!(dataContainer instanceof DBSEntity) || (dataContainer.getSupportedFeatures() & DBSDataContainer.DATA_FILTER) == 0) {
+            return Collections.emptyList();
+        }
+        if (dataFilter != null && (dataFilter.hasOrdering() || (dataFilter.isAnyConstraint() && dataFilter.hasConditions()))) {
+            // Custom ordering or OR conditions can't be combined with key condition
+            return Collections.emptyList();
+        }
+        try {
+            List<? extends DBSEntityAttribute> keyAttributes = DBUtils.getBestTableIdentifier(monitor, (DBSEntity) dataContainer);
+            for (DBSEntityAttribute attr : keyAttributes) {
+                if (!attr.isRequired() || (attr.getDataKind() != DBPDataKind.NUMERIC && attr.getDataKind() != DBPDataKind.STRING)) {
+                    return Collections.emptyList();
+                }
+            }
+            return keyAttributes;
+        } catch (DBException e) {
+            log.debug("Error reading unique key of '" + dataContainer.getName() + "'", e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * False if key columns were not found in the result set. In this case reader must fall back to offsets.
+     * Segments are still ordered by key so offsets remain consistent.
+     */
+    boolean isKeyResolved() {
+        return keyResolved;
+    }
+
+    long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Makes filter for the next segment: source filter plus key ordering and condition on the last read key
+     */
+    @NotNull
+    DBDDataFilter makeSegmentFilter(@NotNull DBPDataSource dataSource, @Nullable DBDDataFilter sourceFilter) {
+        DBDDataFilter filter = sourceFilter == null ? new DBDDataFilter() : new DBDDataFilter(sourceFilter);
+        List<String> keyNames = new ArrayList<>(keyAttributes.size());
+        for (DBSEntityAttribute attr : keyAttributes) {
+            keyNames.add(DBUtils.getQuotedIdentifier(attr));
+        }
+        filter.setOrder(String.join(",", keyNames));
+        if (hasLastKey && keyResolved) {
+            // (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...
+            StringBuilder condition = new StringBuilder();
+            for (int i = 0; i < keyAttributes.size(); i++) {
+                if (i > 0) condition.append(" OR ");
+                condition.append("(");
+                for (int k = 0; k < i; k++) {
+                    condition.append(keyNames.get(k)).append("=").append(getKeyValueLiteral(dataSource, k)).append(" AND ");
+                }
+                condition.append(keyNames.get(i)).append(">").append(getKeyValueLiteral(dataSource, i));
+                condition.append(")");
+            }
+            if (CommonUtils.isEmpty(filter.getWhere())) {
+                filter.setWhere(condition.toString());
+            } else {
+                filter.setWhere("(" + filter.getWhere() + ") AND (" + condition + ")");
+            }
+        }
+        return filter;
+    }
+
+    private String getKeyValueLiteral(DBPDataSource dataSource, int index) {
+        return SQLUtils.convertValueToSQL(dataSource, keyAttributes.get(index), lastKeyValues[index]);
+    }
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        List<DBCAttributeMetaData> attributes = resultSet.getMeta().getAttributes();
+        for (int i = 0; i < keyAttributes.size(); i++) {
+            keyIndexes[i] = -1;
+            String keyName = keyAttributes.get(i).getName();
+            for (int k = 0; k < attributes.size(); k++) {
+                if (keyName.equalsIgnoreCase(attributes.get(k).getName())) {
+                    keyIndexes[i] = k;
+                    break;
+                }
+            }
+            if (keyIndexes[i] < 0) {
+                log.debug("Key column '" + keyName + "' not found in result set. Use offsets for segmented read.");
+                keyResolved = false;
+            }
+        }
+        target.fetchStart(session, resultSet, rowsRead, maxRows);
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        target.fetchRow(session, resultSet);
+        rowsRead++;
+        if (keyResolved) {
+            for (int i = 0; i < keyIndexes.length; i++) {
+                lastKeyValues[i] = resultSet.getAttributeValue(keyIndexes[i]);
+            }
+            hasLastKey = true;
+        }
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        target.fetchEnd(session, resultSet);
+    }
+
+    @Override
+    public void close() {
+        target.close();
+    }
+}
@@ -32,7 +32,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
     public enum ExtractType {
         SINGLE_QUERY,
-        SEGMENTS
+        SEGMENTS,
+        // Segments are read by unique key ranges (keyset pagination). Falls back to SEGMENTS if there is no key.
+        SEGMENTS_BY_KEY
     }
 
     private static final int DEFAULT_SEGMENT_SIZE = 100000;
@@ -46,6 +48,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private boolean selectedColumnsOnly = false;
     private ExtractType extractType = ExtractType.SINGLE_QUERY;
     private int fetchSize = DEFAULT_FETCH_SIZE;
+    // Number of key ranges read in parallel for each table (1 means no split)
+    private int parallelRanges = 1;
 
     public DatabaseProducerSettings() {
     }
@@ -76,6 +80,16 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         this.fetchSize = fetchSize;
     }
 
+    public int getParallelRanges() {
+        return parallelRanges;
+    }
+
+    public void setParallelRanges(int parallelRanges) {
+        if (parallelRanges > 0) {
+            this.parallelRanges = parallelRanges;
+        }
+    }
+
     public boolean isSelectedRowsOnly() {
         return selectedRowsOnly;
     }
@@ -113,6 +127,7 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         extractType = CommonUtils.valueOf(ExtractType.class, (String) settings.get("extractType"), extractType);
         segmentSize = CommonUtils.toInt(settings.get("segmentSize"), DEFAULT_SEGMENT_SIZE);
         fetchSize = CommonUtils.toInt(settings.get("fetchSize"), fetchSize);
+        parallelRanges = Math.max(1, CommonUtils.toInt(settings.get("parallelRanges"), 1));
         openNewConnections = CommonUtils.toBoolean(settings.get("openNewConnections"));
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
         selectedColumnsOnly = CommonUtils.toBoolean(settings.get("selectedColumnsOnly"));
@@ -124,6 +139,7 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         settings.put("extractType", extractType.name());
         settings.put("segmentSize", segmentSize);
         settings.put("fetchSize", fetchSize);
+        settings.put("parallelRanges", parallelRanges);
         settings.put("openNewConnections", openNewConnections);
         settings.put("queryRowCount", queryRowCount);
         settings.put("selectedColumnsOnly", selectedColumnsOnly);
@@ -136,6 +152,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_new_connection, openNewConnections);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_extract_type, extractType.name());
+        if (parallelRanges > 1) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_parallel_ranges, parallelRanges);
+        }
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_select_row_count, queryRowCount);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_rows_only, selectedRowsOnly);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_columns_only, selectedColumnsOnly);
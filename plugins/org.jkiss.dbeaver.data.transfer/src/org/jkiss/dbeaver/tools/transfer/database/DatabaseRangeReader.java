@@ -0,0 +1,394 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads single table by several key ranges in parallel.
+ * Table is split by min/max values of its integer unique key. Each range is read in a separate execution context
+ * and all rows are passed to the same data receiver (calls to the receiver are serialized).
+ * Number of ranges which are read at the same time is limited for all readers (tables may be transferred in parallel).
+ */
+class DatabaseRangeReader {
+
+    private static final Log log = Log.getLog(DatabaseRangeReader.class);
+
+    private static final long RANGES_CHECK_PERIOD = 200;
+    private static final int MAX_RANGE_COUNT = 16;
+    private static final int MAX_CONCURRENT_RANGES = 16;
+
+    // Limits number of connections opened by all range readers
+    private static final Semaphore rangeConnections = new Semaphore(MAX_CONCURRENT_RANGES, true);
+
+    private final DBSDataContainer dataContainer;
+    private final DBDDataFilter dataFilter;
+    private final DBSEntityAttribute keyAttribute;
+    private final List<BigInteger> bounds;
+    private String defaultCatalog;
+    private String defaultSchema;
+
+    private DatabaseRangeReader(DBSDataContainer dataContainer, DBDDataFilter dataFilter, DBSEntityAttribute keyAttribute, List<BigInteger> bounds) {
+        this.dataContainer = dataContainer;
+        this.dataFilter = dataFilter;
+        this.keyAttribute = keyAttribute;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Creates range reader or returns null if data container can't be split into ranges.
+     */
+    @Nullable
+    static DatabaseRangeReader create(@NotNull DBCSession session, @NotNull DBSDataContainer dataContainer, @Nullable DBDDataFilter dataFilter, int rangeCount) throws DBCException {
+        if (rangeCount < 2) {
+            return null;
+        }
+        rangeCount = Math.min(rangeCount, MAX_RANGE_COUNT);
+        List<? extends DBSEntityAttribute> key = DatabaseKeySegmentReceiver.getSegmentKey(session.getProgressMonitor(), dataContainer, dataFilter);
+        if (key.size() != 1 || key.get(0).getDataKind() != DBPDataKind.NUMERIC) {
+            log.debug("Table '" + dataContainer.getName() + "' has no single column numeric key. It will be read in single range.");
+            return null;
+        }
+        DBSEntityAttribute keyAttribute = key.get(0);
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        StringBuilder query = new StringBuilder();
+        query.append("SELECT MIN(").append(keyName).append("),MAX(").append(keyName).append(") FROM ")
+            .append(DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML));
+        SQLUtils.appendQueryConditions(session.getDataSource(), query, null, dataFilter);
+
+        BigInteger minValue, maxValue;
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.toString(), false, false, false)) {
+            if (!dbStat.executeStatement()) {
+                return null;
+            }
+            DBCResultSet dbResult = dbStat.openResultSet();
+            if (dbResult == null) {
+                return null;
+            }
+            try {
+                if (!dbResult.nextRow()) {
+                    return null;
+                }
+                minValue = toInteger(dbResult.getAttributeValue(0));
+                maxValue = toInteger(dbResult.getAttributeValue(1));
+            } finally {
+                dbResult.close();
+            }
+        }
+        if (minValue == null || maxValue == null) {
+            // Empty table or non-integer key
+            return null;
+        }
+        BigInteger width = maxValue.subtract(minValue).add(BigInteger.ONE);
+        BigInteger count = BigInteger.valueOf(rangeCount);
+        if (width.compareTo(count) < 0) {
+            return null;
+        }
+        BigInteger step = width.add(count).subtract(BigInteger.ONE).divide(count);
+        // Bounds are [min, b1), [b1, b2) ... [bN-1, max]
+        List<BigInteger> bounds = new ArrayList<>();
+        for (BigInteger bound = minValue; bound.compareTo(maxValue) <= 0; bound = bound.add(step)) {
+            bounds.add(bound);
+        }
+        bounds.add(maxValue.add(BigInteger.ONE));
+        return new DatabaseRangeReader(dataContainer, dataFilter, keyAttribute, bounds);
+    }
+
+    @Nullable
+    private static BigInteger toInteger(Object value) {
+        if (value instanceof BigInteger) {
+            return (BigInteger) value;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigInteger.valueOf(((Number) value).longValue());
+        } else if (value instanceof BigDecimal) {
+            try {
+                return ((BigDecimal) value).toBigIntegerExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    int getRangeCount() {
+        return bounds.size() - 1;
+    }
+
+    /**
+     * Sets catalog and schema which are made default in range contexts (the same as in the producer context).
+     */
+    void setContextDefaults(@Nullable String defaultCatalog, @Nullable String defaultSchema) {
+        this.defaultCatalog = defaultCatalog;
+        this.defaultSchema = defaultSchema;
+    }
+
+    /**
+     * Reads all ranges. Each range opens its own isolated context initialized from the source context.
+     */
+    void readData(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCExecutionContext sourceContext,
+        @NotNull DBDDataReceiver receiver,
+        long readFlags,
+        int fetchSize) throws DBException
+    {
+        int rangeCount = getRangeCount();
+        SharedReceiver sharedReceiver = new SharedReceiver(receiver, rangeCount);
+        CountDownLatch finishLatch = new CountDownLatch(rangeCount);
+        List<RangeReadJob> jobs = new ArrayList<>(rangeCount);
+        for (int i = 0; i < rangeCount; i++) {
+            RangeReadJob job = new RangeReadJob(i, sourceContext, sharedReceiver, readFlags, fetchSize, finishLatch);
+            jobs.add(job);
+            job.schedule();
+        }
+        long reportedRows = 0;
+        boolean canceled = false;
+        try {
+            while (!finishLatch.await(RANGES_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
+                if (!canceled && (monitor.isCanceled() || sharedReceiver.getError() != null)) {
+                    canceled = true;
+                    for (RangeReadJob job : jobs) {
+                        job.cancel();
+                    }
+                }
+                long rowCount = sharedReceiver.getRowCount();
+                if (rowCount > reportedRows) {
+                    monitor.subTask(rowCount + " rows fetched in " + rangeCount + " ranges");
+                    monitor.worked((int) (rowCount - reportedRows));
+                    reportedRows = rowCount;
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Range read interrupted", e);
+        } finally {
+            sharedReceiver.finish();
+        }
+        long rowCount = sharedReceiver.getRowCount();
+        if (rowCount > reportedRows) {
+            monitor.worked((int) (rowCount - reportedRows));
+        }
+        Throwable error = sharedReceiver.getError();
+        if (error != null) {
+            if (error instanceof DBException) {
+                throw (DBException) error;
+            }
+            throw new DBCException("Error reading table range", error);
+        }
+    }
+
+    private DBDDataFilter makeRangeFilter(int index) {
+        DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+        String condition = keyName + ">=" + bounds.get(index) + " AND " + keyName + "<" + bounds.get(index + 1);
+        if (CommonUtils.isEmpty(filter.getWhere())) {
+            filter.setWhere(condition);
+        } else {
+            filter.setWhere("(" + filter.getWhere() + ") AND (" + condition + ")");
+        }
+        return filter;
+    }
+
+    private class RangeReadJob extends AbstractJob {
+        private final int index;
+        private final DBCExecutionContext sourceContext;
+        private final SharedReceiver receiver;
+        private final long readFlags;
+        private final int fetchSize;
+
+        RangeReadJob(int index, DBCExecutionContext sourceContext, SharedReceiver receiver, long readFlags, int fetchSize, CountDownLatch finishLatch) {
+            super("Read " + dataContainer.getName() + " range #" + (index + 1));
+            this.index = index;
+            this.sourceContext = sourceContext;
+            this.receiver = receiver;
+            this.readFlags = readFlags;
+            this.fetchSize = fetchSize;
+            setUser(false);
+            addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent event) {
+                    finishLatch.countDown();
+                }
+            });
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                while (!rangeConnections.tryAcquire(RANGES_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
+                    if (monitor.isCanceled()) {
+                        return Status.CANCEL_STATUS;
+                    }
+                }
+            } catch (InterruptedException e) {
+                return Status.CANCEL_STATUS;
+            }
+            DBCExecutionContext context = null;
+            try {
+                context = DBUtils.getObjectOwnerInstance(dataContainer).openIsolatedContext(monitor, "Data transfer range reader", sourceContext);
+                DBExecUtils.setExecutionContextDefaults(monitor, context.getDataSource(), context, defaultCatalog, null, defaultSchema);
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Read table range")) {
+                    session.enableLogging(false);
+                    // Turn off auto-commit like the producer does for its own connection:
+                    // some drivers allow to read LOBs and other complex structures only in transactional mode
+                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                    Boolean oldAutoCommit = null;
+                    try {
+                        if (txnManager != null && txnManager.isSupportsTransactions()) {
+                            oldAutoCommit = txnManager.isAutoCommit();
+                            txnManager.setAutoCommit(monitor, false);
+                        }
+                    } catch (DBCException e) {
+                        log.warn("Can't change auto-commit", e);
+                    }
+                    try {
+                        dataContainer.readData(
+                            new AbstractExecutionSource(dataContainer, context, receiver.target),
+                            session,
+                            receiver,
+                            makeRangeFilter(index),
+                            -1,
+                            -1,
+                            readFlags,
+                            fetchSize);
+                    } finally {
+                        if (txnManager != null && oldAutoCommit != null && oldAutoCommit && !txnManager.isAutoCommit()) {
+                            try {
+                                txnManager.setAutoCommit(session.getProgressMonitor(), true);
+                            } catch (Exception e) {
+                                log.error("Can't finish transaction in range reader connection", e);
+                            }
+                        }
+                    }
+                }
+                return Status.OK_STATUS;
+            } catch (Throwable e) {
+                receiver.setError(e);
+                return GeneralUtils.makeExceptionStatus(e);
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+                rangeConnections.release();
+            }
+        }
+    }
+
+    /**
+     * Serializes calls from all range readers to the target receiver.
+     * Target receiver gets one fetchStart (from the first range), all rows and one fetchEnd/close (from the last range).
+     */
+    private static class SharedReceiver implements DBDDataReceiver {
+        private final DBDDataReceiver target;
+        private int pendingEnds;
+        private int pendingCloses;
+        private boolean started;
+        private volatile long rowCount;
+        private volatile Throwable error;
+
+        SharedReceiver(DBDDataReceiver target, int rangeCount) {
+            this.target = target;
+            this.pendingEnds = rangeCount;
+            this.pendingCloses = rangeCount;
+        }
+
+        long getRowCount() {
+            return rowCount;
+        }
+
+        Throwable getError() {
+            return error;
+        }
+
+        synchronized void setError(Throwable error) {
+            if (this.error == null) {
+                this.error = error;
+            }
+        }
+
+        @Override
+        public synchronized void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            if (!started) {
+                started = true;
+                target.fetchStart(session, resultSet, offset, maxRows);
+            }
+        }
+
+        @Override
+        public synchronized void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            if (error != null) {
+                throw new DBCException("Transfer aborted because of error in another range", error);
+            }
+            target.fetchRow(session, resultSet);
+            rowCount++;
+        }
+
+        @Override
+        public synchronized void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            pendingEnds--;
+            if (pendingEnds == 0 && started) {
+                target.fetchEnd(session, resultSet);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            pendingCloses--;
+            if (pendingCloses == 0) {
+                target.close();
+            }
+        }
+
+        /**
+         * Closes target receiver if some ranges were canceled before they started
+         */
+        synchronized void finish() {
+            if (pendingCloses > 0) {
+                pendingCloses = 0;
+                target.close();
+            }
+        }
+    }
+}
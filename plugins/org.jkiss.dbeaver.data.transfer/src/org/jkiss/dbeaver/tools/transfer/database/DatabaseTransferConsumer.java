@@ -63,7 +63,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private DBCExecutionContext targetContext;
     private DBCSession targetSession;
     private DBSDataManipulator.ExecuteBatch executeBatch;
+    private DBSDataBulkLoader.BulkLoadManager bulkLoadManager;
     private long rowsExported = 0;
+    private long blockStartRows = 0;
+    private DatabaseBatchSizer batchSizer;
     private boolean ignoreErrors = false;
 
     private List<DBSEntityAttribute> targetAttributes;
@@ -147,6 +150,11 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         }
 
         AbstractExecutionSource executionSource = new AbstractExecutionSource(containerMapping.getSource(), targetContext, this);
+        batchSizer = new DatabaseBatchSizer(
+            settings.getCommitAfterRows(),
+            settings.isUseMultiRowInsert() ? DatabaseBatchSizer.DEFAULT_ROWS_PER_STATEMENT : 1,
+            settings.isAdaptiveBatchSize());
+        blockStartRows = rowsExported;
 
         DBSDataManipulator targetObject = getTargetObject();
         if (!isPreview && offset <= 0 && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
@@ -241,17 +249,45 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             if (targetObject instanceof DBSDataManipulatorExt) {
                 ((DBSDataManipulatorExt) targetObject).beforeDataChange(targetSession, DBSManipulationType.INSERT, attributes, executionSource);
             }
-            executeBatch = targetObject.insertData(
-                targetSession,
-                attributes,
-                null,
-                executionSource);
+            bulkLoadManager = createBulkLoadManager(targetObject, attributes, executionSource);
+            if (bulkLoadManager == null) {
+                executeBatch = targetObject.insertData(
+                    targetSession,
+                    attributes,
+                    null,
+                    executionSource);
+            }
         } else {
             previewRows = new ArrayList<>();
             executeBatch = new PreviewBatch();
         }
     }
 
+    /**
+     * Returns native bulk load if it is enabled in settings and supported by the target database.
+     * Otherwise returns null and rows are inserted with batches.
+     */
+    @Nullable
+    private DBSDataBulkLoader.BulkLoadManager createBulkLoadManager(DBSDataManipulator targetObject, DBSAttributeBase[] attributes, DBCExecutionSource executionSource) throws DBCException {
+        if (!settings.isUseBulkLoad() || settings.isDisableUsingBatches()) {
+            return null;
+        }
+        String insertMethodId = settings.getOnDuplicateKeyInsertMethodId();
+        if (insertMethodId != null && !insertMethodId.equals(DBSDataManipulator.INSERT_NONE_METHOD)) {
+            log.debug("Bulk load can't be used with replace method '" + insertMethodId + "'. Use batch inserts.");
+            return null;
+        }
+        DBSDataBulkLoader bulkLoader = DBUtils.getAdapter(DBSDataBulkLoader.class, targetContext.getDataSource());
+        if (bulkLoader == null) {
+            return null;
+        }
+        DBSDataBulkLoader.BulkLoadManager loadManager = bulkLoader.createBulkLoad(targetSession, targetObject, attributes, executionSource);
+        if (loadManager == null) {
+            log.debug("Bulk load is not supported for '" + targetObject.getName() + "'. Use batch inserts.");
+        }
+        return loadManager;
+    }
+
     private boolean isSkipColumn(DBDAttributeBinding attr) {
         return attr.isPseudoAttribute() ||
             (!settings.isTransferAutoGeneratedColumns() && attr.isAutoGenerated()) ||
@@ -288,7 +324,11 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                     false, false);
             }
         }
-        executeBatch.add(rowValues);
+        if (bulkLoadManager != null) {
+            bulkLoadManager.addRow(targetSession, rowValues);
+        } else {
+            executeBatch.add(rowValues);
+        }
 
         rowsExported++;
         // No need. monitor is incremented in data reader
@@ -301,7 +341,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         if (isPreview) {
             return;
         }
-        boolean needCommit = force || ((rowsExported % settings.getCommitAfterRows()) == 0);
+        boolean needCommit = force || (rowsExported - blockStartRows) >= batchSizer.getCommitInterval();
         Map<String, Object> options = new HashMap<>();
         boolean disableUsingBatches = settings.isDisableUsingBatches();
         boolean onDuplicateKeyCaseOn = settings.getOnDuplicateKeyInsertMethodId() != null && !settings.getOnDuplicateKeyInsertMethodId().equals(DBSDataManipulator.INSERT_NONE_METHOD);
@@ -318,14 +358,27 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 }
             }
         }
+        if (needCommit && bulkLoadManager != null) {
+            // Bulk load can't be retried partially, so any error stops the import
+            targetSession.getProgressMonitor().subTask("Load rows (" + rowsExported + ")");
+            bulkLoadManager.flushRows(targetSession);
+        }
         if ((needCommit || disableUsingBatches) && executeBatch != null) {
             targetSession.getProgressMonitor().subTask("Insert rows (" + rowsExported + ")");
             boolean retryInsert;
             do {
                 retryInsert = false;
+                if (batchSizer.getRowsPerStatement() > 1) {
+                    options.put(DBSDataManipulator.OPTION_MULTI_ROW_INSERT, batchSizer.getRowsPerStatement());
+                }
                 try {
+                    long startTime = System.currentTimeMillis();
                     executeBatch.execute(targetSession, options);
+                    if (needCommit) {
+                        batchSizer.onBlockExecuted(rowsExported - blockStartRows, System.currentTimeMillis() - startTime);
+                    }
                 } catch (Throwable e) {
+                    batchSizer.onBlockFailed();
                     log.error("Error inserting row", e);
                     if (ignoreErrors) {
                         break;
@@ -354,6 +407,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 }
             } while (retryInsert);
         }
+        if (needCommit) {
+            blockStartRows = rowsExported;
+        }
         if (settings.isUseTransactions() && needCommit) {
             DBCTransactionManager txnManager = DBUtils.getTransactionManager(targetSession.getExecutionContext());
             if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
@@ -374,6 +430,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 executeBatch = null;
             }
         } finally {
+            if (bulkLoadManager != null) {
+                bulkLoadManager.close();
+                bulkLoadManager = null;
+            }
             DBSDataManipulator targetObject = getTargetObject();
             if (!isPreview && targetObject instanceof DBSDataManipulatorExt) {
                 ((DBSDataManipulatorExt) targetObject).afterDataChange(
@@ -599,6 +659,11 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         }
     }
 
+    @Override
+    public long getTransferredRowCount() {
+        return rowsExported;
+    }
+
     public DBSDataContainer getSourceObject() {
         return containerMapping == null ? null : containerMapping.getSource();
     }
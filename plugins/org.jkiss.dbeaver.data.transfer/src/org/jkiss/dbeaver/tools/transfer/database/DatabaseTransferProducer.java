@@ -38,6 +38,7 @@ import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -47,11 +48,14 @@ import org.jkiss.dbeaver.tools.transfer.IDataTransferNodePrimary;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferConsumer;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -234,22 +238,37 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                         try {
                             monitor.subTask("Read data");
 
+                            if (!selectiveExportFromUI && consumer instanceof StreamTransferConsumer &&
+                                ((StreamTransferConsumer) consumer).exportNativeData(session, dataFilter))
+                            {
+                                // Data was written by the database itself
+                                return;
+                            }
+
                             // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                            DatabaseRangeReader rangeReader = null;
+                            if (settings.getParallelRanges() > 1 && !selectiveExportFromUI && !dataSource.getContainer().getDriver().isEmbedded()) {
+                                rangeReader = DatabaseRangeReader.create(session, dataContainer, dataFilter, settings.getParallelRanges());
+                            }
+                            if (rangeReader != null) {
+                                // Read key ranges in parallel connections
+                                rangeReader.setContextDefaults(defaultCatalog, defaultSchema);
+                                rangeReader.readData(monitor, context, consumer, readFlags, settings.getFetchSize());
+                            } else if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                                 // Just do it in single query
                                 dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize());
                             } else {
-                                // Read all data by segments
-                                long offset = 0;
-                                int segmentSize = settings.getSegmentSize();
-                                for (; ; ) {
-                                    DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
-                                    if (statistics == null || statistics.getRowsFetched() < segmentSize) {
-                                        // Done
-                                        break;
+                                List<? extends DBSEntityAttribute> segmentKey = Collections.emptyList();
+                                if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SEGMENTS_BY_KEY && !selectiveExportFromUI) {
+                                    segmentKey = DatabaseKeySegmentReceiver.getSegmentKey(monitor, dataContainer, dataFilter);
+                                    if (segmentKey.isEmpty()) {
+                                        log.debug("No suitable unique key in '" + dataContainer.getName() + "'. Read segments with offsets.");
                                     }
-                                    offset += statistics.getRowsFetched();
+                                }
+                                if (segmentKey.isEmpty()) {
+                                    readSegmentsByOffset(transferSource, session, consumer, readFlags, settings);
+                                } else {
+                                    readSegmentsByKey(transferSource, session, consumer, segmentKey, readFlags, settings);
                                 }
                             }
                         } finally {
@@ -278,6 +297,44 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         });
     }
 
+    private void readSegmentsByOffset(DBCExecutionSource transferSource, DBCSession session, IDataTransferConsumer consumer, long readFlags, DatabaseProducerSettings settings) throws DBCException {
+        // Read all data by segments
+        long offset = 0;
+        int segmentSize = settings.getSegmentSize();
+        for (; ; ) {
+            DBCStatistics statistics = dataContainer.readData(
+                transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+            if (statistics == null || statistics.getRowsFetched() < segmentSize) {
+                // Done
+                break;
+            }
+            offset += statistics.getRowsFetched();
+        }
+    }
+
+    /**
+     * Reads segments ordered by unique key. Each next segment starts after the last read key,
+     * so its cost doesn't depend on the number of already read rows.
+     */
+    private void readSegmentsByKey(DBCExecutionSource transferSource, DBCSession session, IDataTransferConsumer consumer, List<? extends DBSEntityAttribute> segmentKey, long readFlags, DatabaseProducerSettings settings) throws DBCException {
+        DatabaseKeySegmentReceiver keyReceiver = new DatabaseKeySegmentReceiver(consumer, segmentKey);
+        int segmentSize = settings.getSegmentSize();
+        for (; ; ) {
+            if (session.getProgressMonitor().isCanceled()) {
+                break;
+            }
+            DBDDataFilter segmentFilter = keyReceiver.makeSegmentFilter(session.getDataSource(), dataFilter);
+            // Offset is needed only if key columns are missing in result set
+            long offset = keyReceiver.isKeyResolved() ? 0 : keyReceiver.getRowsRead();
+            DBCStatistics statistics = dataContainer.readData(
+                transferSource, session, keyReceiver, segmentFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+            if (statistics == null || statistics.getRowsFetched() < segmentSize) {
+                // Done
+                break;
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof DatabaseTransferProducer &&
@@ -33,6 +33,8 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_job_task_export_table_data;
 	public static String data_transfer_wizard_job_task_retrieve;
 	public static String data_transfer_wizard_output_checkbox_compress;
+	public static String data_transfer_wizard_output_checkbox_background_writer;
+	public static String data_transfer_wizard_output_checkbox_background_writer_tip;
 	public static String data_transfer_wizard_output_checkbox_split_files;
 	public static String data_transfer_wizard_output_checkbox_split_files_tip;
 	public static String data_transfer_wizard_output_checkbox_new_connection;
@@ -41,6 +43,7 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_checkbox_selected_columns_only;
 	public static String data_transfer_wizard_output_checkbox_selected_rows_only;
 	public static String data_transfer_wizard_output_combo_extract_type_item_by_segments;
+	public static String data_transfer_wizard_output_combo_extract_type_item_by_key_segments;
 	public static String data_transfer_wizard_output_combo_extract_type_item_single_query;
 	public static String data_transfer_wizard_output_description;
 	public static String data_transfer_wizard_output_dialog_directory_message;
@@ -54,6 +57,7 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_label_encoding;
 	public static String data_transfer_wizard_output_label_timestamp_pattern;
 	public static String data_transfer_wizard_output_label_extract_type;
+	public static String data_transfer_wizard_output_label_parallel_ranges;
 	public static String data_transfer_wizard_output_label_file_name_pattern;
 	public static String data_transfer_wizard_output_label_insert_bom;
 	public static String data_transfer_wizard_output_label_insert_bom_tooltip;
@@ -119,9 +123,18 @@ public class DTMessages extends NLS {
 	public static String sql_script_task_page_settings_option_ignore_errors;
 	public static String sql_script_task_page_settings_option_dump_results;
 	public static String sql_script_task_page_settings_option_auto_commit;
+	public static String sql_script_task_page_settings_option_stream_script;
+	public static String sql_script_task_page_settings_option_stream_script_tip;
+	public static String sql_script_task_page_settings_option_batch_size;
+	public static String sql_script_task_page_settings_option_batch_size_tip;
+	public static String sql_script_task_page_settings_option_commit_lines;
+	public static String sql_script_task_page_settings_option_commit_lines_tip;
 	public static String database_consumer_settings_option_use_transactions;
 	public static String database_consumer_settings_option_commit_after;
 	public static String database_consumer_settings_option_disable_batches;
+	public static String database_consumer_settings_option_use_bulk_load;
+	public static String database_consumer_settings_option_use_multi_row_insert;
+	public static String database_consumer_settings_option_adaptive_batch_size;
 	public static String database_consumer_settings_option_on_duplicate_key_method_label;
 	public static String database_consumer_settings_option_transfer_auto_generated_columns;
 	public static String database_consumer_settings_option_disable_referential_integrity;
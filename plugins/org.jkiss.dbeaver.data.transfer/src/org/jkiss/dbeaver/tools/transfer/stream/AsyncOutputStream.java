@@ -0,0 +1,210 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Output stream which writes data in a separate thread.
+ * Caller fills buffers and passes them to the writer thread which writes them to the target stream
+ * (and compresses them if target is a zip stream). The number of pending buffers is limited so slow target
+ * blocks the caller instead of consuming memory.
+ * Write errors are rethrown in the caller thread by the next write, flush or close.
+ */
+class AsyncOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_PENDING_BUFFERS = 8;
+
+    private static class Chunk {
+        final byte[] data;
+        final int length;
+        final CountDownLatch flushLatch;
+        final boolean close;
+
+        Chunk(byte[] data, int length, CountDownLatch flushLatch, boolean close) {
+            this.data = data;
+            this.length = length;
+            this.flushLatch = flushLatch;
+            this.close = close;
+        }
+    }
+
+    private final OutputStream out;
+    private final BlockingQueue<Chunk> pendingChunks = new ArrayBlockingQueue<>(MAX_PENDING_BUFFERS);
+    private final BlockingQueue<byte[]> freeBuffers = new ArrayBlockingQueue<>(MAX_PENDING_BUFFERS + 1);
+    private final WriterThread writerThread;
+    private volatile IOException writeError;
+
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferLength;
+    private boolean closed;
+
+    AsyncOutputStream(@NotNull OutputStream out, @NotNull String name) {
+        this.out = out;
+        this.writerThread = new WriterThread(name);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkState();
+        if (bufferLength >= buffer.length) {
+            submitBuffer();
+        }
+        buffer[bufferLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        checkState();
+        while (len > 0) {
+            if (bufferLength >= buffer.length) {
+                submitBuffer();
+            }
+            int count = Math.min(len, buffer.length - bufferLength);
+            System.arraycopy(b, off, buffer, bufferLength, count);
+            bufferLength += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Waits until all written data is passed to the target stream and flushes it
+     */
+    @Override
+    public void flush() throws IOException {
+        if (closed) {
+            // Everything was flushed on close
+            return;
+        }
+        checkState();
+        if (bufferLength > 0) {
+            submitBuffer();
+        }
+        CountDownLatch flushLatch = new CountDownLatch(1);
+        putChunk(new Chunk(null, 0, flushLatch, false));
+        try {
+            flushLatch.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Flush interrupted");
+        }
+        checkState();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (writeError == null && bufferLength > 0) {
+                submitBuffer();
+            }
+        } finally {
+            closed = true;
+            try {
+                pendingChunks.put(new Chunk(null, 0, null, true));
+                writerThread.join();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("Close interrupted");
+            } finally {
+                out.close();
+            }
+        }
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    private void checkState() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    private void submitBuffer() throws IOException {
+        putChunk(new Chunk(buffer, bufferLength, null, false));
+        byte[] freeBuffer = freeBuffers.poll();
+        buffer = freeBuffer != null ? freeBuffer : new byte[BUFFER_SIZE];
+        bufferLength = 0;
+    }
+
+    private void putChunk(Chunk chunk) throws IOException {
+        try {
+            pendingChunks.put(chunk);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Write interrupted");
+        }
+        checkState();
+    }
+
+    private class WriterThread extends Thread {
+        WriterThread(String name) {
+            super(name);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                Chunk chunk;
+                try {
+                    chunk = pendingChunks.take();
+                } catch (InterruptedException e) {
+                    // Keep draining the queue, otherwise caller may hang on a full queue
+                    writeError = new InterruptedIOException("Writer thread interrupted");
+                    continue;
+                }
+                if (chunk.close) {
+                    break;
+                }
+                // After an error just drain the queue, so caller doesn't hang
+                if (writeError == null) {
+                    try {
+                        if (chunk.data != null) {
+                            out.write(chunk.data, 0, chunk.length);
+                        } else {
+                            out.flush();
+                        }
+                    } catch (IOException e) {
+                        writeError = e;
+                    } catch (Throwable e) {
+                        writeError = new IOException("Error writing data", e);
+                    }
+                }
+                if (chunk.data != null) {
+                    freeBuffers.offer(chunk.data);
+                }
+                if (chunk.flushLatch != null) {
+                    chunk.flushLatch.countDown();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkUnloader;
+
+import java.util.Map;
+
+/**
+ * INativeDataExporter.
+ * Exporter whose output may be produced by the database itself (e.g. PostgreSQL COPY TO STDOUT).
+ */
+public interface INativeDataExporter extends IStreamDataExporter {
+
+    /**
+     * Returns native CSV format which reproduces exporter output for the specified properties.
+     * Returns null if native export is disabled or exporter settings can't be reproduced by the database.
+     */
+    @Nullable
+    DBSDataBulkUnloader.CSVFormat getNativeFormat(@NotNull Map<String, Object> properties);
+
+}
@@ -79,6 +79,7 @@ public class StreamConsumerSettings implements IDataTransferSettings {
     private boolean outputClipboard = false;
     private boolean useSingleFile = false;
     private boolean compressResults = false;
+    private boolean useBackgroundWriter = false;
     private boolean splitOutFiles = false;
     private long maxOutFileSize = 10 * 1000 * 1000;
     private boolean openFolderOnFinish = true;
@@ -158,6 +159,14 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         this.useSingleFile = useSingleFile;
     }
 
+    public boolean isUseBackgroundWriter() {
+        return useBackgroundWriter;
+    }
+
+    public void setUseBackgroundWriter(boolean useBackgroundWriter) {
+        this.useBackgroundWriter = useBackgroundWriter;
+    }
+
     public boolean isCompressResults() {
         return compressResults;
     }
@@ -246,6 +255,7 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         }
 
         compressResults = CommonUtils.getBoolean(settings.get("compressResults"), compressResults);
+        useBackgroundWriter = CommonUtils.getBoolean(settings.get("useBackgroundWriter"), useBackgroundWriter);
         splitOutFiles = CommonUtils.getBoolean(settings.get("splitOutFiles"), splitOutFiles);
         maxOutFileSize = CommonUtils.toLong(settings.get("maxOutFileSize"), maxOutFileSize);
         openFolderOnFinish = CommonUtils.getBoolean(settings.get("openFolderOnFinish"), openFolderOnFinish);
@@ -305,6 +315,7 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         settings.put("useSingleFile", useSingleFile);
 
         settings.put("compressResults", compressResults);
+        settings.put("useBackgroundWriter", useBackgroundWriter);
         settings.put("splitOutFiles", splitOutFiles);
         settings.put("maxOutFileSize", maxOutFileSize);
 
@@ -346,6 +357,7 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         }
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_compress, compressResults);
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_background_writer, useBackgroundWriter);
         if (executeProcessOnFinish) {
             DTUtils.addSummary(summary, "Execute process on finish", finishProcessCommand);
         }
@@ -33,6 +33,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
 import org.jkiss.dbeaver.model.runtime.DBRShellCommand;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkUnloader;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
@@ -93,6 +94,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private PrintWriter writer;
     private int multiFileNumber;
     private long bytesWritten = 0;
+    private long rowsExported = 0;
 
     private DBDAttributeBinding[] columnMetas;
     private DBDAttributeBinding[] columnBindings;
@@ -104,6 +106,8 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private StringWriter outputBuffer;
     private boolean initialized = false;
     private TransferParameters parameters;
+    // Output close error. Reported by the transfer job when the transfer is finished
+    private DBCException finishError;
 
     public StreamTransferConsumer() {
     }
@@ -188,6 +192,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             }
             // Export row
             processor.exportRow(session, resultSet, targetRow);
+            rowsExported++;
 
             // Check for file split
             if (settings.isSplitOutFiles() && !parameters.isBinary) {
@@ -208,6 +213,56 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
     }
 
+    /**
+     * Exports the whole source container with native database facilities (e.g. COPY TO STDOUT),
+     * if both exporter and database support it.
+     * Returns false if data must be read and exported in a regular way.
+     */
+    public boolean exportNativeData(@NotNull DBCSession session, @Nullable DBDDataFilter dataFilter) throws DBCException {
+        if (initialized || !(processor instanceof INativeDataExporter) || parameters.isBinary ||
+            settings.isOutputClipboard() || settings.isSplitOutFiles() || hasExcludedAttributes(session.getProgressMonitor()))
+        {
+            return false;
+        }
+        DBSDataBulkUnloader.CSVFormat format = ((INativeDataExporter) processor).getNativeFormat(processorProperties);
+        if (format == null) {
+            return false;
+        }
+        DBSDataBulkUnloader bulkUnloader = DBUtils.getAdapter(DBSDataBulkUnloader.class, session.getDataSource());
+        if (bulkUnloader == null) {
+            return false;
+        }
+        DBSDataBulkUnloader.BulkUnloadManager unloadManager = bulkUnloader.createBulkUnload(session, dataContainer, dataFilter, format);
+        if (unloadManager == null) {
+            return false;
+        }
+
+        // Header is written by the database, so exporter is initialized without exportHeader call
+        initExporter(session);
+        initialized = true;
+        long rowCount = unloadManager.unloadData(session, writer);
+        if (rowCount > 0) {
+            rowsExported += rowCount;
+        }
+        if (writer.checkError()) {
+            throw new DBCException("IO error while writing to " + outputFile);
+        }
+        log.debug("Native export of '" + dataContainer.getName() + "': " + rowCount + " row(s)");
+        return true;
+    }
+
+    private boolean hasExcludedAttributes(@NotNull DBRProgressMonitor monitor) {
+        final StreamMappingContainer mapping = settings.getDataMapping(dataContainer);
+        if (mapping != null && mapping.isComplete()) {
+            for (StreamMappingAttribute attribute : mapping.getAttributes(monitor)) {
+                if (attribute.getMappingType() != StreamMappingType.export) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @Override
     public void close() {
         columnBindings = null;
@@ -255,7 +310,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                 openOutputStreams();
             }
         } catch (IOException e) {
-            closeExporter();
+            try {
+                closeExporter();
+            } catch (IOException e1) {
+                log.debug(e1);
+            }
             throw new DBCException("Data transfer IO error", e);
         }
 
@@ -267,12 +326,13 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
-    private void closeExporter() {
+    private void closeExporter() throws IOException {
+        IOException flushError = null;
         if (exportSite != null) {
             try {
                 exportSite.flush();
             } catch (IOException e) {
-                log.debug(e);
+                flushError = e;
             }
         }
 
@@ -286,6 +346,9 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             processor = null;
         }
         closeOutputStreams();
+        if (flushError != null) {
+            throw flushError;
+        }
     }
 
     private void openOutputStreams() throws IOException {
@@ -298,6 +361,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             this.outputStream = zipStream;
         }
 
+        if (settings.isUseBackgroundWriter()) {
+            // Compression and file writes are performed in a separate thread
+            this.outputStream = new AsyncOutputStream(this.outputStream, "Data export writer (" + outputFile.getName() + ")");
+        }
+
         // If we need to split files - use stream wrapper to calculate fiel size
         if (settings.isSplitOutFiles()) {
             this.outputStream = new OutputStreamStatProxy(this.outputStream);
@@ -315,40 +383,35 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
 
         if (!parameters.isBinary) {
-            this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), true);
+            // No auto-flush: exporters write line by line and flush on each line is very expensive
+            this.writer = new PrintWriter(
+                new BufferedWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), OUT_FILE_BUFFER_SIZE),
+                false);
         }
     }
 
-    private void closeOutputStreams() {
+    /**
+     * Closes output streams from the top of the chain. Background writer (if any) writes all pending data
+     * before the zip stream finishes its entry and closes the file.
+     */
+    private void closeOutputStreams() throws IOException {
+        boolean writeError = false;
         if (this.writer != null) {
+            // Do not close the writer: it would close the output stream and hide its errors
             this.writer.flush();
-            ContentUtils.close(this.writer);
+            writeError = this.writer.checkError();
             this.writer = null;
         }
-
-        // Finish zip stream
-        if (zipStream != null) {
-            try {
-                zipStream.closeEntry();
-            } catch (IOException e) {
-                log.debug(e);
-            }
-            try {
-                zipStream.finish();
-            } catch (IOException e) {
-                log.debug(e);
-            }
-            zipStream = null;
-        }
+        zipStream = null;
 
         if (outputStream != null) {
-            try {
-                outputStream.flush();
-            } catch (IOException e) {
-                log.debug(e);
-            }
-            ContentUtils.close(outputStream);
+            OutputStream stream = outputStream;
             outputStream = null;
+            // Closing a zip stream finishes its entry
+            stream.close();
+        }
+        if (writeError) {
+            throw new IOException("Error writing to " + outputFile);
         }
     }
 
@@ -379,6 +442,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     @Override
     public void finishTransfer(DBRProgressMonitor monitor, boolean last) {
         if (!last) {
+            finishError = null;
             if (processor != null) {
                 try {
                     processor.exportFooter(monitor);
@@ -387,7 +451,13 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                 }
             }
 
-            closeExporter();
+            try {
+                closeExporter();
+            } catch (IOException e) {
+                // Output is incomplete. Do not run the finish command on it
+                finishError = new DBCException("Error writing to " + outputFile, e);
+                return;
+            }
 
             if (!settings.isOutputClipboard() && settings.isExecuteProcessOnFinish()) {
                 executeFinishCommand();
@@ -410,6 +480,17 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
+    @Nullable
+    @Override
+    public DBCException getFinishError() {
+        return finishError;
+    }
+
+    @Override
+    public long getTransferredRowCount() {
+        return rowsExported;
+    }
+
     @Override
     public Object getTargetObject() {
         return null;
@@ -646,7 +727,9 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             if (writer != null) {
                 writer.flush();
             }
-            if (outputStream != null) {
+            if (outputStream instanceof OutputStreamStatProxy) {
+                ((OutputStreamStatProxy) outputStream).flushOutput();
+            } else if (outputStream != null) {
                 outputStream.flush();
             }
         }
@@ -732,8 +815,14 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             bytesWritten += len;
         }
 
+        /**
+         * Writer flush only needs to pass encoded bytes here to count them. Underlying streams are flushed explicitly.
+         */
         @Override
-        public void flush() throws IOException {
+        public void flush() {
+        }
+
+        void flushOutput() throws IOException {
             out.flush();
         }
 
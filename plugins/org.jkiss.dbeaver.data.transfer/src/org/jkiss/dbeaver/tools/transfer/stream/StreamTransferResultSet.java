@@ -85,9 +85,20 @@ public class StreamTransferResultSet implements DBCResultSet {
 
     @Override
     public Object getAttributeValue(int index) throws DBCException {
-        StreamDataImporterColumnInfo attr = this.attributeMappings.get(index);
+        return convertStreamValue(this.attributeMappings.get(index), streamRow[index]);
+    }
+
+    /**
+     * Converts stream values into typed values (e.g. date/time strings into timestamps).
+     * Doesn't change result set state, so importers may convert rows in parallel before passing them to {@link #setStreamRow}.
+     */
+    public void convertStreamRow(Object[] row) {
+        for (int i = 0; i < row.length && i < attributeMappings.size(); i++) {
+            row[i] = convertStreamValue(attributeMappings.get(i), row[i]);
+        }
+    }
 
-        Object value = streamRow[index];
+    private Object convertStreamValue(StreamDataImporterColumnInfo attr, Object value) {
         if (value != null && dateTimeFormat != null && attr.getDataKind() == DBPDataKind.DATETIME && !(value instanceof Date)) {
             // Convert string to timestamp
             try {
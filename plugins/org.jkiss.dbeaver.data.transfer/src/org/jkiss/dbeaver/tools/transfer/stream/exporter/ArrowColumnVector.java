@@ -0,0 +1,455 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Arrow column vector.
+ * Collects values of one column for the current record batch in Arrow memory layout
+ * (validity bitmap, offsets and values buffers).
+ * Column type is set explicitly (from the source column metadata) or, if metadata is not enough,
+ * resolved by the first non-null value.
+ */
+public final class ArrowColumnVector {
+
+    public enum Type {
+        INT64,
+        FLOAT64,
+        DECIMAL,
+        BOOL,
+        DATE,
+        TIMESTAMP,
+        UTF8,
+        BINARY
+    }
+
+    private static final int MAX_DECIMAL_PRECISION = 38;
+    private static final Buffer EMPTY_BUFFER = new Buffer(0);
+
+    private final String name;
+    private final int declaredPrecision;
+    private final int declaredScale;
+
+    private Type type;
+    private int rowCount;
+    private int nullCount;
+    private final Buffer validity = new Buffer(1024);
+    private final Buffer values = new Buffer(8192);
+    private final Buffer offsets = new Buffer(1024);
+
+    /**
+     * @param declaredPrecision numeric precision of the source column. Numbers with valid precision are written as decimals,
+     *                          other decimals are written as strings
+     */
+    public ArrowColumnVector(@NotNull String name, int declaredPrecision, int declaredScale) {
+        this.name = name;
+        this.declaredPrecision = declaredPrecision;
+        this.declaredScale = declaredScale;
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    @Nullable
+    public Type getType() {
+        return type;
+    }
+
+    public boolean hasDecimalPrecision() {
+        return declaredPrecision > 0 && declaredPrecision <= MAX_DECIMAL_PRECISION;
+    }
+
+    public int getDecimalPrecision() {
+        return declaredPrecision;
+    }
+
+    public int getDecimalScale() {
+        return Math.max(0, Math.min(declaredScale, declaredPrecision));
+    }
+
+    public int getNullCount() {
+        return nullCount;
+    }
+
+    /**
+     * Approximate size of the collected data
+     */
+    public long getDataSize() {
+        return validity.size() + values.size() + offsets.size();
+    }
+
+    /**
+     * Sets column type. Null values collected before type resolve are filled with placeholders.
+     */
+    public void resolveType(@NotNull Type type) {
+        if (this.type != null) {
+            return;
+        }
+        this.type = type;
+        int nulls = rowCount;
+        rowCount = 0;
+        nullCount = 0;
+        validity.reset();
+        if (isVariableWidth()) {
+            offsets.putInt(0);
+        }
+        for (int i = 0; i < nulls; i++) {
+            appendNull();
+        }
+    }
+
+    public void append(@Nullable Object value) {
+        if (value == null) {
+            appendNull();
+            return;
+        }
+        if (type == null) {
+            resolveType(detectType(value));
+        }
+        setValidity(true);
+        switch (type) {
+            case INT64:
+                values.putLong(toLong(value));
+                break;
+            case FLOAT64:
+                values.putLong(Double.doubleToRawLongBits(toDouble(value)));
+                break;
+            case DECIMAL:
+                putDecimal(toDecimal(value));
+                break;
+            case BOOL:
+                putBit(values, rowCount, toBoolean(value));
+                break;
+            case DATE:
+                values.putInt((int) toDateTime(value).toLocalDate().toEpochDay());
+                break;
+            case TIMESTAMP: {
+                LocalDateTime dateTime = toDateTime(value);
+                values.putLong(dateTime.toEpochSecond(ZoneOffset.UTC) * 1000000L + dateTime.getNano() / 1000);
+                break;
+            }
+            case BINARY: {
+                byte[] bytes = value instanceof byte[] ? (byte[]) value : value.toString().getBytes(StandardCharsets.UTF_8);
+                values.putBytes(bytes, 0, bytes.length);
+                offsets.putInt(values.size());
+                break;
+            }
+            default: {
+                String str = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+                byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                values.putBytes(bytes, 0, bytes.length);
+                offsets.putInt(values.size());
+                break;
+            }
+        }
+        rowCount++;
+    }
+
+    private void appendNull() {
+        if (type != null) {
+            switch (type) {
+                case INT64:
+                case FLOAT64:
+                case TIMESTAMP:
+                    values.putZeros(8);
+                    break;
+                case DATE:
+                    values.putZeros(4);
+                    break;
+                case DECIMAL:
+                    values.putZeros(16);
+                    break;
+                case BOOL:
+                    putBit(values, rowCount, false);
+                    break;
+                default:
+                    offsets.putInt(values.size());
+                    break;
+            }
+            setValidity(false);
+        }
+        nullCount++;
+        rowCount++;
+    }
+
+    /**
+     * Adds buffers of this vector to the record batch body
+     */
+    public void collectBuffers(@NotNull List<Buffer> buffers) {
+        buffers.add(nullCount == 0 ? EMPTY_BUFFER : validity);
+        if (isVariableWidth()) {
+            buffers.add(offsets);
+        }
+        buffers.add(values);
+    }
+
+    /**
+     * Clears collected values. Column type remains the same.
+     */
+    public void reset() {
+        rowCount = 0;
+        nullCount = 0;
+        validity.reset();
+        values.reset();
+        offsets.reset();
+        if (isVariableWidth()) {
+            offsets.putInt(0);
+        }
+    }
+
+    private boolean isVariableWidth() {
+        return type == Type.UTF8 || type == Type.BINARY;
+    }
+
+    private void setValidity(boolean valid) {
+        putBit(validity, rowCount, valid);
+    }
+
+    private void putDecimal(BigDecimal value) {
+        BigDecimal scaled;
+        try {
+            // Trailing zeros may be dropped, significant digits may not
+            scaled = value.setScale(getDecimalScale(), RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Value " + value.toPlainString() + " exceeds scale " + getDecimalScale(), e);
+        }
+        if (scaled.precision() - scaled.scale() > declaredPrecision - getDecimalScale()) {
+            throw new IllegalArgumentException("Value " + value.toPlainString() + " exceeds precision " + declaredPrecision);
+        }
+        BigInteger unscaled = scaled.unscaledValue();
+        byte[] bigEndian = unscaled.toByteArray();
+        byte signByte = (byte) (unscaled.signum() < 0 ? 0xFF : 0);
+        // 128-bit little-endian two's complement
+        for (int i = 0; i < 16; i++) {
+            values.putByte(i < bigEndian.length ? bigEndian[bigEndian.length - 1 - i] : signByte);
+        }
+    }
+
+    private Type detectType(Object value) {
+        if (value instanceof Boolean) {
+            return Type.BOOL;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return Type.INT64;
+        } else if (value instanceof Double || value instanceof Float) {
+            return Type.FLOAT64;
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return hasDecimalPrecision() ? Type.DECIMAL : Type.UTF8;
+        } else if (value instanceof java.sql.Date || value instanceof LocalDate) {
+            return Type.DATE;
+        } else if (value instanceof Date || value instanceof LocalDateTime) {
+            return Type.TIMESTAMP;
+        } else if (value instanceof byte[]) {
+            return Type.BINARY;
+        } else {
+            return Type.UTF8;
+        }
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        try {
+            return new BigDecimal(value.toString()).longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("Value '" + value + "' is not an integer", e);
+        }
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Value '" + value + "' is not a number", e);
+        }
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        }
+        try {
+            return new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Value '" + value + "' is not a number", e);
+        }
+    }
+
+    private static boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        }
+        return CommonUtils.getBoolean(value.toString(), false);
+    }
+
+    private static LocalDateTime toDateTime(Object value) {
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime();
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().atStartOfDay();
+        } else if (value instanceof Date) {
+            // java.sql.Time doesn't support toInstant()
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(((Date) value).getTime()), ZoneId.systemDefault());
+        } else if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        }
+        throw new IllegalArgumentException("Value '" + value + "' is not a date");
+    }
+
+    private static void putBit(Buffer buffer, int index, boolean bit) {
+        if ((index & 7) == 0) {
+            buffer.putByte((byte) 0);
+        }
+        if (bit) {
+            int pos = index >> 3;
+            buffer.setByte(pos, (byte) (buffer.getByte(pos) | (1 << (index & 7))));
+        }
+    }
+
+    /**
+     * Growable little-endian byte buffer
+     */
+    public static class Buffer {
+
+        private byte[] data;
+        private int size;
+
+        Buffer(int capacity) {
+            this.data = new byte[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void align(int alignment) {
+            putZeros((alignment - size % alignment) % alignment);
+        }
+
+        byte getByte(int pos) {
+            return data[pos];
+        }
+
+        void putByte(byte value) {
+            ensureCapacity(1);
+            data[size++] = value;
+        }
+
+        void putShort(short value) {
+            ensureCapacity(2);
+            setShort(size, value);
+            size += 2;
+        }
+
+        void putInt(int value) {
+            ensureCapacity(4);
+            setInt(size, value);
+            size += 4;
+        }
+
+        void putLong(long value) {
+            ensureCapacity(8);
+            setLong(size, value);
+            size += 8;
+        }
+
+        void putBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, data, size, length);
+            size += length;
+        }
+
+        void putZeros(int length) {
+            ensureCapacity(length);
+            Arrays.fill(data, size, size + length, (byte) 0);
+            size += length;
+        }
+
+        void setByte(int pos, byte value) {
+            data[pos] = value;
+        }
+
+        void setShort(int pos, short value) {
+            data[pos] = (byte) value;
+            data[pos + 1] = (byte) (value >> 8);
+        }
+
+        void setInt(int pos, int value) {
+            data[pos] = (byte) value;
+            data[pos + 1] = (byte) (value >> 8);
+            data[pos + 2] = (byte) (value >> 16);
+            data[pos + 3] = (byte) (value >> 24);
+        }
+
+        void setLong(int pos, long value) {
+            setInt(pos, (int) value);
+            setInt(pos + 4, (int) (value >> 32));
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(data, size);
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(data, 0, size);
+        }
+
+        private void ensureCapacity(int length) {
+            if (size + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(size + length, Math.max(16, data.length * 2)));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,391 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Apache Arrow IPC stream format writer.
+ * Writes schema message, record batch messages and end-of-stream marker.
+ * Message metadata is FlatBuffers-encoded, so we have a tiny FlatBuffers encoder here
+ * (only tables, strings and vectors used by Arrow schema and record batch messages).
+ *
+ * See https://arrow.apache.org/docs/format/Columnar.html#serialization-and-interprocess-communication-ipc
+ */
+public final class ArrowStreamWriter {
+
+    private static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+    private static final short METADATA_VERSION_V5 = 4;
+
+    private static final byte HEADER_SCHEMA = 1;
+    private static final byte HEADER_RECORD_BATCH = 3;
+
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_FLOATING_POINT = 3;
+    private static final byte TYPE_BINARY = 4;
+    private static final byte TYPE_UTF8 = 5;
+    private static final byte TYPE_BOOL = 6;
+    private static final byte TYPE_DECIMAL = 7;
+    private static final byte TYPE_DATE = 8;
+    private static final byte TYPE_TIMESTAMP = 10;
+
+    private static final short PRECISION_DOUBLE = 2;
+    private static final short DATE_UNIT_DAY = 0;
+    private static final short TIME_UNIT_MICROSECOND = 2;
+
+    private static final byte[] PADDING = new byte[8];
+
+    private final OutputStream out;
+    private final byte[] intBuffer = new byte[4];
+
+    public ArrowStreamWriter(@NotNull OutputStream out) {
+        this.out = out;
+    }
+
+    public void writeSchema(@NotNull List<ArrowColumnVector> columns) throws IOException {
+        List<FlatTable> fields = new ArrayList<>(columns.size());
+        for (ArrowColumnVector column : columns) {
+            FlatTable field = new FlatTable();
+            field.addString(0, column.getName());
+            field.addBool(1, true);
+            addFieldType(field, column);
+            field.addTableVector(5, new ArrayList<>());
+            fields.add(field);
+        }
+        FlatTable schema = new FlatTable();
+        // Little endian
+        schema.addShort(0, (short) 0);
+        schema.addTableVector(1, fields);
+
+        writeMessage(HEADER_SCHEMA, schema, 0);
+    }
+
+    public void writeRecordBatch(@NotNull List<ArrowColumnVector> columns, int rowCount) throws IOException {
+        long[] nodes = new long[columns.size() * 2];
+        List<ArrowColumnVector.Buffer> bodyBuffers = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            ArrowColumnVector column = columns.get(i);
+            nodes[i * 2] = rowCount;
+            nodes[i * 2 + 1] = column.getNullCount();
+            column.collectBuffers(bodyBuffers);
+        }
+        long[] buffers = new long[bodyBuffers.size() * 2];
+        long bodyLength = 0;
+        for (int i = 0; i < bodyBuffers.size(); i++) {
+            int length = bodyBuffers.get(i).size();
+            buffers[i * 2] = bodyLength;
+            buffers[i * 2 + 1] = length;
+            bodyLength += align8(length);
+        }
+        FlatTable recordBatch = new FlatTable();
+        recordBatch.addLong(0, rowCount);
+        recordBatch.addStructVector(1, nodes);
+        recordBatch.addStructVector(2, buffers);
+
+        writeMessage(HEADER_RECORD_BATCH, recordBatch, bodyLength);
+        for (ArrowColumnVector.Buffer buffer : bodyBuffers) {
+            buffer.writeTo(out);
+            writePadding(buffer.size());
+        }
+    }
+
+    public void writeEndOfStream() throws IOException {
+        writeInt(CONTINUATION_MARKER);
+        writeInt(0);
+    }
+
+    private void addFieldType(FlatTable field, ArrowColumnVector column) {
+        FlatTable type = new FlatTable();
+        byte typeId;
+        switch (column.getType()) {
+            case INT64:
+                typeId = TYPE_INT;
+                type.addInt(0, 64);
+                type.addBool(1, true);
+                break;
+            case FLOAT64:
+                typeId = TYPE_FLOATING_POINT;
+                type.addShort(0, PRECISION_DOUBLE);
+                break;
+            case DECIMAL:
+                typeId = TYPE_DECIMAL;
+                type.addInt(0, column.getDecimalPrecision());
+                type.addInt(1, column.getDecimalScale());
+                type.addInt(2, 128);
+                break;
+            case BOOL:
+                typeId = TYPE_BOOL;
+                break;
+            case DATE:
+                typeId = TYPE_DATE;
+                type.addShort(0, DATE_UNIT_DAY);
+                break;
+            case TIMESTAMP:
+                typeId = TYPE_TIMESTAMP;
+                type.addShort(0, TIME_UNIT_MICROSECOND);
+                break;
+            case BINARY:
+                typeId = TYPE_BINARY;
+                break;
+            default:
+                typeId = TYPE_UTF8;
+                break;
+        }
+        field.addByte(2, typeId);
+        field.addTable(3, type);
+    }
+
+    private void writeMessage(byte headerType, FlatTable header, long bodyLength) throws IOException {
+        FlatTable message = new FlatTable();
+        message.addShort(0, METADATA_VERSION_V5);
+        message.addByte(1, headerType);
+        message.addTable(2, header);
+        message.addLong(3, bodyLength);
+        byte[] metadata = message.finish();
+
+        // Continuation marker and metadata size are followed by metadata padded to 8 bytes
+        int metadataSize = align8(metadata.length);
+        writeInt(CONTINUATION_MARKER);
+        writeInt(metadataSize);
+        out.write(metadata);
+        writePadding(metadata.length);
+    }
+
+    private void writePadding(int length) throws IOException {
+        int padding = align8(length) - length;
+        if (padding > 0) {
+            out.write(PADDING, 0, padding);
+        }
+    }
+
+    private void writeInt(int value) throws IOException {
+        intBuffer[0] = (byte) value;
+        intBuffer[1] = (byte) (value >>> 8);
+        intBuffer[2] = (byte) (value >>> 16);
+        intBuffer[3] = (byte) (value >>> 24);
+        out.write(intBuffer);
+    }
+
+    private static int align8(int length) {
+        return (length + 7) & ~7;
+    }
+
+    private static long align8(long length) {
+        return (length + 7) & ~7L;
+    }
+
+    /**
+     * FlatBuffers table.
+     * Unlike the standard FlatBuffers builder, the buffer is written front to back:
+     * vtable, table and then all referenced objects, so all offsets point forward.
+     */
+    private static class FlatTable {
+
+        private static final int KIND_SCALAR = 0;
+        private static final int KIND_TABLE = 1;
+        private static final int KIND_STRING = 2;
+        private static final int KIND_TABLE_VECTOR = 3;
+        private static final int KIND_STRUCT_VECTOR = 4;
+
+        private final List<Slot> slots = new ArrayList<>();
+
+        private static class Slot {
+            final int index;
+            final int kind;
+            final int size;
+            final long value;
+            final Object object;
+            int offset;
+
+            Slot(int index, int kind, int size, long value, Object object) {
+                this.index = index;
+                this.kind = kind;
+                this.size = size;
+                this.value = value;
+                this.object = object;
+            }
+        }
+
+        void addBool(int index, boolean value) {
+            addByte(index, (byte) (value ? 1 : 0));
+        }
+
+        void addByte(int index, byte value) {
+            slots.add(new Slot(index, KIND_SCALAR, 1, value, null));
+        }
+
+        void addShort(int index, short value) {
+            slots.add(new Slot(index, KIND_SCALAR, 2, value, null));
+        }
+
+        void addInt(int index, int value) {
+            slots.add(new Slot(index, KIND_SCALAR, 4, value, null));
+        }
+
+        void addLong(int index, long value) {
+            slots.add(new Slot(index, KIND_SCALAR, 8, value, null));
+        }
+
+        void addTable(int index, FlatTable table) {
+            slots.add(new Slot(index, KIND_TABLE, 4, 0, table));
+        }
+
+        void addString(int index, String value) {
+            slots.add(new Slot(index, KIND_STRING, 4, 0, value.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        void addTableVector(int index, List<FlatTable> tables) {
+            slots.add(new Slot(index, KIND_TABLE_VECTOR, 4, 0, tables));
+        }
+
+        /**
+         * Adds vector of structs which consist of two longs (Arrow FieldNode and Buffer)
+         */
+        void addStructVector(int index, long[] values) {
+            slots.add(new Slot(index, KIND_STRUCT_VECTOR, 4, 0, values));
+        }
+
+        byte[] finish() {
+            ArrowColumnVector.Buffer buffer = new ArrowColumnVector.Buffer(256);
+            buffer.putInt(0);
+            int tablePos = write(buffer);
+            buffer.setInt(0, tablePos);
+            return buffer.toByteArray();
+        }
+
+        private int write(ArrowColumnVector.Buffer buffer) {
+            // Table layout: soffset to vtable, 4-byte fields, 8-byte fields (aligned), 2-byte fields, 1-byte fields
+            int inlineSize = 4;
+            boolean hasLongs = false;
+            for (int size : new int[] {4, 8, 2, 1}) {
+                for (Slot slot : slots) {
+                    if (slot.size == size) {
+                        if (size == 8 && !hasLongs) {
+                            inlineSize = (inlineSize + 7) & ~7;
+                            hasLongs = true;
+                        }
+                        slot.offset = inlineSize;
+                        inlineSize += size;
+                    }
+                }
+            }
+            int slotCount = 0;
+            for (Slot slot : slots) {
+                slotCount = Math.max(slotCount, slot.index + 1);
+            }
+
+            // VTable
+            buffer.align(2);
+            int vtablePos = buffer.size();
+            short[] vtable = new short[slotCount];
+            for (Slot slot : slots) {
+                vtable[slot.index] = (short) slot.offset;
+            }
+            buffer.putShort((short) (4 + slotCount * 2));
+            buffer.putShort((short) inlineSize);
+            for (short fieldOffset : vtable) {
+                buffer.putShort(fieldOffset);
+            }
+
+            // Table. Align it to 8 so 8-byte fields are aligned too
+            buffer.align(8);
+            int tablePos = buffer.size();
+            buffer.putZeros(inlineSize);
+            buffer.setInt(tablePos, tablePos - vtablePos);
+            for (Slot slot : slots) {
+                int pos = tablePos + slot.offset;
+                if (slot.kind == KIND_SCALAR) {
+                    switch (slot.size) {
+                        case 1: buffer.setByte(pos, (byte) slot.value); break;
+                        case 2: buffer.setShort(pos, (short) slot.value); break;
+                        case 4: buffer.setInt(pos, (int) slot.value); break;
+                        default: buffer.setLong(pos, slot.value); break;
+                    }
+                }
+            }
+
+            // Referenced objects
+            for (Slot slot : slots) {
+                if (slot.kind == KIND_SCALAR) {
+                    continue;
+                }
+                int pos = tablePos + slot.offset;
+                int objectPos;
+                switch (slot.kind) {
+                    case KIND_TABLE:
+                        objectPos = ((FlatTable) slot.object).write(buffer);
+                        break;
+                    case KIND_STRING:
+                        objectPos = writeString(buffer, (byte[]) slot.object);
+                        break;
+                    case KIND_TABLE_VECTOR:
+                        objectPos = writeTableVector(buffer, (List<?>) slot.object);
+                        break;
+                    default:
+                        objectPos = writeStructVector(buffer, (long[]) slot.object);
+                        break;
+                }
+                buffer.setInt(pos, objectPos - pos);
+            }
+            return tablePos;
+        }
+
+        private static int writeString(ArrowColumnVector.Buffer buffer, byte[] value) {
+            buffer.align(4);
+            int pos = buffer.size();
+            buffer.putInt(value.length);
+            buffer.putBytes(value, 0, value.length);
+            // Zero terminator
+            buffer.putByte((byte) 0);
+            return pos;
+        }
+
+        private static int writeTableVector(ArrowColumnVector.Buffer buffer, List<?> tables) {
+            buffer.align(4);
+            int pos = buffer.size();
+            buffer.putInt(tables.size());
+            buffer.putZeros(tables.size() * 4);
+            for (int i = 0; i < tables.size(); i++) {
+                int elementPos = pos + 4 + i * 4;
+                int tablePos = ((FlatTable) tables.get(i)).write(buffer);
+                buffer.setInt(elementPos, tablePos - elementPos);
+            }
+            return pos;
+        }
+
+        private static int writeStructVector(ArrowColumnVector.Buffer buffer, long[] values) {
+            // Struct elements must be aligned to 8 bytes, vector length precedes them
+            buffer.align(4);
+            if (buffer.size() % 8 == 0) {
+                buffer.putInt(0);
+            }
+            int pos = buffer.size();
+            buffer.putInt(values.length / 2);
+            for (long value : values) {
+                buffer.putLong(value);
+            }
+            return pos;
+        }
+    }
+
+}
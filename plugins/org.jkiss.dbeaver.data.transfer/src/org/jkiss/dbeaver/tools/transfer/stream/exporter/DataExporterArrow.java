@@ -0,0 +1,224 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Time;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Apache Arrow IPC stream exporter.
+ * Rows are collected in column vectors and written as record batches, so the output
+ * can be loaded by columnar tools (pyarrow, Spark, DuckDB) without text parsing.
+ *
+ * Column types are resolved by the source column metadata: integers as int64, floats as float64,
+ * decimals with known precision as decimal128, dates and timestamps (local, microseconds),
+ * booleans and binaries. All other values are written as UTF-8 strings.
+ * Columns without definite type (contents, untyped columns) are resolved by the first non-null value.
+ */
+public class DataExporterArrow extends StreamExporterAbstract {
+
+    private static final String PROP_BATCH_SIZE = "batchSize";
+
+    private static final int DEFAULT_BATCH_SIZE = 65536;
+    // Flush batch earlier if collected data is too big
+    private static final long MAX_BATCH_DATA_SIZE = 64 * 1024 * 1024;
+
+    private DBDAttributeBinding[] columns;
+    private List<ArrowColumnVector> vectors;
+    private ArrowStreamWriter arrowWriter;
+    private int batchSize;
+    private int batchRowCount;
+    private boolean schemaWritten;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        batchSize = CommonUtils.toInt(site.getProperties().get(PROP_BATCH_SIZE), DEFAULT_BATCH_SIZE);
+        if (batchSize <= 0) {
+            batchSize = DEFAULT_BATCH_SIZE;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        columns = null;
+        vectors = null;
+        arrowWriter = null;
+        super.dispose();
+    }
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException {
+        columns = getSite().getAttributes();
+        vectors = new ArrayList<>(columns.length);
+        for (DBDAttributeBinding column : columns) {
+            int precision = 0, scale = 0;
+            if (column.getDataKind() == DBPDataKind.NUMERIC) {
+                precision = CommonUtils.toInt(column.getPrecision());
+                scale = CommonUtils.toInt(column.getScale());
+            }
+            ArrowColumnVector vector = new ArrowColumnVector(column.getName(), precision, scale);
+            ArrowColumnVector.Type type = getColumnType(column, vector);
+            if (type != null) {
+                vector.resolveType(type);
+            }
+            vectors.add(vector);
+        }
+        arrowWriter = new ArrowStreamWriter(getOutputStream());
+        batchRowCount = 0;
+        schemaWritten = false;
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
+        long dataSize = 0;
+        for (int i = 0; i < row.length; i++) {
+            ArrowColumnVector vector = vectors.get(i);
+            try {
+                vector.append(getColumnValue(session.getProgressMonitor(), columns[i], row[i]));
+            } catch (IllegalArgumentException e) {
+                throw new DBException("Can't write value of column '" + columns[i].getName() + "' as " + vector.getType(), e);
+            }
+            dataSize += vector.getDataSize();
+        }
+        batchRowCount++;
+        if (batchRowCount >= batchSize || dataSize >= MAX_BATCH_DATA_SIZE) {
+            writeBatch();
+        }
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        writeBatch();
+        arrowWriter.writeEndOfStream();
+    }
+
+    private void writeBatch() throws IOException {
+        if (!schemaWritten) {
+            for (ArrowColumnVector vector : vectors) {
+                // Untyped column has only nulls in the first batch
+                vector.resolveType(ArrowColumnVector.Type.UTF8);
+            }
+            arrowWriter.writeSchema(vectors);
+            schemaWritten = true;
+        }
+        if (batchRowCount > 0) {
+            arrowWriter.writeRecordBatch(vectors, batchRowCount);
+            for (ArrowColumnVector vector : vectors) {
+                vector.reset();
+            }
+            batchRowCount = 0;
+        }
+    }
+
+    private Object getColumnValue(DBRProgressMonitor monitor, DBDAttributeBinding column, Object value) throws DBException, IOException {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        if (value instanceof DBDContent) {
+            DBDContent content = (DBDContent) value;
+            try {
+                if (ContentUtils.isTextContent(content)) {
+                    return ContentUtils.getContentStringValue(monitor, content);
+                }
+                DBDContentStorage cs = content.getContents(monitor);
+                if (cs == null) {
+                    return null;
+                }
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                try (InputStream stream = cs.getContentStream()) {
+                    IOUtils.copyStream(stream, buffer);
+                }
+                return buffer.toByteArray();
+            } finally {
+                content.release();
+            }
+        }
+        if (value instanceof Boolean || value instanceof Number || value instanceof String || value instanceof byte[] ||
+            (value instanceof Date && !(value instanceof Time)) || value instanceof LocalDate || value instanceof LocalDateTime)
+        {
+            return value;
+        }
+        return super.getValueDisplayString(column, value);
+    }
+
+    /**
+     * Resolves Arrow type by the column metadata.
+     * Returns null if column type can't be determined without values.
+     */
+    @Nullable
+    private static ArrowColumnVector.Type getColumnType(DBDAttributeBinding column, ArrowColumnVector vector) {
+        switch (column.getDataKind()) {
+            case BOOLEAN:
+                return ArrowColumnVector.Type.BOOL;
+            case NUMERIC: {
+                Class<?> valueType = column.getValueHandler().getValueObjectType(column);
+                boolean integerType = valueType == Long.class || valueType == Integer.class || valueType == Short.class || valueType == Byte.class;
+                if (integerType && vector.getDecimalScale() == 0) {
+                    return ArrowColumnVector.Type.INT64;
+                } else if (valueType == Double.class || valueType == Float.class) {
+                    return ArrowColumnVector.Type.FLOAT64;
+                }
+                // Decimals without precision may hold any number, so they are written as strings
+                return vector.hasDecimalPrecision() ? ArrowColumnVector.Type.DECIMAL : ArrowColumnVector.Type.UTF8;
+            }
+            case DATETIME:
+                switch (column.getTypeID()) {
+                    case Types.DATE:
+                        return ArrowColumnVector.Type.DATE;
+                    case Types.TIME:
+                    case Types.TIME_WITH_TIMEZONE:
+                        return ArrowColumnVector.Type.UTF8;
+                    default:
+                        return ArrowColumnVector.Type.TIMESTAMP;
+                }
+            case BINARY:
+                return ArrowColumnVector.Type.BINARY;
+            case CONTENT:
+            case ANY:
+            case UNKNOWN:
+                // Text or binary contents, values of any type
+                return null;
+            default:
+                return ArrowColumnVector.Type.UTF8;
+        }
+    }
+
+}
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.tools.transfer.stream.exporter;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataKind;
@@ -28,6 +30,8 @@ import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkUnloader;
+import org.jkiss.dbeaver.tools.transfer.stream.INativeDataExporter;
 import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferUtils;
 import org.jkiss.dbeaver.utils.ContentUtils;
@@ -43,7 +47,7 @@ import java.util.Map;
 /**
  * CSV Exporter
  */
-public class DataExporterCSV extends StreamExporterAbstract {
+public class DataExporterCSV extends StreamExporterAbstract implements INativeDataExporter {
 
     private static final String PROP_DELIMITER = "delimiter";
     private static final String PROP_ROW_DELIMITER = "rowDelimiter";
@@ -53,6 +57,7 @@ public class DataExporterCSV extends StreamExporterAbstract {
     private static final String PROP_QUOTE_NEVER = "quoteNever";
     private static final String PROP_NULL_STRING = "nullString";
     private static final String PROP_FORMAT_NUMBERS = "formatNumbers";
+    private static final String PROP_NATIVE_EXPORT = "nativeExport";
 
     private static final String DEF_QUOTE_CHAR = "\"";
     private boolean formatNumbers;
@@ -111,6 +116,47 @@ public class DataExporterCSV extends StreamExporterAbstract {
         super.dispose();
     }
 
+    @Nullable
+    @Override
+    public DBSDataBulkUnloader.CSVFormat getNativeFormat(@NotNull Map<String, Object> properties) {
+        if (!CommonUtils.toBoolean(properties.get(PROP_NATIVE_EXPORT)) || CommonUtils.toBoolean(properties.get(PROP_FORMAT_NUMBERS))) {
+            return null;
+        }
+        // Database writes line feed after each row
+        String rowDelimiter = StreamTransferUtils.getDelimiterString(properties, PROP_ROW_DELIMITER);
+        if (ROW_DELIMITER_DEFAULT.equalsIgnoreCase(rowDelimiter.trim())) {
+            rowDelimiter = GeneralUtils.getDefaultLineSeparator();
+        }
+        if (!"\n".equals(rowDelimiter)) {
+            return null;
+        }
+        DBSDataBulkUnloader.CSVFormat format = new DBSDataBulkUnloader.CSVFormat();
+        String delimiter = StreamTransferUtils.getDelimiterString(properties, PROP_DELIMITER);
+        Object quoteProp = properties.get(PROP_QUOTE_CHAR);
+        String quoteStr = quoteProp == null ? DEF_QUOTE_CHAR : quoteProp.toString();
+        if (delimiter.length() != 1 || CommonUtils.isEmpty(quoteStr) || quoteStr.charAt(0) == ' ' ||
+            quoteStr.charAt(0) == delimiter.charAt(0) || CommonUtils.toBoolean(properties.get(PROP_QUOTE_NEVER)))
+        {
+            return null;
+        }
+        format.delimiter = delimiter.charAt(0);
+        format.quoteChar = quoteStr.charAt(0);
+
+        QuoteStrategy quoteStrategy = QuoteStrategy.fromValue(CommonUtils.toString(properties.get(PROP_QUOTE_ALWAYS)));
+        if (quoteStrategy != QuoteStrategy.DISABLED && quoteStrategy != QuoteStrategy.ALL) {
+            return null;
+        }
+        format.quoteAll = quoteStrategy == QuoteStrategy.ALL;
+
+        HeaderPosition header = CommonUtils.valueOf(HeaderPosition.class, String.valueOf(properties.get(PROP_HEADER)), HeaderPosition.top);
+        if (header != HeaderPosition.none && header != HeaderPosition.top) {
+            return null;
+        }
+        format.header = header == HeaderPosition.top;
+        format.nullString = CommonUtils.notEmpty(CommonUtils.toString(properties.get(PROP_NULL_STRING), null));
+        return format;
+    }
+
     @Override
     protected DBDDisplayFormat getValueExportFormat(DBDAttributeBinding column) {
         if (column.getDataKind() == DBPDataKind.NUMERIC && !formatNumbers) {
@@ -0,0 +1,268 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV records parser.
+ * Parses records directly from a char buffer. Follows opencsv CSVReader rules (lines, multi-line quoted values,
+ * escapes, quotes in the middle of a value), so results are the same as with previous opencsv-based importer.
+ *
+ * The same state machine is used to find record boundaries ({@link #scanRecords}) without building values,
+ * so a big stream can be split into chunks of whole records which are parsed independently.
+ * Parser state which is carried between records (in-field flag) is kept in the parser.
+ */
+final class CSVRecordParser {
+
+    private final char separator;
+    private final char quoteChar;
+    private final char escapeChar;
+
+    private boolean inField;
+
+    // Current value: either a range of the source buffer or a builder (if value isn't a contiguous range)
+    private final StringBuilder valueBuilder = new StringBuilder();
+    private boolean useBuilder;
+    private int valueStart;
+    private int valueEnd;
+
+    CSVRecordParser(char separator, char quoteChar, char escapeChar) {
+        this.separator = separator;
+        this.quoteChar = quoteChar;
+        this.escapeChar = escapeChar;
+    }
+
+    boolean isInField() {
+        return inField;
+    }
+
+    void setInField(boolean inField) {
+        this.inField = inField;
+    }
+
+    /**
+     * Finds the end of the last complete record in the buffer range.
+     * Parser state is set to the state at the returned position.
+     *
+     * @param eof true if there is no more data after the range
+     * @return position after the last complete record or {@code start} if there are no complete records
+     */
+    int scanRecords(@NotNull char[] data, int start, int end, boolean eof) {
+        return processRecords(data, start, end, eof, null);
+    }
+
+    /**
+     * Parses complete records in the buffer range. Same as {@link #scanRecords} but also adds parsed records to the list.
+     *
+     * @return position after the last complete record
+     */
+    int parseRecords(@NotNull char[] data, int start, int end, boolean eof, @NotNull List<String[]> records) {
+        return processRecords(data, start, end, eof, records);
+    }
+
+    private int processRecords(char[] data, int start, int end, boolean eof, @Nullable List<String[]> records) {
+        final boolean parse = records != null;
+        final List<String> values = parse ? new ArrayList<>() : null;
+
+        int recordsEnd = start;
+        boolean recordsEndInField = inField;
+        boolean pending = false;
+
+        int lineStart = start;
+        while (lineStart < end) {
+            // Find line end. Line terminators are \n, \r or \r\n
+            int lineEnd = lineStart;
+            while (lineEnd < end && data[lineEnd] != '\n' && data[lineEnd] != '\r') {
+                lineEnd++;
+            }
+            int nextLineStart;
+            if (lineEnd < end) {
+                if (data[lineEnd] == '\r') {
+                    if (lineEnd + 1 < end) {
+                        nextLineStart = data[lineEnd + 1] == '\n' ? lineEnd + 2 : lineEnd + 1;
+                    } else if (eof) {
+                        nextLineStart = end;
+                    } else {
+                        // Can't tell whether it is \r\n
+                        break;
+                    }
+                } else {
+                    nextLineStart = lineEnd + 1;
+                }
+            } else if (eof) {
+                nextLineStart = end;
+            } else {
+                // Incomplete line
+                break;
+            }
+
+            pending = processLine(data, lineStart, lineEnd, pending, values);
+            if (!pending) {
+                if (parse) {
+                    records.add(values.toArray(new String[0]));
+                    values.clear();
+                }
+                recordsEnd = nextLineStart;
+                recordsEndInField = inField;
+            }
+            lineStart = nextLineStart;
+        }
+
+        if (pending && eof && lineStart >= end) {
+            // Unterminated quoted value at the end of stream. Its content is lost (like in opencsv)
+            if (parse && !values.isEmpty()) {
+                records.add(values.toArray(new String[0]));
+            }
+            recordsEnd = end;
+            recordsEndInField = inField;
+        }
+        inField = recordsEndInField;
+        return recordsEnd;
+    }
+
+    /**
+     * Processes a single line. Values are added to the list (if it is not null)
+     *
+     * @param pending line continues quoted value from the previous line
+     * @return true if line ends within quoted value
+     */
+    private boolean processLine(char[] data, int start, int end, boolean pending, @Nullable List<String> values) {
+        final boolean parse = values != null;
+        boolean inQuotes = false;
+        if (pending) {
+            // Value builder contains the beginning of the value
+            inQuotes = true;
+        } else if (parse) {
+            resetValue();
+        }
+        for (int i = start; i < end; i++) {
+            char c = data[i];
+            if (c == escapeChar) {
+                if ((inQuotes || inField) && i + 1 < end && (data[i + 1] == quoteChar || data[i + 1] == escapeChar)) {
+                    if (parse) {
+                        appendValue(data, i + 1);
+                    }
+                    i++;
+                }
+            } else if (c == quoteChar) {
+                if ((inQuotes || inField) && i + 1 < end && data[i + 1] == quoteChar) {
+                    // Escaped quote
+                    if (parse) {
+                        appendValue(data, i + 1);
+                    }
+                    i++;
+                } else {
+                    // Quote in the middle of the value (a,bc"d"ef,g) is kept
+                    if (parse && i - start > 2 && data[i - 1] != separator && i + 1 < end && data[i + 1] != separator) {
+                        if (isValueWhitespace(data)) {
+                            // Discard white space leading up to quote
+                            resetValue();
+                        } else {
+                            appendValue(data, i);
+                        }
+                    }
+                    inQuotes = !inQuotes;
+                }
+                inField = !inField;
+            } else if (c == separator && !inQuotes) {
+                if (parse) {
+                    values.add(getValue(data));
+                    resetValue();
+                }
+                inField = false;
+            } else {
+                if (parse) {
+                    appendValue(data, i);
+                }
+                inField = true;
+            }
+        }
+        if (inQuotes) {
+            if (parse) {
+                // Multi-line value
+                switchToBuilder(data);
+                valueBuilder.append('\n');
+            }
+            return true;
+        }
+        if (parse) {
+            values.add(getValue(data));
+            resetValue();
+        }
+        return false;
+    }
+
+    private void resetValue() {
+        useBuilder = false;
+        valueStart = valueEnd = 0;
+    }
+
+    private void appendValue(char[] data, int pos) {
+        if (useBuilder) {
+            valueBuilder.append(data[pos]);
+        } else if (valueStart == valueEnd) {
+            valueStart = pos;
+            valueEnd = pos + 1;
+        } else if (valueEnd == pos) {
+            valueEnd++;
+        } else {
+            switchToBuilder(data);
+            valueBuilder.append(data[pos]);
+        }
+    }
+
+    private void switchToBuilder(char[] data) {
+        if (!useBuilder) {
+            valueBuilder.setLength(0);
+            valueBuilder.append(data, valueStart, valueEnd - valueStart);
+            useBuilder = true;
+        }
+    }
+
+    private boolean isValueWhitespace(char[] data) {
+        if (useBuilder) {
+            if (valueBuilder.length() == 0) {
+                return false;
+            }
+            for (int i = 0; i < valueBuilder.length(); i++) {
+                if (!Character.isWhitespace(valueBuilder.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (valueStart == valueEnd) {
+            return false;
+        }
+        for (int i = valueStart; i < valueEnd; i++) {
+            if (!Character.isWhitespace(data[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getValue(char[] data) {
+        return useBuilder ? valueBuilder.toString() : new String(data, valueStart, valueEnd - valueStart);
+    }
+
+}
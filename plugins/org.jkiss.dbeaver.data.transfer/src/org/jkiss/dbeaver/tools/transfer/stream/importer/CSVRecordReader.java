@@ -0,0 +1,320 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * CSV records reader.
+ * Reads the stream in big chunks which are split on record boundaries. Chunks are parsed
+ * (and rows are converted) by worker threads while the caller consumes rows of previous chunks.
+ * Rows are returned in the stream order.
+ *
+ * If there are no workers then chunks are read and parsed in the caller thread.
+ */
+public final class CSVRecordReader implements AutoCloseable {
+
+    private static final Log log = Log.getLog(CSVRecordReader.class);
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private static final long CLOSE_CHECK_PERIOD = 100;
+
+    private static final Chunk END_OF_STREAM = new Chunk(new char[0], 0, false, false);
+
+    private final Reader reader;
+    private final char separator;
+    private final char quoteChar;
+    private final char escapeChar;
+    private final Function<String[], Object[]> rowConverter;
+
+    // Chunk reader state
+    private final CSVRecordParser scanner;
+    // Data of incomplete records. Chunks always start at the beginning of the buffer
+    private char[] buffer = new char[CHUNK_SIZE];
+    private int bufferEnd;
+    private boolean eof;
+    private boolean skipFirstRecord;
+
+    // Parallel parsing
+    private final List<Thread> threads = new ArrayList<>();
+    private final BlockingQueue<Chunk> readyChunks;
+    private final BlockingQueue<Chunk> parseQueue = new LinkedBlockingQueue<>();
+    private volatile IOException readError;
+    private volatile boolean closed;
+
+    private List<Object[]> rows = Collections.emptyList();
+    private int rowIndex;
+    private boolean finished;
+
+    /**
+     * @param workerCount number of parser threads. If zero then stream is parsed in the caller thread.
+     * @param skipHeader skip the first record of the stream
+     * @param rowConverter converts parsed records into rows. Invoked in worker threads, so it must be thread-safe.
+     */
+    public CSVRecordReader(
+        @NotNull Reader reader,
+        char separator,
+        char quoteChar,
+        char escapeChar,
+        int workerCount,
+        boolean skipHeader,
+        @Nullable Function<String[], Object[]> rowConverter)
+    {
+        this.reader = reader;
+        this.separator = separator;
+        this.quoteChar = quoteChar;
+        this.escapeChar = escapeChar;
+        this.rowConverter = rowConverter;
+        this.scanner = new CSVRecordParser(separator, quoteChar, escapeChar);
+        this.skipFirstRecord = skipHeader;
+
+        if (workerCount > 0) {
+            this.readyChunks = new ArrayBlockingQueue<>(workerCount * 2);
+            Thread readerThread = new Thread(this::readChunks, "CSV reader");
+            readerThread.setDaemon(true);
+            threads.add(readerThread);
+            for (int i = 0; i < workerCount; i++) {
+                Thread parserThread = new Thread(this::parseChunks, "CSV parser #" + (i + 1));
+                parserThread.setDaemon(true);
+                threads.add(parserThread);
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+        } else {
+            this.readyChunks = null;
+        }
+    }
+
+    /**
+     * Returns next row or null if end of stream was reached
+     */
+    @Nullable
+    public Object[] readNext() throws IOException {
+        while (rowIndex >= rows.size()) {
+            if (finished) {
+                return null;
+            }
+            Chunk chunk = readyChunks == null ? readChunk(true) : takeReadyChunk();
+            if (chunk == null || chunk == END_OF_STREAM) {
+                finished = true;
+                rows = Collections.emptyList();
+                rowIndex = 0;
+                if (readError != null) {
+                    throw readError;
+                }
+                return null;
+            }
+            rows = chunk.getRows();
+            rowIndex = 0;
+        }
+        Object[] row = rows.get(rowIndex);
+        // Release parsed rows as soon as possible
+        rows.set(rowIndex++, null);
+        return row;
+    }
+
+    /**
+     * Stops worker threads. Doesn't close the source reader.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        threads.clear();
+    }
+
+    private Chunk takeReadyChunk() throws IOException {
+        Chunk chunk;
+        try {
+            chunk = readyChunks.take();
+            if (chunk != END_OF_STREAM) {
+                chunk.await();
+            }
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("CSV reading interrupted");
+        }
+        return chunk;
+    }
+
+    /**
+     * Reads next chunk of complete records
+     *
+     * @param parse parse records in the current thread while searching for the last complete record
+     */
+    @Nullable
+    private Chunk readChunk(boolean parse) throws IOException {
+        for (;;) {
+            if (!eof) {
+                if (bufferEnd == buffer.length) {
+                    // Record doesn't fit into the buffer
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                while (bufferEnd < buffer.length) {
+                    int count = reader.read(buffer, bufferEnd, buffer.length - bufferEnd);
+                    if (count < 0) {
+                        eof = true;
+                        break;
+                    }
+                    bufferEnd += count;
+                }
+            }
+            boolean inField = scanner.isInField();
+            List<String[]> records = parse ? new ArrayList<>() : null;
+            int recordsEnd = parse ?
+                scanner.parseRecords(buffer, 0, bufferEnd, eof, records) :
+                scanner.scanRecords(buffer, 0, bufferEnd, eof);
+            if (recordsEnd > 0) {
+                Chunk chunk = new Chunk(buffer, recordsEnd, inField, skipFirstRecord);
+                skipFirstRecord = false;
+                if (records != null) {
+                    chunk.convertRecords(this, records);
+                }
+                // Move the rest of data into the new buffer. Chunk keeps the old one.
+                char[] newBuffer = new char[Math.max(CHUNK_SIZE, (bufferEnd - recordsEnd) * 2)];
+                System.arraycopy(buffer, recordsEnd, newBuffer, 0, bufferEnd - recordsEnd);
+                buffer = newBuffer;
+                bufferEnd -= recordsEnd;
+                return chunk;
+            }
+            if (eof) {
+                return null;
+            }
+        }
+    }
+
+    private void readChunks() {
+        try {
+            while (!closed) {
+                Chunk chunk = readChunk(false);
+                if (chunk == null) {
+                    break;
+                }
+                // Add to ready queue first: it limits the number of chunks in memory
+                readyChunks.put(chunk);
+                parseQueue.put(chunk);
+            }
+        } catch (InterruptedException e) {
+            // Reader was closed
+        } catch (Throwable e) {
+            if (!closed) {
+                log.debug("Error reading CSV data", e);
+                readError = e instanceof IOException ? (IOException) e : new IOException("Error reading CSV data", e);
+            }
+        } finally {
+            // Consumer waits for the end of stream even if reading failed
+            try {
+                while (!closed && !readyChunks.offer(END_OF_STREAM, CLOSE_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
+                    // Queue is full, consumer still reads previous chunks
+                }
+            } catch (InterruptedException e) {
+                // Reader was closed
+            }
+        }
+    }
+
+    private void parseChunks() {
+        try {
+            while (!closed) {
+                parseQueue.take().parse(this);
+            }
+        } catch (InterruptedException e) {
+            // Reader was closed
+        }
+    }
+
+    /**
+     * Chunk of complete records. Records start at the beginning of the data buffer.
+     */
+    private static class Chunk {
+        private final char[] data;
+        private final int length;
+        private final boolean inField;
+        private final boolean skipFirstRecord;
+        private final CountDownLatch parsed = new CountDownLatch(1);
+        private List<Object[]> rows;
+        private IOException error;
+
+        Chunk(char[] data, int length, boolean inField, boolean skipFirstRecord) {
+            this.data = data;
+            this.length = length;
+            this.inField = inField;
+            this.skipFirstRecord = skipFirstRecord;
+        }
+
+        void parse(CSVRecordReader owner) {
+            CSVRecordParser parser = new CSVRecordParser(owner.separator, owner.quoteChar, owner.escapeChar);
+            parser.setInField(inField);
+            List<String[]> records = new ArrayList<>();
+            try {
+                parser.parseRecords(data, 0, length, true, records);
+            } catch (Throwable e) {
+                log.debug("Error parsing CSV chunk", e);
+                error = new IOException("Error parsing CSV data", e);
+                parsed.countDown();
+                return;
+            }
+            convertRecords(owner, records);
+        }
+
+        void convertRecords(CSVRecordReader owner, List<String[]> records) {
+            try {
+                List<Object[]> result = new ArrayList<>(records.size());
+                for (int i = skipFirstRecord ? 1 : 0; i < records.size(); i++) {
+                    String[] record = records.get(i);
+                    result.add(owner.rowConverter == null ? record : owner.rowConverter.apply(record));
+                }
+                rows = result;
+            } catch (Throwable e) {
+                log.debug("Error converting CSV rows", e);
+                error = new IOException("Error converting CSV data", e);
+            } finally {
+                parsed.countDown();
+            }
+        }
+
+        void await() throws InterruptedException {
+            parsed.await();
+        }
+
+        List<Object[]> getRows() throws IOException {
+            if (error != null) {
+                throw error;
+            }
+            return rows;
+        }
+    }
+
+}
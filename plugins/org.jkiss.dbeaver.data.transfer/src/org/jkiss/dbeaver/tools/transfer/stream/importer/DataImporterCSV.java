@@ -16,7 +16,6 @@
  */
 package org.jkiss.dbeaver.tools.transfer.stream.importer;
 
-import au.com.bytecode.opencsv.CSVReader;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
@@ -41,6 +40,7 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * CSV importer
@@ -55,6 +55,9 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_NULL_STRING = "nullString";
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
+    private static final String PROP_PARSE_THREADS = "parseThreads";
+
+    private static final int MAX_PARSE_THREADS = 4;
 
     public enum HeaderPosition {
         none,
@@ -75,7 +78,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
         final int columnMinimalLength = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
 
         try (Reader reader = openStreamReader(inputStream, processorProperties)) {
-            try (CSVReader csvReader = openCSVReader(reader, processorProperties)) {
+            try (CSVRecordReader csvReader = openCSVReader(reader, processorProperties, 0, false, null)) {
                 String[] header = getNextLine(csvReader);
                 if (header == null) {
                     return columnsInfo;
@@ -150,7 +153,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
         return CommonUtils.valueOf(HeaderPosition.class, CommonUtils.toString(processorProperties.get(PROP_HEADER)), HeaderPosition.top);
     }
 
-    private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
+    private CSVRecordReader openCSVReader(Reader reader, Map<String, Object> processorProperties, int workerCount, boolean skipHeader, Function<String[], Object[]> rowConverter) {
         String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
@@ -160,7 +163,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = "\\";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return new CSVRecordReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0), workerCount, skipHeader, rowConverter);
     }
 
     private InputStreamReader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties) throws UnsupportedEncodingException {
@@ -174,9 +177,10 @@ public class DataImporterCSV extends StreamImporterAbstract {
         return new InputStreamReader(inputStream, charset);
     }
 
-    private String[] getNextLine(CSVReader csvReader) throws IOException {
+    private String[] getNextLine(CSVRecordReader csvReader) throws IOException {
         while (true) {
-            String[] line = csvReader.readNext();
+            // Reader without row converter returns parsed records
+            String[] line = (String[]) csvReader.readNext();
             if (line == null) {
                 return null;
             }
@@ -205,57 +209,43 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
             applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
 
-            try (Reader reader = openStreamReader(inputStream, properties)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
+            int maxRows = site.getSettings().getMaxRows();
+            int targetAttrSize = entityMapping.getStreamColumns().size();
+            int parseThreads = CommonUtils.toInt(properties.get(PROP_PARSE_THREADS));
+            if (parseThreads <= 0) {
+                // Keep one processor for the consumer. Parse in the current thread if there is only one.
+                parseThreads = Math.min(MAX_PARSE_THREADS, Runtime.getRuntime().availableProcessors() - 1);
+            }
+            // Rows are prepared in parser threads
+            Function<String[], Object[]> rowConverter = line -> {
+                // Stream row may be shorter than header
+                Object[] row = new Object[Math.max(line.length, targetAttrSize)];
+                for (int i = 0; i < line.length; i++) {
+                    String value = line[i];
+                    if ((emptyStringNull && "".equals(value)) || (!CommonUtils.isEmpty(nullValueMark) && nullValueMark.equals(value))) {
+                        value = null;
+                    }
+                    row[i] = value;
+                }
+                resultSet.convertStreamRow(row);
+                return row;
+            };
 
-                    int maxRows = site.getSettings().getMaxRows();
-                    int targetAttrSize = entityMapping.getStreamColumns().size();
-                    boolean headerRead = false;
+            try (Reader reader = openStreamReader(inputStream, properties)) {
+                try (CSVRecordReader csvReader = openCSVReader(reader, properties, parseThreads, headerPosition != HeaderPosition.none, rowConverter)) {
                     for (int lineNum = 0; ; ) {
                         if (monitor.isCanceled()) {
                             break;
                         }
-                        String[] line = csvReader.readNext();
-                        if (line == null) {
-                            break;
-                        }
-                        if (line.length == 0) {
-                            continue;
-                        }
-                        if (headerPosition != HeaderPosition.none && !headerRead) {
-                            // First line is a header
-                            headerRead = true;
-                            continue;
-                        }
                         if (maxRows > 0 && lineNum >= maxRows) {
                             break;
                         }
-
-                        if (line.length < targetAttrSize) {
-                            // Stream row may be shorter than header
-                            String[] newLine = new String[targetAttrSize];
-                            System.arraycopy(line, 0, newLine, 0, line.length);
-                            for (int i = line.length; i < targetAttrSize; i++) {
-                                newLine[i] = null;
-                            }
-                            line = newLine;
-                        }
-                        if (emptyStringNull) {
-                            for (int i = 0; i < line.length; i++) {
-                                if ("".equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-                        if (!CommonUtils.isEmpty(nullValueMark)) {
-                            for (int i = 0; i < line.length; i++) {
-                                if (nullValueMark.equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
+                        Object[] row = csvReader.readNext();
+                        if (row == null) {
+                            break;
                         }
 
-                        resultSet.setStreamRow(line);
+                        resultSet.setStreamRow(row);
                         consumer.fetchRow(producerSession, resultSet);
                         lineNum++;
 
@@ -129,7 +129,23 @@ public class DTTaskHandlerTransfer implements DBTTaskHandler {
         if (totalJobs > settings.getMaxJobCount()) {
             totalJobs = settings.getMaxJobCount();
         }
+        if (totalJobs > 1 && !DataTransferScheduler.isParallelTransferSupported(settings)) {
+            totalJobs = 1;
+        }
         Throwable error = null;
+        if (totalJobs > 1) {
+            // Run pipes in parallel workers
+            DataTransferScheduler scheduler = new DataTransferScheduler(settings, task, locale, log, listener, totalJobs);
+            try {
+                runnableContext.run(true, true, scheduler);
+            } catch (InvocationTargetException e) {
+                error = e.getTargetException();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+            listener.subTaskFinished(error);
+            return error;
+        }
         for (int i = 0; i < totalJobs; i++) {
             DataTransferJob job = new DataTransferJob(settings, task, locale, log, listener);
             try {
@@ -212,6 +212,7 @@ public class MySQLConstants {
     public static final String TYPE_YEAR = "year";
     public static final String TYPE_ENUM = "enum";
     public static final String TYPE_SET = "set";
+    public static final String TYPE_BIT = "bit";
     public static final String TYPE_VARBINARY = "VARBINARY";
 
     public static final String BIN_FOLDER = "bin";
@@ -0,0 +1,194 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.mysql.MySQLConstants;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.data.TextBulkLoadManager;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * Bulk loader which uses LOAD DATA LOCAL INFILE.
+ * Rows are passed to the driver as in-memory stream (setLocalInfileInputStream), no files are created.
+ * Requires local_infile enabled on server and allowLoadLocalInfile (allowLocalInfile for MariaDB) in the driver properties.
+ * If either is disabled then rows are inserted with regular batches.
+ * LOAD DATA LOCAL skips duplicates and truncates or converts bad values reporting only warnings,
+ * so any warning fails the load.
+ */
+public class MySQLBulkLoader implements DBSDataBulkLoader {
+
+    private static final Log log = Log.getLog(MySQLBulkLoader.class);
+
+    private static final String LOCAL_INFILE_METHOD = "setLocalInfileInputStream";
+    private static final String PROP_ALLOW_LOAD_LOCAL_INFILE = "allowLoadLocalInfile";
+    private static final String PROP_ALLOW_LOCAL_INFILE_MARIADB = "allowLocalInfile";
+    private static final int MAX_REPORTED_WARNINGS = 10;
+
+    private final MySQLDataSource dataSource;
+
+    public MySQLBulkLoader(MySQLDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Nullable
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataManipulator dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source) throws DBCException
+    {
+        if (!(session instanceof JDBCSession) || !(dataContainer instanceof MySQLTable) || !TextBulkLoadManager.isSupportedAttributes(attributes)) {
+            return null;
+        }
+        for (DBSAttributeBase attr : attributes) {
+            if (MySQLConstants.TYPE_BIT.equalsIgnoreCase(attr.getTypeName())) {
+                // BIT values can't be loaded from text
+                return null;
+            }
+        }
+        if (!isLocalInfileAllowedByDriver()) {
+            log.debug("LOAD DATA LOCAL is disabled in driver properties");
+            return null;
+        }
+        JDBCSession jdbcSession = (JDBCSession) session;
+        try {
+            if (!CommonUtils.toBoolean(JDBCUtils.queryString(jdbcSession, "SELECT @@local_infile"))) {
+                log.debug("LOAD DATA LOCAL is disabled on server");
+                return null;
+            }
+        } catch (SQLException e) {
+            log.debug("Error reading local_infile variable", e);
+            return null;
+        }
+
+        StringBuilder sql = new StringBuilder();
+        sql.append("LOAD DATA LOCAL INFILE 'dbeaver_bulk_load' INTO TABLE ")
+            .append(DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML))
+            .append(" CHARACTER SET ").append(dataSource.isServerVersionAtLeast(5, 5) ? "utf8mb4" : "utf8")
+            .append(" (");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) sql.append(",");
+            sql.append(DBUtils.getQuotedIdentifier(dataSource, attributes[i].getName()));
+        }
+        sql.append(")");
+
+        return new LoadDataManager(attributes, sql.toString());
+    }
+
+    /**
+     * Checks local infile property of the connection or the driver.
+     * If it isn't set then the driver default is used: MariaDB driver allows local infile,
+     * recent MySQL Connector/J versions do not.
+     */
+    private boolean isLocalInfileAllowedByDriver() {
+        String propName = dataSource.isMariaDB() ? PROP_ALLOW_LOCAL_INFILE_MARIADB : PROP_ALLOW_LOAD_LOCAL_INFILE;
+        DBPConnectionConfiguration connectionInfo = dataSource.getContainer().getActualConnectionConfiguration();
+        Object value = connectionInfo.getProperty(propName);
+        if (value == null) {
+            value = dataSource.getContainer().getDriver().getConnectionProperties().get(propName);
+        }
+        if (value != null) {
+            return CommonUtils.toBoolean(value);
+        }
+        return dataSource.isMariaDB();
+    }
+
+    @Nullable
+    private static Method findLocalInfileMethod(Class<?> statementClass) {
+        try {
+            Method method = statementClass.getMethod(LOCAL_INFILE_METHOD, InputStream.class);
+            method.setAccessible(true);
+            return method;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static class LoadDataManager extends TextBulkLoadManager {
+        private final String loadSQL;
+
+        LoadDataManager(DBSAttributeBase[] attributes, String loadSQL) {
+            super(attributes);
+            this.loadSQL = loadSQL;
+        }
+
+        @Override
+        protected void loadRows(@NotNull DBCSession session, @NotNull CharSequence rows, int rowCount) throws DBCException {
+            session.getProgressMonitor().subTask("Load " + rowCount + " row(s)");
+            try (Statement statement = ((JDBCSession) session).getOriginal().createStatement()) {
+                Method localInfileMethod = findLocalInfileMethod(statement.getClass());
+                if (localInfileMethod == null) {
+                    throw new DBCException("Driver doesn't support LOAD DATA from stream");
+                }
+                localInfileMethod.invoke(statement, new ByteArrayInputStream(rows.toString().getBytes(StandardCharsets.UTF_8)));
+                statement.execute(loadSQL);
+                int loadedRows = statement.getUpdateCount();
+                SQLWarning warning = statement.getWarnings();
+                if (warning != null || (loadedRows >= 0 && loadedRows != rowCount)) {
+                    throw new DBCException(
+                        makeWarningsMessage(loadedRows, rowCount, warning), warning, session.getExecutionContext());
+                }
+            } catch (SQLException e) {
+                throw new DBCException("Error loading data", e, session.getExecutionContext());
+            } catch (InvocationTargetException e) {
+                throw new DBCException("Error loading data", e.getTargetException(), session.getExecutionContext());
+            } catch (IllegalAccessException e) {
+                throw new DBCException("Error calling driver API", e, session.getExecutionContext());
+            }
+        }
+
+        @NotNull
+        private static String makeWarningsMessage(int loadedRows, int rowCount, @Nullable SQLWarning warning) {
+            StringBuilder message = new StringBuilder();
+            message.append("LOAD DATA loaded ").append(loadedRows).append(" of ").append(rowCount).append(" row(s)");
+            int warningCount = 0;
+            for (SQLWarning w = warning; w != null; w = w.getNextWarning()) {
+                if (warningCount == MAX_REPORTED_WARNINGS) {
+                    message.append("\n...");
+                    break;
+                }
+                message.append("\n").append(w.getMessage());
+                warningCount++;
+            }
+            return message.toString();
+        }
+    }
+
+}
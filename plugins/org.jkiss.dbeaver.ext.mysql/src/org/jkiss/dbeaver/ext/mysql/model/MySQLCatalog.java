@@ -39,6 +39,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityConstraintType;
+import org.jkiss.dbeaver.model.struct.DBSEntityStructureCache;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
@@ -62,7 +63,7 @@ import java.util.Map;
 public class MySQLCatalog implements
     DBSCatalog, DBPSaveableObject, DBPRefreshableObject, DBPSystemObject,
     DBSProcedureContainer, DBPObjectStatisticsCollector, DBPObjectStatistics,
-    DBPScriptObject, DBPScriptObjectExt2
+    DBPScriptObject, DBPScriptObjectExt2, DBSEntityStructureCache
 {
 
     final TableCache tableCache = new TableCache();
@@ -439,6 +440,23 @@ public class MySQLCatalog implements
         }
     }
 
+    @Override
+    public synchronized void cacheEntityStructure(@NotNull DBRProgressMonitor monitor, @NotNull Collection<? extends DBSEntity> entities, int scope)
+        throws DBException
+    {
+        if ((scope & STRUCT_ATTRIBUTES) != 0) {
+            monitor.subTask("Cache table columns");
+            tableCache.loadChildrenOf(monitor, this, entities);
+        }
+        if ((scope & STRUCT_ASSOCIATIONS) != 0) {
+            monitor.subTask("Cache table constraints");
+            uniqueKeyCache.loadObjectsOf(monitor, this, entities);
+            if (getDataSource().supportsCheckConstraints()) {
+                checkConstraintCache.loadObjectsOf(monitor, this, entities);
+            }
+        }
+    }
+
     @Override
     public boolean isStatisticsCollected() {
         return hasStatistics;
@@ -528,6 +546,23 @@ public class MySQLCatalog implements
         return name + " [" + dataSource.getContainer().getName() + "]";
     }
 
+    private static void appendNamesFilter(@NotNull StringBuilder sql, @NotNull String column, int count) {
+        sql.append(" AND ").append(column).append(" IN (");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sql.append(",");
+            }
+            sql.append("?");
+        }
+        sql.append(")");
+    }
+
+    private static void bindNames(@NotNull JDBCPreparedStatement dbStat, int firstIndex, @NotNull List<? extends DBSObject> objects) throws SQLException {
+        for (int i = 0; i < objects.size(); i++) {
+            dbStat.setString(firstIndex + i, objects.get(i).getName());
+        }
+    }
+
     public static class TableCache extends JDBCStructLookupCache<MySQLCatalog, MySQLTableBase, MySQLTableColumn> {
 
         TableCache()
@@ -625,6 +660,23 @@ public class MySQLCatalog implements
             return dbStat;
         }
 
+        @Override
+        protected JDBCStatement prepareChildrenBatchStatement(@NotNull JDBCSession session, @NotNull MySQLCatalog owner, @NotNull List<MySQLTableBase> forTables)
+            throws SQLException
+        {
+            StringBuilder sql = new StringBuilder();
+            sql
+                .append("SELECT * FROM ").append(MySQLConstants.META_TABLE_COLUMNS)
+                .append(" WHERE ").append(MySQLConstants.COL_TABLE_SCHEMA).append("=?");
+            appendNamesFilter(sql, MySQLConstants.COL_TABLE_NAME, forTables.size());
+            sql.append(" ORDER BY ").append(MySQLConstants.COL_ORDINAL_POSITION);
+
+            JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString());
+            dbStat.setString(1, owner.getName());
+            bindNames(dbStat, 2, forTables);
+            return dbStat;
+        }
+
         @Override
         protected MySQLTableColumn fetchChild(@NotNull JDBCSession session, @NotNull MySQLCatalog owner, @NotNull MySQLTableBase table, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException
@@ -757,6 +809,23 @@ public class MySQLCatalog implements
             return dbStat;
         }
 
+        @Override
+        protected JDBCStatement prepareObjectsBatchStatement(JDBCSession session, MySQLCatalog owner, List<MySQLTable> forTables)
+            throws SQLException
+        {
+            StringBuilder sql = new StringBuilder(500);
+            sql.append(
+                "SELECT kc.CONSTRAINT_NAME,kc.TABLE_NAME,kc.COLUMN_NAME,kc.ORDINAL_POSITION\n" +
+                "FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE kc WHERE kc.TABLE_SCHEMA=? AND kc.REFERENCED_TABLE_NAME IS NULL");
+            appendNamesFilter(sql, "kc.TABLE_NAME", forTables.size());
+            sql.append("\nORDER BY kc.CONSTRAINT_NAME,kc.ORDINAL_POSITION");
+
+            JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString());
+            dbStat.setString(1, owner.getName());
+            bindNames(dbStat, 2, forTables);
+            return dbStat;
+        }
+
         @Nullable
         @Override
         protected MySQLTableConstraint fetchObject(JDBCSession session, MySQLCatalog owner, MySQLTable parent, String constraintName, JDBCResultSet dbResult)
@@ -830,6 +899,23 @@ public class MySQLCatalog implements
             return dbStat;
         }
 
+        @Override
+        protected JDBCStatement prepareObjectsBatchStatement(JDBCSession session, MySQLCatalog owner, List<MySQLTable> forTables) throws SQLException {
+            StringBuilder sql = new StringBuilder(500);
+            sql.append(
+                    "SELECT cc.CONSTRAINT_NAME, cc.CHECK_CLAUSE, tc.TABLE_NAME\n" +
+                            "FROM INFORMATION_SCHEMA.CHECK_CONSTRAINTS cc, INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc\n" +
+                            "WHERE cc.CONSTRAINT_NAME = tc.CONSTRAINT_NAME\n" +
+                            "AND cc.CONSTRAINT_SCHEMA =?");
+            appendNamesFilter(sql, "tc.TABLE_NAME", forTables.size());
+            sql.append("\nORDER BY cc.CONSTRAINT_NAME");
+
+            JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString());
+            dbStat.setString(1, owner.getName());
+            bindNames(dbStat, 2, forTables);
+            return dbStat;
+        }
+
         @Override
         protected MySQLTableConstraint fetchObject(JDBCSession session, MySQLCatalog owner, MySQLTable parent, String checkConstraintName, JDBCResultSet resultSet) throws SQLException, DBException {
             return new MySQLTableConstraint(parent, checkConstraintName, null, DBSEntityConstraintType.CHECK, true, resultSet);
@@ -190,6 +190,11 @@ class MySQLDialect extends JDBCSQLDialect {
         return MultiValueInsertMode.GROUP_ROWS;
     }
 
+    @Override
+    public int getMaxStatementParameters() {
+        return 65535;
+    }
+
     @Override
     public boolean supportsAliasInSelect() {
         return true;
@@ -152,6 +152,8 @@ public class OracleConstants {
     public static final String NLS_DEFAULT_VALUE = "Default";
     public static final String PREF_KEY_DDL_FORMAT = "oracle.ddl.format";
     public static final int MAXIMUM_DBMS_OUTPUT_SIZE = 1000000;
+    // Number of lines read by one DBMS_OUTPUT.GET_LINES call
+    public static final int DBMS_OUTPUT_FETCH_SIZE = 1000;
 
     public static final String VAR_ORA_HOME = "ORA_HOME";
     public static final String VAR_ORACLE_HOME = "ORACLE_HOME";
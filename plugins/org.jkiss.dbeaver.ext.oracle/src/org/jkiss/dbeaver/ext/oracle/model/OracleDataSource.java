@@ -771,6 +771,8 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
     }
 
     private class OracleOutputReader implements DBCServerOutputReader {
+        private volatile boolean bulkReadSupported = true;
+
         @Override
         public boolean isServerOutputEnabled() {
             return getContainer().getPreferenceStore().getBoolean(OracleConstants.PREF_DBMS_OUTPUT);
@@ -795,23 +797,71 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
         @Override
         public void readServerOutput(@NotNull DBRProgressMonitor monitor, @NotNull DBCExecutionContext context, @Nullable DBCExecutionResult executionResult, @Nullable DBCStatement statement, @NotNull PrintWriter output) throws DBCException {
             try (JDBCSession session = (JDBCSession) context.openSession(monitor, DBCExecutionPurpose.UTIL, "Read DBMS output")) {
-                try (CallableStatement getLineProc = session.getOriginal().prepareCall("{CALL DBMS_OUTPUT.GET_LINE(?, ?)}")) {
-                    getLineProc.registerOutParameter(1, java.sql.Types.VARCHAR);
-                    getLineProc.registerOutParameter(2, java.sql.Types.INTEGER);
-                    int status = 0;
-                    while (status == 0) {
-                        getLineProc.execute();
-                        status = getLineProc.getInt(2);
-                        if (status == 0) {
-                            String str = getLineProc.getString(1);
-                            if (str != null) {
-                                output.write(str);
+                if (bulkReadSupported) {
+                    try {
+                        readLinesBulk(monitor, session, output);
+                        return;
+                    } catch (SQLException e) {
+                        // DBMSOUTPUT_LINESARRAY is missing in old versions
+                        log.debug("Bulk DBMS output read failed, switching to line by line read", e);
+                        bulkReadSupported = false;
+                    }
+                }
+                readLines(session, output);
+            } catch (SQLException e) {
+                throw new DBCException(e, context);
+            }
+        }
+
+        /**
+         * Reads output lines by batches. Each batch is written out before the next one is requested.
+         */
+        private void readLinesBulk(@NotNull DBRProgressMonitor monitor, @NotNull JDBCSession session, @NotNull PrintWriter output) throws SQLException {
+            try (CallableStatement getLinesProc = session.getOriginal().prepareCall("{CALL DBMS_OUTPUT.GET_LINES(?, ?)}")) {
+                getLinesProc.registerOutParameter(1, java.sql.Types.ARRAY, "DBMSOUTPUT_LINESARRAY");
+                getLinesProc.registerOutParameter(2, java.sql.Types.INTEGER);
+                int lineCount = OracleConstants.DBMS_OUTPUT_FETCH_SIZE;
+                while (lineCount == OracleConstants.DBMS_OUTPUT_FETCH_SIZE && !monitor.isCanceled()) {
+                    getLinesProc.setInt(2, OracleConstants.DBMS_OUTPUT_FETCH_SIZE);
+                    getLinesProc.execute();
+                    lineCount = getLinesProc.getInt(2);
+                    if (lineCount <= 0) {
+                        break;
+                    }
+                    Array linesArray = getLinesProc.getArray(1);
+                    if (linesArray == null) {
+                        break;
+                    }
+                    try {
+                        Object[] lines = (Object[]) linesArray.getArray();
+                        for (int i = 0; i < lineCount && i < lines.length; i++) {
+                            if (lines[i] != null) {
+                                output.write(lines[i].toString());
                             }
                             output.write('\n');
                         }
+                    } finally {
+                        linesArray.free();
+                    }
+                }
+            }
+        }
+
+        private void readLines(@NotNull JDBCSession session, @NotNull PrintWriter output) throws SQLException {
+            try (CallableStatement getLineProc = session.getOriginal().prepareCall("{CALL DBMS_OUTPUT.GET_LINE(?, ?)}")) {
+                getLineProc.registerOutParameter(1, java.sql.Types.VARCHAR);
+                getLineProc.registerOutParameter(2, java.sql.Types.INTEGER);
+                int status = 0;
+                while (status == 0) {
+                    getLineProc.execute();
+                    status = getLineProc.getInt(2);
+                    if (status == 0) {
+                        String str = getLineProc.getString(1);
+                        if (str != null) {
+                            output.write(str);
+                        }
+                        output.write('\n');
                     }
-                } catch (SQLException e) {
-                    throw new DBCException(e, context);
                 }
             }
         }
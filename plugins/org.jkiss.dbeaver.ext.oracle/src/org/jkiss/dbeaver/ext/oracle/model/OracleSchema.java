@@ -540,6 +540,17 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
             }
         }
 
+        @Override
+        protected JDBCStatement prepareChangeMarkerStatement(@NotNull JDBCSession session, @NotNull OracleSchema owner) throws SQLException {
+            // DDL statements (including comments) update LAST_DDL_TIME
+            JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT " + OracleUtils.getSysCatalogHint(owner.getDataSource()) + " COUNT(*),MAX(LAST_DDL_TIME)\n" +
+                    "FROM " + OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), getDataSource(), "OBJECTS") + " O\n" +
+                    "WHERE O.OWNER=? AND O.OBJECT_TYPE IN ('TABLE', 'VIEW', 'MATERIALIZED VIEW')");
+            dbStat.setString(1, owner.getName());
+            return dbStat;
+        }
+
         @Override
         protected OracleTableBase fetchObject(@NotNull JDBCSession session, @NotNull OracleSchema owner, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException
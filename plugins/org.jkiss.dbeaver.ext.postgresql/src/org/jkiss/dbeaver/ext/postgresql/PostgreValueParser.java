@@ -16,8 +16,9 @@
  */
 package org.jkiss.dbeaver.ext.postgresql;
 
-import au.com.bytecode.opencsv.CSVReader;
 import au.com.bytecode.opencsv.CSVWriter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ext.postgresql.model.PostgreDataType;
 import org.jkiss.dbeaver.model.DBPDataKind;
@@ -32,7 +33,6 @@ import org.jkiss.dbeaver.model.struct.DBSTypedObjectEx;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.StringWriter;
 import java.sql.Types;
 import java.util.ArrayList;
@@ -98,9 +98,7 @@ public class PostgreValueParser {
                 return string;
             } else {
                 if (componentType instanceof PostgreDataType) {
-                    checkAmountOfBrackets(string);
-                    List<Object> itemStrings = parseArrayString(string, ",");
-                    return startTransformListOfValuesIntoArray(session, (PostgreDataType)componentType, itemStrings);
+                    return parseArray(session, componentType, string, ",");
                 } else {
                     log.error("Incorrect type '" + arrayType.getFullTypeName() + "'");
                     return string;
@@ -111,72 +109,13 @@ public class PostgreValueParser {
         }
     }
 
-    private static void checkAmountOfBrackets(String string) throws DBCException {
-        int mostLeftMustacheCount = 0;
-        for (int i = 0; i < string.length(); i++) {
-            if (string.charAt(i) == '{') {
-                mostLeftMustacheCount++;
-            } else {
-                break;
-            }
-        }
-        int mostRightMustacheCount = 0;
-        for (int i = string.length() - 1; i > string.length() - 1 - mostLeftMustacheCount; i--) {
-            if (string.charAt(i) == '}') {
-                mostRightMustacheCount++;
-            } else {
-                break;
-            }
-        }
-        if (mostLeftMustacheCount != mostRightMustacheCount) {
-            throw new DBCException("Amount of most left and most right array's brackets is not equal");
-        }
-
-        int leftMustacheCount = 0;
-        for (int i = 0; i < string.length(); i++) {
-            if (string.charAt(i) == '{') {
-                leftMustacheCount++;
-            }
-        }
-        int rightMustacheCount = 0;
-        for (int i = 0; i < string.length(); i++) {
-            if (string.charAt(i) == '}') {
-                rightMustacheCount++;
-            }
-        }
-        if (leftMustacheCount != rightMustacheCount) {
-            throw new DBCException("Amount of array's brackets is not equal");
-        }
-    }
-
-    private static Object startTransformListOfValuesIntoArray(DBCSession session, PostgreDataType itemType, List list) throws DBCException {
-        //If array is one dimensional, we will return array of that type. If array is multidimensional we will return array of JDBCCollections.
-        return transformListOfValuesIntoArray(session, itemType, list, true);
-    }
-
-    private static Object transformListOfValuesIntoArray(DBCSession session, PostgreDataType itemType, List list, boolean firstAttempt) throws DBCException { //transform into array
-        Object[] values = new Object[list.size()];
-        for (int index = 0; index < list.size(); index++) {
-            if (list.get(index) instanceof List) {
-                values[index] = transformListOfValuesIntoArray(session, itemType, (List) list.get(index), false);
-            } else {
-                Object[] itemValues = new Object[list.size()];
-                for (int i = 0; i < list.size(); i++) {
-                    itemValues[i] = convertStringToValue(session, itemType, (String) list.get(i));
-                }
-                if(firstAttempt){
-                    return itemValues;
-                } else {
-                    return new JDBCCollection(itemType, DBUtils.findValueHandler(session, itemType), itemValues);
-                }
-            }
-        }
-        if (firstAttempt) {
-            return values;
-        } else {
-            return new JDBCCollection(itemType, DBUtils.findValueHandler(session, itemType), values);
-
-        }
+    /**
+     * Parses array literal and converts its items into values of the item type.
+     * One-dimensional array is returned as array of item values.
+     * Multidimensional array is returned as array of JDBCCollections.
+     */
+    public static Object[] parseArray(DBCSession session, DBSTypedObject itemType, String string, String delimiter) throws DBCException {
+        return new ArrayParser(string, delimiter, session, itemType).parse();
     }
 
     private static Object convertStringToSimpleValue(DBCSession session, DBSTypedObject itemType, String string) throws DBCException {
@@ -192,11 +131,57 @@ public class PostgreValueParser {
         if (string.isEmpty()) {
             return new String[0];
         }
-        try {
-            return new CSVReader(new StringReader(string)).readNext();
-        } catch (IOException e) {
-            throw new DBCException("Error parsing PGObject", e);
+        // Attributes are separated by commas. Quoted attributes may contain doubled or backslash-escaped quotes.
+        // Whitespaces are part of attribute values.
+        List<String> attributes = new ArrayList<>();
+        StringBuilder buffer = null;
+        int length = string.length();
+        int attrStart = 0;
+        boolean inQuotes = false;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c == '\\' && i + 1 < length && (string.charAt(i + 1) == '"' || string.charAt(i + 1) == '\\')) {
+                buffer = appendAttributeChars(buffer, string, attrStart, i);
+                buffer.append(string.charAt(++i));
+                attrStart = i + 1;
+            } else if (c == '"') {
+                if (inQuotes && i + 1 < length && string.charAt(i + 1) == '"') {
+                    buffer = appendAttributeChars(buffer, string, attrStart, i);
+                    buffer.append('"');
+                    attrStart = i + 2;
+                    i++;
+                } else {
+                    // Quotes are not part of the value
+                    buffer = appendAttributeChars(buffer, string, attrStart, i);
+                    attrStart = i + 1;
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == ',' && !inQuotes) {
+                attributes.add(finishAttribute(buffer, string, attrStart, i));
+                buffer = null;
+                attrStart = i + 1;
+            }
+        }
+        if (inQuotes) {
+            throw new DBCException("Error parsing PGObject: unterminated quoted string");
+        }
+        attributes.add(finishAttribute(buffer, string, attrStart, length));
+        return attributes.toArray(new String[0]);
+    }
+
+    private static StringBuilder appendAttributeChars(StringBuilder buffer, String string, int start, int end) {
+        if (buffer == null) {
+            buffer = new StringBuilder(end - start + 16);
         }
+        return buffer.append(string, start, end);
+    }
+
+    private static String finishAttribute(StringBuilder buffer, String string, int start, int end) {
+        if (buffer == null) {
+            // Plain attribute, no escapes or quotes
+            return string.substring(start, end);
+        }
+        return buffer.append(string, start, end).toString();
     }
 
     public static String generateObjectString(Object[] values) {
@@ -224,125 +209,315 @@ public class PostgreValueParser {
         return "(" + out.toString().trim() + ")";
     }
 
-    // Copied from pgjdbc array parser class
-    // https://github.com/pgjdbc/pgjdbc/blob/master/pgjdbc/src/main/java/org/postgresql/jdbc/PgArray.java
+    /**
+     * Parses array literal into the list of item strings. Nested arrays are returned as nested lists, NULL items as nulls.
+     * Non-standard bounds prefix (like "[0:3]=") is skipped.
+     */
     public static List<Object> parseArrayString(String fieldString, String delimiter) {
-        List<Object> arrayList = new ArrayList<>();
         if (CommonUtils.isEmpty(fieldString)) {
-            return arrayList;
+            return new ArrayList<>();
         }
+        try {
+            return Arrays.asList(new ArrayParser(fieldString, delimiter, null, null).parse());
+        } catch (DBCException e) {
+            log.debug("Error parsing array string '" + fieldString + "': " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-        int dimensionsCount = 1;
-        char delim = delimiter.charAt(0);//connection.getTypeInfo().getArrayDelimiter(oid);
-
-        if (fieldString != null) {
+    /**
+     * Single pass parser of array literals like {1,2,NULL}, {{"a","b\\"c"},{d,e}} or [0:1]={1,2}.
+     * Items are read directly from the source string: substrings are created only for items which are converted
+     * from strings and intermediate buffers only for items with escaped characters.
+     * Integer items are decoded right from the source characters.
+     * If item type is not specified then items are returned as strings and nested arrays as lists.
+     */
+    private static class ArrayParser {
+        private final String string;
+        private final int length;
+        private final char delimiter;
+        @Nullable
+        private final DBCSession session;
+        @Nullable
+        private final DBSTypedObject itemType;
+        private final int itemTypeId;
+        private DBDValueHandler valueHandler;
+        private boolean valueHandlerResolved;
+        private int pos;
+        // Items of all arrays which are being parsed. Copied into the result array at the array end.
+        private Object[] items = new Object[16];
+        private int itemCount;
+        private StringBuilder buffer;
 
-            char[] chars = fieldString.toCharArray();
-            StringBuilder buffer = null;
-            boolean insideString = false;
-            boolean wasInsideString = false; // needed for checking if NULL
-            // value occurred
-            List<List<Object>> dims = new ArrayList<>(); // array dimension arrays
-            List<Object> curArray = arrayList; // currently processed array
+        ArrayParser(@NotNull String string, @NotNull String delimiter, @Nullable DBCSession session, @Nullable DBSTypedObject itemType) {
+            this.string = string;
+            this.length = string.length();
+            this.delimiter = CommonUtils.isEmptyTrimmed(delimiter) ? ',' : delimiter.charAt(0);
+            this.session = session;
+            this.itemType = itemType;
+            this.itemTypeId = itemType == null ? Types.OTHER : itemType.getTypeID();
+        }
 
-            // Starting with 8.0 non-standard (beginning index
-            // isn't 1) bounds the dimensions are returned in the
-            // data formatted like so "[0:3]={0,1,2,3,4}".
-            // Older versions simply do not return the bounds.
-            //
-            // Right now we ignore these bounds, but we could
-            // consider allowing these index values to be used
-            // even though the JDBC spec says 1 is the first
-            // index. I'm not sure what a client would like
-            // to see, so we just retain the old behavior.
-            int startOffset = 0;
-            {
-                if (chars[0] == '[') {
-                    while (chars[startOffset] != '=') {
-                        startOffset++;
-                    }
-                    startOffset++; // skip =
+        Object[] parse() throws DBCException {
+            if (length > 0 && string.charAt(0) == '[') {
+                // Non-standard bounds. Ignore them.
+                int eqPos = string.indexOf('=');
+                if (eqPos < 0) {
+                    throw error("array bounds are not terminated");
                 }
+                pos = eqPos + 1;
             }
+            skipWhitespaces();
+            Object[] values = parseArray();
+            skipWhitespaces();
+            if (pos < length) {
+                throw error("unexpected characters after array end");
+            }
+            return values;
+        }
 
-            for (int i = startOffset; i < chars.length; i++) {
-
-                // escape character that we need to skip
-                if (chars[i] == '\\') {
-                    i++;
-                } else if (!insideString && chars[i] == '{') {
-                    // subarray start
-                    if (dims.isEmpty()) {
-                        dims.add(arrayList);
-                    } else {
-                        List<Object> a = new ArrayList<>();
-                        List<Object> p = dims.get(dims.size() - 1);
-                        p.add(a);
-                        dims.add(a);
+        private Object[] parseArray() throws DBCException {
+            if (pos >= length || string.charAt(pos) != '{') {
+                throw error("'{' expected");
+            }
+            pos++;
+            int firstItem = itemCount;
+            skipWhitespaces();
+            if (pos < length && string.charAt(pos) == '}') {
+                pos++;
+                return new Object[0];
+            }
+            int dimensionKind = 0;
+            for (;;) {
+                skipWhitespaces();
+                if (pos >= length) {
+                    throw error("unexpected end of array");
+                }
+                char c = string.charAt(pos);
+                Object item;
+                if (c == '{') {
+                    if (dimensionKind < 0) {
+                        throw error("unexpected nested array");
                     }
-                    curArray = dims.get(dims.size() - 1);
-
-                    // number of dimensions
-                    {
-                        for (int t = i + 1; t < chars.length; t++) {
-                            if (Character.isWhitespace(chars[t])) {
-                                continue;
-                            } else if (chars[t] == '{') {
-                                dimensionsCount++;
-                            } else {
-                                break;
-                            }
-                        }
+                    dimensionKind = 1;
+                    Object[] nestedValues = parseArray();
+                    item = itemType == null ?
+                        Arrays.asList(nestedValues) :
+                        new JDBCCollection(itemType, getValueHandler(), nestedValues);
+                } else {
+                    if (dimensionKind > 0) {
+                        throw error("nested array expected");
                     }
+                    dimensionKind = -1;
+                    item = c == '"' ? parseQuotedItem() : parseUnquotedItem();
+                }
+                addItem(item);
+                skipWhitespaces();
+                if (pos >= length) {
+                    throw error("unexpected end of array");
+                }
+                c = string.charAt(pos++);
+                if (c == '}') {
+                    break;
+                } else if (c != delimiter) {
+                    throw error("delimiter expected");
+                }
+            }
+            Object[] values = Arrays.copyOfRange(items, firstItem, itemCount);
+            Arrays.fill(items, firstItem, itemCount, null);
+            itemCount = firstItem;
+            return values;
+        }
 
-                    buffer = new StringBuilder();
-                    continue;
-                } else if (chars[i] == '"') {
-                    // quoted element
-                    insideString = !insideString;
-                    wasInsideString = true;
-                    continue;
-                } else if (!insideString && Character.isWhitespace(chars[i])) {
-                    // white space
-                    continue;
-                } else if ((!insideString && (chars[i] == delim || chars[i] == '}'))
-                    || i == chars.length - 1) {
-                    // array end or element end
-                    // when character that is a part of array element
-                    if (chars[i] != '"' && chars[i] != '}' && chars[i] != delim && buffer != null) {
-                        buffer.append(chars[i]);
+        private Object parseQuotedItem() throws DBCException {
+            int start = ++pos;
+            StringBuilder escaped = null;
+            for (; pos < length; pos++) {
+                char c = string.charAt(pos);
+                if (c == '"') {
+                    String text = escaped == null ?
+                        string.substring(start, pos) :
+                        escaped.append(string, start, pos).toString();
+                    pos++;
+                    return convertItem(text);
+                } else if (c == '\\') {
+                    escaped = getBuffer(escaped).append(string, start, pos);
+                    pos++;
+                    if (pos >= length) {
+                        break;
                     }
+                    escaped.append(string.charAt(pos));
+                    start = pos + 1;
+                }
+            }
+            throw error("unterminated quoted item");
+        }
 
-                    String b = buffer == null ? null : buffer.toString();
-
-                    // add element to current array
-                    if (b != null && (!b.isEmpty() || wasInsideString)) {
-                        curArray.add(!wasInsideString && b.equals("NULL") ? null : b);
+        private Object parseUnquotedItem() throws DBCException {
+            int start = pos;
+            int end = pos;
+            StringBuilder escaped = null;
+            for (; pos < length; pos++) {
+                char c = string.charAt(pos);
+                if (c == delimiter || c == '}') {
+                    break;
+                } else if (c == '{' || c == '"') {
+                    throw error("unexpected '" + c + "' in array item");
+                } else if (c == '\\') {
+                    escaped = getBuffer(escaped).append(string, start, pos);
+                    pos++;
+                    if (pos >= length) {
+                        throw error("unexpected end of array");
                     }
+                    escaped.append(string.charAt(pos));
+                    start = pos + 1;
+                    end = start;
+                } else if (!Character.isWhitespace(c)) {
+                    end = pos + 1;
+                }
+            }
+            if (escaped != null) {
+                return convertItem(escaped.append(string, start, Math.max(start, end)).toString());
+            }
+            if (start == end) {
+                throw error("empty array item");
+            }
+            if (end - start == 4 && string.regionMatches(true, start, "NULL", 0, 4)) {
+                return itemType == null ? null : convertValue(null);
+            }
+            if (itemType != null) {
+                Object value = parseIntegerItem(start, end);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return convertItem(string.substring(start, end));
+        }
+
+        // Decodes integer numbers without substring and exceptions. Returns null if number can't be parsed this way.
+        @Nullable
+        private Object parseIntegerItem(int start, int end) {
+            switch (itemTypeId) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    break;
+                default:
+                    return null;
+            }
+            int i = start;
+            boolean negative = false;
+            char c = string.charAt(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+            // 18 digits always fit into long
+            if (i == end || end - i > 18) {
+                return null;
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = string.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return null;
+                }
+                value = value * 10 + digit;
+            }
+            if (negative) {
+                value = -value;
+            }
+            switch (itemTypeId) {
+                case Types.TINYINT:
+                    return value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE ? Byte.valueOf((byte) value) : null;
+                case Types.SMALLINT:
+                    return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE ? Short.valueOf((short) value) : null;
+                case Types.INTEGER:
+                    return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? Integer.valueOf((int) value) : null;
+                default:
+                    return value;
+            }
+        }
 
-                    wasInsideString = false;
-                    buffer = new StringBuilder();
+        private Object convertItem(String text) throws DBCException {
+            if (itemType == null) {
+                return text;
+            }
+            if (text.isEmpty()) {
+                return convertValue(text);
+            }
+            try {
+                switch (itemTypeId) {
+                    case Types.BOOLEAN:
+                        return Character.toLowerCase(text.charAt(0)) == 't';
+                    case Types.TINYINT:
+                        return Byte.parseByte(text);
+                    case Types.SMALLINT:
+                        return Short.parseShort(text);
+                    case Types.INTEGER:
+                        return Integer.parseInt(text);
+                    case Types.BIGINT:
+                        return Long.parseLong(text);
+                    case Types.FLOAT:
+                        return Float.parseFloat(text);
+                    case Types.REAL:
+                    case Types.NUMERIC:
+                    case Types.DOUBLE:
+                        return Double.parseDouble(text);
+                    default:
+                        return convertValue(text);
+                }
+            } catch (NumberFormatException e) {
+                return text;
+            }
+        }
 
-                    // when end of an array
-                    if (chars[i] == '}') {
-                        dims.remove(dims.size() - 1);
+        private Object convertValue(@Nullable String text) throws DBCException {
+            DBDValueHandler handler = getValueHandler();
+            if (handler != null) {
+                return handler.getValueFromObject(session, itemType, text, false, false);
+            } else {
+                return text;
+            }
+        }
 
-                        // when multi-dimension
-                        if (!dims.isEmpty()) {
-                            curArray = dims.get(dims.size() - 1);
-                        }
+        @Nullable
+        private DBDValueHandler getValueHandler() {
+            if (!valueHandlerResolved) {
+                valueHandler = DBUtils.findValueHandler(session, itemType);
+                valueHandlerResolved = true;
+            }
+            return valueHandler;
+        }
 
-                        buffer = null;
-                    }
+        private void addItem(Object item) {
+            if (itemCount == items.length) {
+                items = Arrays.copyOf(items, items.length * 2);
+            }
+            items[itemCount++] = item;
+        }
 
-                    continue;
-                }
+        private StringBuilder getBuffer(@Nullable StringBuilder current) {
+            if (current != null) {
+                return current;
+            }
+            if (buffer == null) {
+                buffer = new StringBuilder();
+            } else {
+                buffer.setLength(0);
+            }
+            return buffer;
+        }
 
-                if (buffer != null) {
-                    buffer.append(chars[i]);
-                }
+        private void skipWhitespaces() {
+            while (pos < length && Character.isWhitespace(string.charAt(pos))) {
+                pos++;
             }
         }
-        return arrayList;
+
+        private DBCException error(String message) {
+            return new DBCException("Error parsing array string at position " + pos + ": " + message);
+        }
     }
 }
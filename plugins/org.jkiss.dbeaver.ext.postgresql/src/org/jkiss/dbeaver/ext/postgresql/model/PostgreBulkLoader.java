@@ -0,0 +1,142 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.data.TextBulkLoadManager;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+
+/**
+ * Bulk loader which uses COPY ... FROM STDIN (CopyManager API of PostgreSQL JDBC driver).
+ * Driver classes are accessed with reflection because driver is loaded dynamically.
+ */
+public class PostgreBulkLoader implements DBSDataBulkLoader {
+
+    private static final Log log = Log.getLog(PostgreBulkLoader.class);
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+    private final PostgreDataSource dataSource;
+
+    public PostgreBulkLoader(PostgreDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Nullable
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataManipulator dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source) throws DBCException
+    {
+        if (!(session instanceof JDBCSession) || !(dataContainer instanceof PostgreTableReal) || !TextBulkLoadManager.isSupportedAttributes(attributes)) {
+            return null;
+        }
+        Object copyManager;
+        Method copyInMethod;
+        try {
+            Connection connection = ((JDBCSession) session).getOriginal();
+            Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS, true, connection.getClass().getClassLoader());
+            Object pgConnection = connection.unwrap(pgConnectionClass);
+            copyManager = pgConnectionClass.getMethod("getCopyAPI").invoke(pgConnection);
+            copyInMethod = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+        } catch (Throwable e) {
+            log.debug("CopyManager API is not available in driver '" + dataSource.getContainer().getDriver().getName() + "'", e);
+            return null;
+        }
+
+        StringBuilder sql = new StringBuilder();
+        sql.append("COPY ").append(DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML)).append(" (");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) sql.append(",");
+            sql.append(DBUtils.getQuotedIdentifier(dataSource, attributes[i].getName()));
+        }
+        sql.append(") FROM STDIN");
+
+        return new CopyLoadManager(attributes, sql.toString(), copyManager, copyInMethod);
+    }
+
+    private static class CopyLoadManager extends TextBulkLoadManager {
+        private final String copySQL;
+        private final Object copyManager;
+        private final Method copyInMethod;
+
+        CopyLoadManager(DBSAttributeBase[] attributes, String copySQL, Object copyManager, Method copyInMethod) {
+            super(attributes);
+            this.copySQL = copySQL;
+            this.copyManager = copyManager;
+            this.copyInMethod = copyInMethod;
+        }
+
+        @Override
+        protected void loadRows(@NotNull DBCSession session, @NotNull CharSequence rows, int rowCount) throws DBCException {
+            session.getProgressMonitor().subTask("Copy " + rowCount + " row(s)");
+            try {
+                copyInMethod.invoke(copyManager, copySQL, new CharSequenceReader(rows));
+            } catch (InvocationTargetException e) {
+                throw new DBCException("Error copying data", e.getTargetException(), session.getExecutionContext());
+            } catch (Exception e) {
+                throw new DBCException("Error calling CopyManager API", e, session.getExecutionContext());
+            }
+        }
+    }
+
+    /**
+     * Reads buffered rows without copying them into a String
+     */
+    private static class CharSequenceReader extends Reader {
+        private final CharSequence data;
+        private int position;
+
+        CharSequenceReader(CharSequence data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (position >= data.length()) {
+                return -1;
+            }
+            int count = Math.min(len, data.length() - position);
+            for (int i = 0; i < count; i++) {
+                cbuf[off + i] = data.charAt(position++);
+            }
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.*;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkUnloader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+
+/**
+ * Bulk unloader which uses COPY (query) TO STDOUT (CopyManager API of PostgreSQL JDBC driver).
+ * Rows are formatted by the server and streamed directly to the output.
+ */
+public class PostgreBulkUnloader implements DBSDataBulkUnloader {
+
+    private static final Log log = Log.getLog(PostgreBulkUnloader.class);
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+    private final PostgreDataSource dataSource;
+
+    public PostgreBulkUnloader(PostgreDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Nullable
+    @Override
+    public BulkUnloadManager createBulkUnload(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull CSVFormat format) throws DBCException
+    {
+        if (!(session instanceof JDBCSession) || !dataSource.isServerVersionAtLeast(9, 0)) {
+            // Options list syntax is supported since 9.0
+            return null;
+        }
+        String query = getSourceQuery(dataContainer, dataFilter);
+        if (query == null) {
+            return null;
+        }
+        Object pgConnection;
+        Object copyManager;
+        Method copyOutMethod;
+        try {
+            Connection connection = ((JDBCSession) session).getOriginal();
+            Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS, true, connection.getClass().getClassLoader());
+            pgConnection = connection.unwrap(pgConnectionClass);
+            copyManager = pgConnectionClass.getMethod("getCopyAPI").invoke(pgConnection);
+            copyOutMethod = copyManager.getClass().getMethod("copyOut", String.class, Writer.class);
+        } catch (Throwable e) {
+            log.debug("CopyManager API is not available in driver '" + dataSource.getContainer().getDriver().getName() + "'", e);
+            return null;
+        }
+
+        StringBuilder sql = new StringBuilder();
+        sql.append("COPY (").append(query).append(") TO STDOUT WITH (FORMAT csv");
+        sql.append(", HEADER ").append(format.header);
+        sql.append(", DELIMITER ").append(SQLUtils.quoteString(dataSource, String.valueOf(format.delimiter)));
+        sql.append(", QUOTE ").append(SQLUtils.quoteString(dataSource, String.valueOf(format.quoteChar)));
+        sql.append(", NULL ").append(SQLUtils.quoteString(dataSource, format.nullString));
+        if (format.quoteAll) {
+            sql.append(", FORCE_QUOTE *");
+        }
+        sql.append(")");
+
+        return new CopyUnloadManager(sql.toString(), pgConnection, copyManager, copyOutMethod);
+    }
+
+    @Nullable
+    private String getSourceQuery(@NotNull DBSDataContainer dataContainer, @Nullable DBDDataFilter dataFilter) {
+        if (dataContainer instanceof PostgreTableBase) {
+            StringBuilder query = new StringBuilder();
+            query.append("SELECT * FROM ").append(DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML));
+            SQLUtils.appendQueryConditions(dataSource, query, null, dataFilter);
+            SQLUtils.appendQueryOrder(dataSource, query, null, dataFilter);
+            return query.toString();
+        }
+        if (dataContainer instanceof SQLQueryContainer && (dataFilter == null || !dataFilter.hasFilters())) {
+            SQLQueryContainer queryContainer = (SQLQueryContainer) dataContainer;
+            SQLScriptElement element = queryContainer.getQuery();
+            if (element instanceof SQLQuery && CommonUtils.isEmpty(queryContainer.getQueryParameters())) {
+                SQLQuery query = (SQLQuery) element;
+                if (query.getType() == SQLQueryType.SELECT && CommonUtils.isEmpty(query.getParameters())) {
+                    String text = query.getText().trim();
+                    // COPY doesn't accept statement delimiter inside the query
+                    while (text.endsWith(SQLConstants.DEFAULT_STATEMENT_DELIMITER)) {
+                        text = text.substring(0, text.length() - 1).trim();
+                    }
+                    return text;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static class CopyUnloadManager implements BulkUnloadManager, DBRBlockingObject {
+        private final String copySQL;
+        private final Object pgConnection;
+        private final Object copyManager;
+        private final Method copyOutMethod;
+
+        CopyUnloadManager(String copySQL, Object pgConnection, Object copyManager, Method copyOutMethod) {
+            this.copySQL = copySQL;
+            this.pgConnection = pgConnection;
+            this.copyManager = copyManager;
+            this.copyOutMethod = copyOutMethod;
+        }
+
+        @Override
+        public long unloadData(@NotNull DBCSession session, @NotNull Writer writer) throws DBCException {
+            DBRProgressMonitor monitor = session.getProgressMonitor();
+            monitor.subTask("Copy rows to output");
+            monitor.startBlock(this, "Copy rows");
+            try {
+                // Driver cancels copy if output throws an error
+                Object rowCount = copyOutMethod.invoke(copyManager, copySQL, new CancelableWriter(writer, monitor));
+                return rowCount instanceof Number ? ((Number) rowCount).longValue() : -1;
+            } catch (InvocationTargetException e) {
+                throw new DBCException("Error copying data", e.getTargetException(), session.getExecutionContext());
+            } catch (Exception e) {
+                throw new DBCException("Error calling CopyManager API", e, session.getExecutionContext());
+            } finally {
+                monitor.endBlock();
+            }
+        }
+
+        /**
+         * Cancels copy which waits for the server (e.g. while query is sorting rows)
+         */
+        @Override
+        public void cancelBlock(@NotNull DBRProgressMonitor monitor, @Nullable Thread blockThread) throws DBException {
+            try {
+                pgConnection.getClass().getMethod("cancelQuery").invoke(pgConnection);
+            } catch (InvocationTargetException e) {
+                throw new DBException("Error canceling copy", e.getTargetException());
+            } catch (Exception e) {
+                throw new DBException("Error calling PGConnection API", e);
+            }
+        }
+    }
+
+    private static class CancelableWriter extends Writer {
+        private final Writer writer;
+        private final DBRProgressMonitor monitor;
+
+        CancelableWriter(Writer writer, DBRProgressMonitor monitor) {
+            this.writer = writer;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public void write(@NotNull char[] cbuf, int off, int len) throws IOException {
+            if (monitor.isCanceled()) {
+                throw new IOException("Copy canceled");
+            }
+            writer.write(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+}
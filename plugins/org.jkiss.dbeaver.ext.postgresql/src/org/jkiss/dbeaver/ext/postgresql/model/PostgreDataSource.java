@@ -463,6 +463,10 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
             return adapter.cast(new PostgreSessionManager(this));
         } else if (adapter == DBCQueryPlanner.class) {
             return adapter.cast(new PostgreQueryPlaner(this));
+        } else if (adapter == DBSDataBulkLoader.class) {
+            return adapter.cast(new PostgreBulkLoader(this));
+        } else if (adapter == DBSDataBulkUnloader.class) {
+            return adapter.cast(new PostgreBulkUnloader(this));
         }
         return super.getAdapter(adapter);
     }
@@ -793,6 +793,12 @@ public class PostgreDialect extends JDBCSQLDialect implements TPRuleProvider {
         return MultiValueInsertMode.GROUP_ROWS;
     }
 
+    @Override
+    public int getMaxStatementParameters() {
+        // Parameters count is sent as Int16 in the protocol
+        return Short.MAX_VALUE;
+    }
+
     @Override
     public String[][] getBlockBoundStrings() {
         return BLOCK_BOUND_KEYWORDS;
@@ -742,6 +742,21 @@ public class PostgreSchema implements
             return JDBCUtils.safeGetBoolean(dbResult, "relispartition");
         }
 
+        @Override
+        protected JDBCStatement prepareChangeMarkerStatement(@NotNull JDBCSession session, @NotNull PostgreTableContainer container) throws SQLException {
+            // DDL statements create new versions of catalog rows, so row count and sum of xmin change
+            String relFilter = " IN (SELECT oid FROM pg_catalog.pg_class WHERE relnamespace=?)";
+            JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT (SELECT count(*) || ':' || sum(xmin::text::bigint) FROM pg_catalog.pg_class WHERE relnamespace=?) as rel_marker," +
+                    "\n(SELECT count(*) || ':' || sum(xmin::text::bigint) FROM pg_catalog.pg_attribute WHERE attrelid" + relFilter + ") as att_marker," +
+                    "\n(SELECT count(*) || ':' || sum(xmin::text::bigint) FROM pg_catalog.pg_attrdef WHERE adrelid" + relFilter + ") as def_marker," +
+                    "\n(SELECT count(*) || ':' || sum(xmin::text::bigint) FROM pg_catalog.pg_description WHERE objoid" + relFilter + ") as dsc_marker");
+            for (int i = 1; i <= 4; i++) {
+                dbStat.setLong(i, PostgreSchema.this.getObjectId());
+            }
+            return dbStat;
+        }
+
         protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull PostgreTableContainer container)
             throws SQLException {
             String sql = "SELECT c.relname,a.*,pg_catalog.pg_get_expr(ad.adbin, ad.adrelid, true) as def_value,dsc.description" +
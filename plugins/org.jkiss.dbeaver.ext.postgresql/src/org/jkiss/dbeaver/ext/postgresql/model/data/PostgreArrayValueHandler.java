@@ -111,11 +111,7 @@ public class PostgreArrayValueHandler extends JDBCArrayValueHandler {
             }
             return new JDBCCollection(itemType, itemValueHandler, itemValues);
         } else {
-            List<Object> strings = PostgreValueParser.parseArrayString(value, delimiter);
-            Object[] contents = new Object[strings.size()];
-            for (int i = 0; i < strings.size(); i++) {
-                contents[i] = PostgreValueParser.convertStringToValue(session, itemType, String.valueOf(strings.get(i)));
-            }
+            Object[] contents = PostgreValueParser.parseArray(session, itemType, value, delimiter);
             return new JDBCCollection(itemType, DBUtils.findValueHandler(session, itemType), contents);
         }
     }
@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.impl.DBObjectNameCaseTransformer;
 import org.jkiss.dbeaver.model.impl.struct.RelationalObjectType;
+import org.jkiss.dbeaver.model.impl.struct.StructureIndex;
 import org.jkiss.dbeaver.model.navigator.DBNNode;
 import org.jkiss.dbeaver.model.navigator.DBNUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -391,7 +392,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
 
     private void makeProceduresProposals(DBPDataSource dataSource, String wordPart, boolean exec) throws DBException {
         // Add procedures/functions for column proposals
-        DBSStructureAssistant<?> structureAssistant = DBUtils.getAdapter(DBSStructureAssistant.class, dataSource);
+        DBSStructureAssistant<?> structureAssistant = StructureIndex.getStructureAssistant(dataSource);
         DBSObjectContainer sc = (DBSObjectContainer) dataSource;
         DBSObject selectedObject = DBUtils.getActiveInstanceObject(request.getContext().getExecutionContext());
         if (selectedObject instanceof DBSObjectContainer) {
@@ -735,7 +736,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                     childObject = getTableFromAlias(sc, token);
                     if (childObject == null && !request.isSimpleMode()) {
                         // Search using structure assistant
-                        DBSStructureAssistant structureAssistant = DBUtils.getAdapter(DBSStructureAssistant.class, sc);
+                        DBSStructureAssistant structureAssistant = StructureIndex.getStructureAssistant(sc);
                         if (structureAssistant != null) {
                             DBSStructureAssistant.ObjectsSearchParams params = new DBSStructureAssistant.ObjectsSearchParams(
                                     structureAssistant.getAutoCompleteObjectTypes(),
@@ -785,7 +786,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                     // At last - try to find child tables by pattern
                     DBSStructureAssistant<?> structureAssistant = null;
                     for (DBSObject object = childObject; object != null; object =  object.getParentObject()) {
-                        structureAssistant = DBUtils.getAdapter(DBSStructureAssistant.class, object);
+                        structureAssistant = StructureIndex.getStructureAssistant(object);
                         if (structureAssistant != null) {
                             break;
                         }
@@ -17,20 +17,27 @@
 package org.jkiss.dbeaver.model.sql.exec;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBFetchProgress;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.*;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptStreamParser;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -40,7 +47,10 @@ public class SQLScriptProcessor {
     private static final String STAT_LOG_PREFIX = "-----------------> ";
 
     private final DBCExecutionContext executionContext;
+    @Nullable
     private final List<SQLScriptElement> queries;
+    @Nullable
+    private final SQLScriptStreamParser scriptParser;
     private final SQLScriptContext scriptContext;
     private final DBDDataReceiver dataReceiver;
     private final Log log;
@@ -53,6 +63,10 @@ public class SQLScriptProcessor {
     private long fetchFlags;
     private SQLScriptCommitType commitType = SQLScriptCommitType.AUTOCOMMIT;
     private SQLScriptErrorHandling errorHandling = SQLScriptErrorHandling.STOP_ROLLBACK;
+    private int commitLines;
+    private int batchSize;
+
+    private final List<SQLQuery> batchQueries = new ArrayList<>();
 
     public SQLScriptProcessor(
         @NotNull DBCExecutionContext executionContext,
@@ -62,6 +76,25 @@ public class SQLScriptProcessor {
         @NotNull Log log) {
         this.executionContext = executionContext;
         this.queries = queries;
+        this.scriptParser = null;
+        this.scriptContext = scriptContext;
+        this.dataReceiver = dataReceiver;
+        this.log = log;
+    }
+
+    /**
+     * Creates processor which executes statements as soon as they are read by the stream parser.
+     * Progress is reported in kilobytes of the script.
+     */
+    public SQLScriptProcessor(
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull SQLScriptStreamParser scriptParser,
+        @NotNull SQLScriptContext scriptContext,
+        @NotNull DBDDataReceiver dataReceiver,
+        @NotNull Log log) {
+        this.executionContext = executionContext;
+        this.queries = null;
+        this.scriptParser = scriptParser;
         this.scriptContext = scriptContext;
         this.dataReceiver = dataReceiver;
         this.log = log;
@@ -91,6 +124,28 @@ public class SQLScriptProcessor {
         this.errorHandling = errorHandling;
     }
 
+    public int getCommitLines() {
+        return commitLines;
+    }
+
+    /**
+     * Number of statements after which transaction is committed (for {@link SQLScriptCommitType#NLINES} commit type)
+     */
+    public void setCommitLines(int commitLines) {
+        this.commitLines = commitLines;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Max number of consecutive DML statements executed in one JDBC batch. Values less than 2 disable batching.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public void runScript(DBRProgressMonitor monitor) throws DBCException {
         RuntimeUtils.setThreadName("SQL script execution");
         statistics = new DBCStatistics();
@@ -108,14 +163,43 @@ public class SQLScriptProcessor {
                     txnManager.setAutoCommit(monitor, newAutoCommit);
                 }
 
-                monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                if (queries != null) {
+                    monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                } else {
+                    long totalBytes = scriptParser.getTotalBytes();
+                    monitor.beginTask("Execute script", totalBytes < 0 ? 1 : (int) (totalBytes / 1024) + 1);
+                }
 
-                for (SQLScriptElement query : queries) {
+                long kbytesReported = 0;
+                int uncommittedCount = 0;
+                for (int index = 0; ; index++) {
                     if (monitor.isCanceled()) {
                         break;
                     }
+                    SQLScriptElement query = nextQuery(index);
+                    if (query == null) {
+                        // Execute the rest of the batch
+                        if (!executeBatch(session)) {
+                            log.error(lastError);
+                        }
+                        break;
+                    }
                     // Execute query
-                    boolean runNext = executeSingleQuery(session, query);
+                    boolean runNext;
+                    if (isBatchQuery(session, query)) {
+                        batchQueries.add((SQLQuery) query);
+                        runNext = batchQueries.size() < batchSize || executeBatch(session);
+                    } else {
+                        runNext = executeBatch(session) && executeSingleQuery(session, query);
+                    }
+                    if (runNext && commitType == SQLScriptCommitType.NLINES && commitLines > 0 && ++uncommittedCount >= commitLines) {
+                        runNext = executeBatch(session);
+                        if (runNext && txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
+                            monitor.subTask("Commit");
+                            txnManager.commit(session);
+                        }
+                        uncommittedCount = 0;
+                    }
                     if (!runNext) {
                         if (lastError == null) {
                             // Execution cancel
@@ -129,8 +213,17 @@ public class SQLScriptProcessor {
                         }
                     }
 
-                    monitor.worked(1);
+                    if (queries != null) {
+                        monitor.worked(1);
+                    } else {
+                        long kbytesRead = scriptParser.getBytesRead() / 1024;
+                        if (kbytesRead > kbytesReported) {
+                            monitor.worked((int) (kbytesRead - kbytesReported));
+                            kbytesReported = kbytesRead;
+                        }
+                    }
                 }
+                batchQueries.clear();
                 monitor.done();
 
                 // Commit data
@@ -168,6 +261,112 @@ public class SQLScriptProcessor {
         }
     }
 
+    @Nullable
+    private SQLScriptElement nextQuery(int index) throws Exception {
+        if (queries != null) {
+            return index < queries.size() ? queries.get(index) : null;
+        }
+        return scriptParser.nextElement();
+    }
+
+    /**
+     * Only DML statements without parameters are batched. They can't return result sets.
+     */
+    private boolean isBatchQuery(@NotNull DBCSession session, @NotNull SQLScriptElement element) {
+        if (batchSize < 2 || !(session instanceof JDBCSession) || element instanceof SQLControlCommand || !(element instanceof SQLQuery)) {
+            return false;
+        }
+        SQLQuery query = (SQLQuery) element;
+        if (!CommonUtils.isEmpty(query.getParameters())) {
+            return false;
+        }
+        String firstKeyword = SQLUtils.getFirstKeyword(session.getDataSource().getSQLDialect(), query.getText());
+        return SQLConstants.KEYWORD_INSERT.equalsIgnoreCase(firstKeyword) ||
+            SQLConstants.KEYWORD_UPDATE.equalsIgnoreCase(firstKeyword) ||
+            SQLConstants.KEYWORD_DELETE.equalsIgnoreCase(firstKeyword);
+    }
+
+    /**
+     * Executes collected DML statements in one JDBC batch.
+     * If batch fails then statements which were not executed successfully are executed one by one,
+     * so they get the usual error recovery and error handling.
+     */
+    private boolean executeBatch(@NotNull DBCSession session) {
+        if (batchQueries.isEmpty()) {
+            return true;
+        }
+        List<SQLQuery> queries = new ArrayList<>(batchQueries);
+        batchQueries.clear();
+        lastError = null;
+        List<SQLQuery> failedQueries;
+        try {
+            statistics.reset();
+            long execStartTime = System.currentTimeMillis();
+            log.debug(STAT_LOG_PREFIX + "Execute batch of " + queries.size() + " queries");
+            try (Statement statement = ((JDBCSession) session).createStatement()) {
+                for (SQLQuery query : queries) {
+                    statement.addBatch(query.getText());
+                }
+                int[] updateCounts = statement.executeBatch();
+                statistics.addExecuteTime(System.currentTimeMillis() - execStartTime);
+                addBatchStatistics(updateCounts);
+            }
+            return true;
+        } catch (BatchUpdateException e) {
+            int[] updateCounts = e.getUpdateCounts();
+            failedQueries = getFailedBatchQueries(queries, updateCounts);
+            addBatchStatistics(updateCounts);
+            log.debug(STAT_LOG_PREFIX + "Batch failed (" + e.getMessage() + "). Execute " + failedQueries.size() + " queries one by one");
+        } catch (Throwable e) {
+            // Batch wasn't executed at all
+            failedQueries = queries;
+            log.debug(STAT_LOG_PREFIX + "Batch failed (" + e.getMessage() + "). Execute queries one by one");
+        }
+        for (SQLQuery query : failedQueries) {
+            if (!executeSingleQuery(session, query)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns statements which were not executed successfully.
+     * Driver may stop on the first failed statement (update counts of previous statements are returned)
+     * or continue and mark failed statements.
+     */
+    @NotNull
+    private static List<SQLQuery> getFailedBatchQueries(@NotNull List<SQLQuery> queries, @Nullable int[] updateCounts) {
+        if (updateCounts == null) {
+            return queries;
+        }
+        if (updateCounts.length < queries.size()) {
+            return queries.subList(updateCounts.length, queries.size());
+        }
+        List<SQLQuery> failedQueries = new ArrayList<>();
+        for (int i = 0; i < queries.size(); i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                failedQueries.add(queries.get(i));
+            }
+        }
+        return failedQueries;
+    }
+
+    private void addBatchStatistics(@Nullable int[] updateCounts) {
+        if (updateCounts == null) {
+            return;
+        }
+        for (int updateCount : updateCounts) {
+            if (updateCount == Statement.EXECUTE_FAILED) {
+                continue;
+            }
+            statistics.addStatementsCount();
+            if (updateCount > 0) {
+                statistics.addRowsUpdated(updateCount);
+            }
+        }
+    }
+
     private boolean executeSingleQuery(@NotNull DBCSession session, @NotNull SQLScriptElement element) {
         if (element instanceof SQLControlCommand) {
             log.debug(STAT_LOG_PREFIX + "Execute command\n" + element.getText());
@@ -27,6 +27,8 @@ import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.sql.parser.rules.SQLDelimiterRule;
+import org.jkiss.dbeaver.model.text.parser.TPRule;
 import org.jkiss.dbeaver.model.text.parser.TPRuleBasedScanner;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 
@@ -44,6 +46,7 @@ public class SQLParserContext {
     @NotNull
     private final IDocument document;
     private TPRuleBasedScanner scanner;
+    private final SQLScriptStatementIndex[] statementIndexes = new SQLScriptStatementIndex[4];
 
     public SQLParserContext(@NotNull DBPContextProvider contextProvider, @NotNull SQLSyntaxManager syntaxManager, @NotNull SQLRuleManager ruleManager, @NotNull IDocument document) {
         this.contextProvider = contextProvider;
@@ -92,6 +95,55 @@ public class SQLParserContext {
             dataSource.getContainer().getPreferenceStore();
     }
 
+    /**
+     * Returns statement index of the document for the specified parse options.
+     * Index is updated incrementally on document changes.
+     */
+    @NotNull
+    public synchronized SQLScriptStatementIndex getStatementIndex(boolean scriptMode, boolean keepDelimiters) {
+        int index = (scriptMode ? 2 : 0) + (keepDelimiters ? 1 : 0);
+        if (statementIndexes[index] == null) {
+            statementIndexes[index] = new SQLScriptStatementIndex(this, scriptMode, keepDelimiters);
+        }
+        return statementIndexes[index];
+    }
+
+    /**
+     * Releases statement indexes. Must be called when context is not used anymore.
+     */
+    public synchronized void dispose() {
+        for (int i = 0; i < statementIndexes.length; i++) {
+            if (statementIndexes[i] != null) {
+                statementIndexes[i].dispose();
+                statementIndexes[i] = null;
+            }
+        }
+    }
+
+    // Delimiters may be changed in the middle of the script (by "set delimiter" commands)
+    @Nullable
+    char[][] getDelimiterState() {
+        SQLDelimiterRule delimiterRule = getDelimiterRule();
+        return delimiterRule == null ? null : delimiterRule.getDelimiters();
+    }
+
+    void setDelimiterState(@Nullable char[][] delimiters) {
+        SQLDelimiterRule delimiterRule = getDelimiterRule();
+        if (delimiterRule != null) {
+            delimiterRule.restoreDelimiters(delimiters);
+        }
+    }
+
+    @Nullable
+    private SQLDelimiterRule getDelimiterRule() {
+        for (TPRule rule : ruleManager.getAllRules()) {
+            if (rule instanceof SQLDelimiterRule) {
+                return (SQLDelimiterRule) rule;
+            }
+        }
+        return null;
+    }
+
     void startScriptEvaluation() {
         getScanner().startEval();
     }
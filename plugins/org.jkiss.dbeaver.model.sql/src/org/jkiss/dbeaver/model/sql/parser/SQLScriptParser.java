@@ -707,8 +707,31 @@ public class SQLScriptParser
             parserContext.endScriptEvaluation();
         }
 
-        if (parseParameters && parserContext.getPreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED)) {
-            // Parse parameters
+        if (parseParameters) {
+            parseQueryParameters(parserContext, queryList);
+        }
+        return queryList;
+    }
+
+    /**
+     * Returns queries which lie completely in the specified range. Queries are taken from the document statement index,
+     * so only changed parts of the document are parsed.
+     * Returns null if document is being modified concurrently.
+     */
+    @Nullable
+    public static List<SQLScriptElement> extractIndexedScriptQueries(SQLParserContext parserContext, int startOffset, int length, boolean scriptMode, boolean keepDelimiters, boolean parseParameters) {
+        if (parserContext.getDocument().getLength() == 0) {
+            return new ArrayList<>();
+        }
+        List<SQLScriptElement> queryList = parserContext.getStatementIndex(scriptMode, keepDelimiters).getScriptElements(startOffset, length);
+        if (queryList != null && parseParameters) {
+            parseQueryParameters(parserContext, queryList);
+        }
+        return queryList;
+    }
+
+    static void parseQueryParameters(SQLParserContext parserContext, List<SQLScriptElement> queryList) {
+        if (parserContext.getPreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED)) {
             for (SQLScriptElement element : queryList) {
                 if (element instanceof SQLQuery) {
                     SQLQuery query = (SQLQuery) element;
@@ -716,7 +739,6 @@ public class SQLScriptParser
                 }
             }
         }
-        return queryList;
     }
 
     public static List<SQLScriptElement> parseScript(DBCExecutionContext executionContext, String sqlScriptContent) {
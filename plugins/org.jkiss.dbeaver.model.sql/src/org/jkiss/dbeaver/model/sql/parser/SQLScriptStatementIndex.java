@@ -0,0 +1,378 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.IDocumentListener;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of the document script statements.
+ * The whole document is parsed once. After document changes only statements of the changed region are parsed again,
+ * from the statement before the change up to the first statement boundary after the change which
+ * is the same as before (and has the same delimiter). Following statements are reused with shifted offsets.
+ * Parsing is performed without the index lock, so document changes in UI thread are not blocked by it.
+ * Parse results are discarded if document was modified during parsing.
+ */
+public class SQLScriptStatementIndex implements IDocumentListener {
+
+    private static final int MAX_PARSE_ATTEMPTS = 3;
+
+    private final SQLParserContext context;
+    private final boolean scriptMode;
+    private final boolean keepDelimiters;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private boolean valid;
+    // Changed region since the last update (in current document offsets)
+    private int dirtyStart = -1;
+    private int dirtyEnd = -1;
+    // Modification stamp of the last processed document change
+    private long documentStamp;
+    // Document is being changed, but the change is not processed yet
+    private boolean documentChanging;
+    // Incremented on each index change, parse results of the previous version are discarded
+    private long version;
+
+    SQLScriptStatementIndex(@NotNull SQLParserContext context, boolean scriptMode, boolean keepDelimiters) {
+        this.context = context;
+        this.scriptMode = scriptMode;
+        this.keepDelimiters = keepDelimiters;
+        this.documentStamp = getModificationStamp();
+        context.getDocument().addDocumentListener(this);
+    }
+
+    void dispose() {
+        context.getDocument().removeDocumentListener(this);
+        invalidate();
+    }
+
+    public synchronized void invalidate() {
+        entries.clear();
+        valid = false;
+        dirtyStart = dirtyEnd = -1;
+        version++;
+    }
+
+    /**
+     * Returns statements which lie completely in the specified range.
+     * Elements are new objects, so caller may modify them.
+     * Returns null if the index can't be updated because document is being modified concurrently.
+     */
+    @Nullable
+    public List<SQLScriptElement> getScriptElements(int offset, int length) {
+        if (!(context.getDocument() instanceof IDocumentExtension4)) {
+            return null;
+        }
+        for (int attempt = 0; attempt < MAX_PARSE_ATTEMPTS; attempt++) {
+            ParseRequest request;
+            synchronized (this) {
+                if (documentChanging || documentStamp != getModificationStamp()) {
+                    // Document change is not processed yet
+                    request = null;
+                } else if (valid && dirtyStart < 0) {
+                    return collectElements(offset, length);
+                } else {
+                    request = prepareUpdate();
+                }
+            }
+            if (request == null) {
+                Thread.yield();
+                continue;
+            }
+            List<Entry> parsed = parseStatements(request);
+            synchronized (this) {
+                if (parsed != null && !documentChanging && request.version == version && request.stamp == getModificationStamp()) {
+                    entries.subList(request.firstEntry, entries.size()).clear();
+                    entries.addAll(parsed);
+                    valid = true;
+                    dirtyStart = dirtyEnd = -1;
+                    return collectElements(offset, length);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void documentAboutToBeChanged(DocumentEvent event) {
+        documentChanging = true;
+    }
+
+    @Override
+    public synchronized void documentChanged(DocumentEvent event) {
+        documentChanging = false;
+        documentStamp = event.getModificationStamp();
+        version++;
+        if (!valid) {
+            return;
+        }
+        int changeOffset = event.getOffset();
+        int removedEnd = changeOffset + event.getLength();
+        int insertedLength = event.getText() == null ? 0 : event.getText().length();
+        int delta = insertedLength - event.getLength();
+
+        // Drop statements which touch the changed region, shift the following ones
+        int firstRemoved = -1, removedCount = 0;
+        for (int i = findFirstEntry(changeOffset); i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (entry.offset + entry.length < changeOffset) {
+                continue;
+            }
+            if (entry.parseStart > removedEnd) {
+                entry.shift(delta);
+            } else {
+                if (firstRemoved < 0) {
+                    firstRemoved = i;
+                }
+                removedCount++;
+            }
+        }
+        if (removedCount > 0) {
+            entries.subList(firstRemoved, firstRemoved + removedCount).clear();
+        }
+
+        if (dirtyStart < 0) {
+            dirtyStart = changeOffset;
+            dirtyEnd = changeOffset + insertedLength;
+        } else {
+            if (dirtyEnd >= removedEnd) {
+                dirtyEnd += delta;
+            } else if (dirtyEnd > changeOffset) {
+                dirtyEnd = changeOffset + insertedLength;
+            }
+            dirtyStart = Math.min(dirtyStart, changeOffset);
+            dirtyEnd = Math.max(dirtyEnd, changeOffset + insertedLength);
+        }
+    }
+
+    @NotNull
+    private List<SQLScriptElement> collectElements(int offset, int length) {
+        int endOffset = offset + length;
+        List<SQLScriptElement> result = new ArrayList<>();
+        for (int i = findFirstEntry(offset); i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (entry.offset + entry.length > endOffset) {
+                if (entry.offset >= endOffset) {
+                    break;
+                }
+                continue;
+            }
+            if (entry.offset >= offset) {
+                result.add(entry.createElement());
+            }
+        }
+        return result;
+    }
+
+    private long getModificationStamp() {
+        IDocument document = context.getDocument();
+        return document instanceof IDocumentExtension4 ?
+            ((IDocumentExtension4) document).getModificationStamp() : IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+    }
+
+    /**
+     * Makes parse request for the changed part of the document. Must be called under the index lock.
+     */
+    @NotNull
+    private ParseRequest prepareUpdate() {
+        if (!valid) {
+            return new ParseRequest(documentStamp, version, 0, 0, null, Collections.emptyList());
+        }
+        // Start from the statement before the changed region: its end may depend on the changed text
+        int first = findFirstEntry(dirtyStart) - 1;
+        int parseStart = 0;
+        char[][] delimiters = null;
+        if (first >= 0) {
+            parseStart = entries.get(first).parseStart;
+            delimiters = entries.get(first).delimiters;
+        } else {
+            first = 0;
+        }
+
+        // Statements which start after the end of the changed line may be reused
+        IDocument document = context.getDocument();
+        int resyncOffset;
+        try {
+            int dirtyLine = document.getLineOfOffset(Math.min(dirtyEnd, document.getLength()));
+            resyncOffset = document.getLineOffset(dirtyLine) + document.getLineLength(dirtyLine);
+        } catch (BadLocationException e) {
+            resyncOffset = document.getLength();
+        }
+        int last = first;
+        while (last < entries.size() && entries.get(last).parseStart < resyncOffset) {
+            last++;
+        }
+        // Entries are copied because document changes shift them in place
+        List<Entry> tail = new ArrayList<>(entries.size() - last);
+        for (Entry entry : entries.subList(last, entries.size())) {
+            tail.add(entry.copy());
+        }
+        return new ParseRequest(documentStamp, version, first, parseStart, delimiters, tail);
+    }
+
+    /**
+     * Parses statements from the request position. Stops when parsed statement ends at the start of the
+     * first statement of the tail with the same delimiters state. The rest of the tail is appended as is.
+     * Returns null if document was changed during parsing.
+     */
+    @Nullable
+    private List<Entry> parseStatements(@NotNull ParseRequest request) {
+        List<Entry> result = new ArrayList<>();
+        List<Entry> tail = request.tail;
+        int tailIndex = 0;
+        try {
+            IDocument document = context.getDocument();
+            int documentLength = document.getLength();
+            context.startScriptEvaluation();
+            try {
+                context.setDelimiterState(request.delimiters);
+                for (int queryOffset = request.parseStart; ; ) {
+                    if (request.stamp != getModificationStamp()) {
+                        return null;
+                    }
+                    char[][] queryDelimiters = context.getDelimiterState();
+                    while (tailIndex < tail.size() && tail.get(tailIndex).parseStart < queryOffset) {
+                        tailIndex++;
+                    }
+                    if (tailIndex < tail.size()) {
+                        Entry tailEntry = tail.get(tailIndex);
+                        if (tailEntry.parseStart == queryOffset && Arrays.deepEquals(tailEntry.delimiters, queryDelimiters)) {
+                            result.addAll(tail.subList(tailIndex, tail.size()));
+                            return result;
+                        }
+                    }
+                    SQLScriptElement element = SQLScriptParser.parseQuery(
+                        context, queryOffset, documentLength, queryOffset, scriptMode, keepDelimiters);
+                    if (element == null) {
+                        break;
+                    }
+                    result.add(new Entry(queryOffset, queryDelimiters, element));
+                    queryOffset = element.getOffset() + element.getLength();
+                }
+            } finally {
+                context.endScriptEvaluation();
+            }
+        } catch (RuntimeException e) {
+            // Document was changed in the middle of parsing
+            if (request.stamp != getModificationStamp()) {
+                return null;
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    // Index of the first entry which may end at or after the offset
+    private int findFirstEntry(int offset) {
+        int low = 0, high = entries.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Entry entry = entries.get(mid);
+            if (entry.offset + entry.length < offset) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private class Entry {
+        // Position where parsing of this statement started (end of the previous statement)
+        private int parseStart;
+        private int offset;
+        private final int length;
+        // Delimiters state at the parse start
+        private final char[][] delimiters;
+        private final SQLScriptElement element;
+
+        Entry(int parseStart, char[][] delimiters, SQLScriptElement element) {
+            this.parseStart = parseStart;
+            this.offset = element.getOffset();
+            this.length = element.getLength();
+            this.delimiters = delimiters;
+            this.element = element;
+        }
+
+        private Entry(@NotNull Entry source) {
+            this.parseStart = source.parseStart;
+            this.offset = source.offset;
+            this.length = source.length;
+            this.delimiters = source.delimiters;
+            this.element = source.element;
+        }
+
+        void shift(int delta) {
+            parseStart += delta;
+            offset += delta;
+        }
+
+        @NotNull
+        Entry copy() {
+            return new Entry(this);
+        }
+
+        @NotNull
+        SQLScriptElement createElement() {
+            if (element instanceof SQLControlCommand) {
+                SQLControlCommand command = (SQLControlCommand) element;
+                return new SQLControlCommand(
+                    context.getDataSource(),
+                    context.getSyntaxManager(),
+                    command.getText(),
+                    command.getCommandId(),
+                    offset,
+                    length,
+                    command.isEmptyCommand());
+            }
+            return new SQLQuery(context.getDataSource(), element.getOriginalText(), offset, length);
+        }
+    }
+
+    private static class ParseRequest {
+        private final long stamp;
+        private final long version;
+        // Index of the first entry replaced by parse results
+        private final int firstEntry;
+        private final int parseStart;
+        private final char[][] delimiters;
+        private final List<Entry> tail;
+
+        ParseRequest(long stamp, long version, int firstEntry, int parseStart, char[][] delimiters, @NotNull List<Entry> tail) {
+            this.stamp = stamp;
+            this.version = version;
+            this.firstEntry = firstEntry;
+            this.parseStart = parseStart;
+            this.delimiters = delimiters;
+            this.tail = tail;
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPContextProvider;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.util.Collections;
+
+/**
+ * Streaming script parser.
+ * Reads script from the channel by chunks and splits it on statements on the fly, so memory usage
+ * depends on the biggest statement size rather than on the script size.
+ * Offsets of returned elements are relative to the current read window, not to the script start.
+ */
+public class SQLScriptStreamParser implements AutoCloseable {
+
+    private static final int READ_CHUNK_SIZE = 1024 * 1024;
+    // Statement is accepted only if there is some text after it. Parser may need it to detect statement end
+    private static final int MIN_LOOKAHEAD = 4096;
+    // Text kept before the parse position after buffer compaction (parser may check line starts)
+    private static final int LOOKBEHIND = 1024;
+
+    private final CountingChannel channel;
+    private final Reader reader;
+    private final long totalBytes;
+    private final SQLParserContext parserContext;
+    private final Document document = new Document();
+
+    private final StringBuilder buffer = new StringBuilder();
+    private final char[] readBuffer = new char[8192];
+    private int position;
+    private boolean documentDirty;
+    private boolean eof;
+
+    public SQLScriptStreamParser(@NotNull DBCExecutionContext executionContext, @NotNull ReadableByteChannel channel, @NotNull Charset charset) throws IOException {
+        this.channel = new CountingChannel(channel);
+        this.reader = Channels.newReader(
+            this.channel,
+            charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE),
+            -1);
+        this.totalBytes = channel instanceof SeekableByteChannel ? ((SeekableByteChannel) channel).size() : -1;
+
+        DBPContextProvider contextProvider = () -> executionContext;
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(executionContext.getDataSource());
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(executionContext.getDataSource(), false);
+        this.parserContext = new SQLParserContext(contextProvider, syntaxManager, ruleManager, document);
+        this.parserContext.startScriptEvaluation();
+    }
+
+    /**
+     * Script size in bytes or -1 if unknown
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getBytesRead() {
+        return channel.bytesRead;
+    }
+
+    /**
+     * Returns next script element or null if the end of the script was reached
+     */
+    @Nullable
+    public SQLScriptElement nextElement() throws IOException {
+        for (;;) {
+            if (documentDirty) {
+                document.set(buffer.toString());
+                documentDirty = false;
+            }
+            // Delimiter may be changed by the parsed command. Parse again with the same state if statement is incomplete
+            char[][] delimiters = parserContext.getDelimiterState();
+            SQLScriptElement element = position < buffer.length() ?
+                SQLScriptParser.parseQuery(parserContext, position, buffer.length(), position, true, false) : null;
+            if (eof) {
+                if (element == null) {
+                    return null;
+                }
+            } else if (element == null || element.getOffset() + element.getLength() > buffer.length() - MIN_LOOKAHEAD) {
+                parserContext.setDelimiterState(delimiters);
+                // Read at least as much as we already have, so huge statements are not parsed too many times
+                readChunk(Math.max(READ_CHUNK_SIZE, buffer.length() - position));
+                continue;
+            }
+            SQLScriptParser.parseQueryParameters(parserContext, Collections.singletonList(element));
+            position = element.getOffset() + element.getLength();
+            return element;
+        }
+    }
+
+    private void readChunk(int maxChars) throws IOException {
+        if (position > LOOKBEHIND) {
+            buffer.delete(0, position - LOOKBEHIND);
+            position = LOOKBEHIND;
+        }
+        for (int total = 0; total < maxChars; ) {
+            int count = reader.read(readBuffer, 0, Math.min(readBuffer.length, maxChars - total));
+            if (count < 0) {
+                eof = true;
+                break;
+            }
+            buffer.append(readBuffer, 0, count);
+            total += count;
+        }
+        documentDirty = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parserContext.endScriptEvaluation();
+        reader.close();
+    }
+
+    private static class CountingChannel implements ReadableByteChannel {
+        private final ReadableByteChannel channel;
+        private long bytesRead;
+
+        CountingChannel(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int count = channel.read(dst);
+            if (count > 0) {
+                bytesRead += count;
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+}
@@ -96,6 +96,23 @@ public class SQLDelimiterRule implements TPRule {
         return true;
     }
 
+    /**
+     * Restores delimiters state previously returned by {@link #getDelimiters()}
+     */
+    public void restoreDelimiters(char[][] delimiters) {
+        if (delimiters == null || delimiters == origDelimiters) {
+            this.delimiters = this.origDelimiters;
+            this.buffer = this.origBuffer;
+        } else {
+            int maxLength = 0;
+            for (char[] delim : delimiters) {
+                maxLength = Math.max(maxLength, delim.length);
+            }
+            this.delimiters = delimiters;
+            this.buffer = new char[maxLength];
+        }
+    }
+
     public void changeDelimiter(String newDelimiter) {
         if (CommonUtils.isEmpty(newDelimiter)) {
             this.delimiters = this.origDelimiters;
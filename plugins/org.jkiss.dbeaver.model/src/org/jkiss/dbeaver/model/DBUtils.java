@@ -738,7 +738,16 @@ public final class DBUtils {
                 return row[index];
             }
         }
-        Object curValue = row[attribute.getTopParent().getOrdinalPosition()];
+        return getNestedAttributeValue(attribute, row[attribute.getTopParent().getOrdinalPosition()]);
+    }
+
+    /**
+     * Extracts nested attribute value from the value of its top level parent attribute
+     */
+    @Nullable
+    public static Object getNestedAttributeValue(@NotNull DBDAttributeBinding attribute, @Nullable Object topValue) {
+        int depth = attribute.getLevel();
+        Object curValue = topValue;
 
         for (int i = 0; i < depth; i++) {
             if (curValue == null) {
@@ -0,0 +1,163 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calculates aggregate functions over a list of values.
+ * Big lists are split in chunks which are accumulated in parallel (in ForkJoin pool) and then merged.
+ * It is possible only if all functions are mergeable, otherwise values are accumulated sequentially.
+ */
+public class AggregateCalculator {
+
+    /**
+     * Lists smaller than this are accumulated in the caller thread
+     */
+    public static final int PARALLEL_THRESHOLD = 50000;
+    private static final int CANCEL_CHECK_PERIOD = 4096;
+
+    public interface FunctionFactory {
+        @NotNull
+        IAggregateFunction createFunction() throws DBException;
+    }
+
+    private final FunctionFactory[] factories;
+    private final boolean aggregateAsStrings;
+
+    public AggregateCalculator(@NotNull FunctionFactory[] factories, boolean aggregateAsStrings) {
+        this.factories = factories;
+        this.aggregateAsStrings = aggregateAsStrings;
+    }
+
+    /**
+     * Returns results of functions (in the order of factories). Result is null if function didn't accept any value.
+     * Returns null if monitor was canceled.
+     */
+    @Nullable
+    public Object[] calculate(@NotNull DBRProgressMonitor monitor, @NotNull List<?> values) throws DBException {
+        PartialResult result;
+        if (values.size() >= PARALLEL_THRESHOLD && isMergeable()) {
+            try {
+                result = ForkJoinPool.commonPool().invoke(new PartialTask(monitor, values, 0, values.size()));
+            } catch (PartialTaskException e) {
+                throw (DBException) e.getCause();
+            }
+        } else {
+            result = accumulate(monitor, values, 0, values.size());
+        }
+        if (monitor.isCanceled()) {
+            return null;
+        }
+        Object[] results = new Object[factories.length];
+        for (int i = 0; i < factories.length; i++) {
+            results[i] = result.counts[i] <= 0 ? null : result.functions[i].getResult(result.counts[i]);
+        }
+        return results;
+    }
+
+    private boolean isMergeable() throws DBException {
+        for (FunctionFactory factory : factories) {
+            if (!(factory.createFunction() instanceof IMergeableAggregateFunction)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    private PartialResult accumulate(@NotNull DBRProgressMonitor monitor, @NotNull List<?> values, int from, int to) throws DBException {
+        PartialResult result = new PartialResult();
+        IAggregateFunction[] functions = result.functions;
+        int[] counts = result.counts;
+        for (int i = from; i < to; i++) {
+            if ((i - from) % CANCEL_CHECK_PERIOD == 0 && monitor.isCanceled()) {
+                break;
+            }
+            Object value = values.get(i);
+            for (int k = 0; k < functions.length; k++) {
+                if (functions[k].accumulate(value, aggregateAsStrings)) {
+                    counts[k]++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private class PartialResult {
+        private final IAggregateFunction[] functions = new IAggregateFunction[factories.length];
+        private final int[] counts = new int[factories.length];
+
+        PartialResult() throws DBException {
+            for (int i = 0; i < factories.length; i++) {
+                functions[i] = factories[i].createFunction();
+            }
+        }
+
+        void merge(@NotNull PartialResult partial) {
+            for (int i = 0; i < functions.length; i++) {
+                ((IMergeableAggregateFunction) functions[i]).merge(partial.functions[i]);
+                counts[i] += partial.counts[i];
+            }
+        }
+    }
+
+    private class PartialTask extends RecursiveTask<PartialResult> {
+        private final DBRProgressMonitor monitor;
+        private final List<?> values;
+        private final int from;
+        private final int to;
+
+        PartialTask(DBRProgressMonitor monitor, List<?> values, int from, int to) {
+            this.monitor = monitor;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PartialResult compute() {
+            try {
+                if (to - from <= PARALLEL_THRESHOLD / 2 || monitor.isCanceled()) {
+                    return accumulate(monitor, values, from, to);
+                }
+                int middle = (from + to) >>> 1;
+                PartialTask right = new PartialTask(monitor, values, middle, to);
+                right.fork();
+                PartialResult result = new PartialTask(monitor, values, from, middle).compute();
+                result.merge(right.join());
+                return result;
+            } catch (DBException e) {
+                throw new PartialTaskException(e);
+            }
+        }
+    }
+
+    private static class PartialTaskException extends RuntimeException {
+        PartialTaskException(DBException cause) {
+            super(cause);
+        }
+    }
+
+}
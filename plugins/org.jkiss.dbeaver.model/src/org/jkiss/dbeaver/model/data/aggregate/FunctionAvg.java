@@ -19,7 +19,7 @@ package org.jkiss.dbeaver.model.data.aggregate;
 /**
  * FunctionAvg
  */
-public class FunctionAvg extends FunctionNumeric {
+public class FunctionAvg extends FunctionNumeric implements IMergeableAggregateFunction {
 
     protected double result = Double.NaN;
 
@@ -39,6 +39,14 @@ public class FunctionAvg extends FunctionNumeric {
         return false;
     }
 
+    @Override
+    public void merge(IAggregateFunction partial) {
+        double partialResult = ((FunctionAvg) partial).result;
+        if (!Double.isNaN(partialResult)) {
+            result = Double.isNaN(result) ? partialResult : result + partialResult;
+        }
+    }
+
     @Override
     public Object getResult(int valueCount) {
         if (Double.isNaN(result)) {
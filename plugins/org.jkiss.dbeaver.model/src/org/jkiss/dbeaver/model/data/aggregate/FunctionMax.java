@@ -19,7 +19,7 @@ package org.jkiss.dbeaver.model.data.aggregate;
 /**
  * FunctionSum
  */
-public class FunctionMax implements IAggregateFunction {
+public class FunctionMax implements IMergeableAggregateFunction {
 
     Comparable result = null;
 
@@ -35,6 +35,14 @@ public class FunctionMax implements IAggregateFunction {
         return false;
     }
 
+    @Override
+    public void merge(IAggregateFunction partial) {
+        Comparable partialResult = ((FunctionMax) partial).result;
+        if (partialResult != null && (result == null || AggregateUtils.compareValues(partialResult, result) > 0)) {
+            result = partialResult;
+        }
+    }
+
     @Override
     public Object getResult(int valueCount) {
         return result;
@@ -25,7 +25,7 @@ import java.util.List;
 /**
  * Median
  */
-public class FunctionMedian implements IAggregateFunction {
+public class FunctionMedian implements IMergeableAggregateFunction {
 
     private static final Log log = Log.getLog(FunctionMedian.class);
 
@@ -41,6 +41,11 @@ public class FunctionMedian implements IAggregateFunction {
         return false;
     }
 
+    @Override
+    public void merge(IAggregateFunction partial) {
+        cache.addAll(((FunctionMedian) partial).cache);
+    }
+
     @Override
     public Object getResult(int valueCount) {
         try {
@@ -51,6 +56,9 @@ public class FunctionMedian implements IAggregateFunction {
         }
 
         int size = cache.size();
+        if (size == 0) {
+            return null;
+        }
         int middle = size / 2;
         if (size % 2 == 1) {
             return cache.get(middle);
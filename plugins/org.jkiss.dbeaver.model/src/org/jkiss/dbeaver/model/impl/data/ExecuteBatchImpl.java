@@ -23,10 +23,12 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueBinder;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.edit.SQLDatabasePersistAction;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
@@ -112,6 +114,14 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         if (values.size() <= 1) {
             useBatch = false;
         }
+        if (actions == null && values.size() > 1 && keysReceiver == null && !CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_DISABLE_BATCHES))) {
+            int multiRowCount = CommonUtils.toInt(options.get(DBSDataManipulator.OPTION_MULTI_ROW_INSERT));
+            if (multiRowCount > 1 && supportsMultiRowStatements() && !hasValueBinders(handlers) &&
+                session.getDataSource().getSQLDialect().getDefaultMultiValueInsertMode() == SQLDialect.MultiValueInsertMode.GROUP_ROWS)
+            {
+                return processMultiRowBatch(session, handlers, multiRowCount, options);
+            }
+        }
 
         DBCStatistics statistics = new DBCStatistics();
         DBCStatement statement = null;
@@ -220,6 +230,121 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         return statistics;
     }
 
+    /**
+     * Executes rows with multi-row statements (INSERT ... VALUES (...),(...)).
+     * Consecutive rows with the same null values are grouped into one statement. Number of rows in a statement is
+     * limited by {@code maxRows} and by dialect's max parameters count.
+     * Executed rows are removed from the batch even if some later statement fails, so retry doesn't duplicate them.
+     */
+    @NotNull
+    private DBCStatistics processMultiRowBatch(@NotNull DBCSession session, @NotNull DBDValueHandler[] handlers, int maxRows, Map<String, Object> options) throws DBCException
+    {
+        DBCStatistics statistics = new DBCStatistics();
+        int maxParameters = session.getDataSource().getSQLDialect().getMaxStatementParameters();
+        List<Object[]> rows = new ArrayList<>(maxRows);
+        boolean[] rowsNulls = null;
+        int rowLimit = maxRows;
+        int executedRows = 0;
+        DBCStatement statement = null;
+        int statementRows = 0;
+        try {
+            for (Object[] rowValues : values) {
+                if (session.getProgressMonitor().isCanceled()) {
+                    break;
+                }
+                boolean[] nulls = new boolean[attributes.length];
+                for (int i = 0; i < rowValues.length; i++) {
+                    nulls[i] = DBUtils.isNullValue(rowValues[i]);
+                }
+                if (!rows.isEmpty() && (rows.size() >= rowLimit || !Arrays.equals(rowsNulls, nulls))) {
+                    if (statement != null && statementRows != rows.size()) {
+                        statement.close();
+                        statement = null;
+                    }
+                    statement = executeMultiRowStatement(session, handlers, statistics, statement, rows, options);
+                    statementRows = rows.size();
+                    executedRows += rows.size();
+                    rows.clear();
+                    if (!Arrays.equals(rowsNulls, nulls)) {
+                        // Next rows have different set of columns
+                        statement.close();
+                        statement = null;
+                    }
+                }
+                if (rows.isEmpty()) {
+                    rowsNulls = nulls;
+                    int paramCount = 0;
+                    for (boolean isNull : nulls) {
+                        if (!isNull) paramCount++;
+                    }
+                    if (paramCount == 0) {
+                        // All values are null, all columns will be bound
+                        paramCount = attributes.length;
+                    }
+                    rowLimit = Math.max(1, Math.min(maxRows, maxParameters / Math.max(paramCount, 1)));
+                }
+                rows.add(rowValues);
+            }
+            if (!rows.isEmpty()) {
+                if (statement != null && statementRows != rows.size()) {
+                    statement.close();
+                    statement = null;
+                }
+                statement = executeMultiRowStatement(session, handlers, statistics, statement, rows, options);
+                executedRows += rows.size();
+            }
+        } finally {
+            if (statement != null) {
+                statement.close();
+            }
+            values.subList(0, executedRows).clear();
+        }
+        values.clear();
+
+        return statistics;
+    }
+
+    private static boolean hasValueBinders(DBDValueHandler[] handlers) {
+        // Bind expression may depend on value, so rows can't share it
+        for (DBDValueHandler handler : handlers) {
+            if (handler instanceof DBDValueBinder) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Executes rows with a single statement.
+     * @param statement statement prepared for the same number of rows or null. If null then new statement is prepared
+     *                  and it is closed if execution fails (previous statement remains owned by caller).
+     * @return executed statement (must be closed by caller)
+     */
+    private DBCStatement executeMultiRowStatement(@NotNull DBCSession session, @NotNull DBDValueHandler[] handlers, @NotNull DBCStatistics statistics, @Nullable DBCStatement statement, @NotNull List<Object[]> rows, Map<String, Object> options) throws DBCException
+    {
+        boolean newStatement = statement == null;
+        if (newStatement) {
+            statement = prepareMultiRowStatement(session, handlers, rows.get(0), rows.size(), options);
+            statistics.setQueryText(statement.getQueryString());
+            statistics.addStatementsCount();
+        }
+        try {
+            bindMultiRowStatement(handlers, statement, rows);
+            long startTime = System.currentTimeMillis();
+            executeStatement(statistics, statement);
+            statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+
+            long rowCount = statement.getUpdateRowCount();
+            statistics.addRowsUpdated(rowCount > 0 ? rowCount : rows.size());
+        } catch (DBCException | RuntimeException e) {
+            if (newStatement) {
+                statement.close();
+            }
+            throw e;
+        }
+        return statement;
+    }
+
     protected int getNextUsedParamIndex(Object[] attributeValues, int paramIndex) {
         return paramIndex + 1;
     }
@@ -355,5 +480,24 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
     protected abstract void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) throws DBCException;
 
+    /**
+     * True if batch can execute several rows with one statement (see {@link DBSDataManipulator#OPTION_MULTI_ROW_INSERT}).
+     */
+    protected boolean supportsMultiRowStatements() {
+        return false;
+    }
+
+    /**
+     * Prepares statement for {@code rowCount} rows. All rows have the same null values as {@code attributeValues}.
+     */
+    @NotNull
+    protected DBCStatement prepareMultiRowStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, int rowCount, Map<String, Object> options) throws DBCException {
+        throw new DBCException("Multi-row statements are not supported");
+    }
+
+    protected void bindMultiRowStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, @NotNull List<Object[]> rows) throws DBCException {
+        throw new DBCException("Multi-row statements are not supported");
+    }
+
 
 }
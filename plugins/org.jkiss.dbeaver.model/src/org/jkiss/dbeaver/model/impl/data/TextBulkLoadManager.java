@@ -0,0 +1,139 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Bulk load which sends rows as tab-delimited text.
+ * Values are escaped with backslash and nulls are written as \N. This is the default text format of
+ * PostgreSQL COPY and MySQL LOAD DATA.
+ * Rows are buffered in memory and sent to the database by {@link #loadRows(DBCSession, CharSequence, int)}.
+ */
+public abstract class TextBulkLoadManager implements DBSDataBulkLoader.BulkLoadManager {
+
+    private static final int MAX_BUFFER_LENGTH = 8 * 1024 * 1024;
+
+    protected final DBSAttributeBase[] attributes;
+    private final StringBuilder buffer = new StringBuilder();
+    private int bufferRows;
+
+    protected TextBulkLoadManager(@NotNull DBSAttributeBase[] attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * Checks that values of all attributes can be represented in text format without loss.
+     */
+    public static boolean isSupportedAttributes(@NotNull DBSAttributeBase[] attributes) {
+        for (DBSAttributeBase attr : attributes) {
+            switch (attr.getDataKind()) {
+                case NUMERIC:
+                case STRING:
+                case BOOLEAN:
+                case DATETIME:
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return attributes.length > 0;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        if (attributeValues.length != attributes.length) {
+            throw new DBCException("Bad attribute values count: " + attributeValues.length + " (" + attributes.length + " expected)");
+        }
+        for (int i = 0; i < attributeValues.length; i++) {
+            if (i > 0) {
+                buffer.append('\t');
+            }
+            appendValue(attributes[i], attributeValues[i]);
+        }
+        buffer.append('\n');
+        bufferRows++;
+        if (buffer.length() >= MAX_BUFFER_LENGTH) {
+            flushRows(session);
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        if (bufferRows == 0) {
+            return;
+        }
+        try {
+            loadRows(session, buffer, bufferRows);
+        } finally {
+            buffer.setLength(0);
+            bufferRows = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        buffer.setLength(0);
+        bufferRows = 0;
+    }
+
+    /**
+     * Loads text rows into the database
+     * @param session   session
+     * @param rows      rows text. Each row ends with new line
+     * @param rowCount  number of rows
+     */
+    protected abstract void loadRows(@NotNull DBCSession session, @NotNull CharSequence rows, int rowCount) throws DBCException;
+
+    protected void appendValue(@NotNull DBSAttributeBase attribute, Object value) {
+        if (DBUtils.isNullValue(value)) {
+            buffer.append("\\N");
+        } else if (value instanceof Boolean) {
+            buffer.append((Boolean) value ? '1' : '0');
+        } else if (value instanceof BigDecimal) {
+            buffer.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            buffer.append(value);
+        } else if (value instanceof java.util.Date && !(value instanceof Timestamp || value instanceof java.sql.Date || value instanceof java.sql.Time)) {
+            buffer.append(new Timestamp(((java.util.Date) value).getTime()));
+        } else {
+            appendEscaped(value.toString());
+        }
+    }
+
+    private void appendEscaped(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '\\': buffer.append("\\\\"); break;
+                case '\t': buffer.append("\\t"); break;
+                case '\n': buffer.append("\\n"); break;
+                case '\r': buffer.append("\\r"); break;
+                default: buffer.append(c); break;
+            }
+        }
+    }
+
+}
@@ -58,6 +58,8 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
     private volatile Boolean autoCommit;
     private volatile Integer transactionIsolationLevel;
     private transient volatile boolean txnIsolationLevelReadInProgress;
+    // Context is returned into the instance context pool on close
+    private volatile boolean pooled;
 
     public JDBCExecutionContext(@NotNull JDBCRemoteInstance instance, String purpose) {
         super(instance.getDataSource(), purpose);
@@ -245,9 +247,75 @@ public class JDBCExecutionContext extends AbstractExecutionContext<JDBCDataSourc
 
     @Override
     public void close() {
+        if (pooled && instance.releaseIsolatedContext(this)) {
+            return;
+        }
         closeContext(true);
     }
 
+    void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    boolean isPooledContextAlive() {
+        Connection dbCon = this.connection;
+        return dbCon != null && JDBCUtils.isConnectionAlive(getDataSource(), dbCon);
+    }
+
+    /**
+     * Prepares pooled context for the new owner. Context state is initialized the same way as after connect:
+     * previous owner might change session variables or default schema, so bootstrap queries are executed again.
+     */
+    void activatePooledContext(@NotNull DBRProgressMonitor monitor, @Nullable JDBCExecutionContext initFrom) throws DBException {
+        boolean isAutoCommit = !Boolean.FALSE.equals(autoCommit);
+        this.initContextBootstrap(monitor, isAutoCommit);
+        this.dataSource.initializeContextState(monitor, this, initFrom);
+        if (!isAutoCommit) {
+            // Free resources which could be locked by init queries
+            try (JDBCSession session = openSession(monitor, DBCExecutionPurpose.META, "Start transaction")) {
+                session.enableLogging(false);
+                session.commit();
+            }
+        }
+    }
+
+    /**
+     * Ends active transaction and restores default auto-commit and isolation level before context goes into the pool.
+     * Returns false if connection state can't be reset.
+     */
+    boolean resetPooledState(@NotNull DBRProgressMonitor monitor) {
+        monitor.subTask("Reset pooled connection state");
+        try {
+            Connection dbCon = getConnection();
+            if (!dbCon.getAutoCommit()) {
+                dbCon.rollback();
+            }
+            boolean defaultAutoCommit = dataSource.getContainer().isDefaultAutoCommit();
+            if (dbCon.getAutoCommit() != defaultAutoCommit) {
+                dbCon.setAutoCommit(defaultAutoCommit);
+            }
+            this.autoCommit = defaultAutoCommit;
+            Integer txnLevel = dataSource.getContainer().getDefaultTransactionsIsolation();
+            if (txnLevel != null && !txnLevel.equals(transactionIsolationLevel)) {
+                dbCon.setTransactionIsolation(txnLevel);
+                this.transactionIsolationLevel = txnLevel;
+            }
+            dbCon.clearWarnings();
+            return true;
+        } catch (Throwable e) {
+            log.debug("Can't reset pooled context '" + getContextName() + "' state", e);
+            return false;
+        }
+    }
+
+    /**
+     * Closes idle pooled context. Context is not in the instance context list at this moment.
+     */
+    void closePooledContext() {
+        this.pooled = false;
+        disconnect();
+    }
+
     private void closeContext(boolean removeContext) {
         // We remove context before it is actually closed.
         // Because disconnect may (potentially) hang in socket forever
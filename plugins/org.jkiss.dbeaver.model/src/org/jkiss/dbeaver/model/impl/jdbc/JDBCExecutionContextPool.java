@@ -0,0 +1,236 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of isolated execution contexts of a remote instance.
+ * Closed isolated contexts are kept connected and reused by the following isolated context requests
+ * (data transfers, tasks, editors with separate connections), so they don't pay for the connect,
+ * authentication and bootstrap queries each time.
+ * Pool is disabled if {@link ModelPreferences#CONNECTION_POOL_MAX_IDLE} is 0.
+ */
+public class JDBCExecutionContextPool {
+
+    private static final Log log = Log.getLog(JDBCExecutionContextPool.class);
+
+    @NotNull
+    private final JDBCRemoteInstance instance;
+    // Most recently released contexts go first
+    private final Deque<IdleContext> idleContexts = new ArrayDeque<>();
+    // Contexts which are idle or being released. Guarded by idleContexts.
+    // Makes release idempotent: owner may close context more than once.
+    private final Set<JDBCExecutionContext> releasedContexts = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong reuseCount = new AtomicLong();
+    private final AtomicLong invalidCount = new AtomicLong();
+
+    JDBCExecutionContextPool(@NotNull JDBCRemoteInstance instance) {
+        this.instance = instance;
+    }
+
+    public boolean isEnabled() {
+        return getMaxIdle() > 0;
+    }
+
+    /**
+     * Number of isolated context requests
+     */
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    /**
+     * Number of requests served by pooled contexts
+     */
+    public long getReuseCount() {
+        return reuseCount.get();
+    }
+
+    /**
+     * Number of pooled contexts which were dead on borrow or failed to reset
+     */
+    public long getInvalidCount() {
+        return invalidCount.get();
+    }
+
+    public int getIdleCount() {
+        synchronized (idleContexts) {
+            return idleContexts.size();
+        }
+    }
+
+    /**
+     * Returns validated idle context initialized from the specified context or null if there are no idle contexts.
+     */
+    @Nullable
+    JDBCExecutionContext borrowContext(@NotNull DBRProgressMonitor monitor, @Nullable JDBCExecutionContext initFrom) {
+        if (!isEnabled()) {
+            return null;
+        }
+        borrowCount.incrementAndGet();
+        closeContexts(removeExpiredContexts());
+        for (;;) {
+            IdleContext idleContext;
+            synchronized (idleContexts) {
+                idleContext = idleContexts.pollFirst();
+                if (idleContext != null) {
+                    releasedContexts.remove(idleContext.context);
+                }
+            }
+            if (idleContext == null) {
+                return null;
+            }
+            JDBCExecutionContext context = idleContext.context;
+            if (!context.isPooledContextAlive()) {
+                invalidCount.incrementAndGet();
+                log.debug("Pooled context '" + context.getContextName() + "' is dead");
+                context.closePooledContext();
+                continue;
+            }
+            try {
+                context.activatePooledContext(monitor, initFrom);
+            } catch (DBException e) {
+                invalidCount.incrementAndGet();
+                log.debug("Error initializing pooled context '" + context.getContextName() + "'", e);
+                context.closePooledContext();
+                continue;
+            }
+            instance.addContext(context);
+            reuseCount.incrementAndGet();
+            log.debug("Reuse pooled context '" + context.getContextName() + "' (" + context.getContextId() + ")");
+            return context;
+        }
+    }
+
+    /**
+     * Returns context into the pool. Returns false if context must be closed.
+     * Returns true if context was already released.
+     */
+    boolean releaseContext(@NotNull JDBCExecutionContext context) {
+        int maxIdle = getMaxIdle();
+        if (maxIdle <= 0 || !context.isConnected()) {
+            return false;
+        }
+        closeContexts(removeExpiredContexts());
+        synchronized (idleContexts) {
+            if (releasedContexts.contains(context)) {
+                return true;
+            }
+            if (idleContexts.size() >= maxIdle) {
+                return false;
+            }
+            releasedContexts.add(context);
+        }
+        boolean released = false;
+        try {
+            if (!context.resetPooledState(new VoidProgressMonitor())) {
+                invalidCount.incrementAndGet();
+                return false;
+            }
+            synchronized (idleContexts) {
+                if (idleContexts.size() >= maxIdle) {
+                    return false;
+                }
+                instance.removeContext(context);
+                idleContexts.addFirst(new IdleContext(context));
+                released = true;
+            }
+            return true;
+        } finally {
+            if (!released) {
+                synchronized (idleContexts) {
+                    releasedContexts.remove(context);
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes all idle contexts
+     */
+    void closeIdleContexts() {
+        List<JDBCExecutionContext> toClose = new ArrayList<>();
+        synchronized (idleContexts) {
+            for (IdleContext idleContext : idleContexts) {
+                toClose.add(idleContext.context);
+                releasedContexts.remove(idleContext.context);
+            }
+            idleContexts.clear();
+        }
+        closeContexts(toClose);
+    }
+
+    @NotNull
+    private List<JDBCExecutionContext> removeExpiredContexts() {
+        long idleTimeout = getPreferenceStore().getLong(ModelPreferences.CONNECTION_POOL_IDLE_TIMEOUT);
+        if (idleTimeout <= 0) {
+            return new ArrayList<>();
+        }
+        long expireTime = System.currentTimeMillis() - idleTimeout;
+        List<JDBCExecutionContext> expired = new ArrayList<>();
+        synchronized (idleContexts) {
+            for (Iterator<IdleContext> iter = idleContexts.iterator(); iter.hasNext(); ) {
+                IdleContext idleContext = iter.next();
+                if (idleContext.releaseTime < expireTime) {
+                    expired.add(idleContext.context);
+                    releasedContexts.remove(idleContext.context);
+                    iter.remove();
+                }
+            }
+        }
+        return expired;
+    }
+
+    private void closeContexts(@NotNull List<JDBCExecutionContext> contexts) {
+        for (JDBCExecutionContext context : contexts) {
+            context.closePooledContext();
+        }
+    }
+
+    private int getMaxIdle() {
+        return getPreferenceStore().getInt(ModelPreferences.CONNECTION_POOL_MAX_IDLE);
+    }
+
+    @NotNull
+    private DBPPreferenceStore getPreferenceStore() {
+        return instance.getDataSource().getContainer().getPreferenceStore();
+    }
+
+    private static class IdleContext {
+        private final JDBCExecutionContext context;
+        private final long releaseTime;
+
+        IdleContext(@NotNull JDBCExecutionContext context) {
+            this.context = context;
+            this.releaseTime = System.currentTimeMillis();
+        }
+    }
+
+}
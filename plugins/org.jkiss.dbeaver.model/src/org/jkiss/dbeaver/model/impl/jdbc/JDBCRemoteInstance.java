@@ -51,6 +51,8 @@ public class JDBCRemoteInstance implements DBSInstance {
     @NotNull
     private final List<JDBCExecutionContext> allContexts = new ArrayList<>();
     private final DBPExclusiveResource exclusiveLock = new SimpleExclusiveLock();
+    @NotNull
+    private final JDBCExecutionContextPool contextPool = new JDBCExecutionContextPool(this);
 
     protected JDBCRemoteInstance(@NotNull DBRProgressMonitor monitor, @NotNull JDBCDataSource dataSource, boolean initContext)
         throws DBException {
@@ -137,6 +139,10 @@ public class JDBCRemoteInstance implements DBSInstance {
         if (sharedInstance != null) {
             return sharedInstance.openIsolatedContext(monitor, purpose, initFrom);
         }
+        JDBCExecutionContext pooledContext = contextPool.borrowContext(monitor, (JDBCExecutionContext) initFrom);
+        if (pooledContext != null) {
+            return pooledContext;
+        }
         JDBCExecutionContext context = dataSource.createExecutionContext(this, purpose);
         DBExecUtils.tryExecuteRecover(monitor, getDataSource(), monitor1 -> {
             try {
@@ -145,9 +151,15 @@ public class JDBCRemoteInstance implements DBSInstance {
                 throw new InvocationTargetException(e);
             }
         });
+        context.setPooled(contextPool.isEnabled());
         return context;
     }
 
+    @NotNull
+    public JDBCExecutionContextPool getContextPool() {
+        return contextPool;
+    }
+
     @NotNull
     @Override
     public JDBCExecutionContext[] getAllContexts() {
@@ -215,9 +227,12 @@ public class JDBCRemoteInstance implements DBSInstance {
                 continue;
             }
             monitor.subTask("Close context '" + context.getContextName() + "'");
+            // Do not return contexts into the pool on shutdown
+            context.setPooled(false);
             context.close();
             monitor.worked(1);
         }
+        contextPool.closeIdleContexts();
     }
 
     void addContext(JDBCExecutionContext context) {
@@ -226,6 +241,10 @@ public class JDBCRemoteInstance implements DBSInstance {
         }
     }
 
+    boolean releaseIsolatedContext(JDBCExecutionContext context) {
+        return contextPool.releaseContext(context);
+    }
+
     boolean removeContext(JDBCExecutionContext context) {
         synchronized (allContexts) {
             if (context == executionContext) {
@@ -30,6 +30,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
+import org.jkiss.dbeaver.model.struct.cache.CacheLoadCoordinator;
 import org.jkiss.dbeaver.model.struct.cache.DBSCompositeCache;
 import org.jkiss.utils.CommonUtils;
 
@@ -63,6 +64,9 @@ public abstract class JDBCCompositeCache<
     private final Object objectColumnName;
 
     private final Map<PARENT, List<OBJECT>> objectCache = new IdentityHashMap<>();
+    // Objects of different parents are loaded independently. Loads of the same parent are coalesced
+    private final CacheLoadCoordinator loadCoordinator = new CacheLoadCoordinator();
+    private final Object allObjectsKey = new Object();
 
     protected JDBCCompositeCache(
         JDBCStructCache<OWNER,?,?> parentCache,
@@ -80,6 +84,17 @@ public abstract class JDBCCompositeCache<
     abstract protected JDBCStatement prepareObjectsStatement(JDBCSession session, OWNER owner, PARENT forParent)
         throws SQLException;
 
+    /**
+     * Prepares statement which reads objects of the specified parents only (e.g. with IN-list of parent names).
+     * Returns null if objects of several parents can't be read at once.
+     */
+    @Nullable
+    protected JDBCStatement prepareObjectsBatchStatement(JDBCSession session, OWNER owner, List<PARENT> forParents)
+        throws SQLException
+    {
+        return null;
+    }
+
     @Nullable
     abstract protected OBJECT fetchObject(JDBCSession session, OWNER owner, PARENT parent, String childName, JDBCResultSet resultSet)
         throws SQLException, DBException;
@@ -263,18 +278,71 @@ public abstract class JDBCCompositeCache<
     protected void loadObjects(DBRProgressMonitor monitor, OWNER owner, PARENT forParent)
         throws DBException
     {
-        synchronized (objectCache) {
-            if ((forParent == null && isFullyCached()) ||
-                (forParent != null && (!forParent.isPersisted() || objectCache.containsKey(forParent))))
-            {
-                return;
+        if (isObjectsLoaded(forParent)) {
+            return;
+        }
+        loadCoordinator.load(
+            monitor,
+            forParent == null ? allObjectsKey : forParent,
+            () -> isObjectsLoaded(forParent),
+            () -> readObjects(monitor, owner, forParent, null));
+    }
+
+    /**
+     * Reads objects of the specified parents with one query per {@link JDBCStructCache#MAX_BATCH_SIZE} parents.
+     * Parents whose objects are already read are skipped.
+     *
+     * @return false if objects of several parents can't be read at once. Then they are read per parent on demand.
+     */
+    public boolean loadObjectsOf(DBRProgressMonitor monitor, OWNER owner, Collection<? extends DBSObject> forParents)
+        throws DBException
+    {
+        List<PARENT> parents = new ArrayList<>();
+        for (DBSObject object : forParents) {
+            if (parentType.isInstance(object) && parentCache.getCachedObject(object.getName()) == object) {
+                PARENT parent = parentType.cast(object);
+                if (!isObjectsLoaded(parent)) {
+                    parents.add(parent);
+                }
+            }
+        }
+        for (int i = 0; i < parents.size(); i += JDBCStructCache.MAX_BATCH_SIZE) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (!readObjects(monitor, owner, null, parents.subList(i, Math.min(parents.size(), i + JDBCStructCache.MAX_BATCH_SIZE)))) {
+                return false;
             }
         }
+        return true;
+    }
 
+    private boolean isObjectsLoaded(PARENT forParent) {
+        synchronized (objectCache) {
+            return (forParent == null && isFullyCached()) ||
+                (forParent != null && (!forParent.isPersisted() || objectCache.containsKey(forParent)));
+        }
+    }
+
+    /**
+     * Reads objects of one parent, of the specified parents or of all parents (if both are null).
+     * Returns false if batch read of the specified parents is not supported.
+     */
+    private boolean readObjects(DBRProgressMonitor monitor, OWNER owner, PARENT forParent, @Nullable List<PARENT> forParents)
+        throws DBException
+    {
+        boolean allParents = forParent == null && forParents == null;
         // Load tables and columns first
-        if (forParent == null) {
+        if (allParents) {
             parentCache.loadObjects(monitor, owner);
             parentCache.loadChildren(monitor, owner, null);
+        } else if (forParents != null) {
+            parentCache.loadChildrenOf(monitor, owner, forParents);
+        }
+        Set<PARENT> batchParents = null;
+        if (forParents != null) {
+            batchParents = Collections.newSetFromMap(new IdentityHashMap<>());
+            batchParents.addAll(forParents);
         }
 
         Map<PARENT, Map<String, ObjectInfo>> parentObjectMap = new LinkedHashMap<>();
@@ -285,7 +353,12 @@ public abstract class JDBCCompositeCache<
         monitor.beginTask("Load composite cache", 1);
         try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load composite objects")) {
 
-            JDBCStatement dbStat = prepareObjectsStatement(session, owner, forParent);
+            JDBCStatement dbStat = forParents == null ?
+                prepareObjectsStatement(session, owner, forParent) :
+                prepareObjectsBatchStatement(session, owner, forParents);
+            if (dbStat == null) {
+                return false;
+            }
             dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
             try {
                 dbStat.executeStatement();
@@ -293,7 +366,7 @@ public abstract class JDBCCompositeCache<
                 if (dbResult != null) try {
                     while (dbResult.next()) {
                         if (monitor.isCanceled()) {
-                            return;
+                            return true;
                         }
                         String parentName = forParent != null ?
                             forParent.getName() :
@@ -322,6 +395,9 @@ public abstract class JDBCCompositeCache<
                                 log.debug("Object '" + objectName + "' owner '" + parentName + "' not found");
                                 continue;
                             }
+                            if (batchParents != null && !batchParents.contains(parent)) {
+                                continue;
+                            }
                         }
                         synchronized (objectCache) {
                             if (objectCache.containsKey(parent)) {
@@ -384,14 +460,14 @@ public abstract class JDBCCompositeCache<
         }
 
         if (monitor.isCanceled()) {
-            return;
+            return true;
         }
 
         // Fill global cache
         synchronized (this) {
             synchronized (objectCache) {
                 if (forParent != null || !parentObjectMap.isEmpty()) {
-                    if (forParent == null) {
+                    if (allParents) {
                         // Cache global object list
                         List<OBJECT> globalCache = new ArrayList<>();
                         for (Map<String, ObjectInfo> objMap : parentObjectMap.values()) {
@@ -431,7 +507,13 @@ public abstract class JDBCCompositeCache<
                     objectCache.put(colEntry.getKey(), objects);
                 }
                 // Now set empty object list for other parents
-                if (forParent == null) {
+                if (forParents != null) {
+                    for (PARENT tmpParent : forParents) {
+                        if (!parentObjectMap.containsKey(tmpParent) && !objectCache.containsKey(tmpParent)) {
+                            objectCache.put(tmpParent, new ArrayList<OBJECT>());
+                        }
+                    }
+                } else if (forParent == null) {
                     for (PARENT tmpParent : parentCache.getTypedObjects(monitor, owner, parentType)) {
                         if (!parentObjectMap.containsKey(tmpParent) && !objectCache.containsKey(tmpParent)) {
                             objectCache.put(tmpParent, new ArrayList<OBJECT>());
@@ -457,7 +539,7 @@ public abstract class JDBCCompositeCache<
                 }
             }
         }
-
+        return true;
     }
 
     protected String getDefaultObjectName(JDBCResultSet dbResult, String parentName) {
@@ -30,6 +30,7 @@ import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
+import org.jkiss.dbeaver.model.struct.cache.CacheLoadCoordinator;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -48,6 +49,10 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
 
     // Maximum number of objects in cache
     private int maximumCacheSize = DEFAULT_MAX_CACHE_SIZE;
+    // Saved rows of the persistent metadata cache are not read after explicit cache reset (refresh)
+    private volatile boolean persistentCacheReset;
+    // Concurrent readers wait for the current load instead of reading the same objects again
+    private final CacheLoadCoordinator loadCoordinator = new CacheLoadCoordinator();
 
     protected JDBCObjectCache() {
     }
@@ -64,6 +69,39 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
     abstract protected OBJECT fetchObject(@NotNull JDBCSession session, @NotNull OWNER owner, @NotNull JDBCResultSet resultSet)
         throws SQLException, DBException;
 
+    /**
+     * Prepares query which returns catalog change marker of the owner objects (e.g. last DDL time of schema objects).
+     * If cache provides this query then loaded objects may be kept in the persistent metadata cache
+     * and read from it while the marker is the same.
+     */
+    @Nullable
+    protected JDBCStatement prepareChangeMarkerStatement(@NotNull JDBCSession session, @NotNull OWNER owner)
+        throws SQLException
+    {
+        return null;
+    }
+
+    @Nullable
+    String readChangeMarker(@NotNull JDBCSession session, @NotNull OWNER owner) throws SQLException {
+        try (JDBCStatement dbStat = prepareChangeMarkerStatement(session, owner)) {
+            if (dbStat == null) {
+                return null;
+            }
+            dbStat.executeStatement();
+            try (JDBCResultSet dbResult = dbStat.getResultSet()) {
+                if (dbResult == null || !dbResult.next()) {
+                    return null;
+                }
+                StringBuilder marker = new StringBuilder();
+                int columnCount = dbResult.getMetaData().getColumnCount();
+                for (int i = 1; i <= columnCount; i++) {
+                    marker.append(dbResult.getString(i)).append('|');
+                }
+                return marker.toString();
+            }
+        }
+    }
+
     @NotNull
     @Override
     public List<OBJECT> getAllObjects(@NotNull DBRProgressMonitor monitor, @Nullable OWNER owner)
@@ -85,13 +123,18 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         return getCachedObject(name);
     }
 
-    protected synchronized void loadObjects(DBRProgressMonitor monitor, OWNER owner)
+    protected void loadObjects(DBRProgressMonitor monitor, OWNER owner)
         throws DBException
     {
         if (isFullyCached() || monitor.isCanceled()) {
             return;
         }
+        loadCoordinator.load(monitor, owner, this::isFullyCached, () -> readObjects(monitor, owner));
+    }
 
+    private void readObjects(DBRProgressMonitor monitor, OWNER owner)
+        throws DBException
+    {
         List<OBJECT> tmpObjectList = new ArrayList<>();
 
         DBPDataSource dataSource = owner.getDataSource();
@@ -104,9 +147,22 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
                 try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load objects from " + owner.getName())) {
                     try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
                         monitor.subTask("Load " + getCacheName());
-                        dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                        dbStat.executeStatement();
-                        JDBCResultSet dbResult = dbStat.getResultSet();
+                        JDBCObjectCacheStore cacheStore = null;
+                        if (persistentCacheReset) {
+                            // Cache was refreshed: do not trust saved rows and do not spend time on the change marker
+                            JDBCObjectCacheStore.deleteStore(session, this, owner, "objects");
+                        } else {
+                            cacheStore = JDBCObjectCacheStore.getStore(session, this, owner, "objects");
+                        }
+                        JDBCResultSet dbResult = cacheStore == null ? null : cacheStore.openSavedResultSet(session);
+                        if (dbResult == null) {
+                            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                            dbStat.executeStatement();
+                            dbResult = dbStat.getResultSet();
+                            if (dbResult != null && cacheStore != null) {
+                                dbResult = cacheStore.saveResultSet(session, dbResult);
+                            }
+                        }
                         if (dbResult != null) {
                             try {
                                 while (dbResult.next()) {
@@ -158,6 +214,20 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         this.invalidateObjects(monitor, owner, new CacheIterator());
     }
 
+    @Override
+    public void clearCache() {
+        persistentCacheReset = true;
+        super.clearCache();
+    }
+
+    boolean isPersistentCacheReset() {
+        return persistentCacheReset;
+    }
+
+    void resetPersistentCache() {
+        persistentCacheReset = true;
+    }
+
     protected String getCacheName() {
         return getClass().getSimpleName();
     }
@@ -0,0 +1,668 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.utils.CommonUtils;
+
+import javax.sql.rowset.serial.SerialArray;
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent metadata cache.
+ * Result sets of object cache queries are saved on disk together with the catalog change marker of the cache owner.
+ * When cache is loaded after reconnect the change marker is read first. If it is the same then
+ * saved rows are passed to the cache instead of the real query results.
+ * Files may be shared with the project, so rows are saved in a plain typed format (strings, numbers, dates and binaries)
+ * rather than with Java serialization. Result sets with other values are not saved.
+ */
+final class JDBCObjectCacheStore {
+
+    private static final Log log = Log.getLog(JDBCObjectCacheStore.class);
+
+    private static final String STORE_FOLDER = "metadata-cache"; //$NON-NLS-1$
+    private static final String STORE_FILE_EXT = ".rows"; //$NON-NLS-1$
+    private static final int STORE_VERSION = 2;
+    // Protects from huge allocations on damaged files
+    private static final int MAX_VALUE_LENGTH = 64 * 1024 * 1024;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_INT = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_SHORT = 5;
+    private static final byte TYPE_BYTE = 6;
+    private static final byte TYPE_DOUBLE = 7;
+    private static final byte TYPE_FLOAT = 8;
+    private static final byte TYPE_BIG_DECIMAL = 9;
+    private static final byte TYPE_BIG_INTEGER = 10;
+    private static final byte TYPE_TIMESTAMP = 11;
+    private static final byte TYPE_DATE = 12;
+    private static final byte TYPE_TIME = 13;
+    private static final byte TYPE_BYTES = 14;
+
+    private final DBPDataSourceContainer container;
+    private final String key;
+    private final String marker;
+
+    private JDBCObjectCacheStore(@NotNull DBPDataSourceContainer container, @NotNull String key, @NotNull String marker) {
+        this.container = container;
+        this.key = key;
+        this.marker = marker;
+    }
+
+    /**
+     * Returns store for the cache query results or null if persistent cache is disabled or not supported by cache.
+     * @param queryId  query identifier in the scope of the cache owner
+     */
+    @Nullable
+    static <OWNER extends DBSObject> JDBCObjectCacheStore getStore(
+        @NotNull JDBCSession session,
+        @NotNull JDBCObjectCache<OWNER, ?> cache,
+        @NotNull OWNER owner,
+        @NotNull String queryId)
+    {
+        DBPDataSourceContainer container = session.getDataSource().getContainer();
+        if (!container.getPreferenceStore().getBoolean(ModelPreferences.META_PERSISTENT_CACHE)) {
+            return null;
+        }
+        String marker;
+        try {
+            marker = cache.readChangeMarker(session, owner);
+        } catch (SQLException e) {
+            log.debug("Error reading change marker of " + owner.getName() + ": " + e.getMessage());
+            return null;
+        }
+        if (marker == null) {
+            return null;
+        }
+        return new JDBCObjectCacheStore(container, makeKey(cache, owner, queryId), marker);
+    }
+
+    /**
+     * Deletes saved rows of the cache query. Used when cache was explicitly refreshed.
+     */
+    static <OWNER extends DBSObject> void deleteStore(
+        @NotNull JDBCSession session,
+        @NotNull JDBCObjectCache<OWNER, ?> cache,
+        @NotNull OWNER owner,
+        @NotNull String queryId)
+    {
+        DBPDataSourceContainer container = session.getDataSource().getContainer();
+        if (!container.getPreferenceStore().getBoolean(ModelPreferences.META_PERSISTENT_CACHE)) {
+            return;
+        }
+        File storeFile = new JDBCObjectCacheStore(container, makeKey(cache, owner, queryId), "").getStoreFile(false);
+        if (storeFile != null && storeFile.exists() && !storeFile.delete()) {
+            log.debug("Can't delete metadata cache " + storeFile.getAbsolutePath());
+        }
+    }
+
+    @NotNull
+    private static <OWNER extends DBSObject> String makeKey(
+        @NotNull JDBCObjectCache<OWNER, ?> cache,
+        @NotNull OWNER owner,
+        @NotNull String queryId)
+    {
+        return cache.getClass().getName() + "/" + DBUtils.getObjectFullId(owner) + "/" + queryId;
+    }
+
+    /**
+     * Returns saved rows if they were saved with the same change marker.
+     */
+    @Nullable
+    JDBCResultSet openSavedResultSet(@NotNull JDBCSession session) {
+        File storeFile = getStoreFile(false);
+        if (storeFile == null || !storeFile.exists()) {
+            return null;
+        }
+        CachedRows rows;
+        try (DataInputStream in = new DataInputStream(
+            new GZIPInputStream(new BufferedInputStream(new FileInputStream(storeFile)))))
+        {
+            if (in.readInt() != STORE_VERSION || !key.equals(readString(in)) || !marker.equals(readString(in))) {
+                return null;
+            }
+            rows = new CachedRows(in);
+        } catch (Exception e) {
+            log.debug("Error reading metadata cache " + storeFile.getAbsolutePath() + ": " + e.getMessage());
+            return null;
+        }
+        try {
+            return makeResultSet(session, rows);
+        } catch (SQLException e) {
+            log.debug(e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads all rows of the query result set and saves them.
+     * Returns result set with the same rows. Original result set is closed.
+     */
+    @NotNull
+    JDBCResultSet saveResultSet(@NotNull JDBCSession session, @NotNull JDBCResultSet dbResult) throws SQLException {
+        CachedRows rows;
+        try {
+            rows = new CachedRows(dbResult.getOriginal());
+        } finally {
+            dbResult.close();
+        }
+        File storeFile = getStoreFile(true);
+        if (storeFile != null) {
+            File tempFile = new File(storeFile.getParentFile(), storeFile.getName() + ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                    new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))))
+                {
+                    out.writeInt(STORE_VERSION);
+                    writeString(out, key);
+                    writeString(out, marker);
+                    rows.write(out);
+                }
+                Files.move(tempFile.toPath(), storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                // Driver-specific values are not saved
+                log.debug("Error saving metadata cache " + storeFile.getAbsolutePath() + ": " + e.getMessage());
+                if (tempFile.exists() && !tempFile.delete()) {
+                    log.debug("Can't delete " + tempFile.getAbsolutePath());
+                }
+            }
+        }
+        return makeResultSet(session, rows);
+    }
+
+    @NotNull
+    private JDBCResultSet makeResultSet(@NotNull JDBCSession session, @NotNull CachedRows rows) throws SQLException {
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(
+            JDBCObjectCacheStore.class.getClassLoader(),
+            new Class[]{ResultSet.class},
+            new CachedResultSetHandler(rows));
+        return JDBCResultSetImpl.makeResultSet(session, null, resultSet, key, true);
+    }
+
+    @Nullable
+    private File getStoreFile(boolean create) {
+        DBPProject project = container.getProject();
+        File metadataFolder = project == null ? null : project.getMetadataFolder(create);
+        if (metadataFolder == null) {
+            return null;
+        }
+        File storeFolder = new File(new File(metadataFolder, STORE_FOLDER), container.getId());
+        if (create && !storeFolder.exists() && !storeFolder.mkdirs()) {
+            log.debug("Can't create metadata cache folder " + storeFolder.getAbsolutePath());
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return new File(storeFolder, CommonUtils.toHexString(digest.digest(key.getBytes(StandardCharsets.UTF_8))) + STORE_FILE_EXT);
+        } catch (NoSuchAlgorithmException e) {
+            log.debug(e);
+            return null;
+        }
+    }
+
+    /**
+     * Query result set rows. Both string representation and object value of each cell are kept because
+     * drivers may format strings differently from the object values.
+     */
+    private static class CachedRows {
+        private final String[] names;
+        private final String[] labels;
+        private final int[] types;
+        private final String[] typeNames;
+        private final List<Object[]> values = new ArrayList<>();
+        private final List<String[]> strings = new ArrayList<>();
+
+        CachedRows(@NotNull ResultSet resultSet) throws SQLException {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            names = new String[columnCount];
+            labels = new String[columnCount];
+            types = new int[columnCount];
+            typeNames = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                names[i] = metaData.getColumnName(i + 1);
+                labels[i] = metaData.getColumnLabel(i + 1);
+                types[i] = metaData.getColumnType(i + 1);
+                typeNames[i] = metaData.getColumnTypeName(i + 1);
+            }
+            while (resultSet.next()) {
+                Object[] rowValues = new Object[columnCount];
+                String[] rowStrings = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    Object value = resultSet.getObject(i + 1);
+                    if (value instanceof Array) {
+                        value = new SerialArray((Array) value);
+                    } else if (value instanceof Blob) {
+                        value = new SerialBlob((Blob) value);
+                    } else if (value instanceof Clob) {
+                        value = new SerialClob((Clob) value);
+                    }
+                    rowValues[i] = value;
+                    rowStrings[i] = value == null || value instanceof byte[] || value instanceof Blob ? null : resultSet.getString(i + 1);
+                }
+                values.add(rowValues);
+                strings.add(rowStrings);
+            }
+        }
+
+        CachedRows(@NotNull DataInputStream in) throws IOException {
+            int columnCount = readLength(in);
+            names = new String[columnCount];
+            labels = new String[columnCount];
+            types = new int[columnCount];
+            typeNames = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                names[i] = readString(in);
+                labels[i] = readString(in);
+                types[i] = in.readInt();
+                typeNames[i] = readString(in);
+            }
+            int rowCount = readLength(in);
+            for (int row = 0; row < rowCount; row++) {
+                Object[] rowValues = new Object[columnCount];
+                String[] rowStrings = new String[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    rowValues[i] = readValue(in);
+                    rowStrings[i] = readString(in);
+                }
+                values.add(rowValues);
+                strings.add(rowStrings);
+            }
+        }
+
+        /**
+         * Throws IOException if some value can't be saved
+         */
+        void write(@NotNull DataOutputStream out) throws IOException {
+            out.writeInt(names.length);
+            for (int i = 0; i < names.length; i++) {
+                writeString(out, names[i]);
+                writeString(out, labels[i]);
+                out.writeInt(types[i]);
+                writeString(out, typeNames[i]);
+            }
+            out.writeInt(values.size());
+            for (int row = 0; row < values.size(); row++) {
+                Object[] rowValues = values.get(row);
+                String[] rowStrings = strings.get(row);
+                for (int i = 0; i < rowValues.length; i++) {
+                    writeValue(out, rowValues[i]);
+                    writeString(out, rowStrings[i]);
+                }
+            }
+        }
+    }
+
+    private static void writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(TYPE_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(TYPE_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TYPE_BIG_DECIMAL);
+            writeString(out, value.toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(TYPE_BIG_INTEGER);
+            writeString(out, value.toString());
+        } else if (value instanceof Timestamp) {
+            out.writeByte(TYPE_TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof Time) {
+            out.writeByte(TYPE_TIME);
+            out.writeLong(((Time) value).getTime());
+        } else if (value instanceof byte[]) {
+            out.writeByte(TYPE_BYTES);
+            out.writeInt(((byte[]) value).length);
+            out.write((byte[]) value);
+        } else {
+            throw new IOException("Value of type " + value.getClass().getName() + " can't be saved");
+        }
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_INT:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_SHORT:
+                return in.readShort();
+            case TYPE_BYTE:
+                return in.readByte();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_FLOAT:
+                return in.readFloat();
+            case TYPE_BIG_DECIMAL:
+                return new BigDecimal(readNotNullString(in));
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(readNotNullString(in));
+            case TYPE_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case TYPE_DATE:
+                return new java.sql.Date(in.readLong());
+            case TYPE_TIME:
+                return new Time(in.readLong());
+            case TYPE_BYTES: {
+                byte[] bytes = new byte[readLength(in)];
+                in.readFully(bytes);
+                return bytes;
+            }
+            default:
+                throw new IOException("Bad value type " + type);
+        }
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    private static String readString(@NotNull DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > MAX_VALUE_LENGTH) {
+            throw new IOException("Bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    private static String readNotNullString(@NotNull DataInputStream in) throws IOException {
+        String value = readString(in);
+        if (value == null) {
+            throw new IOException("Unexpected null value");
+        }
+        return value;
+    }
+
+    private static int readLength(@NotNull DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_VALUE_LENGTH) {
+            throw new IOException("Bad length " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Read-only forward result set over cached rows
+     */
+    private static class CachedResultSetHandler implements InvocationHandler {
+        private final CachedRows rows;
+        private final Map<String, Integer> columnIndexes = new HashMap<>();
+        private int rowIndex = -1;
+        private boolean wasNull;
+        private boolean closed;
+
+        CachedResultSetHandler(@NotNull CachedRows rows) {
+            this.rows = rows;
+            for (int i = rows.labels.length; i > 0; i--) {
+                // The first column with the same label wins
+                columnIndexes.put(rows.labels[i - 1].toLowerCase(Locale.ENGLISH), i);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            switch (methodName) {
+                case "next":
+                    if (rowIndex < rows.values.size()) {
+                        rowIndex++;
+                    }
+                    return rowIndex < rows.values.size();
+                case "beforeFirst":
+                    rowIndex = -1;
+                    return null;
+                case "getRow":
+                    return rowIndex < rows.values.size() ? rowIndex + 1 : 0;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "wasNull":
+                    return wasNull;
+                case "findColumn":
+                    return findColumn((String) args[0]);
+                case "getMetaData":
+                    return Proxy.newProxyInstance(
+                        JDBCObjectCacheStore.class.getClassLoader(),
+                        new Class[]{ResultSetMetaData.class},
+                        this::invokeMetaData);
+                case "getWarnings":
+                case "getStatement":
+                    return null;
+                case "clearWarnings":
+                case "setFetchSize":
+                case "setFetchDirection":
+                    return null;
+                case "getFetchSize":
+                    return 0;
+                case "getFetchDirection":
+                    return ResultSet.FETCH_FORWARD;
+                case "getType":
+                    return ResultSet.TYPE_FORWARD_ONLY;
+                case "getConcurrency":
+                    return ResultSet.CONCUR_READ_ONLY;
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy);
+                case "unwrap":
+                    return ((Class<?>) args[0]).cast(proxy);
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Cached result set (" + rows.values.size() + " rows)";
+            }
+            if (methodName.startsWith("get") && args != null && args.length >= 1 && (args[0] instanceof Integer || args[0] instanceof String)) {
+                int index = args[0] instanceof Integer ? (Integer) args[0] : findColumn((String) args[0]);
+                return getValue(methodName, index, method.getReturnType());
+            }
+            throw new SQLFeatureNotSupportedException("Method '" + methodName + "' is not supported by cached result set");
+        }
+
+        private int findColumn(@NotNull String label) throws SQLException {
+            Integer index = columnIndexes.get(label.toLowerCase(Locale.ENGLISH));
+            if (index == null) {
+                throw new SQLException("Column '" + label + "' not found");
+            }
+            return index;
+        }
+
+        private Object getValue(@NotNull String methodName, int index, @NotNull Class<?> returnType) throws SQLException {
+            if (rowIndex < 0 || rowIndex >= rows.values.size()) {
+                throw new SQLException("No current row");
+            }
+            if (index < 1 || index > rows.labels.length) {
+                throw new SQLException("Column index " + index + " is out of range");
+            }
+            Object value = rows.values.get(rowIndex)[index - 1];
+            String string = rows.strings.get(rowIndex)[index - 1];
+            wasNull = value == null;
+            switch (methodName) {
+                case "getObject":
+                    return value;
+                case "getString":
+                case "getNString":
+                    return string;
+                case "getBoolean":
+                    if (value instanceof Boolean) {
+                        return value;
+                    } else if (value instanceof Number) {
+                        return ((Number) value).intValue() != 0;
+                    }
+                    return string != null &&
+                        ("t".equalsIgnoreCase(string) || "true".equalsIgnoreCase(string) || "1".equals(string) ||
+                            "y".equalsIgnoreCase(string) || "yes".equalsIgnoreCase(string) || "on".equalsIgnoreCase(string));
+                case "getBigDecimal":
+                    if (value instanceof BigDecimal || value == null) {
+                        return value;
+                    }
+                    return new BigDecimal(value instanceof Number ? value.toString() : string.trim());
+            }
+            if (returnType.isPrimitive() && returnType != boolean.class) {
+                // Numeric getters
+                Number number;
+                if (value == null) {
+                    number = 0;
+                } else if (value instanceof Number) {
+                    number = (Number) value;
+                } else if (value instanceof Boolean) {
+                    number = (Boolean) value ? 1 : 0;
+                } else {
+                    try {
+                        number = new BigDecimal(string.trim());
+                    } catch (NumberFormatException e) {
+                        throw new SQLException("Bad numeric value '" + string + "'", e);
+                    }
+                }
+                if (returnType == int.class) {
+                    return number.intValue();
+                } else if (returnType == long.class) {
+                    return number.longValue();
+                } else if (returnType == short.class) {
+                    return number.shortValue();
+                } else if (returnType == byte.class) {
+                    return number.byteValue();
+                } else if (returnType == double.class) {
+                    return number.doubleValue();
+                } else if (returnType == float.class) {
+                    return number.floatValue();
+                }
+            }
+            if (value == null || returnType.isInstance(value)) {
+                return value;
+            }
+            if (value instanceof java.util.Date) {
+                long time = ((java.util.Date) value).getTime();
+                if (returnType == Timestamp.class) {
+                    return new Timestamp(time);
+                } else if (returnType == java.sql.Date.class) {
+                    return new java.sql.Date(time);
+                } else if (returnType == Time.class) {
+                    return new Time(time);
+                }
+            }
+            if (returnType == byte[].class && value instanceof Blob) {
+                Blob blob = (Blob) value;
+                return blob.getBytes(1, (int) blob.length());
+            }
+            throw new SQLException("Can't convert cached value of type " + value.getClass().getName() + " to " + returnType.getName());
+        }
+
+        private Object invokeMetaData(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return rows.labels.length;
+                case "getColumnName":
+                    return rows.names[(Integer) args[0] - 1];
+                case "getColumnLabel":
+                    return rows.labels[(Integer) args[0] - 1];
+                case "getColumnType":
+                    return rows.types[(Integer) args[0] - 1];
+                case "getColumnTypeName":
+                    return rows.typeNames[(Integer) args[0] - 1];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Cached result set metadata";
+            }
+            throw new SQLFeatureNotSupportedException("Method '" + method.getName() + "' is not supported by cached result set metadata");
+        }
+    }
+
+}
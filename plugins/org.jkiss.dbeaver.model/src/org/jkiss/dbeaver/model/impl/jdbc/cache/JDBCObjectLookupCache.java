@@ -27,11 +27,12 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.cache.CacheLoadCoordinator;
 
 import java.sql.SQLException;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Object lookup cache
@@ -39,7 +40,9 @@ import java.util.Set;
 public abstract class JDBCObjectLookupCache<OWNER extends DBSObject, OBJECT extends DBSObject>
     extends JDBCObjectCache<OWNER, OBJECT> implements JDBCObjectLookup<OWNER, OBJECT>
 {
-    private final Set<String> missingNames = new HashSet<>();
+    private final Set<String> missingNames = ConcurrentHashMap.newKeySet();
+    // Concurrent lookups of the same name wait for the first one
+    private final CacheLoadCoordinator lookupCoordinator = new CacheLoadCoordinator();
 
     protected JDBCObjectLookupCache() {
     }
@@ -56,14 +59,25 @@ public abstract class JDBCObjectLookupCache<OWNER extends DBSObject, OBJECT exte
             return null;
         }
         // Now cache just one object
-        OBJECT object = reloadObject(monitor, owner, null, name);
-        if (object != null) {
-            cacheObject(object);
-        } else {
-            // Not found!
-            missingNames.add(name);
+        Object[] result = new Object[1];
+        lookupCoordinator.load(
+            monitor,
+            name,
+            () -> isFullyCached() || missingNames.contains(name) || getCachedObject(name) != null,
+            () -> {
+                OBJECT object = reloadObject(monitor, owner, null, name);
+                if (object != null) {
+                    cacheObject(object);
+                    result[0] = object;
+                } else {
+                    // Not found!
+                    missingNames.add(name);
+                }
+            });
+        if (result[0] != null) {
+            return (OBJECT) result[0];
         }
-        return object;
+        return getCachedObject(name);
     }
 
     public OBJECT refreshObject(@NotNull DBRProgressMonitor monitor, @NotNull OWNER owner, @NotNull OBJECT oldObject)
@@ -30,6 +30,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.cache.CacheLoadCoordinator;
 import org.jkiss.dbeaver.model.struct.cache.DBSObjectCache;
 import org.jkiss.dbeaver.model.struct.cache.DBSStructCache;
 import org.jkiss.dbeaver.model.struct.cache.SimpleObjectCache;
@@ -47,13 +48,32 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
 {
     private static final Log log = Log.getLog(JDBCStructCache.class);
 
+    /**
+     * Max number of parent objects in one batch query (IN-list of names)
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+
     private final Object objectNameColumn;
     private volatile boolean childrenCached = false;
     private final Map<OBJECT, SimpleObjectCache<OBJECT, CHILD>> childrenCache = new IdentityHashMap<>();
+    // Children of different objects are loaded independently. Loads of the same object are coalesced
+    private final CacheLoadCoordinator childrenLoadCoordinator = new CacheLoadCoordinator();
+    private final Object allChildrenKey = new Object();
 
     abstract protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OWNER owner, @Nullable OBJECT forObject)
         throws SQLException;
 
+    /**
+     * Prepares statement which reads children of the specified objects only (e.g. with IN-list of object names).
+     * Returns null if children of several objects can't be read at once.
+     */
+    @Nullable
+    protected JDBCStatement prepareChildrenBatchStatement(@NotNull JDBCSession session, @NotNull OWNER owner, @NotNull List<OBJECT> forObjects)
+        throws SQLException
+    {
+        return null;
+    }
+
     abstract protected CHILD fetchChild(@NotNull JDBCSession session, @NotNull OWNER owner, @NotNull OBJECT parent, @NotNull JDBCResultSet dbResult)
         throws SQLException, DBException;
 
@@ -72,13 +92,59 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
      * @throws org.jkiss.dbeaver.DBException
      *             on error
      */
-    public synchronized void loadChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
+    public void loadChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
     {
-        if ((forObject == null && this.childrenCached)
-            || (forObject != null && (!forObject.isPersisted() || isChildrenCached(forObject))) || monitor.isCanceled()) {
+        if (isChildrenLoaded(forObject) || monitor.isCanceled()) {
             return;
         }
+        childrenLoadCoordinator.load(
+            monitor,
+            forObject == null ? allChildrenKey : forObject,
+            () -> isChildrenLoaded(forObject),
+            () -> readChildren(monitor, owner, forObject, null));
+    }
+
+    /**
+     * Reads children of the specified objects with one query per {@link #MAX_BATCH_SIZE} objects.
+     * Objects whose children are already read are skipped.
+     *
+     * @return false if children of several objects can't be read at once. Then they are read per object on demand.
+     */
+    public boolean loadChildrenOf(DBRProgressMonitor monitor, OWNER owner, Collection<? extends DBSObject> forObjects) throws DBException
+    {
+        List<OBJECT> objects = new ArrayList<>();
+        for (DBSObject object : forObjects) {
+            OBJECT cachedObject = getCachedObject(object.getName());
+            if (cachedObject == object && !isChildrenLoaded(cachedObject)) {
+                objects.add(cachedObject);
+            }
+        }
+        for (int i = 0; i < objects.size(); i += MAX_BATCH_SIZE) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (!readChildren(monitor, owner, null, objects.subList(i, Math.min(objects.size(), i + MAX_BATCH_SIZE)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isChildrenLoaded(@Nullable OBJECT forObject) {
         if (forObject == null) {
+            return this.childrenCached;
+        }
+        return !forObject.isPersisted() || isChildrenCached(forObject);
+    }
+
+    /**
+     * Reads children of one object, of the specified objects or of all objects (if both are null).
+     * Returns false if batch read of the specified objects is not supported.
+     */
+    private boolean readChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject, @Nullable List<OBJECT> forObjects) throws DBException
+    {
+        boolean allObjects = forObject == null && forObjects == null;
+        if (allObjects) {
             // If we have some child objects read before that - do not clear them.
             // We have to reuse them because there could be some references in cached model
             //clearChildrenCache(null);
@@ -92,16 +158,44 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load child objects")) {
             Map<OBJECT, List<CHILD>> objectMap = new HashMap<>();
 
+            Set<OBJECT> batchObjects = null;
+            if (forObjects != null) {
+                batchObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+                batchObjects.addAll(forObjects);
+            }
+
             // Load columns
-            try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
-                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
+            try (JDBCStatement dbStat = forObjects == null ?
+                prepareChildrenStatement(session, owner, forObject) :
+                prepareChildrenBatchStatement(session, owner, forObjects))
+            {
+                if (dbStat == null) {
+                    return false;
+                }
+                // Only the whole owner children are saved. Change marker query reads the whole owner state,
+                // it is too expensive for a single object children read.
+                JDBCObjectCacheStore cacheStore = null;
+                if (allObjects) {
+                    if (isPersistentCacheReset()) {
+                        JDBCObjectCacheStore.deleteStore(session, this, owner, "children");
+                    } else {
+                        cacheStore = JDBCObjectCacheStore.getStore(session, this, owner, "children");
+                    }
+                }
+                JDBCResultSet dbResult = cacheStore == null ? null : cacheStore.openSavedResultSet(session);
+                if (dbResult == null) {
+                    dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                    dbStat.executeStatement();
+                    dbResult = dbStat.getResultSet();
+                    if (dbResult != null && cacheStore != null) {
+                        dbResult = cacheStore.saveResultSet(session, dbResult);
+                    }
+                }
                 if (dbResult != null) {
                     try {
                         while (dbResult.next()) {
                             if (monitor.isCanceled()) {
-                                return;
+                                return true;
                             }
                             OBJECT object = forObject;
                             if (object == null) {
@@ -121,6 +215,9 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
                                     log.debug("Object '" + objectName + "' not found in struct cache (" + getClass().getSimpleName() + ")");
                                     continue;
                                 }
+                                if (batchObjects != null && !batchObjects.contains(object)) {
+                                    continue;
+                                }
                             }
                             if (isChildrenCached(object)) {
                                 // Already read
@@ -141,7 +238,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
                         }
 
                         if (monitor.isCanceled()) {
-                            return;
+                            return true;
                         }
 
                         // All children are read. Now assign them to parents
@@ -152,7 +249,13 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
                                 cacheChildren(colEntry.getKey(), colEntry.getValue());
                             }
                         }
-                        if (forObject == null) {
+                        if (forObjects != null) {
+                            for (OBJECT tmpObject : forObjects) {
+                                if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
+                                    cacheChildren(tmpObject, new ArrayList<>());
+                                }
+                            }
+                        } else if (forObject == null) {
                             if (objectMap.isEmpty()) {
                                 // Nothing was read. May be it means empty list of children
                                 // but possibly this feature is not supported [JDBC: SQLite]
@@ -176,6 +279,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         } catch (SQLException ex) {
             throw new DBException(ex, dataSource);
         }
+        return true;
     }
 
     @Override
@@ -237,6 +341,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
 
     public void clearChildrenCache(OBJECT forParent)
     {
+        resetPersistentCache();
         synchronized (childrenCache) {
             if (forParent != null) {
                 this.childrenCache.remove(forParent);
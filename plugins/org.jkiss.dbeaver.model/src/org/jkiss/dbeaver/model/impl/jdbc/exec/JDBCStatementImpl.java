@@ -38,8 +38,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Managable statement.
@@ -595,7 +594,16 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
     public Throwable[] getStatementWarnings() throws DBCException {
         try {
             List<Throwable> warnings = null;
+            // Server output (e.g. notices) may produce long chains, so check cycles by identity set
+            Set<SQLWarning> visited = null;
             for (SQLWarning warning = getWarnings(); warning != null; warning = warning.getNextWarning()) {
+                if (visited == null) {
+                    visited = Collections.newSetFromMap(new IdentityHashMap<>());
+                }
+                if (!visited.add(warning)) {
+                    // Cycle
+                    break;
+                }
                 if (warning.getMessage() == null && warning.getErrorCode() == 0) {
                     // Skip trash [Excel driver]
                     continue;
@@ -603,10 +611,6 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
                 if (warnings == null) {
                     warnings = new ArrayList<>();
                 }
-                if (warnings.contains(warning)) {
-                    // Cycle
-                    break;
-                }
                 warnings.add(warning);
             }
             if (!CommonUtils.isEmpty(warnings)) {
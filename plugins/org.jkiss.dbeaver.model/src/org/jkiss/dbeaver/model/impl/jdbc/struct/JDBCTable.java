@@ -316,6 +316,22 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
+                return prepareInsertStatement(session, handlers, attributeValues, 1, options);
+            }
+
+            @Override
+            protected boolean supportsMultiRowStatements() {
+                return true;
+            }
+
+            @NotNull
+            @Override
+            protected DBCStatement prepareMultiRowStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, int rowCount, Map<String, Object> options) throws DBCException {
+                return prepareInsertStatement(session, handlers, attributeValues, rowCount, options);
+            }
+
+            @NotNull
+            private DBCStatement prepareInsertStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, int rowCount, Map<String, Object> options) throws DBCException {
                 // Make query
                 String tableName = DBUtils.getEntityScriptName(JDBCTable.this, options);
                 StringBuilder query = new StringBuilder(200);
@@ -349,24 +365,30 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                     hasKey = true;
                     query.append(getAttributeName(attribute));
                 }
-                query.append(")\n\tVALUES ("); //$NON-NLS-1$
+                query.append(")\n\tVALUES "); //$NON-NLS-1$
+                StringBuilder rowBinds = new StringBuilder();
+                rowBinds.append("("); //$NON-NLS-1$
                 hasKey = false;
                 for (int i = 0; i < attributes.length; i++) {
                     DBSAttributeBase attribute = attributes[i];
                     if (DBUtils.isPseudoAttribute(attribute) || (!allNulls && DBUtils.isNullValue(attributeValues[i]))) {
                         continue;
                     }
-                    if (hasKey) query.append(","); //$NON-NLS-1$
+                    if (hasKey) rowBinds.append(","); //$NON-NLS-1$
                     hasKey = true;
 
                     DBDValueHandler valueHandler = handlers[i];
                     if (valueHandler instanceof DBDValueBinder) {
-                        query.append(((DBDValueBinder) valueHandler) .makeQueryBind(attribute, attributeValues[i]));
+                        rowBinds.append(((DBDValueBinder) valueHandler) .makeQueryBind(attribute, attributeValues[i]));
                     } else {
-                        query.append("?"); //$NON-NLS-1$
+                        rowBinds.append("?"); //$NON-NLS-1$
                     }
                 }
-                query.append(")"); //$NON-NLS-1$
+                rowBinds.append(")"); //$NON-NLS-1$
+                for (int row = 0; row < rowCount; row++) {
+                    if (row > 0) query.append(",\n\t"); //$NON-NLS-1$
+                    query.append(rowBinds);
+                }
 
                 String trailingClause = method.getTrailingClause(JDBCTable.this, session.getProgressMonitor(), attributes);
                 if (trailingClause != null) {
@@ -381,7 +403,18 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
             @Override
             protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) throws DBCException {
+                bindRow(handlers, statement, attributeValues, 0);
+            }
+
+            @Override
+            protected void bindMultiRowStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, @NotNull List<Object[]> rows) throws DBCException {
                 int paramIndex = 0;
+                for (Object[] rowValues : rows) {
+                    paramIndex = bindRow(handlers, statement, rowValues, paramIndex);
+                }
+            }
+
+            private int bindRow(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues, int paramIndex) throws DBCException {
                 for (int k = 0; k < handlers.length; k++) {
                     DBSAttributeBase attribute = attributes[k];
                     if (DBUtils.isPseudoAttribute(attribute) || (!allNulls && DBUtils.isNullValue(attributeValues[k]))) {
@@ -389,6 +422,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                     }
                     handlers[k].bindValueObject(statement.getSession(), statement, attribute, paramIndex++, attributeValues[k]);
                 }
+                return paramIndex;
             }
         };
     }
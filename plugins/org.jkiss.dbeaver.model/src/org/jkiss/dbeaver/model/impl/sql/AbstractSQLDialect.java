@@ -475,6 +475,12 @@ public abstract class AbstractSQLDialect implements SQLDialect {
         return MultiValueInsertMode.NOT_SUPPORTED;
     }
 
+    @Override
+    public int getMaxStatementParameters() {
+        // SQL Server limit is 2100. Most other databases support more.
+        return 2000;
+    }
+
     @Override
     public String addFiltersToQuery(DBRProgressMonitor monitor, DBPDataSource dataSource, String query, DBDDataFilter filter) {
         return SQLSemanticProcessor.addFiltersToQuery(monitor, dataSource, query, filter);
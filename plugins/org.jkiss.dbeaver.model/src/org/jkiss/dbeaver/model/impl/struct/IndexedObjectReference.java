@@ -0,0 +1,78 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.*;
+
+import java.util.List;
+
+/**
+ * Reference to the object found in the metadata index
+ */
+class IndexedObjectReference extends AbstractObjectReference {
+
+    private final StructureIndex index;
+    private final DBSStructureAssistant assistant;
+    private final DBCExecutionContext executionContext;
+
+    IndexedObjectReference(
+        @NotNull StructureIndex.Entry entry,
+        @NotNull DBSObject container,
+        @NotNull DBSObjectType type,
+        @NotNull StructureIndex index,
+        @NotNull DBSStructureAssistant<?> assistant,
+        @NotNull DBCExecutionContext executionContext)
+    {
+        super(entry.name, container, entry.description, type.getTypeClass(), type, entry.fullName);
+        this.index = index;
+        this.assistant = assistant;
+        this.executionContext = executionContext;
+    }
+
+    @Override
+    public DBSObject resolveObject(DBRProgressMonitor monitor) throws DBException {
+        DBSObject container = getContainer();
+        Class<?> objectClass = getObjectClass();
+        if (container instanceof DBSObjectContainer) {
+            DBSObject child = ((DBSObjectContainer) container).getChild(monitor, getName());
+            if (child != null && (objectClass == null || objectClass.isInstance(child))) {
+                return child;
+            }
+        }
+        // Object is not a direct child of its container (e.g. procedure). Find it with the live structure assistant.
+        DBSStructureAssistant.ObjectsSearchParams params = new DBSStructureAssistant.ObjectsSearchParams(
+            new DBSObjectType[]{getObjectType()}, getName());
+        params.setParentObject(container);
+        params.setCaseSensitive(true);
+        params.setGlobalSearch(true);
+        List<DBSObjectReference> references = assistant.findObjectsByMask(monitor, executionContext, params);
+        for (DBSObjectReference reference : references) {
+            if (reference.getName().equals(getName())) {
+                return reference.resolveObject(monitor);
+            }
+        }
+        // Index is outdated
+        index.invalidate();
+        throw new DBException("Object '" + getFullyQualifiedName(DBPEvaluationContext.UI) + "' not found");
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.*;
+
+import java.util.*;
+
+/**
+ * Structure assistant which searches objects in the metadata index.
+ * Falls back to the data source structure assistant if index is not ready.
+ */
+class IndexedStructureAssistant implements DBSStructureAssistant<DBCExecutionContext> {
+
+    private final StructureIndex index;
+    private final DBSStructureAssistant delegate;
+
+    IndexedStructureAssistant(@NotNull StructureIndex index, @NotNull DBSStructureAssistant<?> delegate) {
+        this.index = index;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public DBSObjectType[] getSupportedObjectTypes() {
+        return delegate.getSupportedObjectTypes();
+    }
+
+    @Override
+    public DBSObjectType[] getSearchObjectTypes() {
+        return delegate.getSearchObjectTypes();
+    }
+
+    @Override
+    public DBSObjectType[] getHyperlinkObjectTypes() {
+        return delegate.getHyperlinkObjectTypes();
+    }
+
+    @Override
+    public DBSObjectType[] getAutoCompleteObjectTypes() {
+        return delegate.getAutoCompleteObjectTypes();
+    }
+
+    @NotNull
+    @Override
+    public List<DBSObjectReference> findObjectsByMask(@NotNull DBRProgressMonitor monitor, @NotNull DBCExecutionContext executionContext, @NotNull ObjectsSearchParams params) throws DBException {
+        DBSObject parentObject = params.getParentObject();
+        boolean rootParent = parentObject == null || parentObject instanceof DBPDataSource;
+        StructureIndex.Snapshot snapshot = index.getActualSnapshot();
+        if (snapshot == null || (rootParent && !params.isGlobalSearch())) {
+            // Non-global search depends on the active schema/catalog of the context
+            return delegate.findObjectsByMask(monitor, executionContext, params);
+        }
+        Map<String, DBSObjectType> types = new HashMap<>();
+        for (DBSObjectType type : params.getObjectTypes()) {
+            types.put(type.getTypeName(), type);
+        }
+        String[] parentPath = rootParent ? null : StructureIndex.getObjectPath(parentObject);
+        List<StructureIndex.Entry> entries = snapshot.find(
+            params.getMask(),
+            params.isCaseSensitive(),
+            params.isSearchInComments(),
+            types.keySet(),
+            parentPath,
+            params.getMaxResults());
+
+        List<DBSObjectReference> result = new ArrayList<>(entries.size());
+        Map<List<String>, DBSObject> containers = new HashMap<>();
+        for (StructureIndex.Entry entry : entries) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            DBSObject container;
+            if (parentPath != null && Arrays.equals(parentPath, entry.path)) {
+                container = parentObject;
+            } else {
+                List<String> path = Arrays.asList(entry.path);
+                if (containers.containsKey(path)) {
+                    container = containers.get(path);
+                } else {
+                    container = resolveContainer(monitor, executionContext.getDataSource(), entry.path);
+                    containers.put(path, container);
+                }
+            }
+            if (container == null) {
+                // Container was removed or it is not reachable by names
+                continue;
+            }
+            result.add(new IndexedObjectReference(
+                entry, container, types.get(entry.typeName), index, delegate, executionContext));
+        }
+        return result;
+    }
+
+    @Nullable
+    private static DBSObject resolveContainer(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource dataSource, @NotNull String[] path) throws DBException {
+        DBSObject object = dataSource;
+        for (String name : path) {
+            if (!(object instanceof DBSObjectContainer)) {
+                return null;
+            }
+            object = ((DBSObjectContainer) object).getChild(monitor, name);
+            if (object == null) {
+                return null;
+            }
+        }
+        return object;
+    }
+
+}
@@ -0,0 +1,931 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.struct;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.*;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Local index of database objects metadata (names, types, parent paths and comments).
+ * Index is built in background with the data source structure assistant and is stored in the project metadata folder.
+ * Object add/remove events are collected and applied to the index in batch on the next index access.
+ * Subtrees of updated objects and containers are re-read and merged into the index.
+ * Lookups use binary search by name prefix and trigrams for "contains" masks.
+ * If index is not built yet or is outdated then searches are performed by the live structure assistant.
+ */
+public class StructureIndex implements DBPEventListener {
+
+    private static final Log log = Log.getLog(StructureIndex.class);
+
+    private static final String INDEX_FOLDER = "metadata-index"; //$NON-NLS-1$
+    private static final String INDEX_FILE_EXT = ".idx"; //$NON-NLS-1$
+    private static final int INDEX_FILE_MAGIC = 0x44424958;
+    private static final int INDEX_FILE_VERSION = 1;
+    // Index is rebuilt if it is older than this
+    private static final long MAX_INDEX_AGE = 24L * 60 * 60 * 1000;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+    private static final long SAVE_DELAY = 2000;
+
+    private static final Map<DBPDataSourceContainer, StructureIndex> indexes = new IdentityHashMap<>();
+
+    /**
+     * Returns structure assistant of the object data source.
+     * If metadata index is enabled for the data source then assistant searches in the index.
+     */
+    @Nullable
+    public static DBSStructureAssistant<?> getStructureAssistant(@Nullable DBSObject object) {
+        DBSStructureAssistant<?> assistant = DBUtils.getAdapter(DBSStructureAssistant.class, object);
+        if (assistant == null || assistant instanceof IndexedStructureAssistant) {
+            return assistant;
+        }
+        DBPDataSource dataSource = object.getDataSource();
+        if (dataSource == null || !dataSource.getContainer().getPreferenceStore().getBoolean(ModelPreferences.META_STRUCTURE_INDEX)) {
+            return assistant;
+        }
+        return new IndexedStructureAssistant(getIndex(dataSource.getContainer()), assistant);
+    }
+
+    @NotNull
+    static StructureIndex getIndex(@NotNull DBPDataSourceContainer container) {
+        synchronized (indexes) {
+            StructureIndex index = indexes.get(container);
+            if (index == null) {
+                index = new StructureIndex(container);
+                indexes.put(container, index);
+                container.getRegistry().addDataSourceListener(index);
+            }
+            return index;
+        }
+    }
+
+    private final DBPDataSourceContainer container;
+    private final BuildJob buildJob;
+    private final SaveJob saveJob;
+    private final RefreshJob refreshJob;
+    private final Object lock = new Object();
+    // Guarded by lock
+    private Snapshot snapshot;
+    // Object changes which are not applied to the snapshot yet. Guarded by lock
+    private final List<Change> pendingChanges = new ArrayList<>();
+    // Containers whose children must be re-read. Guarded by lock
+    private final Set<DBSObject> pendingRefreshes = new LinkedHashSet<>();
+    // Guarded by lock
+    private boolean building;
+    private volatile boolean stale;
+
+    private StructureIndex(@NotNull DBPDataSourceContainer container) {
+        this.container = container;
+        this.buildJob = new BuildJob();
+        this.saveJob = new SaveJob();
+        this.refreshJob = new RefreshJob();
+    }
+
+    @NotNull
+    public DBPDataSourceContainer getContainer() {
+        return container;
+    }
+
+    /**
+     * Returns index snapshot if it is built and actual. Otherwise schedules index (re)build and returns null.
+     */
+    @Nullable
+    Snapshot getActualSnapshot() {
+        Snapshot actual = getCurrentSnapshot();
+        if (actual != null && !stale && System.currentTimeMillis() - actual.buildTime < MAX_INDEX_AGE) {
+            return actual;
+        }
+        if (buildJob.getState() == Job.NONE) {
+            buildJob.schedule();
+        }
+        return null;
+    }
+
+    /**
+     * Returns snapshot with all collected object changes applied
+     */
+    @Nullable
+    private Snapshot getCurrentSnapshot() {
+        synchronized (lock) {
+            // Changes which came during build are applied to the new snapshot after build
+            if (snapshot != null && !building && !pendingChanges.isEmpty()) {
+                snapshot = snapshot.update(pendingChanges);
+                pendingChanges.clear();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Marks index as outdated. Searches use live structure assistant until index is rebuilt.
+     */
+    public void invalidate() {
+        stale = true;
+        buildJob.schedule();
+    }
+
+    private void dispose(boolean deleteFile) {
+        synchronized (indexes) {
+            indexes.remove(container);
+        }
+        container.getRegistry().removeDataSourceListener(this);
+        buildJob.cancel();
+        refreshJob.cancel();
+        boolean savePending = saveJob.getState() == Job.SLEEPING || saveJob.getState() == Job.WAITING;
+        saveJob.cancel();
+        if (deleteFile) {
+            File indexFile = getIndexFile(false);
+            if (indexFile != null && indexFile.exists() && !indexFile.delete()) {
+                log.debug("Can't delete metadata index file " + indexFile.getAbsolutePath());
+            }
+        } else if (savePending) {
+            saveIndex();
+        }
+        synchronized (lock) {
+            snapshot = null;
+            pendingChanges.clear();
+            pendingRefreshes.clear();
+        }
+    }
+
+    @Override
+    public void handleDataSourceEvent(DBPEvent event) {
+        DBSObject object = event.getObject();
+        if (object == container) {
+            if (event.getAction() == DBPEvent.Action.OBJECT_REMOVE) {
+                dispose(true);
+            } else if (event.getAction() == DBPEvent.Action.OBJECT_UPDATE && Boolean.FALSE.equals(event.getEnabled())) {
+                // Disconnected. Index will be read from disk after reconnect.
+                dispose(false);
+            }
+            return;
+        }
+        if (object == null || object instanceof DBPDataSourceContainer || DBUtils.getContainer(object) != container) {
+            return;
+        }
+        switch (event.getAction()) {
+            case OBJECT_ADD:
+            case OBJECT_REMOVE: {
+                DBSObjectType objectType = findObjectType(object);
+                if (objectType == null) {
+                    // Not indexed object or a container (schema, catalog). Its children are read or removed as a whole.
+                    if (object instanceof DBSObjectContainer) {
+                        if (event.getAction() == DBPEvent.Action.OBJECT_ADD) {
+                            refreshSubtree(object);
+                        } else {
+                            addChange(Change.removeSubtree(getObjectPath(object)));
+                        }
+                    }
+                    return;
+                }
+                Entry entry = new Entry(
+                    object.getName(),
+                    objectType.getTypeName(),
+                    getObjectPath(object.getParentObject()),
+                    object.getDescription(),
+                    DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
+                addChange(event.getAction() == DBPEvent.Action.OBJECT_ADD ? Change.add(entry) : Change.remove(entry));
+                break;
+            }
+            case OBJECT_UPDATE:
+                if (object instanceof DBSObjectContainer) {
+                    refreshSubtree(object);
+                } else if (findObjectType(object) != null) {
+                    // Object may be renamed. Its old name is known only to the parent listing
+                    refreshSubtree(object.getParentObject());
+                }
+                break;
+            default:
+                // Selection changes (e.g. default schema switch) do not change the metadata
+                break;
+        }
+    }
+
+    private void addChange(@NotNull Change change) {
+        synchronized (lock) {
+            if (snapshot == null && !building) {
+                // Index will be built from scratch
+                return;
+            }
+            pendingChanges.add(change);
+        }
+        saveJob.schedule(SAVE_DELAY);
+    }
+
+    /**
+     * Schedules re-read of the container children. Whole index is rebuilt if the container is the data source itself.
+     */
+    private void refreshSubtree(@Nullable DBSObject parent) {
+        if (parent == null || parent instanceof DBPDataSource || parent instanceof DBPDataSourceContainer) {
+            invalidate();
+            return;
+        }
+        synchronized (lock) {
+            if (snapshot == null && !building) {
+                return;
+            }
+            pendingRefreshes.add(parent);
+        }
+        refreshJob.schedule();
+    }
+
+    @Nullable
+    private DBSObjectType findObjectType(@NotNull DBSObject object) {
+        DBSStructureAssistant<?> assistant = DBUtils.getAdapter(DBSStructureAssistant.class, container.getDataSource());
+        if (assistant == null) {
+            return null;
+        }
+        // Find the most specific type
+        DBSObjectType result = null;
+        for (DBSObjectType type : getIndexedTypes(assistant)) {
+            Class<? extends DBSObject> typeClass = type.getTypeClass();
+            if (typeClass != null && typeClass.isInstance(object) &&
+                (result == null || result.getTypeClass().isAssignableFrom(typeClass)))
+            {
+                result = type;
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static Collection<DBSObjectType> getIndexedTypes(@NotNull DBSStructureAssistant<?> assistant) {
+        Set<DBSObjectType> types = new LinkedHashSet<>();
+        Collections.addAll(types, assistant.getSearchObjectTypes());
+        Collections.addAll(types, assistant.getAutoCompleteObjectTypes());
+        return types;
+    }
+
+    /**
+     * Names of object and its parents, from the top-level container. Data source is not included.
+     */
+    @NotNull
+    static String[] getObjectPath(@Nullable DBSObject object) {
+        List<String> path = new ArrayList<>();
+        for (DBSObject parent = object; parent != null; parent = parent.getParentObject()) {
+            if (parent instanceof DBPDataSource || parent instanceof DBPDataSourceContainer) {
+                break;
+            }
+            path.add(0, parent.getName());
+        }
+        return path.toArray(new String[0]);
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Build
+
+    private void buildIndex(@NotNull DBRProgressMonitor monitor) throws DBException {
+        DBPDataSource dataSource = container.getDataSource();
+        if (dataSource == null || !container.isConnected()) {
+            return;
+        }
+        if (getCurrentSnapshot() == null && !stale) {
+            Snapshot saved = loadIndex();
+            if (saved != null && System.currentTimeMillis() - saved.buildTime < MAX_INDEX_AGE) {
+                synchronized (lock) {
+                    if (snapshot == null) {
+                        snapshot = saved;
+                    }
+                }
+                return;
+            }
+        }
+        DBSStructureAssistant assistant = DBUtils.getAdapter(DBSStructureAssistant.class, dataSource);
+        DBCExecutionContext executionContext = DBUtils.getDefaultContext(dataSource, true);
+        if (assistant == null || executionContext == null) {
+            return;
+        }
+        stale = false;
+        synchronized (lock) {
+            // Changes made before this point are read by the build
+            pendingChanges.clear();
+            building = true;
+        }
+        Snapshot built = null;
+        try {
+            long buildTime = System.currentTimeMillis();
+            monitor.beginTask("Build metadata index of " + container.getName(), 1);
+            List<Entry> entries;
+            try {
+                entries = readEntries(monitor, assistant, executionContext, null);
+            } finally {
+                monitor.done();
+            }
+            if (entries == null) {
+                return;
+            }
+            built = new Snapshot(buildTime, entries);
+            log.debug("Metadata index of '" + container.getName() + "' built: " + entries.size() + " objects (" +
+                (System.currentTimeMillis() - buildTime) + "ms)");
+        } finally {
+            synchronized (lock) {
+                building = false;
+                if (built != null) {
+                    // Changes made during build may be missing in the read metadata
+                    snapshot = pendingChanges.isEmpty() ? built : built.update(pendingChanges);
+                    pendingChanges.clear();
+                }
+            }
+        }
+        saveIndex();
+    }
+
+    /**
+     * Reads all indexed objects of the data source or of the specified container.
+     * Returns null if canceled.
+     */
+    @Nullable
+    private List<Entry> readEntries(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSStructureAssistant assistant,
+        @NotNull DBCExecutionContext executionContext,
+        @Nullable DBSObject parentObject) throws DBException
+    {
+        List<Entry> entries = new ArrayList<>();
+        for (DBSObjectType type : getIndexedTypes(assistant)) {
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            monitor.subTask("Read " + type.getTypeName());
+            DBSStructureAssistant.ObjectsSearchParams params = new DBSStructureAssistant.ObjectsSearchParams(
+                new DBSObjectType[]{type}, "%");
+            if (parentObject == null) {
+                params.setGlobalSearch(true);
+            } else {
+                params.setParentObject(parentObject);
+            }
+            List<DBSObjectReference> references = assistant.findObjectsByMask(monitor, executionContext, params);
+            for (DBSObjectReference reference : references) {
+                DBSObjectType objectType = reference.getObjectType();
+                entries.add(new Entry(
+                    reference.getName(),
+                    objectType == null ? type.getTypeName() : objectType.getTypeName(),
+                    getObjectPath(reference.getContainer()),
+                    reference.getObjectDescription(),
+                    reference.getFullyQualifiedName(DBPEvaluationContext.DDL)));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Re-reads children of refreshed containers and merges them into the index
+     */
+    private void refreshSubtrees(@NotNull DBRProgressMonitor monitor) throws DBException {
+        DBPDataSource dataSource = container.getDataSource();
+        if (dataSource == null || !container.isConnected()) {
+            return;
+        }
+        DBSStructureAssistant assistant = DBUtils.getAdapter(DBSStructureAssistant.class, dataSource);
+        DBCExecutionContext executionContext = DBUtils.getDefaultContext(dataSource, true);
+        if (assistant == null || executionContext == null) {
+            return;
+        }
+        List<DBSObject> parents;
+        synchronized (lock) {
+            parents = new ArrayList<>(pendingRefreshes);
+            pendingRefreshes.clear();
+        }
+        monitor.beginTask("Refresh metadata index of " + container.getName(), parents.size());
+        try {
+            for (DBSObject parent : parents) {
+                if (monitor.isCanceled()) {
+                    return;
+                }
+                List<Entry> entries = readEntries(monitor, assistant, executionContext, parent);
+                if (entries == null) {
+                    return;
+                }
+                List<Change> changes = new ArrayList<>(entries.size() + 1);
+                changes.add(Change.removeSubtree(getObjectPath(parent)));
+                for (Entry entry : entries) {
+                    changes.add(Change.add(entry));
+                }
+                synchronized (lock) {
+                    if (snapshot == null && !building) {
+                        return;
+                    }
+                    pendingChanges.addAll(changes);
+                }
+                monitor.worked(1);
+            }
+        } finally {
+            monitor.done();
+        }
+        saveJob.schedule(SAVE_DELAY);
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Persistence
+
+    @Nullable
+    private File getIndexFile(boolean create) {
+        DBPProject project = container.getProject();
+        File metadataFolder = project == null ? null : project.getMetadataFolder(create);
+        if (metadataFolder == null) {
+            return null;
+        }
+        File indexFolder = new File(metadataFolder, INDEX_FOLDER);
+        if (create && !indexFolder.exists() && !indexFolder.mkdirs()) {
+            log.debug("Can't create metadata index folder " + indexFolder.getAbsolutePath());
+            return null;
+        }
+        return new File(indexFolder, container.getId() + INDEX_FILE_EXT);
+    }
+
+    @Nullable
+    private Snapshot loadIndex() {
+        File indexFile = getIndexFile(false);
+        if (indexFile == null || !indexFile.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            return Snapshot.read(in);
+        } catch (IOException e) {
+            log.debug("Error reading metadata index " + indexFile.getAbsolutePath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveIndex() {
+        Snapshot current = getCurrentSnapshot();
+        File indexFile = getIndexFile(true);
+        if (current == null || indexFile == null) {
+            return;
+        }
+        File tempFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                current.write(out);
+            }
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.debug("Error saving metadata index " + indexFile.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    private class BuildJob extends AbstractJob {
+        BuildJob() {
+            super("Build metadata index");
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                buildIndex(monitor);
+            } catch (Throwable e) {
+                log.debug("Error building metadata index of '" + container.getName() + "'", e);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private class RefreshJob extends AbstractJob {
+        RefreshJob() {
+            super("Refresh metadata index");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                refreshSubtrees(monitor);
+            } catch (Throwable e) {
+                log.debug("Error refreshing metadata index of '" + container.getName() + "'", e);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private class SaveJob extends AbstractJob {
+        SaveJob() {
+            super("Save metadata index");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            saveIndex();
+            return Status.OK_STATUS;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////
+    // Index data
+
+    public static class Entry {
+        final String name;
+        final String lowerName;
+        final String typeName;
+        final String[] path;
+        final String description;
+        final String fullName;
+
+        public Entry(@NotNull String name, @NotNull String typeName, @NotNull String[] path, @Nullable String description, @NotNull String fullName) {
+            this.name = name;
+            this.lowerName = name.toLowerCase(Locale.ENGLISH);
+            this.typeName = typeName;
+            this.path = path;
+            this.description = description == null || description.length() <= MAX_DESCRIPTION_LENGTH ?
+                CommonUtils.nullIfEmpty(description) : description.substring(0, MAX_DESCRIPTION_LENGTH);
+            this.fullName = fullName;
+        }
+
+        @NotNull
+        public String getName() {
+            return name;
+        }
+
+        @NotNull
+        public String getTypeName() {
+            return typeName;
+        }
+
+        @NotNull
+        public String getFullName() {
+            return fullName;
+        }
+
+        /**
+         * Key which identifies the object (entries of the same object have the same key)
+         */
+        @NotNull
+        String getObjectKey() {
+            StringBuilder key = new StringBuilder(typeName);
+            for (String pathItem : path) {
+                key.append('\0').append(pathItem);
+            }
+            return key.append('\0').append(name).toString();
+        }
+
+        boolean isChildOf(@NotNull String[] parentPath) {
+            if (parentPath.length > path.length) {
+                return false;
+            }
+            for (int i = 0; i < parentPath.length; i++) {
+                if (!parentPath[i].equals(path[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return fullName;
+        }
+    }
+
+    /**
+     * Object add or remove, or removal of all objects of the container (subtree)
+     */
+    public static class Change {
+        @Nullable
+        final Entry entry;
+        final boolean add;
+        @Nullable
+        final String[] subtreePath;
+
+        private Change(@Nullable Entry entry, boolean add, @Nullable String[] subtreePath) {
+            this.entry = entry;
+            this.add = add;
+            this.subtreePath = subtreePath;
+        }
+
+        @NotNull
+        public static Change add(@NotNull Entry entry) {
+            return new Change(entry, true, null);
+        }
+
+        @NotNull
+        public static Change remove(@NotNull Entry entry) {
+            return new Change(entry, false, null);
+        }
+
+        /**
+         * Removes all objects of the container with the specified path
+         */
+        @NotNull
+        public static Change removeSubtree(@NotNull String[] parentPath) {
+            return new Change(null, false, parentPath);
+        }
+    }
+
+    /**
+     * Immutable index state. Entries are sorted by lower-case name.
+     * Trigram postings contain sorted entry numbers of entries whose lower-case name contains the trigram.
+     */
+    public static class Snapshot {
+        private static final Comparator<Entry> ENTRY_COMPARATOR = Comparator.comparing(e -> e.lowerName);
+        private static final int[] EMPTY_POSTINGS = new int[0];
+
+        final long buildTime;
+        final Entry[] entries;
+        private final Map<Long, int[]> trigrams;
+
+        public Snapshot(long buildTime, @NotNull Collection<Entry> entries) {
+            this.buildTime = buildTime;
+            this.entries = entries.toArray(new Entry[0]);
+            Arrays.sort(this.entries, ENTRY_COMPARATOR);
+            this.trigrams = buildTrigrams(this.entries);
+        }
+
+        public int size() {
+            return entries.length;
+        }
+
+        /**
+         * Returns new snapshot with applied changes. Changes are applied in order, so the last change of the same object wins.
+         */
+        @NotNull
+        public Snapshot update(@NotNull List<Change> changes) {
+            Map<String, Entry> newEntries = new LinkedHashMap<>();
+            for (Entry entry : entries) {
+                newEntries.put(entry.getObjectKey(), entry);
+            }
+            for (Change change : changes) {
+                if (change.subtreePath != null) {
+                    newEntries.values().removeIf(entry -> entry.isChildOf(change.subtreePath));
+                } else if (change.add) {
+                    newEntries.put(change.entry.getObjectKey(), change.entry);
+                } else {
+                    newEntries.remove(change.entry.getObjectKey());
+                }
+            }
+            return new Snapshot(buildTime, newEntries.values());
+        }
+
+        /**
+         * Finds entries by name mask. Mask may contain LIKE (%, _) or glob (*, ?) wildcards.
+         * @param typeNames   object type names. Null means any type
+         * @param parentPath  path of parent container. Null means any parent
+         */
+        @NotNull
+        public List<Entry> find(
+            @NotNull String mask,
+            boolean caseSensitive,
+            boolean searchInComments,
+            @Nullable Set<String> typeNames,
+            @Nullable String[] parentPath,
+            int maxResults)
+        {
+            MaskInfo maskInfo = new MaskInfo(mask, caseSensitive);
+            List<Entry> result = new ArrayList<>();
+            if (!searchInComments && !maskInfo.prefix.isEmpty()) {
+                // Range of names with the same prefix
+                String prefix = maskInfo.prefix.toLowerCase(Locale.ENGLISH);
+                for (int i = lowerBound(prefix); i < entries.length && entries[i].lowerName.startsWith(prefix); i++) {
+                    if (addMatchedEntry(result, entries[i], maskInfo, false, typeNames, parentPath, maxResults)) {
+                        break;
+                    }
+                }
+            } else if (!searchInComments && maskInfo.longestLiteral.length() >= 3) {
+                for (int i : findTrigramCandidates(maskInfo.longestLiteral.toLowerCase(Locale.ENGLISH))) {
+                    if (addMatchedEntry(result, entries[i], maskInfo, false, typeNames, parentPath, maxResults)) {
+                        break;
+                    }
+                }
+            } else {
+                for (Entry entry : entries) {
+                    if (addMatchedEntry(result, entry, maskInfo, searchInComments, typeNames, parentPath, maxResults)) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+
+        // Returns true if max results reached
+        private static boolean addMatchedEntry(
+            @NotNull List<Entry> result,
+            @NotNull Entry entry,
+            @NotNull MaskInfo maskInfo,
+            boolean searchInComments,
+            @Nullable Set<String> typeNames,
+            @Nullable String[] parentPath,
+            int maxResults)
+        {
+            if ((typeNames != null && !typeNames.contains(entry.typeName)) ||
+                (parentPath != null && !entry.isChildOf(parentPath)))
+            {
+                return false;
+            }
+            if (maskInfo.pattern.matcher(entry.name).matches() ||
+                (searchInComments && entry.description != null && maskInfo.pattern.matcher(entry.description).find()))
+            {
+                result.add(entry);
+            }
+            return result.size() >= maxResults;
+        }
+
+        private int lowerBound(@NotNull String prefix) {
+            int low = 0, high = entries.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (entries[mid].lowerName.compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @NotNull
+        private int[] findTrigramCandidates(@NotNull String literal) {
+            int[] result = null;
+            for (int i = 0; i + 3 <= literal.length(); i++) {
+                int[] postings = trigrams.get(trigramKey(literal, i));
+                if (postings == null) {
+                    return EMPTY_POSTINGS;
+                }
+                result = result == null ? postings : intersect(result, postings);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result == null ? EMPTY_POSTINGS : result;
+        }
+
+        @NotNull
+        private static int[] intersect(@NotNull int[] a, @NotNull int[] b) {
+            int[] result = new int[Math.min(a.length, b.length)];
+            int count = 0;
+            for (int i = 0, k = 0; i < a.length && k < b.length; ) {
+                if (a[i] < b[k]) {
+                    i++;
+                } else if (a[i] > b[k]) {
+                    k++;
+                } else {
+                    result[count++] = a[i];
+                    i++;
+                    k++;
+                }
+            }
+            return count == result.length ? result : Arrays.copyOf(result, count);
+        }
+
+        private static long trigramKey(@NotNull String str, int offset) {
+            return ((long) str.charAt(offset) << 32) | ((long) str.charAt(offset + 1) << 16) | str.charAt(offset + 2);
+        }
+
+        @NotNull
+        private static Map<Long, int[]> buildTrigrams(@NotNull Entry[] entries) {
+            Map<Long, int[]> postings = new HashMap<>();
+            Map<Long, Integer> sizes = new HashMap<>();
+            for (int i = 0; i < entries.length; i++) {
+                String name = entries[i].lowerName;
+                for (int k = 0; k + 3 <= name.length(); k++) {
+                    Long key = trigramKey(name, k);
+                    int[] list = postings.get(key);
+                    int size = list == null ? 0 : sizes.get(key);
+                    if (size > 0 && list[size - 1] == i) {
+                        // Trigram repeats in the same name
+                        continue;
+                    }
+                    if (list == null) {
+                        list = new int[4];
+                        postings.put(key, list);
+                    } else if (size == list.length) {
+                        list = Arrays.copyOf(list, size * 2);
+                        postings.put(key, list);
+                    }
+                    list[size] = i;
+                    sizes.put(key, size + 1);
+                }
+            }
+            for (Map.Entry<Long, int[]> posting : postings.entrySet()) {
+                int size = sizes.get(posting.getKey());
+                if (size < posting.getValue().length) {
+                    posting.setValue(Arrays.copyOf(posting.getValue(), size));
+                }
+            }
+            return postings;
+        }
+
+        void write(@NotNull DataOutputStream out) throws IOException {
+            out.writeInt(INDEX_FILE_MAGIC);
+            out.writeInt(INDEX_FILE_VERSION);
+            out.writeLong(buildTime);
+            out.writeInt(entries.length);
+            for (Entry entry : entries) {
+                out.writeUTF(entry.name);
+                out.writeUTF(entry.typeName);
+                out.writeShort(entry.path.length);
+                for (String pathItem : entry.path) {
+                    out.writeUTF(pathItem);
+                }
+                out.writeUTF(CommonUtils.notEmpty(entry.description));
+                out.writeUTF(entry.fullName);
+            }
+        }
+
+        @Nullable
+        static Snapshot read(@NotNull DataInputStream in) throws IOException {
+            if (in.readInt() != INDEX_FILE_MAGIC || in.readInt() != INDEX_FILE_VERSION) {
+                return null;
+            }
+            long buildTime = in.readLong();
+            int count = in.readInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                String typeName = in.readUTF();
+                String[] path = new String[in.readShort()];
+                for (int k = 0; k < path.length; k++) {
+                    path[k] = in.readUTF();
+                }
+                String description = in.readUTF();
+                String fullName = in.readUTF();
+                entries.add(new Entry(name, typeName, path, description, fullName));
+            }
+            return new Snapshot(buildTime, entries);
+        }
+    }
+
+    /**
+     * Parsed name mask
+     */
+    private static class MaskInfo {
+        final Pattern pattern;
+        // Literal text before the first wildcard
+        final String prefix;
+        final String longestLiteral;
+
+        MaskInfo(@NotNull String mask, boolean caseSensitive) {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            String firstLiteral = null, longest = "";
+            for (int i = 0; i < mask.length(); i++) {
+                char c = mask.charAt(i);
+                if (c == '%' || c == '*' || c == '_' || c == '?') {
+                    if (firstLiteral == null) {
+                        firstLiteral = literal.toString();
+                    }
+                    if (literal.length() > longest.length()) {
+                        longest = literal.toString();
+                    }
+                    if (literal.length() > 0) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(c == '%' || c == '*' ? ".*" : ".");
+                } else {
+                    if (c == '\\' && i < mask.length() - 1) {
+                        // Escaped wildcard
+                        c = mask.charAt(++i);
+                    }
+                    literal.append(c);
+                }
+            }
+            if (firstLiteral == null) {
+                firstLiteral = literal.toString();
+            }
+            if (literal.length() > longest.length()) {
+                longest = literal.toString();
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+            this.pattern = Pattern.compile(regex.toString(), caseSensitive ? Pattern.DOTALL : Pattern.DOTALL | Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+            this.prefix = firstLiteral;
+            this.longestLiteral = longest;
+        }
+    }
+
+}
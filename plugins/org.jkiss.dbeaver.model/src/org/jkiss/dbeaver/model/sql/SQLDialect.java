@@ -331,6 +331,12 @@ public interface SQLDialect {
     @NotNull
     MultiValueInsertMode getDefaultMultiValueInsertMode();
 
+    /**
+     * Maximum number of bind parameters in a single statement.
+     * Limits the number of rows in multi-row INSERT statements.
+     */
+    int getMaxStatementParameters();
+
     String addFiltersToQuery(DBRProgressMonitor monitor, DBPDataSource dataSource, String query, DBDDataFilter filter);
 
     /**
@@ -0,0 +1,57 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+/**
+ * Native bulk data loader (e.g. COPY or LOAD DATA).
+ * Data source provides it as an adapter. Data import uses it instead of batched INSERT statements.
+ */
+public interface DBSDataBulkLoader {
+
+    interface BulkLoadManager extends AutoCloseable {
+        /**
+         * Adds row to the load buffer. Buffer may be flushed implicitly if it is too big.
+         */
+        void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException;
+
+        /**
+         * Sends all buffered rows to the database. Buffer is cleared even if load fails.
+         */
+        void flushRows(@NotNull DBCSession session) throws DBCException;
+
+        void close();
+    }
+
+    /**
+     * Creates bulk load for the specified table and attributes.
+     * Returns null if bulk load can't be used for this target (e.g. unsupported attribute types or driver).
+     */
+    @Nullable
+    BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataManipulator dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source)
+        throws DBCException;
+
+}
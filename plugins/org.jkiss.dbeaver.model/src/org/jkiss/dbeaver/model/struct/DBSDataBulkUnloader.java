@@ -0,0 +1,65 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+import java.io.Writer;
+
+/**
+ * Native bulk data unloader (e.g. COPY ... TO STDOUT).
+ * Data source provides it as an adapter. Data export uses it to let the database format rows
+ * instead of fetching and formatting values one by one.
+ */
+public interface DBSDataBulkUnloader {
+
+    /**
+     * CSV format settings. Rows are always delimited with line feed.
+     */
+    class CSVFormat {
+        public char delimiter = ',';
+        public char quoteChar = '"';
+        public boolean quoteAll;
+        public boolean header = true;
+        @NotNull
+        public String nullString = "";
+    }
+
+    interface BulkUnloadManager {
+        /**
+         * Writes all rows to the writer. Returns number of written rows.
+         */
+        long unloadData(@NotNull DBCSession session, @NotNull Writer writer) throws DBCException;
+    }
+
+    /**
+     * Creates bulk unload of the specified data container.
+     * Returns null if bulk unload can't be used for this container or filter.
+     */
+    @Nullable
+    BulkUnloadManager createBulkUnload(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull CSVFormat format)
+        throws DBCException;
+
+}
@@ -45,6 +45,8 @@ public interface DBSDataManipulator extends DBSDataContainer {
     String OPTION_DISABLE_BATCHES = "data.manipulate.disableBatches";//$NON-NLS-1$
     String OPTION_INSERT_REPLACE_METHOD = "data.manipulate.insertReplaceMethod";//$NON-NLS-1$
     String OPTION_USE_CURRENT_DIALECT_SETTINGS = "data.manipulate.useCurrentDialect";//$NON-NLS-1$
+    // Maximum number of rows in a single multi-row INSERT statement (Integer). Multi-row inserts are disabled if not set.
+    String OPTION_MULTI_ROW_INSERT = "data.manipulate.multiRowInsert";//$NON-NLS-1$
 
     interface ExecuteBatch extends AutoCloseable {
         void add(@NotNull Object[] attributeValues) throws DBCException;
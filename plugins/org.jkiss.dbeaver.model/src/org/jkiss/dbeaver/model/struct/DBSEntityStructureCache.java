@@ -0,0 +1,41 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.Collection;
+
+/**
+ * Object container which can read structure of the specified entities at once,
+ * with batch queries (e.g. IN-list of entity names) instead of per-entity queries.
+ */
+public interface DBSEntityStructureCache extends DBSObjectContainer {
+
+    /**
+     * Caches structure of the specified child entities.
+     * Structure which can't be read in batch is read on demand.
+     *
+     * @param entities child entities of this container
+     * @param scope    see {@link DBSObjectContainer#STRUCT_ALL}
+     */
+    void cacheEntityStructure(@NotNull DBRProgressMonitor monitor, @NotNull Collection<? extends DBSEntity> entities, int scope)
+        throws DBException;
+
+}
@@ -46,6 +46,12 @@ public final class DBStructUtils {
 
     private static final Log log = Log.getLog(DBStructUtils.class);
 
+    // Minimal number of entities of the same container which are worth bulk structure read
+    private static final int BULK_LOAD_MIN_ENTITIES = 10;
+    // Whole container is read if at least 1/BULK_LOAD_RATIO of its entities is requested.
+    // Smaller selections are read in batches if container supports it (see DBSEntityStructureCache)
+    private static final int BULK_LOAD_RATIO = 4;
+
     @Nullable
     public static DBSEntityReferrer getEnumerableConstraint(@NotNull DBRProgressMonitor monitor, @NotNull DBDAttributeBinding attribute) throws DBException {
         DBSEntityAttribute entityAttribute = attribute.getEntityAttribute();
@@ -116,6 +122,8 @@ public final class DBStructUtils {
     }
 
     public static <T extends DBSEntity> void generateTableListDDL(@NotNull DBRProgressMonitor monitor, @NotNull StringBuilder sql, @NotNull Collection<T> tablesOrViews, Map<String, Object> options, boolean addComments) throws DBException {
+        cacheStructureOf(monitor, tablesOrViews, DBSObjectContainer.STRUCT_ALL);
+
         List<T> goodTableList = new ArrayList<>();
         List<T> cycleTableList = new ArrayList<>();
         List<T> viewList = new ArrayList<>();
@@ -170,6 +178,42 @@ public final class DBStructUtils {
         monitor.done();
     }
 
+    /**
+     * Reads structure (attributes, constraints, etc) of many entities at once.
+     * Entities are grouped by containers. If significant part of container entities is requested then
+     * structure of the whole container is read with one query per object type instead of per-entity queries.
+     * Otherwise structure of requested entities is read with batch queries if the container supports it.
+     * Errors are not fatal: structure of the rest entities will be read on demand.
+     */
+    public static void cacheStructureOf(@NotNull DBRProgressMonitor monitor, @NotNull Collection<? extends DBSObject> objects, int scope) {
+        Map<DBSObjectContainer, List<DBSEntity>> containerEntities = new LinkedHashMap<>();
+        for (DBSObject object : objects) {
+            if (object instanceof DBSEntity && object.getParentObject() instanceof DBSObjectContainer) {
+                containerEntities.computeIfAbsent((DBSObjectContainer) object.getParentObject(), c -> new ArrayList<>()).add((DBSEntity) object);
+            }
+        }
+        for (Map.Entry<DBSObjectContainer, List<DBSEntity>> entry : containerEntities.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            List<DBSEntity> entities = entry.getValue();
+            if (entities.size() < BULK_LOAD_MIN_ENTITIES) {
+                continue;
+            }
+            DBSObjectContainer container = entry.getKey();
+            try {
+                Collection<? extends DBSObject> children = container.getChildren(monitor);
+                if (children != null && entities.size() * BULK_LOAD_RATIO >= children.size()) {
+                    container.cacheStructure(monitor, scope);
+                } else if (container instanceof DBSEntityStructureCache) {
+                    ((DBSEntityStructureCache) container).cacheEntityStructure(monitor, entities, scope);
+                }
+            } catch (DBException e) {
+                log.debug("Error reading structure of '" + container.getName() + "'", e);
+            }
+        }
+    }
+
     private static String getObjectNameComment(DBSObject object, String comment) {
         String[] singleLineComments = object.getDataSource().getSQLDialect().getSingleLineComments();
         if (ArrayUtils.isEmpty(singleLineComments)) {
@@ -30,17 +30,21 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Various objects cache
+ * Various objects cache.
+ * Cached objects are kept in copy-on-write list and concurrent map, so readers never wait for cache modifications.
+ * Modifications are serialized with cache sync monitor.
  */
 public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extends DBSObject>
     implements DBSObjectCache<OWNER, OBJECT>
 {
     private static final Log log = Log.getLog(AbstractObjectCache.class);
 
-    private List<OBJECT> objectList;
-    private Map<String, OBJECT> objectMap;
+    private volatile List<OBJECT> objectList;
+    private volatile Map<String, OBJECT> objectMap;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
 
@@ -74,9 +78,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public List<OBJECT> getCachedObjects()
     {
-        synchronized (cacheSync) {
-            return objectList == null ? Collections.<OBJECT>emptyList() : objectList;
-        }
+        List<OBJECT> list = objectList;
+        return list == null ? Collections.<OBJECT>emptyList() : list;
     }
 
     public <SUB_TYPE> List<SUB_TYPE> getTypedObjects(DBRProgressMonitor monitor, OWNER owner, Class<SUB_TYPE> type)
@@ -95,15 +98,16 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public OBJECT getCachedObject(@NotNull String name)
     {
-        synchronized (cacheSync) {
-            return objectList == null || name == null ? null : getObjectMap().get(caseSensitive ? name : name.toUpperCase());
+        if (objectList == null || name == null) {
+            return null;
         }
+        Map<String, OBJECT> map = getObjectMap();
+        return map == null ? null : map.get(caseSensitive ? name : name.toUpperCase());
     }
 
     public int getCacheSize() {
-        synchronized (cacheSync) {
-            return objectList == null ? 0 : objectList.size();
-        }
+        List<OBJECT> list = objectList;
+        return list == null ? 0 : list.size();
     }
 
     @Override
@@ -111,14 +115,12 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     {
         synchronized (cacheSync) {
             if (this.objectList == null) {
-                this.objectList = new ArrayList<>();
+                this.objectList = new CopyOnWriteArrayList<>();
             }
             detectCaseSensitivity(object);
             this.objectList.add(object);
             if (this.objectMap != null) {
-                String name = getObjectName(object);
-                checkDuplicateName(name, object);
-                this.objectMap.put(name, object);
+                putObject(this.objectMap, object);
             }
         }
     }
@@ -130,9 +132,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             if (this.objectList != null) {
                 detectCaseSensitivity(object);
                 this.objectList.remove(object);
-                if (this.objectMap != null) {
-                    this.objectMap.remove(getObjectName(object));
-                }
+                removeFromMap(object);
             }
             if (resetFullCache) {
                 fullCache = false;
@@ -185,7 +185,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void setCache(List<OBJECT> objects)
     {
         synchronized (cacheSync) {
-            this.objectList = objects;
+            this.objectList = objects == null ? null : new CopyOnWriteArrayList<>(objects);
             this.objectMap = null;
             this.fullCache = true;
         }
@@ -210,47 +210,69 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         synchronized (cacheSync) {
             if (this.objectList != null) {
                 // Merge lists
+                Map<String, OBJECT> oldObjects = new HashMap<>();
+                for (OBJECT oldObject : objectList) {
+                    String oldObjectName = getObjectName(oldObject);
+                    if (oldObjectName != null) {
+                        oldObjects.putIfAbsent(oldObjectName, oldObject);
+                    }
+                }
                 objects = new ArrayList<>(objects);
                 for (int i = 0; i < objects.size(); i++) {
-                    OBJECT newObject = objects.get(i);
-                    String newObjectName = getObjectName(newObject);
-                    for (int k = 0; k < objectList.size(); k++) {
-                        OBJECT oldObject = objectList.get(k);
-                        String oldObjectName = getObjectName(oldObject);
-                        if (newObjectName.equals(oldObjectName)) {
-                            objects.set(i, oldObject);
-                            break;
-                        }
+                    String newObjectName = getObjectName(objects.get(i));
+                    OBJECT oldObject = newObjectName == null ? null : oldObjects.get(newObjectName);
+                    if (oldObject != null) {
+                        objects.set(i, oldObject);
                     }
                 }
             }
+            setCache(objects);
         }
-        setCache(objects);
     }
 
+    @Nullable
     private Map<String, OBJECT> getObjectMap()
     {
+        Map<String, OBJECT> map = this.objectMap;
+        if (map != null) {
+            return map;
+        }
         synchronized (cacheSync) {
-            if (this.objectMap == null) {
-                this.objectMap = new HashMap<>();
+            if (this.objectMap == null && this.objectList != null) {
+                map = new ConcurrentHashMap<>();
                 if (objectList.size() > 0) {
                     detectCaseSensitivity(objectList.get(0));
                 }
 
                 for (OBJECT object : objectList) {
-                    String name = getObjectName(object);
-                    checkDuplicateName(name, object);
-                    this.objectMap.put(name, object);
+                    putObject(map, object);
                 }
+                // Publish map only when it is completely filled
+                this.objectMap = map;
             }
             return this.objectMap;
         }
     }
 
-    private void checkDuplicateName(String name, OBJECT object) {
-        if (this.objectMap.containsKey(name)) {
+    private void putObject(Map<String, OBJECT> map, OBJECT object) {
+        String name = getObjectName(object);
+        if (name == null) {
+            // Concurrent map doesn't support null keys. Such objects can't be found by name anyway
+            return;
+        }
+        if (map.containsKey(name)) {
             log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
         }
+        map.put(name, object);
+    }
+
+    private void removeFromMap(OBJECT object) {
+        if (this.objectMap != null) {
+            String name = getObjectName(object);
+            if (name != null) {
+                this.objectMap.remove(name);
+            }
+        }
     }
 
     protected void detectCaseSensitivity(DBSObject object) {
@@ -277,18 +299,20 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             if (objectList == null) {
                 return;
             }
-            for (int i = 0; i < objectList.size(); ) {
-                OBJECT object = objectList.get(i);
+            List<OBJECT> children = new ArrayList<>();
+            for (OBJECT object : objectList) {
                 if (object.getParentObject() == parent) {
-                    this.objectList.remove(object);
-                    if (this.objectMap != null) {
-                        this.objectMap.remove(getObjectName(object));
-                    }
-                    fullCache = false;
-                } else {
-                    i++;
+                    children.add(object);
                 }
             }
+            if (!children.isEmpty()) {
+                // Copy-on-write list copies its array on each removal, so remove all children at once
+                this.objectList.removeAll(children);
+                for (OBJECT object : children) {
+                    removeFromMap(object);
+                }
+                fullCache = false;
+            }
         }
     }
 
@@ -380,9 +404,10 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         @Override
         public void remove()
         {
-            listIterator.remove();
-            if (objectMap != null) {
-                objectMap.remove(getObjectName(curObject));
+            // Copy-on-write list iterator doesn't support removal. Iterator works on a snapshot, so remove from list directly
+            synchronized (cacheSync) {
+                objectList.remove(curObject);
+                removeFromMap(curObject);
             }
         }
     }
@@ -0,0 +1,90 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Coordinates cache loads by key (e.g. by parent object).
+ * Only one thread loads particular key. Other threads which need the same key wait for this load
+ * instead of loading the same data again. Loads of different keys do not block each other.
+ */
+public class CacheLoadCoordinator {
+
+    private static final long WAIT_INTERVAL = 100;
+
+    public interface Loader {
+        void load() throws DBException;
+    }
+
+    private static class ActiveLoad {
+        private final Thread thread = Thread.currentThread();
+        private final CountDownLatch finished = new CountDownLatch(1);
+    }
+
+    private final Map<Object, ActiveLoad> activeLoads = new ConcurrentHashMap<>();
+
+    /**
+     * Loads data for the specified key unless it is already loaded.
+     * If the same key is being loaded by another thread then waits for it and checks loaded state again.
+     * Recursive loads of the same key in the same thread are performed directly.
+     */
+    public void load(@NotNull DBRProgressMonitor monitor, @NotNull Object key, @NotNull BooleanSupplier isLoaded, @NotNull Loader loader)
+        throws DBException
+    {
+        while (!isLoaded.getAsBoolean() && !monitor.isCanceled()) {
+            ActiveLoad load = new ActiveLoad();
+            ActiveLoad activeLoad = activeLoads.putIfAbsent(key, load);
+            if (activeLoad == null) {
+                try {
+                    // It may have been loaded right before we registered our load
+                    if (!isLoaded.getAsBoolean()) {
+                        loader.load();
+                    }
+                } finally {
+                    activeLoads.remove(key, load);
+                    load.finished.countDown();
+                }
+                return;
+            }
+            if (activeLoad.thread == Thread.currentThread()) {
+                loader.load();
+                return;
+            }
+            // Wait for the other thread. If it fails then we will try to load by ourselves
+            try {
+                while (!activeLoad.finished.await(WAIT_INTERVAL, TimeUnit.MILLISECONDS)) {
+                    if (monitor.isCanceled()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+}
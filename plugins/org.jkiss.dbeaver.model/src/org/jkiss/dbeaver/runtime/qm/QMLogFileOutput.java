@@ -0,0 +1,237 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.IOUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rolling QM log file output.
+ * Text is written to disk by a dedicated daemon thread through a large buffer, so QM dispatcher never waits for IO.
+ * Buffer is flushed when there are no new records for a while.
+ * Log file is rotated when it exceeds the maximum size or when the date changes.
+ * Rotated segments may be gzipped. Active segment is not compressed on close (it may be continued on the next start),
+ * uncompressed segments left by previous runs are compressed on the next rotation.
+ */
+class QMLogFileOutput {
+
+    private static final Log log = Log.getLog(QMLogFileOutput.class);
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_QUEUE_SIZE = 10000;
+    private static final long FLUSH_PERIOD = 1000;
+    private static final String COMPRESSED_EXTENSION = ".gz";
+    // Marks end of output. Compared by reference.
+    private static final String END_OF_LOG = new String(new char[0]);
+
+    private final File folder;
+    private final String filePrefix;
+    private final String fileExtension;
+    private final long maxFileSize;
+    private final boolean compressSegments;
+
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>(MAX_QUEUE_SIZE);
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    // Accessed by writer thread only
+    private Writer writer;
+    private File currentFile;
+    private long currentSize;
+    private long nextDayStart;
+    private boolean dirty;
+
+    QMLogFileOutput(@NotNull File folder, @NotNull String filePrefix, @NotNull String fileExtension, long maxFileSize, boolean compressSegments) {
+        this.folder = folder;
+        this.filePrefix = filePrefix;
+        this.fileExtension = fileExtension;
+        this.maxFileSize = maxFileSize;
+        this.compressSegments = compressSegments;
+
+        this.writerThread = new Thread(this::writeLog, "QM log writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Adds text to the output queue. Blocks only if writer thread can't keep up with incoming records.
+     */
+    void write(@NotNull String text) {
+        if (text.isEmpty()) {
+            return;
+        }
+        try {
+            while (!closed) {
+                if (queue.offer(text, FLUSH_PERIOD, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes all queued text, closes current log file and stops writer thread
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.offer(END_OF_LOG);
+        try {
+            writerThread.join(FLUSH_PERIOD * 5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLog() {
+        try {
+            for (;;) {
+                String text = queue.poll(FLUSH_PERIOD, TimeUnit.MILLISECONDS);
+                if (text == END_OF_LOG) {
+                    break;
+                }
+                if (text == null) {
+                    if (closed && queue.isEmpty()) {
+                        break;
+                    }
+                    if (dirty) {
+                        writer.flush();
+                        dirty = false;
+                    }
+                    continue;
+                }
+                writeText(text);
+            }
+        } catch (IOException e) {
+            log.warn("IO error writing QM log. Disable log file writer", e);
+            closed = true;
+            queue.clear();
+        } catch (InterruptedException e) {
+            // Stop
+        } finally {
+            closeCurrentFile(false);
+        }
+    }
+
+    private void writeText(String text) throws IOException {
+        if (writer == null || currentSize >= maxFileSize || System.currentTimeMillis() >= nextDayStart) {
+            rotate();
+        }
+        writer.write(text);
+        // Characters, not bytes. Precise enough for rotation.
+        currentSize += text.length();
+        dirty = true;
+    }
+
+    private void rotate() throws IOException {
+        closeCurrentFile(compressSegments);
+
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Can't create log folder '" + folder.getAbsolutePath() + "'");
+        }
+        Calendar calendar = Calendar.getInstance();
+        String date = new SimpleDateFormat(GeneralUtils.DEFAULT_DATE_PATTERN, Locale.ENGLISH).format(calendar.getTime());
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        nextDayStart = calendar.getTimeInMillis();
+
+        // Continue the last segment of the day if it is not full yet
+        for (int segment = 0; ; segment++) {
+            File file = new File(folder, filePrefix + date + (segment == 0 ? "" : "_" + segment) + fileExtension);
+            if (new File(file.getPath() + COMPRESSED_EXTENSION).exists() || (file.exists() && file.length() >= maxFileSize)) {
+                continue;
+            }
+            currentFile = file;
+            currentSize = file.length();
+            break;
+        }
+        if (compressSegments) {
+            compressOldSegments();
+        }
+        writer = new OutputStreamWriter(
+            new BufferedOutputStream(new FileOutputStream(currentFile, true), BUFFER_SIZE),
+            StandardCharsets.UTF_8);
+    }
+
+    private void closeCurrentFile(boolean compress) {
+        if (writer == null) {
+            return;
+        }
+        ContentUtils.close(writer);
+        writer = null;
+        dirty = false;
+        if (compress) {
+            compressFile(currentFile);
+        }
+        currentFile = null;
+    }
+
+    /**
+     * Compresses segments which were active when the previous writer was closed
+     */
+    private void compressOldSegments() {
+        File[] files = folder.listFiles((dir, name) -> name.startsWith(filePrefix) && name.endsWith(fileExtension));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (!file.equals(currentFile)) {
+                compressFile(file);
+            }
+        }
+    }
+
+    private static void compressFile(File file) {
+        File gzFile = new File(file.getPath() + COMPRESSED_EXTENSION);
+        try (InputStream in = new FileInputStream(file);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(gzFile), BUFFER_SIZE))
+        {
+            IOUtils.copyStream(in, out);
+        } catch (IOException e) {
+            log.warn("Can't compress QM log file '" + file.getAbsolutePath() + "'", e);
+            if (gzFile.exists() && !gzFile.delete()) {
+                log.debug("Can't delete '" + gzFile.getAbsolutePath() + "'");
+            }
+            return;
+        }
+        if (!file.delete()) {
+            log.warn("Can't delete compressed QM log file '" + file.getAbsolutePath() + "'");
+        }
+    }
+
+}
@@ -21,36 +21,40 @@ import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBConstants;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.QMConstants;
-import org.jkiss.dbeaver.model.qm.QMEventFilter;
 import org.jkiss.dbeaver.model.qm.QMMetaEvent;
 import org.jkiss.dbeaver.model.qm.QMMetaListener;
 import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
-import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.CommonUtils;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.Writer;
 import java.util.Calendar;
 import java.util.List;
 
 /**
- * Query manager log writer
+ * Query manager log writer.
+ * Events are formatted in QM dispatcher thread and written to rolling log files by {@link QMLogFileOutput}.
+ * Supports Eclipse-like text log format and JSON lines (one JSON object per event).
  */
 public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
 
     private static final Log log = Log.getLog(QMLogFileWriter.class);
 
-    private File logFile;
+    private static final String LOG_FILE_PREFIX = "dbeaver_sql_";
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private LogSettings logSettings;
     private boolean enabled;
+    private boolean jsonFormat;
 
-    private Writer logWriter;
-    private QMEventFilter eventFilter;
+    private QMLogFileOutput logOutput;
+    private DefaultEventFilter eventFilter;
     private final String lineSeparator;
 
     public QMLogFileWriter()
@@ -60,77 +64,95 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
         initLogFile();
     }
 
-    public void dispose()
+    public synchronized void dispose()
     {
         ModelPreferences.getPreferences().removePropertyChangeListener(this);
+        closeLogOutput();
     }
 
     private synchronized void initLogFile()
     {
-        enabled = ModelPreferences.getPreferences().getBoolean(QMConstants.PROP_STORE_LOG_FILE);
+        closeLogOutput();
+        logSettings = new LogSettings(ModelPreferences.getPreferences());
+        enabled = logSettings.enabled;
+        jsonFormat = logSettings.jsonFormat;
         if (enabled) {
-            String logFolderPath = ModelPreferences.getPreferences().getString(QMConstants.PROP_LOG_DIRECTORY);
-            File logFolder = new File(logFolderPath);
-            if (!logFolder.exists()) {
-                if (!logFolder.mkdirs()) {
-                    log.error("Can't create log folder '" + logFolderPath + "'");
-                }
-            }
-            String logFileName = "dbeaver_sql_" + RuntimeUtils.getCurrentDate() + ".log";
-            logFile = new File(logFolder, logFileName);
-            try {
-                logWriter = new FileWriter(logFile, true);
-            } catch (IOException e) {
-                log.error("Can't open log writer", e);
-            }
-        } else {
-            if (logWriter != null) {
-                ContentUtils.close(logWriter);
-                logWriter = null;
-            }
+            logOutput = new QMLogFileOutput(
+                new File(logSettings.folder),
+                LOG_FILE_PREFIX,
+                jsonFormat ? ".jsonl" : ".log",
+                logSettings.maxFileSize,
+                logSettings.compress);
         }
         eventFilter = new DefaultEventFilter();
     }
 
+    /**
+     * Reopens log file only if settings of the log output were changed
+     */
+    private synchronized void updateLogFile()
+    {
+        if (!new LogSettings(ModelPreferences.getPreferences()).equals(logSettings)) {
+            initLogFile();
+        }
+    }
+
+    private synchronized void reloadEventFilter()
+    {
+        eventFilter.reloadPreferences();
+    }
+
+    private void closeLogOutput()
+    {
+        if (logOutput != null) {
+            logOutput.close();
+            logOutput = null;
+        }
+    }
+
     @Override
     public synchronized void metaInfoChanged(DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events)
     {
-        if (!enabled || logWriter == null) {
+        if (!enabled || logOutput == null) {
             return;
         }
 
         StringBuilder logBuffer = new StringBuilder(4000);
         for (QMMetaEvent event : events) {
             if (eventFilter.accept(event)) {
-                writeEvent(logBuffer, event);
+                if (jsonFormat) {
+                    writeJsonEvent(logBuffer, event);
+                } else {
+                    writeEvent(logBuffer, event);
+                }
             }
         }
-
-        try {
-            logWriter.write(logBuffer.toString());
-            logWriter.flush();
-        } catch (IOException e) {
-            log.warn("IO error writing QM log. Disable log file writer", e);
-            ContentUtils.close(logWriter);
-            logWriter = null;
-        }
+        logOutput.write(logBuffer.toString());
     }
 
     @Override
     public void preferenceChange(PreferenceChangeEvent event)
     {
-        if (event.getProperty().startsWith(QMConstants.PROP_PREFIX)) {
-            initLogFile();
+        String property = event.getProperty();
+        if (QMConstants.PROP_OBJECT_TYPES.equals(property) || QMConstants.PROP_QUERY_TYPES.equals(property)) {
+            reloadEventFilter();
+        } else if (property.startsWith(QMConstants.PROP_PREFIX)) {
+            updateLogFile();
         }
     }
 
+    private static boolean isLoggedEvent(QMMObject object, QMMetaEvent.Action action)
+    {
+        return !(object instanceof QMMStatementInfo || object instanceof QMMTransactionSavepointInfo ||
+            (object instanceof QMMStatementExecuteInfo && action != QMMetaEvent.Action.END));
+    }
+
     private void writeEvent(StringBuilder buffer, QMMetaEvent event)
     {
         QMMObject object = event.getObject();
         QMMetaEvent.Action action = event.getAction();
         // Filter
-        if (object instanceof QMMStatementInfo || object instanceof QMMTransactionSavepointInfo ||
-            (object instanceof QMMStatementExecuteInfo && action != QMMetaEvent.Action.END)) {
+        if (!isLoggedEvent(object, action)) {
             return;
         }
 
@@ -171,6 +193,60 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
         buffer.append(lineSeparator);
     }
 
+    /**
+     * Writes event as a single line JSON object.
+     * Query entries contain connection (session) id, duration in milliseconds and affected/fetched row count.
+     */
+    private void writeJsonEvent(StringBuilder buffer, QMMetaEvent event)
+    {
+        QMMObject object = event.getObject();
+        QMMetaEvent.Action action = event.getAction();
+        if (!isLoggedEvent(object, action)) {
+            return;
+        }
+
+        buffer.append("{\"time\":\"");
+        appendDate(buffer, object instanceof QMMStatementExecuteInfo ? object.getCloseTime() : object.getOpenTime());
+        buffer.append("\",\"id\":").append(object.getObjectId());
+        QMMSessionInfo session = null;
+        if (object instanceof QMMStatementExecuteInfo) {
+            QMMStatementExecuteInfo executeInfo = (QMMStatementExecuteInfo)object;
+            session = executeInfo.getStatement().getSession();
+            long rowCount = executeInfo.getUpdateRowCount() >= 0 ? executeInfo.getUpdateRowCount() : executeInfo.getFetchRowCount();
+            buffer.append(",\"type\":\"query\"");
+            DBCExecutionPurpose purpose = executeInfo.getStatement().getPurpose();
+            appendJsonField(buffer, "purpose", purpose == null ? null : purpose.name());
+            appendJsonField(buffer, "query", executeInfo.getQueryString());
+            buffer.append(",\"duration\":").append(Math.max(object.getCloseTime() - object.getOpenTime(), 0));
+            buffer.append(",\"rows\":").append(rowCount);
+            if (executeInfo.hasError()) {
+                buffer.append(",\"errorCode\":").append(executeInfo.getErrorCode());
+                appendJsonField(buffer, "error", executeInfo.getErrorMessage());
+            }
+        } else if (object instanceof QMMTransactionInfo) {
+            QMMTransactionInfo transactionInfo = (QMMTransactionInfo)object;
+            session = transactionInfo.getSession();
+            buffer.append(",\"type\":\"").append(transactionInfo.isCommitted() ? "commit" : "rollback").append("\"");
+        } else if (object instanceof QMMSessionInfo) {
+            session = (QMMSessionInfo)object;
+            buffer.append(",\"type\":\"session\"");
+            appendJsonField(buffer, "action", action.name());
+        }
+        if (session != null) {
+            buffer.append(",\"connection\":").append(session.getObjectId());
+            appendJsonField(buffer, "container", session.getContainerName());
+            appendJsonField(buffer, "context", session.getContextName());
+        }
+        buffer.append("}").append(lineSeparator);
+    }
+
+    private static void appendJsonField(StringBuilder buffer, String name, String value)
+    {
+        if (value != null) {
+            buffer.append(",\"").append(name).append("\":\"").append(JSONUtils.escapeJsonString(value)).append("\"");
+        }
+    }
+
     private void appendEntryInfo(StringBuilder buffer, int severity, long code, long time)
     {
         buffer.append(DBConstants.MODEL_BUNDLE_ID).append(" ").append(severity).append(" ").append(code).append(" ");
@@ -205,4 +281,48 @@ public class QMLogFileWriter implements QMMetaListener, DBPPreferenceListener {
         return buffer;
     }
 
+    /**
+     * Effective settings of the log output
+     */
+    private static class LogSettings {
+        private final boolean enabled;
+        private final String folder;
+        private final boolean jsonFormat;
+        private final long maxFileSize;
+        private final boolean compress;
+
+        LogSettings(DBPPreferenceStore store)
+        {
+            enabled = store.getBoolean(QMConstants.PROP_STORE_LOG_FILE);
+            folder = store.getString(QMConstants.PROP_LOG_DIRECTORY);
+            jsonFormat = QMConstants.LOG_FORMAT_JSON.equals(store.getString(QMConstants.PROP_LOG_FORMAT));
+            maxFileSize = Math.max(store.getInt(QMConstants.PROP_LOG_MAX_FILE_SIZE), 1) * MEGABYTE;
+            compress = store.getBoolean(QMConstants.PROP_LOG_COMPRESS);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof LogSettings)) {
+                return false;
+            }
+            LogSettings other = (LogSettings) obj;
+            if (!enabled && !other.enabled) {
+                // Other settings don't matter
+                return true;
+            }
+            return enabled == other.enabled &&
+                CommonUtils.equalObjects(folder, other.folder) &&
+                jsonFormat == other.jsonFormat &&
+                maxFileSize == other.maxFileSize &&
+                compress == other.compress;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return enabled ? CommonUtils.notEmpty(folder).hashCode() : 0;
+        }
+    }
+
 }
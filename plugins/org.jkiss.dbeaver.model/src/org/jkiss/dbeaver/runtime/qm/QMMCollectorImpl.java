@@ -30,14 +30,22 @@ import org.jkiss.dbeaver.model.qm.QMMetaListener;
 import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.utils.LongKeyMap;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Query manager execution handler implementation
+ * Query manager execution handler implementation.
+ *
+ * Handlers are called from all connections, so they do not lock the collector.
+ * Session meta objects are synchronized by session (statements of the same session are processed in order).
+ * Events are added to a lock-free queue which is drained by the single event dispatcher.
  */
 public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector {
 
@@ -47,26 +55,24 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     private static final int MAX_HISTORY_EVENTS = 10000;
 
     // Session map
-    private LongKeyMap<QMMSessionInfo> sessionMap = new LongKeyMap<>();
-    private List<Long> closedSessions = new ArrayList<>();
+    private final Map<Long, QMMSessionInfo> sessionMap = new ConcurrentHashMap<>();
+    private final Queue<Long> closedSessions = new ConcurrentLinkedQueue<>();
 
     // External listeners
-    private final List<QMMetaListener> listeners = new ArrayList<>();
+    private final List<QMMetaListener> listeners = new CopyOnWriteArrayList<>();
 
-    // Temporary event pool
-    private List<QMMetaEvent> eventPool = new ArrayList<>();
-    // Sync object
-    private final Object historySync = new Object();
-    // History (may be purged when limit reached)
-    private List<QMMetaEvent> pastEvents = new ArrayList<>();
-    private boolean running = true;
+    // Events which are not dispatched yet
+    private final Queue<QMMetaEvent> eventQueue = new ConcurrentLinkedQueue<>();
+    // History (oldest events are overwritten when limit reached)
+    private final EventHistory pastEvents = new EventHistory(MAX_HISTORY_EVENTS);
+    private volatile boolean running = true;
 
     public QMMCollectorImpl()
     {
         new EventDispatcher().schedule(EVENT_DISPATCH_PERIOD);
     }
 
-    public synchronized void dispose()
+    public void dispose()
     {
         if (!sessionMap.isEmpty()) {
             List<QMMSessionInfo> openSessions = new ArrayList<>();
@@ -79,11 +85,9 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                 log.warn("Some sessions are still open: " + openSessions);
             }
         }
-        synchronized (listeners) {
-            if (!listeners.isEmpty()) {
-                log.warn("Some QM meta collector listeners are still open: " + listeners);
-                listeners.clear();
-            }
+        if (!listeners.isEmpty()) {
+            log.warn("Some QM meta collector listeners are still open: " + listeners);
+            listeners.clear();
         }
         running = false;
     }
@@ -102,45 +106,30 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     public void addListener(QMMetaListener listener)
     {
-        synchronized (listeners) {
-            listeners.add(listener);
-        }
+        listeners.add(listener);
     }
 
     public void removeListener(QMMetaListener listener)
     {
-        synchronized (listeners) {
-            if (!listeners.remove(listener)) {
-                log.warn("Listener '" + listener + "' is not registered in QM meta collector");
-            }
+        if (!listeners.remove(listener)) {
+            log.warn("Listener '" + listener + "' is not registered in QM meta collector");
         }
     }
 
-    private List<QMMetaListener> getListeners()
+    private void fireMetaEvent(final QMMObject object, final QMMetaEvent.Action action)
     {
-        synchronized (listeners) {
-            if (listeners.isEmpty()) {
-                return Collections.emptyList();
-            }
-            if (listeners.size() == 1) {
-                return Collections.singletonList(listeners.get(0));
-            }
-            return new ArrayList<>(listeners);
-        }
+        eventQueue.offer(new QMMetaEvent(object, action));
     }
 
-    private synchronized void fireMetaEvent(final QMMObject object, final QMMetaEvent.Action action)
+    private List<QMMetaEvent> obtainEvents()
     {
-        eventPool.add(new QMMetaEvent(object, action));
-    }
-
-    private synchronized List<QMMetaEvent> obtainEvents()
-    {
-        if (eventPool.isEmpty()) {
+        if (eventQueue.isEmpty()) {
             return Collections.emptyList();
         }
-        List<QMMetaEvent> events = eventPool;
-        eventPool = new ArrayList<>();
+        List<QMMetaEvent> events = new ArrayList<>();
+        for (QMMetaEvent event = eventQueue.poll(); event != null; event = eventQueue.poll()) {
+            events.add(event);
+        }
         return events;
     }
 
@@ -155,151 +144,215 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     public List<QMMetaEvent> getPastEvents()
     {
-        synchronized (historySync) {
-            return new ArrayList<>(pastEvents);
-        }
+        return pastEvents.getEvents();
     }
 
     @Override
-    public synchronized void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional)
+    public void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional)
     {
         final long contextId = context.getContextId();
         QMMSessionInfo session = sessionMap.get(contextId);
+        boolean reopen = true;
         if (session == null) {
-            session = new QMMSessionInfo(
+            QMMSessionInfo newSession = new QMMSessionInfo(
                 context,
                 transactional);
-            sessionMap.put(contextId, session);
-        } else {
-            // This session may already be in cache in case of reconnect/invalidate
-            // (when context closed and reopened without new context object creation)
-            session.reopen(context);
+            session = sessionMap.putIfAbsent(contextId, newSession);
+            if (session == null) {
+                session = newSession;
+                reopen = false;
+            }
+        }
+        synchronized (session) {
+            if (reopen) {
+                // This session may already be in cache in case of reconnect/invalidate
+                // (when context closed and reopened without new context object creation)
+                session.reopen(context);
+                // Dispatcher may remove closed session right before reopen
+                sessionMap.put(contextId, session);
+            }
+            // Remove from closed sessions (in case of re-opened connection)
+            closedSessions.remove(contextId);
+            // Notify
+            fireMetaEvent(session, QMMetaEvent.Action.BEGIN);
         }
-
-        // Remove from closed sessions (in case of re-opened connection)
-        closedSessions.remove(contextId);
-        // Notify
-        fireMetaEvent(session, QMMetaEvent.Action.BEGIN);
     }
 
     @Override
-    public synchronized void handleContextClose(@NotNull DBCExecutionContext context)
+    public void handleContextClose(@NotNull DBCExecutionContext context)
     {
         QMMSessionInfo session = getSessionInfo(context);
         if (session != null) {
-            session.close();
-            fireMetaEvent(session, QMMetaEvent.Action.END);
+            synchronized (session) {
+                session.close();
+                fireMetaEvent(session, QMMetaEvent.Action.END);
+            }
         }
         closedSessions.add(context.getContextId());
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit)
+    public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
+                fireMetaEvent(sessionInfo, QMMetaEvent.Action.UPDATE);
             }
-            fireMetaEvent(sessionInfo, QMMetaEvent.Action.UPDATE);
         }
     }
 
     @Override
-    public synchronized void handleTransactionCommit(@NotNull DBCExecutionContext context)
+    public void handleTransactionCommit(@NotNull DBCExecutionContext context)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.commit();
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint)
+    public void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMObject oldTxn = sessionInfo.rollback(savepoint);
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementOpen(@NotNull DBCStatement statement)
+    public void handleStatementOpen(@NotNull DBCStatement statement)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
-            fireMetaEvent(stat, QMMetaEvent.Action.BEGIN);
+            synchronized (session) {
+                QMMStatementInfo stat = session.openStatement(statement);
+                fireMetaEvent(stat, QMMetaEvent.Action.BEGIN);
+            }
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(@NotNull DBCStatement statement, long rows)
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
-            if (stat == null) {
-                log.warn("Can't properly handle statement close");
-            } else {
-                fireMetaEvent(stat, QMMetaEvent.Action.END);
+            synchronized (session) {
+                QMMStatementInfo stat = session.closeStatement(statement, rows);
+                if (stat == null) {
+                    log.warn("Can't properly handle statement close");
+                } else {
+                    fireMetaEvent(stat, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(@NotNull DBCStatement statement)
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.BEGIN);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginExecution(statement);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.BEGIN);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error)
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.END);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetOpen(@NotNull DBCResultSet resultSet)
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet)
     {
         QMMSessionInfo session = getSessionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount)
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount)
     {
         QMMSessionInfo session = getSessionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bounded events history. Keeps last events in a ring buffer.
+     */
+    private static class EventHistory {
+
+        private final QMMetaEvent[] events;
+        // Position of the next event
+        private int head;
+        private int size;
+
+        EventHistory(int capacity)
+        {
+            this.events = new QMMetaEvent[capacity];
+        }
+
+        synchronized void addEvents(List<QMMetaEvent> newEvents)
+        {
+            for (QMMetaEvent event : newEvents) {
+                events[head] = event;
+                head = (head + 1) % events.length;
+                if (size < events.length) {
+                    size++;
+                }
             }
         }
+
+        synchronized List<QMMetaEvent> getEvents()
+        {
+            List<QMMetaEvent> result = new ArrayList<>(size);
+            int start = (head - size + events.length) % events.length;
+            for (int i = 0; i < size; i++) {
+                result.add(events[(start + i) % events.length]);
+            }
+            return result;
+        }
     }
 
     private class EventDispatcher extends AbstractJob {
@@ -314,14 +367,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         @Override
         protected IStatus run(DBRProgressMonitor monitor)
         {
-            final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
-            synchronized (QMMCollectorImpl.this) {
-                events = obtainEvents();
-                sessionsToClose = closedSessions;
-                closedSessions.clear();
-            }
-            final List<QMMetaListener> listeners = getListeners();
+            final List<QMMetaEvent> events = obtainEvents();
             if (!listeners.isEmpty() && !events.isEmpty()) {
                 // Reverse collection. Fresh events must come first.
                 Collections.reverse(events);
@@ -334,23 +380,17 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                     }
                 }
             }
-            synchronized (historySync) {
-                pastEvents.addAll(events);
-                int size = pastEvents.size();
-                if (size > MAX_HISTORY_EVENTS) {
-                    pastEvents = new ArrayList<>(pastEvents.subList(
-                        size - MAX_HISTORY_EVENTS,
-                        size));
-                }
-            }
+            pastEvents.addEvents(events);
             // Cleanup closed sessions
-            synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
-                    final QMMSessionInfo session = sessionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
+            for (Long sessionId = closedSessions.poll(); sessionId != null; sessionId = closedSessions.poll()) {
+                final QMMSessionInfo session = sessionMap.get(sessionId);
+                if (session != null) {
+                    synchronized (session) {
                         // It is possible (rarely) that session was reopened before event dispatcher run
                         // In that case just ignore it
-                        sessionMap.remove(sessionId);
+                        if (session.isClosed()) {
+                            sessionMap.remove(sessionId, session);
+                        }
                     }
                 }
             }
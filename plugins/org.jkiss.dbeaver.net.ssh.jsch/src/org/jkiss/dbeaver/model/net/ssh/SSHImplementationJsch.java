@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.model.net.ssh;
 
 import com.jcraft.jsch.*;
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
@@ -41,11 +42,55 @@ import java.util.stream.Collectors;
 public class SSHImplementationJsch extends SSHImplementationAbstract {
     private static final Log log = Log.getLog(SSHImplementationJsch.class);
 
+    private static final SSHSessionManager<Session> sessionManager = new SSHSessionManager<Session>() {
+        @Override
+        protected boolean isSessionAlive(@NotNull Session session) {
+            return session.isConnected();
+        }
+
+        @Override
+        protected void closeSession(@NotNull Session session) {
+            session.disconnect();
+        }
+    };
+
     private transient JSch jsch;
     private transient volatile Session session;
+    // Not null if session is shared with other tunnels
+    private transient SSHSessionManager.SharedSession<Session> sharedSession;
+    private transient String forwardLocalHost;
+    private transient int forwardLocalPort;
 
     @Override
     protected synchronized void setupTunnel(DBRProgressMonitor monitor, DBWHandlerConfiguration configuration, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout, String sshLocalHost, int sshLocalPort, String sshRemoteHost, int sshRemotePort) throws DBException, IOException {
+        try {
+            if (configuration.getBooleanProperty(SSHConstants.PROP_SHARE_SESSION)) {
+                sharedSession = sessionManager.acquireSession(
+                    new SSHSessionManager.SessionKey(configuration, sshHost, sshPortNum),
+                    () -> openSession(monitor, configuration, sshHost, aliveInterval, sshPortNum, privKeyFile, connectTimeout));
+                session = sharedSession.getSession();
+            } else {
+                session = openSession(monitor, configuration, sshHost, aliveInterval, sshPortNum, privKeyFile, connectTimeout);
+            }
+            try {
+                if (CommonUtils.isEmpty(sshLocalHost)) {
+                    session.setPortForwardingL(sshLocalPort, sshRemoteHost, sshRemotePort);
+                } else {
+                    session.setPortForwardingL(sshLocalHost, sshLocalPort, sshRemoteHost, sshRemotePort);
+                }
+                forwardLocalHost = sshLocalHost;
+                forwardLocalPort = sshLocalPort;
+            } catch (JSchException e) {
+                closeTunnel(monitor);
+                throw e;
+            }
+        } catch (JSchException e) {
+            throw new DBException("Cannot establish tunnel", e);
+        }
+    }
+
+    @NotNull
+    private Session openSession(DBRProgressMonitor monitor, DBWHandlerConfiguration configuration, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout) throws DBException, IOException {
         try {
             if (jsch == null) {
                 jsch = new JSch();
@@ -65,42 +110,37 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
             }
 
             log.debug("Instantiate SSH tunnel");
-            session = jsch.getSession(configuration.getUserName(), sshHost, sshPortNum);
-            session.setConfig("StrictHostKeyChecking", "no");
+            Session newSession = jsch.getSession(configuration.getUserName(), sshHost, sshPortNum);
+            newSession.setConfig("StrictHostKeyChecking", "no");
 
             if (authType == AuthType.PASSWORD) {
-                session.setConfig("PreferredAuthentications", "password,keyboard-interactive");
+                newSession.setConfig("PreferredAuthentications", "password,keyboard-interactive");
             } else {
-                session.setConfig("PreferredAuthentications", "publickey,keyboard-interactive,password");
+                newSession.setConfig("PreferredAuthentications", "publickey,keyboard-interactive,password");
+            }
+            newSession.setConfig("ConnectTimeout", String.valueOf(connectTimeout));
+            if (configuration.getBooleanProperty(SSHConstants.PROP_USE_COMPRESSION)) {
+                newSession.setConfig("compression.s2c", "zlib@openssh.com,zlib,none");
+                newSession.setConfig("compression.c2s", "zlib@openssh.com,zlib,none");
             }
-            session.setConfig("ConnectTimeout", String.valueOf(connectTimeout));
 
             // Use Eclipse standard prompter
             UserInfo userInfo = null;
             JSCHUserInfoPromptProvider promptProvider = GeneralUtils.adapt(this, JSCHUserInfoPromptProvider.class);
             if (promptProvider != null) {
-                userInfo = promptProvider.createUserInfoPrompt(configuration, session);
+                userInfo = promptProvider.createUserInfoPrompt(configuration, newSession);
             }
             if (userInfo == null) {
                 userInfo = new UIUserInfo(configuration);
             }
-            session.setUserInfo(userInfo);
+            newSession.setUserInfo(userInfo);
 
             if (aliveInterval != 0) {
-                session.setServerAliveInterval(aliveInterval);
+                newSession.setServerAliveInterval(aliveInterval);
             }
             log.debug("Connect to tunnel host");
-            session.connect(connectTimeout);
-            try {
-                if (CommonUtils.isEmpty(sshLocalHost)) {
-                    session.setPortForwardingL(sshLocalPort, sshRemoteHost, sshRemotePort);
-                } else {
-                    session.setPortForwardingL(sshLocalHost, sshLocalPort, sshRemoteHost, sshRemotePort);
-                }
-            } catch (JSchException e) {
-                closeTunnel(monitor);
-                throw e;
-            }
+            newSession.connect(connectTimeout);
+            return newSession;
         } catch (JSchException e) {
             throw new DBException("Cannot establish tunnel", e);
         }
@@ -108,6 +148,35 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
 
     @Override
     public synchronized void closeTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (sharedSession != null) {
+            // Remove own port forwarding. Session is closed when the last tunnel releases it.
+            SSHSessionManager.SharedSession<Session> sessionToRelease = sharedSession;
+            Session tunnelSession = session;
+            String localHost = forwardLocalHost;
+            int localPort = forwardLocalPort;
+            sharedSession = null;
+            session = null;
+            forwardLocalPort = 0;
+            RuntimeUtils.runTask(monitor1 -> {
+                try {
+                    if (tunnelSession != null && localPort != 0 && tunnelSession.isConnected()) {
+                        if (CommonUtils.isEmpty(localHost)) {
+                            tunnelSession.delPortForwardingL(localPort);
+                        } else {
+                            tunnelSession.delPortForwardingL(localHost, localPort);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.debug("Error removing SSH port forwarding", e);
+                }
+                try {
+                    sessionManager.releaseSession(sessionToRelease);
+                } catch (Exception e) {
+                    throw new InvocationTargetException(e);
+                }
+            }, "Close SSH session", 1000);
+            return;
+        }
         if (session != null) {
             RuntimeUtils.runTask(monitor1 -> {
                 if (session != null) {
@@ -122,6 +191,20 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
         }
     }
 
+    @Override
+    public synchronized long getConnectTime() {
+        // Shared session may be opened by another tunnel. Report its connect time rather than the reuse time.
+        return sharedSession != null ? sharedSession.getConnectTime() : super.getConnectTime();
+    }
+
+    @Override
+    public synchronized int getSessionTunnelCount() {
+        if (sharedSession != null) {
+            return sharedSession.getTunnelCount();
+        }
+        return session == null ? 0 : 1;
+    }
+
     @Override
     public synchronized String getClientVersion() {
         return session == null ? null : session.getClientVersion();
@@ -30,6 +30,7 @@ import org.jkiss.dbeaver.model.connection.DataSourceVariableResolver;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
 import org.jkiss.dbeaver.model.net.ssh.SSHConstants;
+import org.jkiss.dbeaver.model.net.ssh.SSHImplementationAbstract;
 import org.jkiss.dbeaver.model.net.ssh.SSHTunnelImpl;
 import org.jkiss.dbeaver.model.net.ssh.registry.SSHImplementationDescriptor;
 import org.jkiss.dbeaver.model.net.ssh.registry.SSHImplementationRegistry;
@@ -73,6 +74,8 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
 
     private Text keepAliveText;
     private Text tunnelTimeout;
+    private Button shareSessionCheckbox;
+    private Button useCompressionCheckbox;
     private VariablesHintLabel variablesHintLabel;
 
     @Override
@@ -156,6 +159,9 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
 
             tunnelTimeout = UIUtils.createLabelText(advancedGroup, SSHUIMessages.model_ssh_configurator_label_tunnel_timeout, String.valueOf(SSHConstants.DEFAULT_CONNECT_TIMEOUT));
             setNumberEditStyles(tunnelTimeout);
+
+            shareSessionCheckbox = UIUtils.createCheckbox(advancedGroup, SSHUIMessages.model_ssh_configurator_checkbox_share_session, SSHUIMessages.model_ssh_configurator_checkbox_share_session_description, false, 2);
+            useCompressionCheckbox = UIUtils.createCheckbox(advancedGroup, SSHUIMessages.model_ssh_configurator_checkbox_use_compression, null, false, 2);
         }
 
         {
@@ -205,6 +211,7 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
 
         try {
             final String[] tunnelVersions = new String[2];
+            final long[] tunnelStats = new long[2];
             UIUtils.runInProgressDialog(monitor -> {
                 monitor.beginTask("Instantiate SSH tunnel", 2);
                 SSHTunnelImpl tunnel = new SSHTunnelImpl();
@@ -218,6 +225,11 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
                     // Get info
                     tunnelVersions[0] = tunnel.getImplementation().getClientVersion();
                     tunnelVersions[1] = tunnel.getImplementation().getServerVersion();
+                    if (tunnel.getImplementation() instanceof SSHImplementationAbstract) {
+                        SSHImplementationAbstract implementation = (SSHImplementationAbstract) tunnel.getImplementation();
+                        tunnelStats[0] = implementation.getConnectTime();
+                        tunnelStats[1] = implementation.getSessionTunnelCount();
+                    }
 
                     // Close it
                     monitor.subTask("Close tunnel");
@@ -230,7 +242,8 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
             });
 
             MessageDialog.openInformation(hostText.getShell(), ModelMessages.dialog_connection_wizard_start_connection_monitor_success,
-                "Connected!\n\nClient version: " + tunnelVersions[0] + "\nServer version: " + tunnelVersions[1]);
+                "Connected!\n\nClient version: " + tunnelVersions[0] + "\nServer version: " + tunnelVersions[1] +
+                "\nConnect time: " + tunnelStats[0] + "ms\nTunnels in session: " + tunnelStats[1]);
         } catch (InvocationTargetException ex) {
             DBWorkbench.getPlatformUI().showError(
                 CoreMessages.dialog_connection_wizard_start_dialog_error_title,
@@ -299,6 +312,8 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
         if (timeoutValue != 0) {
             tunnelTimeout.setText(String.valueOf(timeoutValue));
         }
+        shareSessionCheckbox.setSelection(configuration.getBooleanProperty(SSHConstants.PROP_SHARE_SESSION));
+        useCompressionCheckbox.setSelection(configuration.getBooleanProperty(SSHConstants.PROP_USE_COMPRESSION));
         updateAuthMethodVisibility();
 
         savedConfiguration = new DBWHandlerConfiguration(configuration);
@@ -361,6 +376,8 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<DBWH
         if (conTimeout != 0 && conTimeout != SSHConstants.DEFAULT_CONNECT_TIMEOUT) {
             configuration.setProperty(SSHConstants.PROP_CONNECT_TIMEOUT, conTimeout);
         }
+        configuration.setProperty(SSHConstants.PROP_SHARE_SESSION, shareSessionCheckbox.getSelection() ? true : null);
+        configuration.setProperty(SSHConstants.PROP_USE_COMPRESSION, useCompressionCheckbox.getSelection() ? true : null);
     }
 
     @Override
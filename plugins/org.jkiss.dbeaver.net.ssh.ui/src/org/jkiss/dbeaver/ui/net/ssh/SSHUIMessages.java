@@ -45,6 +45,9 @@ public class SSHUIMessages extends NLS {
 	public static String model_ssh_configurator_label_remote_port_description;
     public static String model_ssh_configurator_label_keep_alive;
 	public static String model_ssh_configurator_label_tunnel_timeout;
+	public static String model_ssh_configurator_checkbox_share_session;
+	public static String model_ssh_configurator_checkbox_share_session_description;
+	public static String model_ssh_configurator_checkbox_use_compression;
 	public static String model_ssh_configurator_button_test_tunnel;
 	public static String model_ssh_configurator_combo_agent;
 
@@ -31,6 +31,8 @@ public class SSHConstants {
     public static final String PROP_ALIVE_INTERVAL = "aliveInterval";
     public static final String PROP_ALIVE_COUNT = "aliveCount";
     public static final String PROP_CONNECT_TIMEOUT = "sshConnectTimeout";
+    public static final String PROP_SHARE_SESSION = "shareSession";
+    public static final String PROP_USE_COMPRESSION = "useCompression";
 
     public static final String PROP_LOCAL_HOST = "localHost";
     public static final String PROP_LOCAL_PORT = "localPort";
@@ -46,6 +46,7 @@ public abstract class SSHImplementationAbstract implements SSHImplementation {
 
     // Saved config - used for tunnel invalidate
     private transient int savedLocalPort = 0;
+    private transient long connectTime;
 
     protected transient DBWHandlerConfiguration savedConfiguration;
     protected transient DBPConnectionConfiguration savedConnectionInfo;
@@ -138,7 +139,9 @@ public abstract class SSHImplementationAbstract implements SSHImplementation {
 
         monitor.subTask("Initiating tunnel at '" + sshHost + "'");
 
+        long startTime = System.currentTimeMillis();
         setupTunnel(monitor, configuration, sshHost, aliveInterval, sshPortNum, privKeyFile, connectTimeout, sshLocalHost, sshLocalPort, sshRemoteHost, sshRemotePort);
+        connectTime = System.currentTimeMillis() - startTime;
         savedLocalPort = sshLocalPort;
         savedConfiguration = configuration;
         savedConnectionInfo = connectionInfo;
@@ -161,6 +164,20 @@ public abstract class SSHImplementationAbstract implements SSHImplementation {
         return connectionInfo;
     }
 
+    /**
+     * Time spent on the tunnel setup: connect, authentication and port forwarding (ms)
+     */
+    public long getConnectTime() {
+        return connectTime;
+    }
+
+    /**
+     * Number of tunnels (port forwardings) which use the SSH session of this tunnel
+     */
+    public int getSessionTunnelCount() {
+        return 1;
+    }
+
     public byte [] agentSign(byte [] blob, byte [] data) {
         return agentProxy.sign(blob, data);
     }
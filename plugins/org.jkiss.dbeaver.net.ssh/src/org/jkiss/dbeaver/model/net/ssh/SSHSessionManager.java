@@ -0,0 +1,240 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shared SSH sessions.
+ * Tunnels to the same SSH server with the same user and credentials use one authenticated session.
+ * Each tunnel adds its own port forwarding to the session. Session is closed when the last tunnel releases it.
+ */
+public abstract class SSHSessionManager<SESSION> {
+
+    private static final Log log = Log.getLog(SSHSessionManager.class);
+
+    public interface SessionFactory<SESSION> {
+        @NotNull
+        SESSION openSession() throws DBException, IOException;
+    }
+
+    private final Map<SessionKey, SharedSession<SESSION>> sessions = new HashMap<>();
+
+    protected abstract boolean isSessionAlive(@NotNull SESSION session);
+
+    protected abstract void closeSession(@NotNull SESSION session) throws DBException, IOException;
+
+    /**
+     * Returns session for the specified key. Opens new session if there is no live session yet.
+     * Each acquired session must be released with {@link #releaseSession(SharedSession)}.
+     */
+    @NotNull
+    public SharedSession<SESSION> acquireSession(@NotNull SessionKey key, @NotNull SessionFactory<SESSION> factory) throws DBException, IOException {
+        for (;;) {
+            SharedSession<SESSION> shared;
+            synchronized (sessions) {
+                shared = sessions.computeIfAbsent(key, SharedSession::new);
+            }
+            synchronized (shared) {
+                if (shared.closed) {
+                    // Released by the last tunnel in the meantime
+                    continue;
+                }
+                if (shared.session != null && !isSessionAlive(shared.session)) {
+                    log.debug("SSH session " + key + " is disconnected. Reopen.");
+                    SESSION oldSession = shared.session;
+                    shared.session = null;
+                    closeSessionQuietly(oldSession);
+                }
+                if (shared.session == null) {
+                    long startTime = System.currentTimeMillis();
+                    try {
+                        shared.session = factory.openSession();
+                    } catch (DBException | IOException | RuntimeException e) {
+                        if (shared.tunnelCount == 0) {
+                            removeSession(shared);
+                        }
+                        throw e;
+                    }
+                    shared.openTime = System.currentTimeMillis();
+                    shared.connectTime = shared.openTime - startTime;
+                    log.debug("SSH session " + key + " opened in " + shared.connectTime + "ms");
+                } else {
+                    log.debug("Reuse SSH session " + key + " (" + shared.tunnelCount + " tunnel(s))");
+                }
+                shared.tunnelCount++;
+                return shared;
+            }
+        }
+    }
+
+    /**
+     * Releases session acquired by tunnel. Closes it if no other tunnels use it.
+     */
+    public void releaseSession(@NotNull SharedSession<SESSION> shared) throws DBException, IOException {
+        SESSION sessionToClose;
+        synchronized (shared) {
+            if (shared.tunnelCount <= 0) {
+                return;
+            }
+            shared.tunnelCount--;
+            if (shared.tunnelCount > 0) {
+                return;
+            }
+            removeSession(shared);
+            sessionToClose = shared.session;
+            shared.session = null;
+        }
+        if (sessionToClose != null) {
+            log.debug("Close SSH session " + shared.key);
+            closeSession(sessionToClose);
+        }
+    }
+
+    /**
+     * Returns all open sessions
+     */
+    @NotNull
+    public List<SharedSession<SESSION>> getSessions() {
+        synchronized (sessions) {
+            return new ArrayList<>(sessions.values());
+        }
+    }
+
+    private void removeSession(@NotNull SharedSession<SESSION> shared) {
+        shared.closed = true;
+        synchronized (sessions) {
+            sessions.remove(shared.key, shared);
+        }
+    }
+
+    private void closeSessionQuietly(@NotNull SESSION session) {
+        try {
+            closeSession(session);
+        } catch (Exception e) {
+            log.debug("Error closing SSH session", e);
+        }
+    }
+
+    public static class SharedSession<SESSION> {
+        private final SessionKey key;
+        private volatile SESSION session;
+        private volatile int tunnelCount;
+        private volatile long openTime;
+        private volatile long connectTime;
+        private boolean closed;
+
+        private SharedSession(@NotNull SessionKey key) {
+            this.key = key;
+        }
+
+        @NotNull
+        public SessionKey getKey() {
+            return key;
+        }
+
+        @Nullable
+        public SESSION getSession() {
+            return session;
+        }
+
+        /**
+         * Number of tunnels (port forwardings) which use this session
+         */
+        public int getTunnelCount() {
+            return tunnelCount;
+        }
+
+        public long getOpenTime() {
+            return openTime;
+        }
+
+        /**
+         * Time spent on connect and authentication (ms)
+         */
+        public long getConnectTime() {
+            return connectTime;
+        }
+    }
+
+    /**
+     * Identifies SSH session: server, user and all settings which affect authentication and session configuration.
+     */
+    public static class SessionKey {
+        private final String host;
+        private final int port;
+        private final String userName;
+        private final String password;
+        private final String authType;
+        private final String keyPath;
+        private final int aliveInterval;
+        private final boolean compression;
+
+        public SessionKey(@NotNull DBWHandlerConfiguration configuration, @NotNull String host, int port) {
+            this.host = host;
+            this.port = port;
+            this.userName = CommonUtils.notEmpty(configuration.getUserName());
+            this.password = CommonUtils.notEmpty(configuration.getPassword());
+            this.authType = CommonUtils.notEmpty(configuration.getStringProperty(SSHConstants.PROP_AUTH_TYPE));
+            this.keyPath = CommonUtils.notEmpty(configuration.getStringProperty(SSHConstants.PROP_KEY_PATH));
+            this.aliveInterval = configuration.getIntProperty(SSHConstants.PROP_ALIVE_INTERVAL);
+            this.compression = configuration.getBooleanProperty(SSHConstants.PROP_USE_COMPRESSION);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SessionKey)) {
+                return false;
+            }
+            SessionKey key = (SessionKey) obj;
+            return port == key.port &&
+                aliveInterval == key.aliveInterval &&
+                compression == key.compression &&
+                host.equals(key.host) &&
+                userName.equals(key.userName) &&
+                password.equals(key.password) &&
+                authType.equals(key.authType) &&
+                keyPath.equals(key.keyPath);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, port, userName, authType, keyPath);
+        }
+
+        @Override
+        public String toString() {
+            return userName + "@" + host + ":" + port;
+        }
+    }
+
+}
@@ -0,0 +1,1110 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.ContentUtils;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Columnar storage of result set rows.
+ * Values of each column are kept in a single array instead of per-row arrays of boxed values:
+ * integers, doubles, decimals and timestamps are kept in primitive arrays with null bitmap,
+ * strings are dictionary encoded while the number of distinct values is small, otherwise they are kept in plain array.
+ * Other values are kept as is. Column switches to plain object storage when it gets a value of different type.
+ *
+ * Rows are split in pages of {@link #PAGE_SIZE} rows. If memory limit is set then full pages which exceed the limit
+ * are written to a temporary file (least recently used first) and read back when their values are accessed.
+ * Object columns (LOBs, complex values, etc) can't be serialized and always stay in memory.
+ *
+ * Rows ({@link ResultSetRow}) refer to the store by row index and materialize values on demand.
+ */
+public class ResultSetColumnStore {
+
+    private static final Log log = Log.getLog(ResultSetColumnStore.class);
+
+    private static final int PAGE_SHIFT = 14;
+    public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int INITIAL_CAPACITY = 64;
+    // Dictionary bigger than this doesn't pay off: most values of the page are unique
+    private static final int MAX_DICTIONARY_SIZE = PAGE_SIZE / 4;
+    // Estimated size of string reference, object and chars array header
+    private static final int STRING_OVERHEAD = 48;
+
+    private static final byte KIND_INT = 1;
+    private static final byte KIND_LONG = 2;
+    private static final byte KIND_DOUBLE = 3;
+    private static final byte KIND_DECIMAL = 4;
+    private static final byte KIND_TIMESTAMP = 5;
+    private static final byte KIND_STRING = 6;
+    private static final byte KIND_PLAIN_STRING = 7;
+
+    private final int columnCount;
+    // Memory limit for full pages (in bytes). Zero means no limit.
+    private final long memoryLimit;
+    // Folder for the spill file. Null means workbench temp folder
+    @Nullable
+    private final File spillFolder;
+    private final List<Page> pages = new ArrayList<>();
+    private int rowCount;
+
+    // Full pages which are in memory, least recently used first
+    private final Set<Page> residentPages = new LinkedHashSet<>();
+    private long residentSize;
+    private Page lastPage;
+    private File spillFile;
+    private FileChannel spillChannel;
+    private long spillFileSize;
+    private boolean spillDisabled;
+    private boolean closed;
+
+    public ResultSetColumnStore(int columnCount) {
+        this(columnCount, 0);
+    }
+
+    public ResultSetColumnStore(int columnCount, long memoryLimit) {
+        this(columnCount, memoryLimit, null);
+    }
+
+    public ResultSetColumnStore(int columnCount, long memoryLimit, @Nullable File spillFolder) {
+        this.columnCount = columnCount;
+        this.memoryLimit = memoryLimit;
+        this.spillFolder = spillFolder;
+        this.spillDisabled = memoryLimit <= 0;
+    }
+
+    /**
+     * Makes store from fetched rows
+     */
+    @NotNull
+    static ResultSetColumnStore fromRows(@NotNull List<Object[]> rows, long memoryLimit) {
+        ResultSetColumnStore store = new ResultSetColumnStore(rows.isEmpty() ? 0 : rows.get(0).length, memoryLimit);
+        for (Object[] row : rows) {
+            store.addRow(row);
+        }
+        store.trimToSize();
+        return store;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public synchronized int getRowCount() {
+        return rowCount;
+    }
+
+    public synchronized boolean hasSpilledPages() {
+        return spillFile != null;
+    }
+
+    /**
+     * Estimated size (in bytes) of full pages which are kept in memory.
+     * Doesn't exceed memory limit unless only one full page is in memory.
+     */
+    public synchronized long getResidentSize() {
+        return residentSize;
+    }
+
+    /**
+     * Adds row values and returns index of the new row
+     */
+    public synchronized int addRow(@NotNull Object[] values) {
+        Page page = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+        if (page == null || page.rowCount == PAGE_SIZE) {
+            if (page != null) {
+                onPageFilled(page);
+            }
+            page = new Page(columnCount);
+            pages.add(page);
+        }
+        page.addRow(values);
+        return rowCount++;
+    }
+
+    /**
+     * Copies all rows of another store to the end of this store and closes it.
+     * Used to merge small fetched segments, so they are spilled as the whole result set.
+     *
+     * @return index of the first copied row
+     */
+    public synchronized int appendRows(@NotNull ResultSetColumnStore source) {
+        int firstRow = rowCount;
+        for (int i = 0, count = source.getRowCount(); i < count; i++) {
+            addRow(source.getRowValues(i));
+        }
+        source.close();
+        return firstRow;
+    }
+
+    @Nullable
+    public synchronized Object getValue(int row, int column) {
+        return getPage(row).columns[column].get(row & PAGE_MASK);
+    }
+
+    public synchronized void setValue(int row, int column, @Nullable Object value) {
+        Page page = getPage(row);
+        page.setValue(row & PAGE_MASK, column, value);
+        page.dirty = true;
+    }
+
+    @NotNull
+    public synchronized Object[] getRowValues(int row) {
+        Page page = getPage(row);
+        int pageRow = row & PAGE_MASK;
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = page.columns[i].get(pageRow);
+        }
+        return values;
+    }
+
+    /**
+     * Releases values of the row which are kept as objects (LOBs, complex values, etc).
+     * Other columns have nothing to release, so spilled pages are not read back.
+     */
+    public synchronized void releaseRowObjects(int row) {
+        Page page = pages.get(row >>> PAGE_SHIFT);
+        int pageRow = row & PAGE_MASK;
+        for (Column column : page.columns) {
+            // Unloaded columns are null
+            if (column != null && column.getKind() == 0) {
+                DBUtils.releaseValue(column.get(pageRow));
+            }
+        }
+    }
+
+    /**
+     * Releases unused capacity. Called when all rows were added.
+     */
+    public synchronized void trimToSize() {
+        if (!pages.isEmpty()) {
+            Page page = pages.get(pages.size() - 1);
+            if (page.capacity > page.rowCount) {
+                page.resize(page.rowCount);
+            }
+        }
+    }
+
+    /**
+     * Deletes spill file. Values of spilled pages are not available after this.
+     */
+    public synchronized void close() {
+        closed = true;
+        if (spillChannel != null) {
+            ContentUtils.close(spillChannel);
+            spillChannel = null;
+        }
+        if (spillFile != null) {
+            if (!spillFile.delete()) {
+                log.debug("Can't delete result set spill file '" + spillFile.getAbsolutePath() + "'");
+            }
+            spillFile = null;
+        }
+    }
+
+    @NotNull
+    private Page getPage(int row) {
+        Page page = pages.get(row >>> PAGE_SHIFT);
+        if (page != lastPage) {
+            if (!page.loaded) {
+                loadPage(page);
+            } else if (residentPages.remove(page)) {
+                // Move to the end of LRU list
+                residentPages.add(page);
+            }
+            lastPage = page;
+        }
+        return page;
+    }
+
+    private void onPageFilled(@NotNull Page page) {
+        page.compact();
+        page.memorySize = page.estimateSize();
+        if (!spillDisabled) {
+            residentPages.add(page);
+            residentSize += page.memorySize;
+            spillPages();
+        }
+    }
+
+    private void spillPages() {
+        // Always keep the most recent page in memory
+        while (residentSize > memoryLimit && residentPages.size() > 1 && !spillDisabled) {
+            Iterator<Page> iterator = residentPages.iterator();
+            Page page = iterator.next();
+            iterator.remove();
+            residentSize -= page.memorySize;
+            try {
+                spillPage(page);
+            } catch (IOException e) {
+                log.error("Error writing result set spill file. Keep all rows in memory.", e);
+                spillDisabled = true;
+            }
+        }
+    }
+
+    private void spillPage(@NotNull Page page) throws IOException {
+        if (closed) {
+            return;
+        }
+        if (page.dirty || page.filePosition < 0) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) Math.min(page.memorySize + 1024, Integer.MAX_VALUE));
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                page.write(out);
+            }
+            FileChannel channel = getSpillChannel();
+            ByteBuffer data = ByteBuffer.wrap(buffer.toByteArray());
+            long position = spillFileSize;
+            while (data.hasRemaining()) {
+                position += channel.write(data, position);
+            }
+            page.filePosition = spillFileSize;
+            page.fileLength = buffer.size();
+            spillFileSize = position;
+            page.dirty = false;
+        }
+        page.unload();
+        if (lastPage == page) {
+            lastPage = null;
+        }
+    }
+
+    private void loadPage(@NotNull Page page) {
+        try {
+            if (closed || spillChannel == null) {
+                throw new IOException("Result set spill file is closed");
+            }
+            ByteBuffer data = ByteBuffer.allocate(page.fileLength);
+            while (data.hasRemaining()) {
+                if (spillChannel.read(data, page.filePosition + data.position()) < 0) {
+                    throw new EOFException("Unexpected end of result set spill file");
+                }
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data.array()))) {
+                page.read(in);
+            }
+        } catch (IOException e) {
+            log.error("Error reading result set spill file", e);
+            page.clearUnloaded();
+        }
+        residentPages.add(page);
+        residentSize += page.memorySize;
+        lastPage = page;
+        spillPages();
+    }
+
+    @NotNull
+    private FileChannel getSpillChannel() throws IOException {
+        if (spillChannel == null) {
+            File folder = spillFolder != null ? spillFolder : DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), "resultset");
+            spillFile = File.createTempFile("rows", ".spill", folder);
+            spillFile.deleteOnExit();
+            spillChannel = new RandomAccessFile(spillFile, "rw").getChannel();
+        }
+        return spillChannel;
+    }
+
+    /**
+     * Block of rows. Unloaded page keeps only columns which can't be written to the spill file.
+     */
+    private static class Page {
+        private final Column[] columns;
+        private int rowCount;
+        private int capacity;
+        private long memorySize;
+        private boolean loaded = true;
+        private boolean dirty = true;
+        private long filePosition = -1;
+        private int fileLength;
+
+        Page(int columnCount) {
+            columns = new Column[columnCount];
+            Arrays.fill(columns, EmptyColumn.INSTANCE);
+        }
+
+        void addRow(@NotNull Object[] values) {
+            if (rowCount == capacity) {
+                resize(capacity == 0 ? INITIAL_CAPACITY : Math.min(capacity * 2, PAGE_SIZE));
+            }
+            int row = rowCount++;
+            for (int i = 0; i < columns.length; i++) {
+                setValue(row, i, i < values.length ? values[i] : null);
+            }
+        }
+
+        void setValue(int row, int column, @Nullable Object value) {
+            Column col = columns[column];
+            if (value == null) {
+                col.setNull(row);
+            } else if (col.accepts(value)) {
+                if (!col.put(row, value)) {
+                    Column newColumn = col instanceof StringColumn ? toPlainStringColumn(col) : toObjectColumn(col);
+                    newColumn.put(row, value);
+                    columns[column] = newColumn;
+                }
+            } else if (col == EmptyColumn.INSTANCE) {
+                Column newColumn = createColumn(value);
+                newColumn.resize(capacity);
+                // All previous rows are nulls
+                for (int i = 0; i < rowCount; i++) {
+                    newColumn.setNull(i);
+                }
+                columns[column] = newColumn;
+                if (!newColumn.put(row, value)) {
+                    columns[column] = toObjectColumn(newColumn).putValue(row, value);
+                }
+            } else {
+                columns[column] = toObjectColumn(col).putValue(row, value);
+            }
+        }
+
+        void resize(int newCapacity) {
+            for (Column column : columns) {
+                column.resize(newCapacity);
+            }
+            capacity = newCapacity;
+        }
+
+        /**
+         * Releases structures which are needed only to add values
+         */
+        void compact() {
+            for (Column column : columns) {
+                if (column != null) {
+                    column.compact();
+                }
+            }
+        }
+
+        long estimateSize() {
+            long size = 0;
+            for (Column column : columns) {
+                size += column.estimateSize(capacity);
+            }
+            return size;
+        }
+
+        void write(@NotNull DataOutputStream out) throws IOException {
+            for (Column column : columns) {
+                out.writeByte(column.getKind());
+                column.write(out, rowCount);
+            }
+        }
+
+        void read(@NotNull DataInputStream in) throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                byte kind = in.readByte();
+                if (kind != 0) {
+                    Column column = createColumn(kind);
+                    column.resize(capacity);
+                    column.read(in, rowCount);
+                    columns[i] = column;
+                }
+            }
+            loaded = true;
+            dirty = false;
+        }
+
+        void unload() {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].getKind() != 0) {
+                    columns[i] = null;
+                }
+            }
+            loaded = false;
+        }
+
+        // Spilled data is lost. Fill with nulls.
+        void clearUnloaded() {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] == null) {
+                    columns[i] = EmptyColumn.INSTANCE;
+                }
+            }
+            loaded = true;
+            dirty = true;
+        }
+
+        @NotNull
+        private ObjectColumn toObjectColumn(@NotNull Column column) {
+            ObjectColumn objectColumn = new ObjectColumn();
+            objectColumn.resize(capacity);
+            for (int i = 0; i < rowCount; i++) {
+                objectColumn.values[i] = column.get(i);
+            }
+            return objectColumn;
+        }
+
+        @NotNull
+        private PlainStringColumn toPlainStringColumn(@NotNull Column column) {
+            PlainStringColumn stringColumn = new PlainStringColumn();
+            stringColumn.resize(capacity);
+            for (int i = 0; i < rowCount; i++) {
+                stringColumn.values[i] = (String) column.get(i);
+            }
+            return stringColumn;
+        }
+    }
+
+    @NotNull
+    private static Column createColumn(@NotNull Object value) {
+        Class<?> valueClass = value.getClass();
+        if (valueClass == Integer.class) {
+            return new IntColumn();
+        } else if (valueClass == Long.class) {
+            return new LongColumn();
+        } else if (valueClass == Double.class) {
+            return new DoubleColumn();
+        } else if (valueClass == BigDecimal.class) {
+            return new DecimalColumn();
+        } else if (valueClass == Timestamp.class) {
+            return new TimestampColumn();
+        } else if (valueClass == String.class) {
+            return new StringColumn();
+        } else {
+            return new ObjectColumn();
+        }
+    }
+
+    @NotNull
+    private static Column createColumn(byte kind) throws IOException {
+        switch (kind) {
+            case KIND_INT: return new IntColumn();
+            case KIND_LONG: return new LongColumn();
+            case KIND_DOUBLE: return new DoubleColumn();
+            case KIND_DECIMAL: return new DecimalColumn();
+            case KIND_TIMESTAMP: return new TimestampColumn();
+            case KIND_STRING: return new StringColumn();
+            case KIND_PLAIN_STRING: return new PlainStringColumn();
+            default:
+                throw new IOException("Bad column kind: " + kind);
+        }
+    }
+
+    private static abstract class Column {
+        @Nullable
+        abstract Object get(int row);
+
+        /**
+         * Checks value type. Value is not null.
+         */
+        abstract boolean accepts(@NotNull Object value);
+
+        /**
+         * Stores accepted value. Returns false if value can't be stored in this column.
+         */
+        abstract boolean put(int row, @NotNull Object value);
+
+        abstract void setNull(int row);
+
+        abstract void resize(int capacity);
+
+        /**
+         * Serialized column kind. Zero means that column can't be written to the spill file.
+         */
+        byte getKind() {
+            return 0;
+        }
+
+        long estimateSize(int capacity) {
+            return 0;
+        }
+
+        void compact() {
+        }
+
+        void write(@NotNull DataOutputStream out, int rowCount) throws IOException {
+        }
+
+        void read(@NotNull DataInputStream in, int rowCount) throws IOException {
+        }
+    }
+
+    /**
+     * Column which has only nulls so far. Replaced with the typed column on the first non-null value.
+     */
+    private static class EmptyColumn extends Column {
+        static final EmptyColumn INSTANCE = new EmptyColumn();
+
+        @Override
+        Object get(int row) {
+            return null;
+        }
+
+        @Override
+        boolean accepts(@NotNull Object value) {
+            return false;
+        }
+
+        @Override
+        boolean put(int row, @NotNull Object value) {
+            return false;
+        }
+
+        @Override
+        void setNull(int row) {
+        }
+
+        @Override
+        void resize(int capacity) {
+        }
+    }
+
+    private static abstract class PrimitiveColumn extends Column {
+        final BitSet nulls = new BitSet();
+
+        @Override
+        Object get(int row) {
+            return nulls.get(row) ? null : getPrimitive(row);
+        }
+
+        @Override
+        boolean put(int row, @NotNull Object value) {
+            if (!putPrimitive(row, value)) {
+                return false;
+            }
+            nulls.clear(row);
+            return true;
+        }
+
+        @Override
+        void setNull(int row) {
+            nulls.set(row);
+        }
+
+        @Override
+        long estimateSize(int capacity) {
+            return capacity / 8 + getValueSize() * (long) capacity;
+        }
+
+        @Override
+        void write(@NotNull DataOutputStream out, int rowCount) throws IOException {
+            long[] words = nulls.toLongArray();
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+            for (int i = 0; i < rowCount; i++) {
+                writeValue(out, i);
+            }
+        }
+
+        @Override
+        void read(@NotNull DataInputStream in, int rowCount) throws IOException {
+            long[] words = new long[in.readInt()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+            nulls.or(BitSet.valueOf(words));
+            for (int i = 0; i < rowCount; i++) {
+                readValue(in, i);
+            }
+        }
+
+        @NotNull
+        abstract Object getPrimitive(int row);
+
+        abstract boolean putPrimitive(int row, @NotNull Object value);
+
+        abstract int getValueSize();
+
+        abstract void writeValue(@NotNull DataOutputStream out, int row) throws IOException;
+
+        abstract void readValue(@NotNull DataInputStream in, int row) throws IOException;
+    }
+
+    private static class IntColumn extends PrimitiveColumn {
+        private int[] values = new int[0];
+
+        @Override
+        boolean accepts(@NotNull Object value) {
+            return value.getClass() == Integer.class;
+        }
+
+        @NotNull
+        @Override
+        Object getPrimitive(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean putPrimitive(int row, @NotNull Object value) {
+            values[row] = (Integer) value;
+            return true;
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        byte getKind() {
+            return KIND_INT;
+        }
+
+        @Override
+        int getValueSize() {
+            return 4;
+        }
+
+        @Override
+        void writeValue(@NotNull DataOutputStream out, int row) throws IOException {
+            out.writeInt(values[row]);
+        }
+
+        @Override
+        void readValue(@NotNull DataInputStream in, int row) throws IOException {
+            values[row] = in.readInt();
+        }
+    }
+
+    private static class LongColumn extends PrimitiveColumn {
+        private long[] values = new long[0];
+
+        @Override
+        boolean accepts(@NotNull Object value) {
+            return value.getClass() == Long.class;
+        }
+
+        @NotNull
+        @Override
+        Object getPrimitive(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean putPrimitive(int row, @NotNull Object value) {
+            values[row] = (Long) value;
+            return true;
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        byte getKind() {
+            return KIND_LONG;
+        }
+
+        @Override
+        int getValueSize() {
+            return 8;
+        }
+
+        @Override
+        void writeValue(@NotNull DataOutputStream out, int row) throws IOException {
+            out.writeLong(values[row]);
+        }
+
+        @Override
+        void readValue(@NotNull DataInputStream in, int row) throws IOException {
+            values[row] = in.readLong();
+        }
+    }
+
+    private static class DoubleColumn extends PrimitiveColumn {
+        private double[] values = new double[0];
+
+        @Override
+        boolean accepts(@NotNull Object value) {
+            return value.getClass() == Double.class;
+        }
+
+        @NotNull
+        @Override
+        Object getPrimitive(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean putPrimitive(int row, @NotNull Object value) {
+            values[row] = (Double) value;
+            return true;
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        byte getKind() {
+            return KIND_DOUBLE;
+        }
+
+        @Override
+        int getValueSize() {
+            return 8;
+        }
+
+        @Override
+        void writeValue(@NotNull DataOutputStream out, int row) throws IOException {
+            out.writeDouble(values[row]);
+        }
+
+        @Override
+        void readValue(@NotNull DataInputStream in, int row) throws IOException {
+            values[row] = in.readDouble();
+        }
+    }
+
+    /**
+     * Decimals with unscaled value which fits in long. Scale is kept, so restored values are equal to the original ones.
+     */
+    private static class DecimalColumn extends PrimitiveColumn {
+        private static final BigInteger MIN_LONG = BigInteger.valueOf(Long.MIN_VALUE);
+        private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+        private long[] unscaled = new long[0];
+        private int[] scales = new int[0];
+
+        @Override
+        boolean accepts(@NotNull Object value) {
+            return value.getClass() == BigDecimal.class;
+        }
+
+        @NotNull
+        @Override
+        Object getPrimitive(int row) {
+            return BigDecimal.valueOf(unscaled[row], scales[row]);
+        }
+
+        @Override
+        boolean putPrimitive(int row, @NotNull Object value) {
+            BigDecimal decimal = (BigDecimal) value;
+            BigInteger unscaledValue = decimal.unscaledValue();
+            if (unscaledValue.compareTo(MIN_LONG) < 0 || unscaledValue.compareTo(MAX_LONG) > 0) {
+                return false;
+            }
+            unscaled[row] = unscaledValue.longValue();
+            scales[row] = decimal.scale();
+            return true;
+        }
+
+        @Override
+        void resize(int capacity) {
+            unscaled = Arrays.copyOf(unscaled, capacity);
+            scales = Arrays.copyOf(scales, capacity);
+        }
+
+        @Override
+        byte getKind() {
+            return KIND_DECIMAL;
+        }
+
+        @Override
+        int getValueSize() {
+            return 12;
+        }
+
+        @Override
+        void writeValue(@NotNull DataOutputStream out, int row) throws IOException {
+            out.writeLong(unscaled[row]);
+            out.writeInt(scales[row]);
+        }
+
+        @Override
+        void readValue(@NotNull DataInputStream in, int row) throws IOException {
+            unscaled[row] = in.readLong();
+            scales[row] = in.readInt();
+        }
+    }
+
+    private static class TimestampColumn extends PrimitiveColumn {
+        private long[] times = new long[0];
+        private int[] nanos = new int[0];
+
+        @Override
+        boolean accepts(@NotNull Object value) {
+            return value.getClass() == Timestamp.class;
+        }
+
+        @NotNull
+        @Override
+        Object getPrimitive(int row) {
+            Timestamp timestamp = new Timestamp(times[row]);
+            timestamp.setNanos(nanos[row]);
+            return timestamp;
+        }
+
+        @Override
+        boolean putPrimitive(int row, @NotNull Object value) {
+            Timestamp timestamp = (Timestamp) value;
+            times[row] = timestamp.getTime();
+            nanos[row] = timestamp.getNanos();
+            return true;
+        }
+
+        @Override
+        void resize(int capacity) {
+            times = Arrays.copyOf(times, capacity);
+            nanos = Arrays.copyOf(nanos, capacity);
+        }
+
+        @Override
+        byte getKind() {
+            return KIND_TIMESTAMP;
+        }
+
+        @Override
+        int getValueSize() {
+            return 12;
+        }
+
+        @Override
+        void writeValue(@NotNull DataOutputStream out, int row) throws IOException {
+            out.writeLong(times[row]);
+            out.writeInt(nanos[row]);
+        }
+
+        @Override
+        void readValue(@NotNull DataInputStream in, int row) throws IOException {
+            times[row] = in.readLong();
+            nanos[row] = in.readInt();
+        }
+    }
+
+    /**
+     * Dictionary encoded strings. Equal strings are stored once. Code -1 means null.
+     * Dictionary index is needed only to add values, so it is dropped when page is filled and rebuilt on change.
+     */
+    private static class StringColumn extends Column {
+        private int[] codes = new int[0];
+        private final List<String> dictionary = new ArrayList<>();
+        @Nullable
+        private Map<String, Integer> dictionaryIndex;
+
+        @Override
+        Object get(int row) {
+            int code = codes[row];
+            return code < 0 ? null : dictionary.get(code);
+        }
+
+        @Override
+        boolean accepts(@NotNull Object value) {
+            return value.getClass() == String.class;
+        }
+
+        @Override
+        boolean put(int row, @NotNull Object value) {
+            if (dictionaryIndex == null) {
+                dictionaryIndex = new HashMap<>();
+                for (int i = 0; i < dictionary.size(); i++) {
+                    dictionaryIndex.put(dictionary.get(i), i);
+                }
+            }
+            Integer code = dictionaryIndex.get(value);
+            if (code == null) {
+                if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+                    return false;
+                }
+                code = dictionary.size();
+                dictionary.add((String) value);
+                dictionaryIndex.put((String) value, code);
+            }
+            codes[row] = code;
+            return true;
+        }
+
+        @Override
+        void setNull(int row) {
+            codes[row] = -1;
+        }
+
+        @Override
+        void resize(int capacity) {
+            codes = Arrays.copyOf(codes, capacity);
+        }
+
+        @Override
+        byte getKind() {
+            return KIND_STRING;
+        }
+
+        @Override
+        long estimateSize(int capacity) {
+            long size = 4L * capacity;
+            for (String value : dictionary) {
+                // Reference, string object and chars array
+                size += STRING_OVERHEAD + 2L * value.length();
+                if (dictionaryIndex != null) {
+                    // Hash map entry
+                    size += 40;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        void compact() {
+            dictionaryIndex = null;
+        }
+
+        @Override
+        void write(@NotNull DataOutputStream out, int rowCount) throws IOException {
+            out.writeInt(dictionary.size());
+            for (String value : dictionary) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            for (int i = 0; i < rowCount; i++) {
+                out.writeInt(codes[i]);
+            }
+        }
+
+        @Override
+        void read(@NotNull DataInputStream in, int rowCount) throws IOException {
+            int dictionarySize = in.readInt();
+            for (int i = 0; i < dictionarySize; i++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                dictionary.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            for (int i = 0; i < rowCount; i++) {
+                codes[i] = in.readInt();
+            }
+        }
+    }
+
+    /**
+     * Strings which are mostly unique. Length -1 means null in the spill file.
+     */
+    private static class PlainStringColumn extends Column {
+        private String[] values = new String[0];
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean accepts(@NotNull Object value) {
+            return value.getClass() == String.class;
+        }
+
+        @Override
+        boolean put(int row, @NotNull Object value) {
+            values[row] = (String) value;
+            return true;
+        }
+
+        @Override
+        void setNull(int row) {
+            values[row] = null;
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        byte getKind() {
+            return KIND_PLAIN_STRING;
+        }
+
+        @Override
+        long estimateSize(int capacity) {
+            long size = 0;
+            for (String value : values) {
+                size += value == null ? 8 : STRING_OVERHEAD + 2L * value.length();
+            }
+            return size;
+        }
+
+        @Override
+        void write(@NotNull DataOutputStream out, int rowCount) throws IOException {
+            for (int i = 0; i < rowCount; i++) {
+                String value = values[i];
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+        }
+
+        @Override
+        void read(@NotNull DataInputStream in, int rowCount) throws IOException {
+            for (int i = 0; i < rowCount; i++) {
+                int length = in.readInt();
+                if (length >= 0) {
+                    byte[] bytes = new byte[length];
+                    in.readFully(bytes);
+                    values[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+        private Object[] values = new Object[0];
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean accepts(@NotNull Object value) {
+            return true;
+        }
+
+        @Override
+        boolean put(int row, @NotNull Object value) {
+            values[row] = value;
+            return true;
+        }
+
+        ObjectColumn putValue(int row, @NotNull Object value) {
+            values[row] = value;
+            return this;
+        }
+
+        @Override
+        void setNull(int row) {
+            values[row] = null;
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+    }
+
+}
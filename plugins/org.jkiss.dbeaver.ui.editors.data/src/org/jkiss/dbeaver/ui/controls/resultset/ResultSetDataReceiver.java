@@ -46,6 +46,8 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     private int columnsCount;
     private DBDAttributeBinding[] metaColumns;
     private List<Object[]> rows = new ArrayList<>();
+    // Next segment rows are put directly in the column store (if enabled)
+    private ResultSetColumnStore columnStore;
     private boolean hasMoreData;
     private boolean nextSegmentRead;
     private long offset;
@@ -93,6 +95,7 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         throws DBCException {
         this.errorList.clear();
         this.rows.clear();
+        this.columnStore = null;
         this.offset = offset;
         this.maxRows = maxRows;
 
@@ -110,6 +113,9 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             metaColumns = DBUtils.getAttributeBindings(session, getDataContainer(), metaData);
 
             resultSetViewer.setMetaData(resultSet, metaColumns);
+        } else if (resultSetViewer.getModel().isColumnarStorage()) {
+            // Rows are already bound, so they may be compacted right away
+            columnStore = new ResultSetColumnStore(columnsCount, resultSetViewer.getModel().getSpillMemoryLimit());
         }
     }
 
@@ -148,7 +154,11 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
                 }
             }
         }
-        rows.add(row);
+        if (columnStore != null) {
+            columnStore.addRow(row);
+        } else {
+            rows.add(row);
+        }
     }
 
     @Override
@@ -168,6 +178,14 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         }
 
         final List<Object[]> tmpRows = rows;
+        final ResultSetColumnStore tmpColumnStore = columnStore;
+        final int fetchedRows;
+        if (tmpColumnStore != null) {
+            tmpColumnStore.trimToSize();
+            fetchedRows = tmpColumnStore.getRowCount();
+        } else {
+            fetchedRows = tmpRows.size();
+        }
 
         final boolean nextSegmentRead = this.nextSegmentRead;
 
@@ -180,10 +198,14 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         } else {
             monitor.subTask("Append data");
             boolean resetOldRows = getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
-            resultSetViewer.appendData(tmpRows, resetOldRows);
+            if (tmpColumnStore != null) {
+                resultSetViewer.appendData(tmpColumnStore, resetOldRows);
+            } else {
+                resultSetViewer.appendData(tmpRows, resetOldRows);
+            }
         }
         // Check for more data
-        hasMoreData = maxRows > 0 && tmpRows.size() >= maxRows;
+        hasMoreData = maxRows > 0 && fetchedRows >= maxRows;
         monitor.done();
 
         UIUtils.asyncExec(() -> {
@@ -209,6 +231,7 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
         attrErrors.clear();
         rows = new ArrayList<>();
+        columnStore = null;
     }
 
     @Override
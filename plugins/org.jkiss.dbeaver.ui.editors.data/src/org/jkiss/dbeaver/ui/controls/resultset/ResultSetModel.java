@@ -29,6 +29,8 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.trace.DBCTrace;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.virtual.DBVColorOverride;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
@@ -40,6 +42,7 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 /**
  * Result set model
@@ -58,9 +61,18 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Incremented each time rows are added or removed
+    private int rowsVersion;
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
+    // Keep rows in the column store instead of per-row value arrays
+    private boolean columnarStorage = false;
+    // Memory limit of column store (bytes). Rows above the limit are spilled on disk.
+    private long spillMemoryLimit;
+    // Store which receives rows of small fetched segments, so they are spilled as the whole result set
+    @Nullable
+    private ResultSetColumnStore appendStore;
     // Flag saying that edited values update is in progress
     private volatile DataSourceJob updateInProgress = null;
 
@@ -337,7 +349,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -355,7 +367,18 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
-        return DBUtils.getAttributeValue(attribute, attributes, row.values);
+        if (attribute.isCustom()) {
+            return DBUtils.getAttributeValue(attribute, attributes, row.readValues());
+        }
+        // Read single value, so row values aren't materialized
+        int depth = attribute.getLevel();
+        int rootIndex = depth == 0 ? attribute.getOrdinalPosition() : attribute.getTopParent().getOrdinalPosition();
+        if (rootIndex >= row.getValueCount()) {
+            log.debug("Bad attribute '" + attribute.getName() + "' index: " + rootIndex + " is out of row values' bounds (" + row.getValueCount() + ")");
+            return null;
+        }
+        Object rootValue = row.getValue(rootIndex);
+        return depth == 0 ? rootValue : DBUtils.getNestedAttributeValue(attribute, rootValue);
     }
 
     /**
@@ -378,7 +401,7 @@ public class ResultSetModel {
         } else {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -484,7 +507,7 @@ public class ResultSetModel {
                     e.printStackTrace();
                 }
             } else {
-                row.values[rootIndex] = value;
+                row.setValue(rootIndex, value);
             }
             return true;
         }
@@ -802,9 +825,14 @@ public class ResultSetModel {
     }
 
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
+        if (columnarStorage && !rows.isEmpty()) {
+            appendData(ResultSetColumnStore.fromRows(rows, spillMemoryLimit), resetOldRows);
+            return;
+        }
         if (resetOldRows) {
             curRows.clear();
         }
+        rowsVersion++;
         int rowCount = rows.size();
         int firstRowNum = curRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
@@ -817,9 +845,54 @@ public class ResultSetModel {
         updateRowColors(resetOldRows, newRows);
     }
 
+    void appendData(@NotNull ResultSetColumnStore rows, boolean resetOldRows) {
+        if (resetOldRows) {
+            closeColumnStores(curRows);
+            curRows.clear();
+            appendStore = null;
+        }
+        rowsVersion++;
+        int rowCount = rows.getRowCount();
+        int firstRowNum = curRows.size();
+        ResultSetColumnStore store = rows;
+        int firstStoreIndex = 0;
+        if (appendStore != null && appendStore != rows &&
+            rowCount < ResultSetColumnStore.PAGE_SIZE &&
+            appendStore.getColumnCount() == rows.getColumnCount()) {
+            // Segment doesn't fill even one page. Keep it in the previous store, otherwise it never gets spilled
+            firstStoreIndex = appendStore.appendRows(rows);
+            store = appendStore;
+        } else {
+            appendStore = rows;
+        }
+        List<ResultSetRow> newRows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            newRows.add(
+                new ResultSetRow(firstRowNum + i, store, firstStoreIndex + i));
+        }
+        curRows.addAll(newRows);
+
+        updateRowColors(resetOldRows, newRows);
+    }
+
+    boolean isColumnarStorage() {
+        return columnarStorage;
+    }
+
+    long getSpillMemoryLimit() {
+        return spillMemoryLimit;
+    }
+
+    void setColumnarStorage(boolean columnarStorage, long spillMemoryLimit) {
+        this.columnarStorage = columnarStorage;
+        this.spillMemoryLimit = spillMemoryLimit;
+    }
+
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        this.appendStore = null;
+        this.rowsVersion++;
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
@@ -853,6 +926,7 @@ public class ResultSetModel {
         newRow.setState(ResultSetRow.STATE_ADDED);
         shiftRows(newRow, 1);
         curRows.add(rowNum, newRow);
+        rowsVersion++;
         changesCount++;
         return newRow;
     }
@@ -879,6 +953,7 @@ public class ResultSetModel {
     void cleanupRow(@NotNull ResultSetRow row) {
         row.release();
         this.curRows.remove(row.getVisualNumber());
+        this.rowsVersion++;
         this.shiftRows(row, -1);
     }
 
@@ -909,16 +984,39 @@ public class ResultSetModel {
 
     void releaseAllData() {
         final List<ResultSetRow> oldRows = curRows;
+        final ResultSetColumnStore oldAppendStore = appendStore;
+        appendStore = null;
         // Cleanup in separate job.
         // Sometimes model cleanup takes much time (e.g. freeing LOB values)
         // So let's do it in separate job to avoid UI locking
         RuntimeUtils.runTask(monitor -> {
+            // Close stores first: rows release only object values, which are never spilled
+            closeColumnStores(oldRows);
+            if (oldAppendStore != null) {
+                oldAppendStore.close();
+            }
             for (ResultSetRow row : oldRows) {
                 row.release();
             }
         }, "Release values", 5000);
     }
 
+    /**
+     * Closes column stores of the rows (deletes their spill files)
+     */
+    private static void closeColumnStores(@NotNull List<ResultSetRow> rows) {
+        Set<ResultSetColumnStore> stores = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ResultSetRow row : rows) {
+            ResultSetColumnStore store = row.getStore();
+            if (store != null) {
+                stores.add(store);
+            }
+        }
+        for (ResultSetColumnStore store : stores) {
+            store.close();
+        }
+    }
+
     public DBDDataFilter getDataFilter() {
         return dataFilter;
     }
@@ -1040,25 +1138,71 @@ public class ResultSetModel {
     }
 
     public void resetOrdering() {
-        final boolean hasOrdering = dataFilter.hasOrdering();
+        List<ResultSetRow> sortedRows = sortRows(new VoidProgressMonitor(), curRows, getLocalOrderConstraints());
+        if (sortedRows != null) {
+            applyOrdering(sortedRows);
+        }
+    }
+
+    @NotNull
+    List<DBDAttributeConstraint> getLocalOrderConstraints() {
+        return dataFilter.hasOrdering() ? dataFilter.getOrderConstraints() : Collections.emptyList();
+    }
+
+    int getRowsVersion() {
+        return rowsVersion;
+    }
 
+    /**
+     * Sorts rows locally. May be called outside of UI thread (rows list is not modified).
+     * Sort keys are read once per row, then rows are sorted in parallel.
+     * Returns null if monitor was canceled.
+     */
+    @Nullable
+    List<ResultSetRow> sortRows(@NotNull DBRProgressMonitor monitor, @NotNull List<ResultSetRow> rows, @NotNull List<DBDAttributeConstraint> orderConstraints) {
+        ResultSetRow[] sortedRows = rows.toArray(new ResultSetRow[0]);
         // First sort in original order to reset multi-column orderings
-        curRows.sort(Comparator.comparingInt(ResultSetRow::getRowNumber));
+        Arrays.sort(sortedRows, Comparator.comparingInt(ResultSetRow::getRowNumber));
+
+        List<DBDAttributeBinding> orderBindings = new ArrayList<>();
+        List<Boolean> orderDescending = new ArrayList<>();
+        for (DBDAttributeConstraint co : orderConstraints) {
+            DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
+            if (binding != null) {
+                orderBindings.add(binding);
+                orderDescending.add(co.isOrderDescending());
+            }
+        }
+        if (orderBindings.isEmpty()) {
+            return Arrays.asList(sortedRows);
+        }
 
-        if (hasOrdering) {
-            // Sort locally
-            final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-            curRows.sort((row1, row2) -> {
+        final int keyCount = orderBindings.size();
+        final boolean[] descending = new boolean[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            descending[i] = orderDescending.get(i);
+        }
+        SortEntry[] entries = new SortEntry[sortedRows.length];
+        for (int i = 0; i < sortedRows.length; i++) {
+            if (i % 1000 == 0 && monitor.isCanceled()) {
+                return null;
+            }
+            Object[] keys = new Object[keyCount];
+            for (int k = 0; k < keyCount; k++) {
+                keys[k] = getCellValue(orderBindings.get(k), sortedRows[i]);
+            }
+            entries[i] = new SortEntry(sortedRows[i], keys);
+        }
+        try {
+            // Parallel sort is stable, so equal rows keep the original order
+            Arrays.parallelSort(entries, (entry1, entry2) -> {
+                if (monitor.isCanceled()) {
+                    throw new CancellationException();
+                }
                 int result = 0;
-                for (DBDAttributeConstraint co : orderConstraints) {
-                    final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                    if (binding == null) {
-                        continue;
-                    }
-                    Object cell1 = getCellValue(binding, row1);
-                    Object cell2 = getCellValue(binding, row2);
-                    result = DBUtils.compareDataValues(cell1, cell2);
-                    if (co.isOrderDescending()) {
+                for (int k = 0; k < keyCount; k++) {
+                    result = DBUtils.compareDataValues(entry1.keys[k], entry2.keys[k]);
+                    if (descending[k]) {
                         result = -result;
                     }
                     if (result != 0) {
@@ -1067,12 +1211,36 @@ public class ResultSetModel {
                 }
                 return result;
             });
+        } catch (CancellationException e) {
+            return null;
+        }
+        for (int i = 0; i < entries.length; i++) {
+            sortedRows[i] = entries[i].row;
         }
+        return Arrays.asList(sortedRows);
+    }
+
+    /**
+     * Replaces rows with the same rows in the new order
+     */
+    void applyOrdering(@NotNull List<ResultSetRow> sortedRows) {
+        curRows.clear();
+        curRows.addAll(sortedRows);
         for (int i = 0; i < curRows.size(); i++) {
             curRows.get(i).setVisualNumber(i);
         }
     }
 
+    private static class SortEntry {
+        private final ResultSetRow row;
+        private final Object[] keys;
+
+        SortEntry(ResultSetRow row, Object[] keys) {
+            this.row = row;
+            this.keys = keys;
+        }
+    }
+
     private void fillVisibleAttributes() {
         this.visibleAttributes.clear();
 
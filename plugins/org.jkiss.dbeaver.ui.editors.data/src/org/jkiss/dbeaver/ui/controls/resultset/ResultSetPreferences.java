@@ -73,6 +73,9 @@ public final class ResultSetPreferences {
     public static final String RESULT_SET_USE_NAVIGATOR_FILTERS = "resultset.filter.use.navigator"; //$NON-NLS-1$
 
     public static final String RESULT_SET_SHOW_ERRORS_IN_DIALOG = "resultset.show.errorDialog"; //$NON-NLS-1$
+    public static final String RESULT_SET_COLUMNAR_STORAGE = "resultset.storage.columnar"; //$NON-NLS-1$
+    // Memory limit (MB) of compact rows storage. Rows above the limit are kept in temporary file. Zero means no limit.
+    public static final String RESULT_SET_SPILL_MEMORY_LIMIT = "resultset.storage.memoryLimit"; //$NON-NLS-1$
 
     public static final String RESULT_TEXT_TAB_SIZE = "resultset.text.tab.size"; //$NON-NLS-1$
     public static final String RESULT_TEXT_MAX_COLUMN_SIZE = "resultset.text.max.column.size"; //$NON-NLS-1$
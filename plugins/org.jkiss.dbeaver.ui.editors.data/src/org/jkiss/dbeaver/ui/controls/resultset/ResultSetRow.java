@@ -29,7 +29,8 @@ import java.util.IdentityHashMap;
 import java.util.Map;
 
 /**
- * Row data
+ * Row data.
+ * Values are kept either in the row's own array or in the shared column store (see {@link ResultSetColumnStore}).
  */
 public class ResultSetRow {
 
@@ -52,9 +53,12 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. Null if values are kept in the column store
+    @Nullable
+    private Object[] values;
+    @Nullable
+    private ResultSetColumnStore store;
+    private int storeIndex;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -71,11 +75,63 @@ public class ResultSetRow {
         this.state = STATE_NORMAL;
     }
 
+    ResultSetRow(int rowNumber, @NotNull ResultSetColumnStore store, int storeIndex) {
+        this.rowNumber = rowNumber;
+        this.visualNumber = rowNumber;
+        this.store = store;
+        this.storeIndex = storeIndex;
+        this.state = STATE_NORMAL;
+    }
+
+    /**
+     * Returns row values array. Values may be modified by the caller.
+     * Row which keeps values in the column store is detached from it (values are copied in the new array).
+     * Use {@link #getValue(int)} to read values without detaching.
+     */
     @NotNull
     public Object[] getValues() {
+        if (values == null) {
+            values = store.getRowValues(storeIndex);
+            store = null;
+        }
         return values;
     }
 
+    public void setValues(@NotNull Object[] values) {
+        this.values = values;
+        this.store = null;
+    }
+
+    /**
+     * Returns row values. Doesn't detach the row from the column store, so the result must not be modified.
+     */
+    @NotNull
+    Object[] readValues() {
+        return values != null ? values : store.getRowValues(storeIndex);
+    }
+
+    @Nullable
+    ResultSetColumnStore getStore() {
+        return store;
+    }
+
+    public int getValueCount() {
+        return values != null ? values.length : store.getColumnCount();
+    }
+
+    @Nullable
+    public Object getValue(int index) {
+        return values != null ? values[index] : store.getValue(storeIndex, index);
+    }
+
+    public void setValue(int index, @Nullable Object value) {
+        if (values != null) {
+            values[index] = value;
+        } else {
+            store.setValue(storeIndex, index, value);
+        }
+    }
+
     public boolean isChanged() {
         return changes != null && !changes.isEmpty();
     }
@@ -124,8 +180,13 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        if (values != null) {
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
+        } else if (store != null) {
+            // Don't read spilled values back just to release them
+            store.releaseRowObjects(storeIndex);
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
@@ -141,6 +141,8 @@ public class ResultSetViewer extends Viewer
 
     private static final DecimalFormat ROW_COUNT_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
     private static final IResultSetListener[] EMPTY_LISTENERS = new IResultSetListener[0];
+    // Bigger result sets are sorted locally in background
+    private static final int BACKGROUND_SORT_MIN_ROWS = 10000;
 
     private IResultSetFilterManager filterManager;
     @NotNull
@@ -201,6 +203,7 @@ public class ResultSetViewer extends Viewer
 
     private final List<ResultSetJobAbstract> dataPumpJobQueue = new ArrayList<>();
     private final AtomicBoolean dataPumpRunning = new AtomicBoolean();
+    private volatile AbstractJob localSortJob;
 
     private final ResultSetModel model = new ResultSetModel();
     private HistoryStateItem curState = null;
@@ -2103,8 +2106,43 @@ public class ResultSetViewer extends Viewer
     private void reorderLocally()
     {
         this.rejectChanges();
-        this.getModel().resetOrdering();
-        this.getActivePresentation().refreshData(false, false, true);
+        AbstractJob prevSortJob = localSortJob;
+        if (prevSortJob != null) {
+            prevSortJob.cancel();
+            localSortJob = null;
+        }
+        if (model.getRowCount() < BACKGROUND_SORT_MIN_ROWS) {
+            this.getModel().resetOrdering();
+            this.getActivePresentation().refreshData(false, false, true);
+            this.updateFiltersText();
+            return;
+        }
+        // Read sort keys and sort rows in background. Apply new order in UI thread if rows weren't changed meanwhile.
+        final List<ResultSetRow> rows = new ArrayList<>(model.getAllRows());
+        final List<DBDAttributeConstraint> orderConstraints = new ArrayList<>(model.getLocalOrderConstraints());
+        final int rowsVersion = model.getRowsVersion();
+        AbstractJob sortJob = new AbstractJob("Sort result set rows") {
+            {
+                setUser(false);
+            }
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                List<ResultSetRow> sortedRows = model.sortRows(monitor, rows, orderConstraints);
+                if (sortedRows != null) {
+                    UIUtils.asyncExec(() -> {
+                        if (localSortJob != this || viewerPanel.isDisposed() || model.getRowsVersion() != rowsVersion) {
+                            return;
+                        }
+                        localSortJob = null;
+                        model.applyOrdering(sortedRows);
+                        getActivePresentation().refreshData(false, false, true);
+                    });
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        localSortJob = sortJob;
+        sortJob.schedule();
         this.updateFiltersText();
     }
 
@@ -2129,6 +2167,9 @@ public class ResultSetViewer extends Viewer
             return;
         }
         this.curRow = null;
+        this.model.setColumnarStorage(
+            getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE),
+            getPreferenceStore().getLong(ResultSetPreferences.RESULT_SET_SPILL_MEMORY_LIMIT) * 1024 * 1024);
         this.model.setData(rows);
         this.curRow = (this.model.getRowCount() > 0 ? this.model.getRow(0) : null);
         if (focusRow > 0 && focusRow < model.getRowCount()) {
@@ -2160,9 +2201,17 @@ public class ResultSetViewer extends Viewer
 
     void appendData(List<Object[]> rows, boolean resetOldRows) {
         model.appendData(rows, resetOldRows);
+        updateAppendStatus(rows.size());
+    }
+
+    void appendData(ResultSetColumnStore rows, boolean resetOldRows) {
+        model.appendData(rows, resetOldRows);
+        updateAppendStatus(rows.getRowCount());
+    }
 
+    private void updateAppendStatus(int appendedRows) {
         UIUtils.asyncExec(() -> {
-            setStatus(NLS.bind(ResultSetMessages.controls_resultset_viewer_status_rows_size, model.getRowCount(), rows.size()) + getExecutionTimeMessage());
+            setStatus(NLS.bind(ResultSetMessages.controls_resultset_viewer_status_rows_size, model.getRowCount(), appendedRows) + getExecutionTimeMessage());
 
             updateEditControls();
         });
@@ -3532,7 +3581,7 @@ public class ResultSetViewer extends Viewer
                 int rowCount = model.getRowCount();
                 List<Object[]> rows = new ArrayList<>(rowCount);
                 for (int i = 0; i < rowCount; i++) {
-                    rows.add(model.getRowData(i));
+                    rows.add(model.getRow(i).readValues());
                 }
                 for (DBDAttributeBinding attr : newAttributes) {
                     if (attr instanceof DBDAttributeBindingCustom) {
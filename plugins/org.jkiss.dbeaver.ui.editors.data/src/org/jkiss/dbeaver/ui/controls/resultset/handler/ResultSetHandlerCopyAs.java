@@ -189,6 +189,9 @@ public class ResultSetHandlerCopyAs extends AbstractHandler implements IElementU
 
                     monitor.subTask("Finalize export");
                     consumer.finishTransfer(monitor, false);
+                    if (consumer.getFinishError() != null) {
+                        throw consumer.getFinishError();
+                    }
                     consumer.finishTransfer(monitor, true);
                     monitor.worked(1);
                 } catch (Exception e) {
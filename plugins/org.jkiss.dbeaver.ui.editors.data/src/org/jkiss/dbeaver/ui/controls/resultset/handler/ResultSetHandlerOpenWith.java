@@ -216,6 +216,9 @@ public class ResultSetHandlerOpenWith extends AbstractHandler implements IElemen
                     producer.transferData(monitor, consumer, null, producerSettings, null);
 
                     consumer.finishTransfer(monitor, false);
+                    if (consumer.getFinishError() != null) {
+                        throw consumer.getFinishError();
+                    }
 
                     UIUtils.asyncExec(() -> {
                         if (!UIUtils.launchProgram(tempFile.getAbsolutePath())) {
@@ -267,6 +267,10 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_resultsets_label_read_metadata_tip;
     public static String pref_page_database_resultsets_label_read_references_tip;
     public static String pref_page_database_resultsets_label_fetch_size_tip;
+    public static String pref_page_database_resultsets_label_columnar_storage;
+    public static String pref_page_database_resultsets_label_columnar_storage_tip;
+    public static String pref_page_database_resultsets_label_spill_memory_limit;
+    public static String pref_page_database_resultsets_label_spill_memory_limit_tip;
 
     public static String pref_page_content_cache_clob;
     public static String pref_page_content_cache_blob;
@@ -312,6 +316,8 @@ public class ResultSetMessages extends NLS {
     public static String validate_unique_key_usage_dialog_use_all_columns_no_valid_columns_found;
     public static String validate_unique_key_usage_dialog_use_all_columns_cannot_reload_unique_columns;
 
+    public static String aggregate_columns_panel_calculating;
+
     static {
         // initialize resource bundle
         NLS.initializeMessages(BUNDLE_NAME, ResultSetMessages.class);
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.ui.controls.resultset.panel.aggregate;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.action.*;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.viewers.ISelection;
@@ -26,19 +28,26 @@ import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.*;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBIcon;
 import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
-import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.data.aggregate.AggregateCalculator;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
 import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
 import org.jkiss.dbeaver.ui.UIIcon;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.*;
+import org.jkiss.dbeaver.ui.controls.resultset.internal.ResultSetMessages;
+import org.jkiss.dbeaver.utils.GeneralUtils;
 
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
@@ -60,6 +69,8 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     private static final DecimalFormat DOUBLE_FORMAT = new DecimalFormat("###,###,###,###,###,##0.###");
     private static final DecimalFormat INTEGER_FORMAT = new DecimalFormat("###,###,###,###,###,##0");
+    // Bigger selections are aggregated in background
+    private static final int BACKGROUND_AGGREGATE_MIN_CELLS = 10000;
 
     private IResultSetPresentation presentation;
     private Tree aggregateTable;
@@ -69,6 +80,7 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     //private boolean runServerQueries;
 
     private IDialogSettings panelSettings;
+    private volatile AbstractJob aggregateJob;
 
     private final List<AggregateFunctionDescriptor> enabledFunctions = new ArrayList<>();
 
@@ -194,6 +206,11 @@ public class AggregateColumnsPanel implements IResultSetPanel {
 
     @Override
     public void refresh(boolean force) {
+        AbstractJob prevJob = aggregateJob;
+        if (prevJob != null) {
+            prevJob.cancel();
+            aggregateJob = null;
+        }
         aggregateTable.setRedraw(false);
         try {
             aggregateTable.removeAll();
@@ -216,86 +233,165 @@ public class AggregateColumnsPanel implements IResultSetPanel {
     }
 
     private void aggregateSelection(IResultSetSelection selection) {
-        ResultSetModel model = presentation.getController().getModel();
-        if (groupByColumns) {
-            Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
-            for (Object element : selection.toList()) {
-                DBDAttributeBinding attr = selection.getElementAttribute(element);
-                ResultSetRow row = selection.getElementRow(element);
-                Object cellValue = model.getCellValue(attr, row);
-                List<Object> values = attrValues.computeIfAbsent(attr, k -> new ArrayList<>());
-                values.add(cellValue);
-            }
-
-            for (Map.Entry<DBDAttributeBinding, List<Object>> entry : attrValues.entrySet()) {
-                TreeItem attrItem = new TreeItem(aggregateTable, SWT.NONE);
-                attrItem.setText(entry.getKey().getName());
-                attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(entry.getKey())));
-                aggregateValues(attrItem, entry.getValue());
-                attrItem.setExpanded(true);
-            }
-        } else {
-            List<Object> allValues = new ArrayList<>(selection.size());
-            for (Object element : selection.toList()) {
-                DBDAttributeBinding attr = selection.getElementAttribute(element);
-                ResultSetRow row = selection.getElementRow(element);
-                Object cellValue = model.getCellValue(attr, row);
-                allValues.add(cellValue);
+        final ResultSetModel model = presentation.getController().getModel();
+        // Resolve cells in UI thread. Values are read and aggregated in background for big selections.
+        final List<?> elements = selection.toList();
+        final DBDAttributeBinding[] cellAttributes = new DBDAttributeBinding[elements.size()];
+        final ResultSetRow[] cellRows = new ResultSetRow[elements.size()];
+        for (int i = 0; i < cellAttributes.length; i++) {
+            Object element = elements.get(i);
+            cellAttributes[i] = selection.getElementAttribute(element);
+            cellRows[i] = selection.getElementRow(element);
+        }
+        final List<AggregateFunctionDescriptor> functions = new ArrayList<>();
+        for (AggregateFunctionDescriptor funcDesc : enabledFunctions) {
+            try {
+                funcDesc.createFunction();
+                functions.add(funcDesc);
+            } catch (DBException e) {
+                log.error(e);
             }
-            aggregateValues(null, allValues);
         }
-    }
+        final boolean groupByColumns = this.groupByColumns;
+        final boolean aggregateAsStrings = this.aggregateAsStrings;
 
-    private void aggregateValues(TreeItem parentItem, Collection<Object> values) {
-        List<AggregateFunctionDescriptor> functions = enabledFunctions;
-        Map<IAggregateFunction, TreeItem> funcMap = new IdentityHashMap<>();
-        for (AggregateFunctionDescriptor funcDesc : functions) {
-            TreeItem funcItem = (parentItem == null) ?
-                new TreeItem(aggregateTable, SWT.NONE) :
-                new TreeItem(parentItem, SWT.NONE);
-            funcItem.setData(funcDesc);
-            funcItem.setText(0, funcDesc.getLabel());
-            DBPImage icon = funcDesc.getIcon();
-            if (icon != null) {
-                funcItem.setImage(0, DBeaverIcons.getImage(icon));
-            }
+        if (cellAttributes.length < BACKGROUND_AGGREGATE_MIN_CELLS) {
             try {
-                IAggregateFunction func = funcDesc.createFunction();
-                funcMap.put(func, funcItem);
+                showResults(
+                    aggregateValues(new VoidProgressMonitor(), model, cellAttributes, cellRows, functions, groupByColumns, aggregateAsStrings),
+                    functions);
             } catch (DBException e) {
                 log.error(e);
             }
+            return;
         }
 
-        IAggregateFunction[] funcs = funcMap.keySet().toArray(new IAggregateFunction[funcMap.size()]);
-        int[] funcCount = new int[funcs.length];
-        for (Object element : values) {
-            for (int i = 0; i < funcs.length; i++) {
-                if (funcs[i].accumulate(element, aggregateAsStrings)) {
-                    funcCount[i]++;
+        new TreeItem(aggregateTable, SWT.NONE).setText(0, ResultSetMessages.aggregate_columns_panel_calculating);
+        AbstractJob job = new AbstractJob("Aggregate selected values") {
+            {
+                setUser(false);
+            }
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                try {
+                    List<AggregateResult> results = aggregateValues(monitor, model, cellAttributes, cellRows, functions, groupByColumns, aggregateAsStrings);
+                    if (results != null) {
+                        UIUtils.asyncExec(() -> {
+                            if (aggregateJob != this || aggregateTable.isDisposed()) {
+                                return;
+                            }
+                            aggregateJob = null;
+                            aggregateTable.setRedraw(false);
+                            try {
+                                aggregateTable.removeAll();
+                                showResults(results, functions);
+                                UIUtils.packColumns(aggregateTable, false, null);
+                            } finally {
+                                aggregateTable.setRedraw(true);
+                            }
+                        });
+                    }
+                } catch (DBException e) {
+                    return GeneralUtils.makeExceptionStatus(e);
                 }
+                return Status.OK_STATUS;
             }
+        };
+        aggregateJob = job;
+        job.schedule();
+    }
+
+    /**
+     * Reads cell values and calculates aggregates. Returns null if monitor was canceled.
+     */
+    @Nullable
+    private static List<AggregateResult> aggregateValues(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull ResultSetModel model,
+        @NotNull DBDAttributeBinding[] cellAttributes,
+        @NotNull ResultSetRow[] cellRows,
+        @NotNull List<AggregateFunctionDescriptor> functions,
+        boolean groupByColumns,
+        boolean aggregateAsStrings) throws DBException
+    {
+        Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
+        if (!groupByColumns) {
+            attrValues.put(null, new ArrayList<>(cellAttributes.length));
         }
-        for (int i = 0; i < funcs.length; i++) {
-            if (funcCount[i] <= 0) {
-                continue;
+        for (int i = 0; i < cellAttributes.length; i++) {
+            if (i % 1000 == 0 && monitor.isCanceled()) {
+                return null;
             }
-            IAggregateFunction func = funcs[i];
-            Object result = func.getResult(funcCount[i]);
-            if (result != null) {
-                TreeItem treeItem = funcMap.get(func);
-                String strValue;
-                if (result instanceof Double || result instanceof Float || result instanceof BigDecimal) {
-                    strValue = DOUBLE_FORMAT.format(result);
-                } else if (result instanceof Integer || result instanceof Long || result instanceof Short) {
-                    strValue = INTEGER_FORMAT.format(result);
-                } else {
-                    strValue = result.toString();
+            Object cellValue = model.getCellValue(cellAttributes[i], cellRows[i]);
+            attrValues.computeIfAbsent(groupByColumns ? cellAttributes[i] : null, k -> new ArrayList<>()).add(cellValue);
+        }
+
+        AggregateCalculator.FunctionFactory[] factories = new AggregateCalculator.FunctionFactory[functions.size()];
+        for (int i = 0; i < factories.length; i++) {
+            factories[i] = functions.get(i)::createFunction;
+        }
+        AggregateCalculator calculator = new AggregateCalculator(factories, aggregateAsStrings);
+        List<AggregateResult> results = new ArrayList<>(attrValues.size());
+        for (Map.Entry<DBDAttributeBinding, List<Object>> entry : attrValues.entrySet()) {
+            Object[] values = calculator.calculate(monitor, entry.getValue());
+            if (values == null) {
+                return null;
+            }
+            results.add(new AggregateResult(entry.getKey(), values));
+        }
+        return results;
+    }
+
+    private void showResults(@Nullable List<AggregateResult> results, @NotNull List<AggregateFunctionDescriptor> functions) {
+        if (results == null) {
+            return;
+        }
+        for (AggregateResult result : results) {
+            TreeItem attrItem = null;
+            if (result.attribute != null) {
+                attrItem = new TreeItem(aggregateTable, SWT.NONE);
+                attrItem.setText(result.attribute.getName());
+                attrItem.setImage(DBeaverIcons.getImage(DBValueFormatting.getObjectImage(result.attribute)));
+            }
+            for (int i = 0; i < functions.size(); i++) {
+                AggregateFunctionDescriptor funcDesc = functions.get(i);
+                TreeItem funcItem = (attrItem == null) ?
+                    new TreeItem(aggregateTable, SWT.NONE) :
+                    new TreeItem(attrItem, SWT.NONE);
+                funcItem.setData(funcDesc);
+                funcItem.setText(0, funcDesc.getLabel());
+                DBPImage icon = funcDesc.getIcon();
+                if (icon != null) {
+                    funcItem.setImage(0, DBeaverIcons.getImage(icon));
                 }
-                if (strValue != null) {
-                    treeItem.setText(1, strValue);
+                Object value = result.values[i];
+                if (value != null) {
+                    String strValue;
+                    if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
+                        strValue = DOUBLE_FORMAT.format(value);
+                    } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+                        strValue = INTEGER_FORMAT.format(value);
+                    } else {
+                        strValue = value.toString();
+                    }
+                    if (strValue != null) {
+                        funcItem.setText(1, strValue);
+                    }
                 }
             }
+            if (attrItem != null) {
+                attrItem.setExpanded(true);
+            }
+        }
+    }
+
+    private static class AggregateResult {
+        private final DBDAttributeBinding attribute;
+        private final Object[] values;
+
+        AggregateResult(DBDAttributeBinding attribute, Object[] values) {
+            this.attribute = attribute;
+            this.values = values;
         }
     }
 
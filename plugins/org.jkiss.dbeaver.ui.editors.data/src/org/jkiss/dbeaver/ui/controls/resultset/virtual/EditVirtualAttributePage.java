@@ -170,7 +170,7 @@ public class EditVirtualAttributePage extends BaseObjectEditPage implements IHel
         }
         try {
             JexlExpression parsedExpression = DBVUtils.parseExpression(expression);
-            Object result = DBVUtils.evaluateDataExpression(viewer.getModel().getAttributes(), currentRow.values, parsedExpression, nameText.getText());
+            Object result = DBVUtils.evaluateDataExpression(viewer.getModel().getAttributes(), currentRow.getValues(), parsedExpression, nameText.getText());
 
             previewText.setText(CommonUtils.toString(result));
         } catch (Exception e) {
@@ -507,6 +507,10 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         if (viewerConfiguration != null) {
             viewerConfiguration.saveFoldingState();
         }
+        if (parserContext != null) {
+            parserContext.dispose();
+            parserContext = null;
+        }
 
         super.dispose();
     }
@@ -605,6 +609,9 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
         ruleManager.loadRules(getDataSource(), SQLEditorBase.isBigScript(getEditorInput()));
         ruleScanner.refreshRules(getDataSource(), ruleManager);
+        if (parserContext != null) {
+            parserContext.dispose();
+        }
         parserContext = new SQLParserContext(SQLEditorBase.this, syntaxManager, ruleManager, document != null ? document : new Document());
 
         if (document instanceof IDocumentExtension3) {
@@ -708,6 +715,17 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         return SQLScriptParser.extractScriptQueries(parserContext, startOffset, length, scriptMode, keepDelimiters, parseParameters);
     }
 
+    /**
+     * Returns queries which lie completely in the specified range. Only changed parts of the script are parsed.
+     * Returns null if document is being modified concurrently. Used for folding, not for execution.
+     */
+    public List<SQLScriptElement> extractIndexedScriptQueries(int startOffset, int length, boolean scriptMode, boolean keepDelimiters) {
+        if (parserContext == null) {
+            return null;
+        }
+        return SQLScriptParser.extractIndexedScriptQueries(parserContext, startOffset, length, scriptMode, keepDelimiters, false);
+    }
+
     public SQLCompletionContext getCompletionContext() {
         return completionContext;
     }
@@ -238,7 +238,7 @@ public class SQLReconcilingStrategy implements IReconcilingStrategy, IReconcilin
 
     @Nullable
     private List<SQLScriptElement> extractQueries(int offset, int length) {
-        return editor.extractScriptQueries(offset, length, false, true, false);
+        return editor.extractIndexedScriptQueries(offset, length, false, true);
     }
 
     private boolean deservesFolding(SQLScriptElement element) {
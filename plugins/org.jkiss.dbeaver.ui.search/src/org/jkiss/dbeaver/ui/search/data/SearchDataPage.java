@@ -51,6 +51,8 @@ public class SearchDataPage extends AbstractSearchPage {
     private static final String PROP_MASK = "search.data.mask"; //$NON-NLS-1$
     private static final String PROP_CASE_SENSITIVE = "search.data.case-sensitive"; //$NON-NLS-1$
     private static final String PROP_SAMPLE_ROWS = "search.data.sample-rows"; //$NON-NLS-1$
+    private static final String PROP_MAX_OBJECTS = "search.data.max-objects"; //$NON-NLS-1$
+    private static final String PROP_MAX_PARALLEL = "search.data.max-parallel"; //$NON-NLS-1$
     private static final String PROP_FAST_SEARCH = "search.data.fast-search"; //$NON-NLS-1$
     private static final String PROP_SEARCH_NUMBERS = "search.data.search-numbers"; //$NON-NLS-1$
     private static final String PROP_SEARCH_LOBS = "search.data.search-lobs"; //$NON-NLS-1$
@@ -132,6 +134,17 @@ public class SearchDataPage extends AbstractSearchPage {
             maxResultsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             maxResultsSpinner.addModifyListener(e -> params.maxResults = maxResultsSpinner.getSelection());
 
+            final Spinner maxObjectsSpinner = UIUtils.createLabelSpinner(optionsGroup2, UISearchMessages.dialog_search_data_spinner_max_tables, UISearchMessages.dialog_search_data_spinner_max_tables_tip, params.maxObjects, 0, Integer.MAX_VALUE);
+            maxObjectsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            maxObjectsSpinner.addModifyListener(e -> params.maxObjects = maxObjectsSpinner.getSelection());
+
+            if (params.maxParallel <= 0) {
+                params.maxParallel = 4;
+            }
+            final Spinner maxParallelSpinner = UIUtils.createLabelSpinner(optionsGroup2, UISearchMessages.dialog_search_data_spinner_parallel_searches, UISearchMessages.dialog_search_data_spinner_parallel_searches_tip, params.maxParallel, 1, 64);
+            maxParallelSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            maxParallelSpinner.addModifyListener(e -> params.maxParallel = maxParallelSpinner.getSelection());
+
             final Button caseCheckbox = UIUtils.createCheckbox(optionsGroup2, UISearchMessages.dialog_search_objects_case_sensitive, "Case sensitive search", params.caseSensitive, 2);
             caseCheckbox.addSelectionListener(new SelectionAdapter() {
                 @Override
@@ -205,6 +218,8 @@ public class SearchDataPage extends AbstractSearchPage {
         params.searchLOBs = store.getBoolean(PROP_SEARCH_LOBS);
         params.searchForeignObjects = store.getBoolean(PROP_SEARCH_FOREIGN);
         params.maxResults = store.getInt(PROP_SAMPLE_ROWS);
+        params.maxObjects = store.getInt(PROP_MAX_OBJECTS);
+        params.maxParallel = store.getInt(PROP_MAX_PARALLEL);
         for (int i = 0; ; i++) {
             String history = store.getString(PROP_HISTORY + "." + i); //$NON-NLS-1$
             if (CommonUtils.isEmpty(history)) {
@@ -229,6 +244,8 @@ public class SearchDataPage extends AbstractSearchPage {
         store.setValue(PROP_MASK, params.searchString);
         store.setValue(PROP_CASE_SENSITIVE, params.caseSensitive);
         store.setValue(PROP_SAMPLE_ROWS, params.maxResults);
+        store.setValue(PROP_MAX_OBJECTS, params.maxObjects);
+        store.setValue(PROP_MAX_PARALLEL, params.maxParallel);
         store.setValue(PROP_FAST_SEARCH, params.fastSearch);
         store.setValue(PROP_SEARCH_NUMBERS, params.searchNumbers);
         store.setValue(PROP_SEARCH_LOBS, params.searchLOBs);
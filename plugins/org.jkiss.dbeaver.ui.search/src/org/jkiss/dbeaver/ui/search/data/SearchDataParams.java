@@ -35,6 +35,8 @@ public class SearchDataParams {
     boolean searchLOBs;
     boolean searchForeignObjects;
     int maxResults;
+    int maxObjects;
+    int maxParallel;
     List<DBNNode> selectedNodes = new ArrayList<>();
 
     public SearchDataParams()
@@ -105,6 +107,28 @@ public class SearchDataParams {
         this.maxResults = maxResults;
     }
 
+    /**
+     * Search stops when the specified number of tables with matching rows was found. 0 means no limit.
+     */
+    public int getMaxObjects() {
+        return maxObjects;
+    }
+
+    public void setMaxObjects(int maxObjects) {
+        this.maxObjects = maxObjects;
+    }
+
+    /**
+     * Max number of tables searched at once. Each parallel search uses its own connection.
+     */
+    public int getMaxParallel() {
+        return maxParallel;
+    }
+
+    public void setMaxParallel(int maxParallel) {
+        this.maxParallel = maxParallel;
+    }
+
     public List<DBNNode> getSelectedNodes() {
         return selectedNodes;
     }
@@ -20,9 +20,12 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
@@ -33,12 +36,14 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.search.AbstractSearchResult;
 import org.jkiss.dbeaver.utils.GeneralUtils;
@@ -47,14 +52,27 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SearchDataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchDataQuery.class);
 
+    private static final long WORKERS_CHECK_PERIOD = 200;
+
     private final SearchDataParams params;
     private SearchDataResult searchResult;
 
+    // Tables which are waiting for search. Guarded by this
+    private final Deque<DBSDataContainer> sourceQueue = new ArrayDeque<>();
+    private int foundObjects;
+    private volatile boolean searchFinished;
+    private final AtomicInteger searchedSources = new AtomicInteger();
+    // Workers which can't open isolated connection use default connection one at a time
+    private final Object defaultConnectionLock = new Object();
+
     private SearchDataQuery(SearchDataParams params)
     {
         this.params = params;
@@ -91,8 +109,12 @@ public class SearchDataQuery implements ISearchQuery {
 
             //monitor.subTask("Collect tables");
             Set<DBPDataSource> dataSources = new HashSet<>();
+            boolean hasEmbedded = false;
             for (DBSDataContainer searcher : params.sources) {
-                dataSources.add(searcher.getDataSource());
+                DBPDataSource dataSource = searcher.getDataSource();
+                if (dataSources.add(dataSource) && dataSource != null && dataSource.getContainer().getDriver().isEmbedded()) {
+                    hasEmbedded = true;
+                }
             }
 
             // Search
@@ -100,25 +122,61 @@ public class SearchDataQuery implements ISearchQuery {
 
             DBRProgressMonitor monitor = new DefaultProgressMonitor(m);
 
-            int totalObjects = 0;
+            List<DBSDataContainer> sources = new ArrayList<>(params.sources);
+            monitor.beginTask("Read tables statistics", sources.size());
+            try {
+                sortSources(monitor, sources);
+            } finally {
+                monitor.done();
+            }
+            synchronized (this) {
+                sourceQueue.clear();
+                sourceQueue.addAll(sources);
+                foundObjects = 0;
+                searchFinished = false;
+            }
+            searchedSources.set(0);
 
+            // Embedded databases usually don't support several connections
+            int workerCount = hasEmbedded ? 1 : Math.max(1, Math.min(params.maxParallel, sources.size()));
             monitor.beginTask(
                 "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
-                params.sources.size());
+                sources.size());
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
-                    if (monitor.isCanceled()) {
-                        break;
+                if (workerCount == 1) {
+                    // Search in the default connection
+                    searchInSources(monitor, dbnModel, null);
+                } else {
+                    CountDownLatch finishLatch = new CountDownLatch(workerCount);
+                    List<SearchWorker> workers = new ArrayList<>(workerCount);
+                    for (int i = 0; i < workerCount; i++) {
+                        SearchWorker worker = new SearchWorker(i + 1, dbnModel, finishLatch);
+                        workers.add(worker);
+                        worker.schedule();
                     }
-                    if (searchDataInContainer(monitor, dbnModel, dataContainer)) {
-                        totalObjects++;
+                    int reportedSources = 0;
+                    boolean canceled = false;
+                    while (!finishLatch.await(WORKERS_CHECK_PERIOD, TimeUnit.MILLISECONDS)) {
+                        if (!canceled && monitor.isCanceled()) {
+                            canceled = true;
+                            finishSearch();
+                            for (SearchWorker worker : workers) {
+                                worker.cancel();
+                            }
+                        }
+                        int searched = searchedSources.get();
+                        monitor.worked(searched - reportedSources);
+                        reportedSources = searched;
                     }
-                    monitor.worked(1);
                 }
             } finally {
                 monitor.done();
             }
 
+            int totalObjects;
+            synchronized (this) {
+                totalObjects = foundObjects;
+            }
             searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects));
 
             return Status.OK_STATUS;
@@ -127,7 +185,85 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
-    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer) {
+    /**
+     * Sorts tables by size. If number of results is limited then small tables go first (they give results faster),
+     * otherwise big tables go first (so parallel searches finish at the same time). Tables without statistics go last.
+     */
+    private void sortSources(DBRProgressMonitor monitor, List<DBSDataContainer> sources) {
+        Map<DBSDataContainer, Long> sizes = new HashMap<>();
+        Set<DBPObjectStatisticsCollector> readCollectors = new HashSet<>();
+        for (DBSDataContainer dataContainer : sources) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (dataContainer instanceof DBPObjectStatistics) {
+                DBSObject parent = dataContainer.getParentObject();
+                if (parent instanceof DBPObjectStatisticsCollector && readCollectors.add((DBPObjectStatisticsCollector) parent)) {
+                    try {
+                        ((DBPObjectStatisticsCollector) parent).collectObjectStatistics(monitor, false, false);
+                    } catch (DBException e) {
+                        log.debug("Error reading statistics of '" + parent.getName() + "'", e);
+                    }
+                }
+                if (((DBPObjectStatistics) dataContainer).hasStatistics()) {
+                    sizes.put(dataContainer, ((DBPObjectStatistics) dataContainer).getStatObjectSize());
+                }
+            }
+            monitor.worked(1);
+        }
+        boolean smallFirst = params.maxObjects > 0;
+        // Sort is stable so tables without statistics keep their original order
+        sources.sort((o1, o2) -> {
+            Long size1 = sizes.get(o1), size2 = sizes.get(o2);
+            if (size1 == null || size2 == null) {
+                return size1 != null ? -1 : (size2 != null ? 1 : 0);
+            }
+            return smallFirst ? Long.compare(size1, size2) : Long.compare(size2, size1);
+        });
+    }
+
+    @Nullable
+    private synchronized DBSDataContainer acquireSource() {
+        return searchFinished ? null : sourceQueue.pollFirst();
+    }
+
+    private synchronized void finishSearch() {
+        searchFinished = true;
+        sourceQueue.clear();
+    }
+
+    /**
+     * Registers found object. Returns false if search was already finished (max number of objects found)
+     */
+    private synchronized boolean registerFoundObject() {
+        if (searchFinished) {
+            return false;
+        }
+        foundObjects++;
+        if (params.maxObjects > 0 && foundObjects >= params.maxObjects) {
+            finishSearch();
+        }
+        return true;
+    }
+
+    /**
+     * Searches in tables from the queue until it is empty.
+     * @param contexts isolated contexts of this searcher (by data source) or null if default connections must be used
+     */
+    private void searchInSources(DBRProgressMonitor monitor, DBNModel dbnModel, @Nullable Map<DBPDataSource, DBCExecutionContext> contexts) {
+        for (DBSDataContainer dataContainer = acquireSource(); dataContainer != null; dataContainer = acquireSource()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            searchDataInContainer(monitor, dbnModel, dataContainer, contexts);
+            searchedSources.incrementAndGet();
+            if (contexts == null) {
+                monitor.worked(1);
+            }
+        }
+    }
+
+    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer, @Nullable Map<DBPDataSource, DBCExecutionContext> contexts) {
         if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
             return false;
         }
@@ -138,10 +274,20 @@ public class SearchDataQuery implements ISearchQuery {
             log.warn("Can't find tree node for object \"" + objectName + "\"");
             return false;
         }
+        if (contexts != null && getSearchContext(monitor, dataContainer, contexts) == null) {
+            // Isolated connection isn't available. Default connection can't be used by several workers at once
+            synchronized (defaultConnectionLock) {
+                return searchRows(monitor, node, dataContainer, objectName, null);
+            }
+        }
+        return searchRows(monitor, node, dataContainer, objectName, contexts);
+    }
+
+    private boolean searchRows(DBRProgressMonitor monitor, DBNDatabaseNode node, DBSDataContainer dataContainer, String objectName, @Nullable Map<DBPDataSource, DBCExecutionContext> contexts) {
         monitor.subTask("Search in '" + objectName + "'");
         log.debug("Search in '" + objectName + "'");
         SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor);
-        try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName)) {
+        try (DBCSession session = openSearchSession(searchMonitor, dataContainer, contexts, "Search rows in " + objectName)) {
             TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
             try {
                 findRows(session, dataContainer, dataReceiver);
@@ -151,7 +297,7 @@ public class SearchDataQuery implements ISearchQuery {
                 log.debug("Fulltext search failed in '" + dataContainer.getName() + "'", e);
             }
 
-            if (dataReceiver.rowCount > 0) {
+            if (dataReceiver.rowCount > 0 && registerFoundObject()) {
                 SearchDataObject object = new SearchDataObject(node, dataReceiver.rowCount, dataReceiver.filter);
                 searchResult.addObjects(Collections.singletonList(object));
                 return true;
@@ -162,6 +308,37 @@ public class SearchDataQuery implements ISearchQuery {
         return false;
     }
 
+    @NotNull
+    private DBCSession openSearchSession(DBRProgressMonitor monitor, DBSDataContainer dataContainer, @Nullable Map<DBPDataSource, DBCExecutionContext> contexts, String title) throws DBCException {
+        if (contexts != null) {
+            DBCExecutionContext context = getSearchContext(monitor, dataContainer, contexts);
+            if (context != null) {
+                return context.openSession(monitor, DBCExecutionPurpose.UTIL, title);
+            }
+        }
+        return DBUtils.openUtilSession(monitor, dataContainer, title);
+    }
+
+    /**
+     * Returns isolated context of the worker for the container data source (opens it on first access).
+     * Returns null if isolated context can't be opened.
+     */
+    @Nullable
+    private DBCExecutionContext getSearchContext(DBRProgressMonitor monitor, DBSDataContainer dataContainer, @NotNull Map<DBPDataSource, DBCExecutionContext> contexts) {
+        DBPDataSource dataSource = dataContainer.getDataSource();
+        if (!contexts.containsKey(dataSource)) {
+            DBCExecutionContext context = null;
+            try {
+                context = DBUtils.getObjectOwnerInstance(dataContainer).openIsolatedContext(monitor, "Data search", null);
+            } catch (DBException e) {
+                // Search in the default connection then
+                log.debug("Error opening search connection", e);
+            }
+            contexts.put(dataSource, context);
+        }
+        return contexts.get(dataSource);
+    }
+
     private DBCStatistics findRows(
         @NotNull DBCSession session,
         @NotNull DBSDataContainer dataContainer,
@@ -299,7 +476,40 @@ public class SearchDataQuery implements ISearchQuery {
 
         @Override
         public boolean isCanceled() {
-            return canceled || baseMonitor.isCanceled();
+            return canceled || searchFinished || baseMonitor.isCanceled();
+        }
+    }
+
+    private class SearchWorker extends AbstractJob {
+
+        private final DBNModel dbnModel;
+
+        SearchWorker(int workerNumber, DBNModel dbnModel, CountDownLatch finishLatch) {
+            super("Data search worker #" + workerNumber);
+            this.dbnModel = dbnModel;
+            setUser(false);
+            // Job may be canceled before it starts, so count it down on job finish rather than in run()
+            addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent event) {
+                    finishLatch.countDown();
+                }
+            });
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            Map<DBPDataSource, DBCExecutionContext> contexts = new HashMap<>();
+            try {
+                searchInSources(monitor, dbnModel, contexts);
+            } finally {
+                for (DBCExecutionContext context : contexts.values()) {
+                    if (context != null) {
+                        context.close();
+                    }
+                }
+            }
+            return Status.OK_STATUS;
         }
     }
 
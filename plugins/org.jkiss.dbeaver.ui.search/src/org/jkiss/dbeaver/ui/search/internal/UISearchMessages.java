@@ -41,6 +41,11 @@ public class UISearchMessages extends NLS {
 	public static String dialog_search_objects_search_in_comments;
 	public static String dialog_search_objects_title;
 
+	public static String dialog_search_data_spinner_max_tables;
+	public static String dialog_search_data_spinner_max_tables_tip;
+	public static String dialog_search_data_spinner_parallel_searches;
+	public static String dialog_search_data_spinner_parallel_searches_tip;
+
     static {
 		// initialize resource bundle
 		NLS.initializeMessages(BUNDLE_NAME, UISearchMessages.class);
@@ -30,9 +30,9 @@ import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.*;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPDataSource;
-import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.app.DBPPlatform;
 import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.impl.struct.StructureIndex;
 import org.jkiss.dbeaver.model.navigator.*;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
@@ -318,7 +318,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
 
     private DBSStructureAssistant getSelectedStructureAssistant()
     {
-        return DBUtils.getAdapter(DBSStructureAssistant.class, getSelectedDataSource());
+        return StructureIndex.getStructureAssistant(getSelectedDataSource());
     }
 
     private void fillObjectTypes()
@@ -144,11 +144,31 @@ public class PostgreValueParserTest {
 //        Assert.assertArrayEquals(booleans, (Object[]) PostgreValueParser.convertStringToValue(session, arrayBooleanItemType,"{'on,'off'}", true));
     }
 
+    @Test
+    public void convertQuotedAndNullArrayItems() throws DBCException {
+        Assert.assertArrayEquals(new Object[]{"a\"b", "c,d", "", null, "NULL", "x y", "{q}"},
+                (Object[]) PostgreValueParser.convertStringToValue(session, arrayStringItemType, "{\"a\\\"b\",c\\,d,\"\",NULL,\"NULL\", x y ,\"{q}\"}"));
+        Assert.assertArrayEquals(new Object[]{null, 1, null, -22, null},
+                (Object[]) PostgreValueParser.convertStringToValue(session, arrayIntItemType, "{NULL,1,NULL,-22,NULL}"));
+        Assert.assertArrayEquals(new Object[]{},
+                (Object[]) PostgreValueParser.convertStringToValue(session, arrayIntItemType, "{}"));
+        // Out of range numbers are left as is
+        Assert.assertArrayEquals(new Object[]{2147483647, "2147483648"},
+                (Object[]) PostgreValueParser.convertStringToValue(session, arrayIntItemType, "{2147483647,2147483648}"));
+
+        //Bad input data tests
+        Assert.assertEquals("{1,2}}", PostgreValueParser.convertStringToValue(session, arrayIntItemType, "{1,2}}"));
+        Assert.assertEquals("{1,{2}}", PostgreValueParser.convertStringToValue(session, arrayIntItemType, "{1,{2}}"));
+        Assert.assertEquals("{\"1}", PostgreValueParser.convertStringToValue(session, arrayIntItemType, "{\"1}"));
+    }
+
     @Test
     public void parseSingleObject() throws DBCException {
         Assert.assertArrayEquals(new String[]{}, PostgreValueParser.parseSingleObject(""));
         Assert.assertArrayEquals(new String[]{"colA", " ColB"}, PostgreValueParser.parseSingleObject("colA, ColB"));
         Assert.assertArrayEquals(new String[]{"A", " B"}, PostgreValueParser.parseSingleObject("A, B"));
+        Assert.assertArrayEquals(new String[]{"a,b", "x\"y", "p\\q", "", "z"},
+                PostgreValueParser.parseSingleObject("\"a,b\",\"x\"\"y\",\"p\\\\q\",,z"));
     }
 
     @Test
@@ -221,6 +241,13 @@ public class PostgreValueParserTest {
         int3List.add(int2List);
         Assert.assertEquals(int3List, PostgreValueParser.parseArrayString("{{{1,22,333},{1,22,333}},{{1,22,333},{1,22,333}}}", ","));
 
+        List<String> quotedList = new ArrayList<>();
+        quotedList.add("a b");
+        quotedList.add(null);
+        quotedList.add("NULL");
+        quotedList.add("c\"d");
+        Assert.assertEquals(quotedList, PostgreValueParser.parseArrayString("{ \"a b\" , NULL, \"NULL\", \"c\\\"d\" }", ","));
+
     }
 
     private void setupGeneralWhenMocks() throws Exception {
@@ -0,0 +1,96 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.aggregate;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class AggregateCalculatorTest {
+
+    private static final AggregateCalculator.FunctionFactory[] FUNCTIONS = {
+        FunctionCount::new,
+        FunctionSum::new,
+        FunctionAvg::new,
+        FunctionMin::new,
+        FunctionMax::new,
+        FunctionMedian::new,
+        FunctionMode::new,
+        FunctionCountDistinct::new
+    };
+
+    @Test
+    public void testParallelMatchesSequential() throws DBException {
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < AggregateCalculator.PARALLEL_THRESHOLD * 3 + 17; i++) {
+            values.add(i % 7 == 0 ? null : (Object) (i % 1000));
+        }
+        AggregateCalculator calculator = new AggregateCalculator(FUNCTIONS, false);
+
+        Object[] parallel = calculator.calculate(new VoidProgressMonitor(), values);
+        Object[] sequential = calculateSequentially(values);
+
+        Assert.assertNotNull(parallel);
+        Assert.assertArrayEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testSmallList() throws DBException {
+        AggregateCalculator calculator = new AggregateCalculator(FUNCTIONS, false);
+        Object[] results = calculator.calculate(new VoidProgressMonitor(), Arrays.asList(3, 1, 2, 2, null));
+
+        Assert.assertNotNull(results);
+        Assert.assertEquals(5, results[0]);
+        Assert.assertEquals(8.0, results[1]);
+        Assert.assertEquals(2.0, results[2]);
+        Assert.assertEquals(1, results[3]);
+        Assert.assertEquals(3, results[4]);
+        Assert.assertEquals(2.0, results[5]);
+        Assert.assertEquals(2, results[6]);
+        Assert.assertEquals(4, results[7]);
+    }
+
+    @Test
+    public void testNoValues() throws DBException {
+        AggregateCalculator calculator = new AggregateCalculator(new AggregateCalculator.FunctionFactory[] { FunctionSum::new }, false);
+        Object[] results = calculator.calculate(new VoidProgressMonitor(), Collections.singletonList(null));
+
+        Assert.assertNotNull(results);
+        Assert.assertNull(results[0]);
+    }
+
+    private static Object[] calculateSequentially(List<Object> values) throws DBException {
+        Object[] results = new Object[FUNCTIONS.length];
+        for (int i = 0; i < FUNCTIONS.length; i++) {
+            IAggregateFunction function = FUNCTIONS[i].createFunction();
+            int count = 0;
+            for (Object value : values) {
+                if (function.accumulate(value, false)) {
+                    count++;
+                }
+            }
+            results[i] = count <= 0 ? null : function.getResult(count);
+        }
+        return results;
+    }
+}
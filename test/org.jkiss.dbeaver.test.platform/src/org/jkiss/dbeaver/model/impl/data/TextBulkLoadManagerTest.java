@@ -0,0 +1,93 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TextBulkLoadManagerTest {
+
+    private final DBCSession session = mock(DBCSession.class);
+
+    private static DBSAttributeBase makeAttribute(DBPDataKind dataKind) {
+        DBSAttributeBase attribute = mock(DBSAttributeBase.class);
+        when(attribute.getDataKind()).thenReturn(dataKind);
+        return attribute;
+    }
+
+    @Test
+    public void testSupportedAttributes() {
+        assertTrue(TextBulkLoadManager.isSupportedAttributes(new DBSAttributeBase[] {
+            makeAttribute(DBPDataKind.NUMERIC), makeAttribute(DBPDataKind.STRING), makeAttribute(DBPDataKind.DATETIME)}));
+        assertFalse(TextBulkLoadManager.isSupportedAttributes(new DBSAttributeBase[] {
+            makeAttribute(DBPDataKind.NUMERIC), makeAttribute(DBPDataKind.BINARY)}));
+        assertFalse(TextBulkLoadManager.isSupportedAttributes(new DBSAttributeBase[0]));
+    }
+
+    @Test
+    public void testRowsFormat() throws DBCException {
+        TestLoadManager loadManager = new TestLoadManager(new DBSAttributeBase[] {
+            makeAttribute(DBPDataKind.NUMERIC), makeAttribute(DBPDataKind.STRING), makeAttribute(DBPDataKind.BOOLEAN), makeAttribute(DBPDataKind.DATETIME)});
+        loadManager.addRow(session, new Object[] {new BigDecimal("1E+3"), "a\tb\\c\nd", true, Timestamp.valueOf("2021-02-03 04:05:06.7")});
+        loadManager.addRow(session, new Object[] {2, null, false, null});
+        loadManager.flushRows(session);
+
+        assertEquals(1, loadManager.loads.size());
+        assertEquals(
+            "1000\ta\\tb\\\\c\\nd\t1\t2021-02-03 04:05:06.7\n" +
+            "2\t\\N\t0\t\\N\n",
+            loadManager.loads.get(0));
+
+        // Empty buffer must not be loaded
+        loadManager.flushRows(session);
+        assertEquals(1, loadManager.loads.size());
+    }
+
+    @Test(expected = DBCException.class)
+    public void testBadValuesCount() throws DBCException {
+        TestLoadManager loadManager = new TestLoadManager(new DBSAttributeBase[] {makeAttribute(DBPDataKind.NUMERIC)});
+        loadManager.addRow(session, new Object[] {1, 2});
+    }
+
+    private static class TestLoadManager extends TextBulkLoadManager {
+        private final List<String> loads = new ArrayList<>();
+
+        TestLoadManager(DBSAttributeBase[] attributes) {
+            super(attributes);
+        }
+
+        @Override
+        protected void loadRows(@NotNull DBCSession session, @NotNull CharSequence rows, int rowCount) {
+            loads.add(rows.toString());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JDBCStructCacheTest {
+
+    private static final int TABLE_COUNT = 2000;
+    private static final int SELECTED_COUNT = 1200;
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    private DBSObject owner;
+    private List<DBSObject> tables;
+    private TestCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        JDBCSession session = mock(JDBCSession.class);
+        DBCExecutionContext context = mock(DBCExecutionContext.class);
+        when(context.openSession(any(DBRProgressMonitor.class), any(DBCExecutionPurpose.class), anyString())).thenReturn(session);
+        DBSInstance instance = mock(DBSInstance.class);
+        when(instance.getDefaultContext(any(DBRProgressMonitor.class), anyBoolean())).thenReturn(context);
+        DBPDataSource dataSource = mock(DBPDataSource.class);
+        when(dataSource.getDefaultInstance()).thenReturn(instance);
+        owner = mock(DBSObject.class);
+        when(owner.getDataSource()).thenReturn(dataSource);
+
+        tables = new ArrayList<>();
+        for (int i = 0; i < TABLE_COUNT; i++) {
+            DBSObject table = mock(DBSObject.class);
+            when(table.getName()).thenReturn("TABLE_" + i);
+            when(table.isPersisted()).thenReturn(true);
+            tables.add(table);
+        }
+        cache = new TestCache();
+        cache.setCache(tables);
+    }
+
+    @Test
+    public void testPartialSelectionQueries() throws DBException {
+        List<DBSObject> selected = tables.subList(0, SELECTED_COUNT);
+        Assert.assertTrue(cache.loadChildrenOf(monitor, owner, selected));
+
+        // 1200 tables in batches of 500 instead of 1200 per-table queries
+        Assert.assertEquals(3, cache.batchQueries);
+        Assert.assertEquals(0, cache.singleQueries);
+        Assert.assertEquals(1, cache.getChildren(monitor, owner, tables.get(0)).size());
+        Assert.assertEquals(1, cache.getChildren(monitor, owner, tables.get(SELECTED_COUNT - 1)).size());
+        Assert.assertEquals(0, cache.singleQueries);
+
+        // Already read tables are skipped
+        Assert.assertTrue(cache.loadChildrenOf(monitor, owner, tables.subList(0, SELECTED_COUNT + 10)));
+        Assert.assertEquals(4, cache.batchQueries);
+        Assert.assertEquals(10, cache.lastBatchSize);
+
+        // Not selected table is read on demand
+        cache.getChildren(monitor, owner, tables.get(TABLE_COUNT - 1));
+        Assert.assertEquals(1, cache.singleQueries);
+    }
+
+    @Test
+    public void testBatchNotSupported() throws DBException {
+        cache.batchSupported = false;
+        Assert.assertFalse(cache.loadChildrenOf(monitor, owner, tables.subList(0, SELECTED_COUNT)));
+        Assert.assertEquals(0, cache.singleQueries);
+    }
+
+    private class TestCache extends JDBCStructCache<DBSObject, DBSObject, DBSObject> {
+        boolean batchSupported = true;
+        int batchQueries;
+        int singleQueries;
+        int lastBatchSize;
+
+        TestCache() {
+            super("TABLE_NAME");
+        }
+
+        @Override
+        protected JDBCStatement prepareObjectsStatement(@NotNull JDBCSession session, @NotNull DBSObject owner) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected DBSObject fetchObject(@NotNull JDBCSession session, @NotNull DBSObject owner, @NotNull JDBCResultSet resultSet) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull DBSObject owner, @Nullable DBSObject forObject)
+            throws SQLException
+        {
+            singleQueries++;
+            return makeStatement(forObject);
+        }
+
+        @Override
+        protected JDBCStatement prepareChildrenBatchStatement(@NotNull JDBCSession session, @NotNull DBSObject owner, @NotNull List<DBSObject> forObjects)
+            throws SQLException
+        {
+            if (!batchSupported) {
+                return null;
+            }
+            batchQueries++;
+            lastBatchSize = forObjects.size();
+            return makeStatement(forObjects.toArray(new DBSObject[0]));
+        }
+
+        @Override
+        protected DBSObject fetchChild(@NotNull JDBCSession session, @NotNull DBSObject owner, @NotNull DBSObject parent, @NotNull JDBCResultSet dbResult) {
+            return mock(DBSObject.class);
+        }
+
+        // One column per table
+        private JDBCStatement makeStatement(DBSObject... forTables) throws SQLException {
+            JDBCResultSet resultSet = mock(JDBCResultSet.class);
+            int[] row = {-1};
+            when(resultSet.next()).thenAnswer(invocation -> ++row[0] < forTables.length);
+            when(resultSet.getString("TABLE_NAME")).thenAnswer(invocation -> forTables[row[0]].getName());
+            JDBCStatement statement = mock(JDBCStatement.class);
+            when(statement.getResultSet()).thenReturn(resultSet);
+            return statement;
+        }
+    }
+}
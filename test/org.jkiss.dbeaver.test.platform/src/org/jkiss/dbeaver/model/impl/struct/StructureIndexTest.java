@@ -0,0 +1,133 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+public class StructureIndexTest {
+
+    private StructureIndex.Snapshot snapshot;
+
+    @Before
+    public void setUp() {
+        List<StructureIndex.Entry> entries = new ArrayList<>();
+        entries.add(makeEntry("orders", "TABLE", null, "public"));
+        entries.add(makeEntry("order_items", "TABLE", null, "public"));
+        entries.add(makeEntry("customer_orders", "VIEW", null, "public"));
+        entries.add(makeEntry("my_table", "TABLE", null, "public"));
+        entries.add(makeEntry("myxtable", "TABLE", null, "public"));
+        entries.add(makeEntry("Orders", "TABLE", null, "sales"));
+        entries.add(makeEntry("get_order", "PROCEDURE", "Returns order by id", "sales"));
+        snapshot = new StructureIndex.Snapshot(System.currentTimeMillis(), entries);
+    }
+
+    @Test
+    public void findByPrefix() {
+        assertFound(find("order%", false), "orders", "order_items", "Orders");
+        assertFound(find("ord*", false), "orders", "order_items", "Orders");
+        assertFound(find("orders", false), "orders", "Orders");
+        assertFound(find("orders_", false));
+    }
+
+    @Test
+    public void findContains() {
+        assertFound(find("%order%", false), "orders", "order_items", "customer_orders", "Orders", "get_order");
+        assertFound(find("%_order%", false), "customer_orders", "get_order");
+        assertFound(find("*table", false), "my_table", "myxtable");
+        // Literals shorter than trigram
+        assertFound(find("%xt%", false), "myxtable");
+    }
+
+    @Test
+    public void findEscapedWildcards() {
+        assertFound(find("my_table", false), "my_table", "myxtable");
+        assertFound(find("my\\_table", false), "my_table");
+        assertFound(find("%\\_items", false), "order_items");
+    }
+
+    @Test
+    public void findCaseSensitive() {
+        assertFound(find("ORDERS", false), "orders", "Orders");
+        assertFound(find("ORDERS", true));
+        assertFound(find("Orders", true), "Orders");
+        assertFound(find("%Order%", true), "Orders");
+        assertFound(find("%order%", true), "orders", "order_items", "customer_orders", "get_order");
+    }
+
+    @Test
+    public void findWithFilters() {
+        assertFound(
+            snapshot.find("%order%", false, false, Collections.singleton("VIEW"), null, 100),
+            "customer_orders");
+        assertFound(
+            snapshot.find("%", false, false, null, new String[] { "sales" }, 100),
+            "Orders", "get_order");
+        assertFound(
+            snapshot.find("%by id%", false, true, null, null, 100),
+            "get_order");
+        Assert.assertEquals(2, snapshot.find("%", false, false, null, null, 2).size());
+    }
+
+    @Test
+    public void updateSubtree() {
+        // Refresh of schema "sales": get_order was dropped and Orders renamed
+        StructureIndex.Snapshot updated = snapshot.update(Arrays.asList(
+            StructureIndex.Change.removeSubtree(new String[] { "sales" }),
+            StructureIndex.Change.add(makeEntry("orders_archive", "TABLE", null, "sales"))));
+        assertFound(
+            updated.find("%", false, false, null, new String[] { "sales" }, 100),
+            "orders_archive");
+        Assert.assertEquals(6, updated.size());
+        assertFound(find(updated, "orders%"), "orders", "orders_archive");
+
+        updated = updated.update(Arrays.asList(
+            StructureIndex.Change.add(makeEntry("payments", "TABLE", null, "sales")),
+            StructureIndex.Change.remove(makeEntry("payments", "TABLE", null, "sales")),
+            StructureIndex.Change.remove(makeEntry("orders", "TABLE", null, "public"))));
+        assertFound(find(updated, "%order%"), "order_items", "customer_orders", "orders_archive");
+    }
+
+    @NotNull
+    private static List<StructureIndex.Entry> find(@NotNull StructureIndex.Snapshot snapshot, @NotNull String mask) {
+        return snapshot.find(mask, false, false, null, null, 100);
+    }
+
+    @NotNull
+    private List<StructureIndex.Entry> find(@NotNull String mask, boolean caseSensitive) {
+        return snapshot.find(mask, caseSensitive, false, null, null, 100);
+    }
+
+    private static void assertFound(@NotNull List<StructureIndex.Entry> entries, @NotNull String... expected) {
+        Set<String> names = new HashSet<>();
+        for (StructureIndex.Entry entry : entries) {
+            names.add(entry.getName());
+        }
+        Assert.assertEquals(expected.length, entries.size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(expected)), names);
+    }
+
+    @NotNull
+    private static StructureIndex.Entry makeEntry(@NotNull String name, @NotNull String typeName, @Nullable String description, @NotNull String schema) {
+        return new StructureIndex.Entry(name, typeName, new String[] { schema }, description, schema + "." + name);
+    }
+}
@@ -16,7 +16,9 @@
  */
 package org.jkiss.dbeaver.model.sql.parser;
 
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
@@ -312,6 +314,26 @@ public class SQLScriptParserTest {
             });
     }
 
+    @Test
+    public void parseIncrementally() throws DBException, BadLocationException {
+        SQLParserContext context = createParserContext(setDialect("postgresql"), "select 1;\nselect 2;\n\nselect 3;\nselect 4");
+        IDocument document = context.getDocument();
+        assertIndexedParse(context);
+
+        document.replace(document.get().indexOf("select 2"), 0, "select 5;\n");
+        assertIndexedParse(context);
+        document.replace(document.get().indexOf("select 3;") + 8, 1, "");
+        assertIndexedParse(context);
+        document.replace(document.getLength(), 0, ";\nselect 6");
+        assertIndexedParse(context);
+        document.replace(0, 0, "/* ");
+        assertIndexedParse(context);
+        document.replace(0, 3, "");
+        assertIndexedParse(context);
+        document.replace(0, document.getLength(), "");
+        assertIndexedParse(context);
+    }
+
     private void assertParse(String dialectName, String query, String[] expected) throws DBException {
         SQLParserContext context = createParserContext(setDialect(dialectName), query);
         List<SQLScriptElement> elements = SQLScriptParser.extractScriptQueries(context, 0, context.getDocument().getLength(), false, false, false);
@@ -321,6 +343,18 @@ public class SQLScriptParserTest {
         }
     }
 
+    private void assertIndexedParse(SQLParserContext context) {
+        int length = context.getDocument().getLength();
+        List<SQLScriptElement> expected = SQLScriptParser.extractScriptQueries(context, 0, length, true, false, false);
+        List<SQLScriptElement> elements = SQLScriptParser.extractIndexedScriptQueries(context, 0, length, true, false, false);
+        Assert.assertEquals(expected.size(), elements.size());
+        for (int index = 0; index < expected.size(); index++) {
+            Assert.assertEquals(expected.get(index).getText(), elements.get(index).getText());
+            Assert.assertEquals(expected.get(index).getOffset(), elements.get(index).getOffset());
+            Assert.assertEquals(expected.get(index).getLength(), elements.get(index).getLength());
+        }
+    }
+
     private SQLParserContext createParserContext(SQLDialect dialect, String query) {
         SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
         syntaxManager.init(dialect, dataSourceContainer.getPreferenceStore());
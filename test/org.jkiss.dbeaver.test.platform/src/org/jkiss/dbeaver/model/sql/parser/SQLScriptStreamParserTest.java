@@ -0,0 +1,191 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.registry.SQLDialectRegistry;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that script constructs which span the stream parser read chunk boundary
+ * are parsed the same way as in the whole document.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SQLScriptStreamParserTest {
+    // Must match SQLScriptStreamParser read chunk size
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    @Mock
+    private DBPDataSource dataSource;
+    @Mock
+    private DBPDataSourceContainer dataSourceContainer;
+    @Mock
+    private DBCExecutionContext executionContext;
+
+    @Before
+    public void init() {
+        DBPConnectionConfiguration connectionConfiguration = new DBPConnectionConfiguration();
+        DBPPreferenceStore preferenceStore = DBWorkbench.getPlatform().getPreferenceStore();
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        Mockito.when(dataSource.getDataSource()).thenReturn(dataSource);
+        Mockito.when(dataSourceContainer.getConnectionConfiguration()).thenReturn(connectionConfiguration);
+        Mockito.when(dataSourceContainer.getActualConnectionConfiguration()).thenReturn(connectionConfiguration);
+        Mockito.when(dataSourceContainer.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.when(executionContext.getDataSource()).thenReturn(dataSource);
+    }
+
+    @Test
+    public void parseQuotedStringOnChunkBoundary() throws Exception {
+        setDialect("postgresql");
+        assertStreamParse(
+            "insert into test values ('" + repeat("a;\nb ", 2048) + "');\n");
+    }
+
+    @Test
+    public void parseBlockCommentOnChunkBoundary() throws Exception {
+        setDialect("postgresql");
+        assertStreamParse(
+            "select 1 /* " + repeat("comment; select 2;\n", 512) + " */ from dual;\n");
+    }
+
+    @Test
+    public void parseLineCommentOnChunkBoundary() throws Exception {
+        setDialect("postgresql");
+        assertStreamParse(
+            "-- " + repeat("comment; select 2; ", 512) + "\nselect 3 from dual;\n");
+    }
+
+    @Test
+    public void parseDelimiterRedefineOnChunkBoundary() throws Exception {
+        setDialect(new DelimiterRedefineDialect());
+        assertStreamParse(
+            "DELIMITER //\n" +
+            repeat("select 'a;b' from dual//\n", 256) +
+            "create procedure test() begin select 1; select 2; end//\n" +
+            "DELIMITER ;\n" +
+            "select 3 from dual;\n");
+    }
+
+    private void assertStreamParse(@NotNull String construct) throws IOException {
+        String script = makeScript(construct);
+
+        List<String> expected = new ArrayList<>();
+        SQLParserContext context = createParserContext(script);
+        for (SQLScriptElement element : SQLScriptParser.extractScriptQueries(context, 0, script.length(), true, false, false)) {
+            expected.add(element.getText());
+        }
+
+        List<String> actual = new ArrayList<>();
+        try (SQLScriptStreamParser parser = new SQLScriptStreamParser(
+            executionContext,
+            Channels.newChannel(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8))),
+            StandardCharsets.UTF_8))
+        {
+            for (SQLScriptElement element = parser.nextElement(); element != null; element = parser.nextElement()) {
+                actual.add(element.getText());
+            }
+        }
+
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int index = 0; index < expected.size(); index++) {
+            Assert.assertEquals("Element " + index, expected.get(index), actual.get(index));
+        }
+    }
+
+    /**
+     * Places construct in the middle of the first chunk boundary
+     */
+    @NotNull
+    private static String makeScript(@NotNull String construct) {
+        StringBuilder script = new StringBuilder();
+        int boundaryOffset = CHUNK_SIZE - construct.length() / 2;
+        for (int index = 0; ; index++) {
+            String query = "select " + index + " from dual;\n";
+            if (script.length() + query.length() > boundaryOffset) {
+                break;
+            }
+            script.append(query);
+        }
+        // Pad with spaces so the construct starts at the exact position
+        while (script.length() < boundaryOffset) {
+            script.append(' ');
+        }
+        script.append(construct);
+        script.append("\nselect 'end' from dual;\n");
+        return script.toString();
+    }
+
+    @NotNull
+    private static String repeat(@NotNull String text, int count) {
+        StringBuilder result = new StringBuilder(text.length() * count);
+        for (int i = 0; i < count; i++) {
+            result.append(text);
+        }
+        return result.toString();
+    }
+
+    @NotNull
+    private SQLParserContext createParserContext(@NotNull String script) {
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dataSource);
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(dataSource, false);
+        return new SQLParserContext(() -> executionContext, syntaxManager, ruleManager, new Document(script));
+    }
+
+    private void setDialect(@NotNull String name) throws DBException {
+        setDialect(SQLDialectRegistry.getInstance().getDialect(name).createInstance());
+    }
+
+    private void setDialect(@NotNull SQLDialect dialect) {
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+    }
+
+    private static class DelimiterRedefineDialect extends BasicSQLDialect {
+        @Nullable
+        @Override
+        public String getScriptDelimiterRedefiner() {
+            return "DELIMITER";
+        }
+    }
+}
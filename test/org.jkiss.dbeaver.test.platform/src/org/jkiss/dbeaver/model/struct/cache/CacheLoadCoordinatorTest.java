@@ -0,0 +1,219 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CacheLoadCoordinatorTest {
+
+    private static final String KEY = "key";
+    private static final long TIMEOUT = 10000;
+
+    private final CacheLoadCoordinator coordinator = new CacheLoadCoordinator();
+    private final AtomicBoolean loaded = new AtomicBoolean();
+    private final AtomicInteger loadCount = new AtomicInteger();
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+    private final CountDownLatch loadReleased = new CountDownLatch(1);
+    // The first error in test threads
+    private final AtomicReference<Throwable> threadError = new AtomicReference<>();
+
+    @Test(timeout = TIMEOUT)
+    public void concurrentLoadsAreCoalesced() throws Exception {
+        Thread first = startThread(() -> coordinator.load(new VoidProgressMonitor(), KEY, loaded::get, () -> {
+            loadCount.incrementAndGet();
+            loadStarted.countDown();
+            awaitRelease();
+            loaded.set(true);
+        }));
+        Assert.assertTrue(loadStarted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        AtomicBoolean secondFinished = new AtomicBoolean();
+        Thread second = startThread(() -> {
+            coordinator.load(new VoidProgressMonitor(), KEY, loaded::get, this::loadOnce);
+            secondFinished.set(true);
+        });
+        second.join(300);
+        Assert.assertFalse("Second load must wait for the first one", secondFinished.get());
+
+        loadReleased.countDown();
+        joinThread(first);
+        joinThread(second);
+        Assert.assertTrue(secondFinished.get());
+        Assert.assertEquals(1, loadCount.get());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void differentKeysAreNotBlocked() throws Exception {
+        Thread first = startThread(() -> coordinator.load(new VoidProgressMonitor(), KEY, loaded::get, () -> {
+            loadStarted.countDown();
+            awaitRelease();
+        }));
+        Assert.assertTrue(loadStarted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        AtomicBoolean otherLoaded = new AtomicBoolean();
+        coordinator.load(new VoidProgressMonitor(), "other", otherLoaded::get, () -> otherLoaded.set(true));
+        Assert.assertTrue(otherLoaded.get());
+
+        loadReleased.countDown();
+        joinThread(first);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void loadIsRetriedAfterFailure() throws Exception {
+        try {
+            coordinator.load(new VoidProgressMonitor(), KEY, loaded::get, () -> {
+                loadCount.incrementAndGet();
+                throw new DBException("Load failed");
+            });
+            Assert.fail("Load error must be propagated");
+        } catch (DBException e) {
+            // Expected
+        }
+        coordinator.load(new VoidProgressMonitor(), KEY, loaded::get, this::loadOnce);
+        Assert.assertTrue(loaded.get());
+        Assert.assertEquals(2, loadCount.get());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void waitingThreadLoadsAfterFailure() throws Exception {
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        Thread first = new Thread(() -> {
+            try {
+                coordinator.load(new VoidProgressMonitor(), KEY, loaded::get, () -> {
+                    loadCount.incrementAndGet();
+                    loadStarted.countDown();
+                    awaitRelease();
+                    throw new DBException("Load failed");
+                });
+            } catch (Throwable e) {
+                firstError.set(e);
+            }
+        });
+        first.start();
+        Assert.assertTrue(loadStarted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        Thread second = startThread(() -> coordinator.load(new VoidProgressMonitor(), KEY, loaded::get, this::loadOnce));
+        loadReleased.countDown();
+        first.join(TIMEOUT);
+        joinThread(second);
+
+        Assert.assertTrue(firstError.get() instanceof DBException);
+        Assert.assertTrue(loaded.get());
+        Assert.assertEquals(2, loadCount.get());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void reentrantLoadInSameThread() throws Exception {
+        AtomicBoolean nestedLoaded = new AtomicBoolean();
+        coordinator.load(new VoidProgressMonitor(), KEY, loaded::get, () -> {
+            // Nested load of the same key must not wait for itself
+            coordinator.load(new VoidProgressMonitor(), KEY, loaded::get, () -> nestedLoaded.set(true));
+            loaded.set(true);
+        });
+        Assert.assertTrue(nestedLoaded.get());
+        Assert.assertTrue(loaded.get());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void waitIsCanceled() throws Exception {
+        Thread first = startThread(() -> coordinator.load(new VoidProgressMonitor(), KEY, loaded::get, () -> {
+            loadStarted.countDown();
+            awaitRelease();
+            loaded.set(true);
+        }));
+        Assert.assertTrue(loadStarted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        CancelableMonitor monitor = new CancelableMonitor();
+        AtomicBoolean secondFinished = new AtomicBoolean();
+        Thread second = startThread(() -> {
+            coordinator.load(monitor, KEY, loaded::get, this::loadOnce);
+            secondFinished.set(true);
+        });
+        second.join(300);
+        Assert.assertFalse(secondFinished.get());
+
+        monitor.canceled = true;
+        joinThread(second);
+        Assert.assertTrue(secondFinished.get());
+        Assert.assertEquals("Canceled thread must not load", 0, loadCount.get());
+        Assert.assertFalse(loaded.get());
+
+        loadReleased.countDown();
+        joinThread(first);
+        Assert.assertTrue(loaded.get());
+    }
+
+    private void loadOnce() {
+        loadCount.incrementAndGet();
+        loaded.set(true);
+    }
+
+    private void awaitRelease() throws DBException {
+        try {
+            if (!loadReleased.await(TIMEOUT, TimeUnit.MILLISECONDS)) {
+                throw new DBException("Load wasn't released");
+            }
+        } catch (InterruptedException e) {
+            throw new DBException("Load interrupted", e);
+        }
+    }
+
+    private interface TestTask {
+        void run() throws Exception;
+    }
+
+    @NotNull
+    private Thread startThread(@NotNull TestTask task) {
+        Thread thread = new Thread(() -> {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                threadError.compareAndSet(null, e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void joinThread(@NotNull Thread thread) throws Exception {
+        thread.join(TIMEOUT);
+        Assert.assertFalse("Thread didn't finish", thread.isAlive());
+        if (threadError.get() != null) {
+            throw new AssertionError("Error in test thread", threadError.get());
+        }
+    }
+
+    private static class CancelableMonitor extends VoidProgressMonitor {
+        private volatile boolean canceled;
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+    }
+
+}
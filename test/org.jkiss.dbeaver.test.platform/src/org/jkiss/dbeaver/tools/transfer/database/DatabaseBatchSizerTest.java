@@ -0,0 +1,125 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DatabaseBatchSizerTest {
+
+    private static final long FAST_BLOCK_TIME = 100;
+    private static final long NORMAL_BLOCK_TIME = 1000;
+    private static final long SLOW_BLOCK_TIME = 10000;
+
+    @Test
+    public void nonAdaptiveSizesAreFixed() {
+        DatabaseBatchSizer sizer = new DatabaseBatchSizer(1000, 100, false);
+        sizer.onBlockExecuted(1000, FAST_BLOCK_TIME);
+        assertSizes(sizer, 1000, 100);
+        sizer.onBlockExecuted(1000, SLOW_BLOCK_TIME);
+        assertSizes(sizer, 1000, 100);
+        sizer.onBlockFailed();
+        assertSizes(sizer, 1000, 100);
+    }
+
+    @Test
+    public void growOnFastBlocks() {
+        DatabaseBatchSizer sizer = new DatabaseBatchSizer(1000, 100, true);
+        sizer.onBlockExecuted(1000, FAST_BLOCK_TIME);
+        assertSizes(sizer, 2000, 200);
+        sizer.onBlockExecuted(2000, FAST_BLOCK_TIME);
+        assertSizes(sizer, 4000, 400);
+    }
+
+    @Test
+    public void growthIsBounded() {
+        DatabaseBatchSizer sizer = new DatabaseBatchSizer(1000, 100, true);
+        for (int i = 0; i < 20; i++) {
+            sizer.onBlockExecuted(sizer.getCommitInterval(), FAST_BLOCK_TIME);
+        }
+        assertSizes(sizer, 8000, DatabaseBatchSizer.MAX_ROWS_PER_STATEMENT);
+    }
+
+    @Test
+    public void growthDoesNotOverflow() {
+        DatabaseBatchSizer sizer = new DatabaseBatchSizer(Integer.MAX_VALUE, 100, true);
+        sizer.onBlockExecuted(Integer.MAX_VALUE, FAST_BLOCK_TIME);
+        Assert.assertEquals(Integer.MAX_VALUE, sizer.getCommitInterval());
+    }
+
+    @Test
+    public void shrinkOnSlowBlocks() {
+        DatabaseBatchSizer sizer = new DatabaseBatchSizer(1000, 100, true);
+        sizer.onBlockExecuted(1000, SLOW_BLOCK_TIME);
+        // Statement size doesn't affect server-side execution time
+        assertSizes(sizer, 500, 100);
+        for (int i = 0; i < 20; i++) {
+            sizer.onBlockExecuted(sizer.getCommitInterval(), SLOW_BLOCK_TIME);
+        }
+        assertSizes(sizer, 125, 100);
+    }
+
+    @Test
+    public void keepSizesOnNormalBlocks() {
+        DatabaseBatchSizer sizer = new DatabaseBatchSizer(1000, 100, true);
+        sizer.onBlockExecuted(1000, NORMAL_BLOCK_TIME);
+        assertSizes(sizer, 1000, 100);
+    }
+
+    @Test
+    public void ignorePartialBlocks() {
+        DatabaseBatchSizer sizer = new DatabaseBatchSizer(1000, 100, true);
+        sizer.onBlockExecuted(10, FAST_BLOCK_TIME);
+        assertSizes(sizer, 1000, 100);
+        sizer.onBlockExecuted(10, SLOW_BLOCK_TIME);
+        assertSizes(sizer, 1000, 100);
+    }
+
+    @Test
+    public void shrinkOnFailures() {
+        DatabaseBatchSizer sizer = new DatabaseBatchSizer(1000, 100, true);
+        sizer.onBlockFailed();
+        assertSizes(sizer, 500, 50);
+        for (int i = 0; i < 20; i++) {
+            sizer.onBlockFailed();
+        }
+        assertSizes(sizer, 125, 2);
+    }
+
+    @Test
+    public void singleRowStatementsAreKept() {
+        DatabaseBatchSizer sizer = new DatabaseBatchSizer(1000, 1, true);
+        sizer.onBlockExecuted(1000, FAST_BLOCK_TIME);
+        assertSizes(sizer, 2000, 1);
+        sizer.onBlockFailed();
+        assertSizes(sizer, 1000, 1);
+    }
+
+    @Test
+    public void commitIntervalIsPositive() {
+        DatabaseBatchSizer sizer = new DatabaseBatchSizer(0, 100, true);
+        Assert.assertEquals(1, sizer.getCommitInterval());
+        sizer.onBlockFailed();
+        Assert.assertEquals(1, sizer.getCommitInterval());
+    }
+
+    private static void assertSizes(DatabaseBatchSizer sizer, int commitInterval, int rowsPerStatement) {
+        Assert.assertEquals(commitInterval, sizer.getCommitInterval());
+        Assert.assertEquals(rowsPerStatement, sizer.getRowsPerStatement());
+    }
+
+}
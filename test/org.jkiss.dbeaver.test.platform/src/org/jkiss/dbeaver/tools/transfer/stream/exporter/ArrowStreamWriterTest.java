@@ -0,0 +1,165 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ArrowStreamWriterTest {
+
+    @Test
+    public void fixedWidthVector() {
+        ArrowColumnVector vector = new ArrowColumnVector("id", 0, 0);
+        vector.append(null);
+        vector.append(1L);
+        vector.append(2);
+        Assert.assertEquals(ArrowColumnVector.Type.INT64, vector.getType());
+        Assert.assertEquals(1, vector.getNullCount());
+
+        List<ArrowColumnVector.Buffer> buffers = new ArrayList<>();
+        vector.collectBuffers(buffers);
+        Assert.assertEquals(2, buffers.size());
+        Assert.assertArrayEquals(new byte[] {0b110}, buffers.get(0).toByteArray());
+        ByteBuffer values = ByteBuffer.wrap(buffers.get(1).toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(0L, values.getLong());
+        Assert.assertEquals(1L, values.getLong());
+        Assert.assertEquals(2L, values.getLong());
+    }
+
+    @Test
+    public void variableWidthVector() {
+        ArrowColumnVector vector = new ArrowColumnVector("name", 0, 0);
+        vector.append("ab");
+        vector.append(null);
+        vector.append("c");
+        Assert.assertEquals(ArrowColumnVector.Type.UTF8, vector.getType());
+
+        List<ArrowColumnVector.Buffer> buffers = new ArrayList<>();
+        vector.collectBuffers(buffers);
+        Assert.assertEquals(3, buffers.size());
+        ByteBuffer offsets = ByteBuffer.wrap(buffers.get(1).toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(16, offsets.remaining());
+        Assert.assertEquals(0, offsets.getInt());
+        Assert.assertEquals(2, offsets.getInt());
+        Assert.assertEquals(2, offsets.getInt());
+        Assert.assertEquals(3, offsets.getInt());
+        Assert.assertEquals("abc", new String(buffers.get(2).toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void decimalVector() {
+        ArrowColumnVector vector = new ArrowColumnVector("amount", 10, 2);
+        vector.append(new BigDecimal("-1.010"));
+        Assert.assertEquals(ArrowColumnVector.Type.DECIMAL, vector.getType());
+        List<ArrowColumnVector.Buffer> buffers = new ArrayList<>();
+        vector.collectBuffers(buffers);
+        byte[] expected = new byte[16];
+        Arrays.fill(expected, (byte) 0xFF);
+        // -101 (two's complement)
+        expected[0] = (byte) 0x9B;
+        Assert.assertArrayEquals(expected, buffers.get(1).toByteArray());
+
+        // Decimals without precision are written as strings
+        ArrowColumnVector noPrecision = new ArrowColumnVector("amount", 0, 0);
+        noPrecision.append(new BigDecimal("1E+3"));
+        Assert.assertEquals(ArrowColumnVector.Type.UTF8, noPrecision.getType());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decimalOverflow() {
+        ArrowColumnVector vector = new ArrowColumnVector("amount", 4, 2);
+        vector.append(new BigDecimal("123.4"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decimalScaleOverflow() {
+        ArrowColumnVector vector = new ArrowColumnVector("amount", 10, 2);
+        vector.append(new BigDecimal("-1.005"));
+    }
+
+    @Test
+    public void explicitType() {
+        // Type resolved by metadata isn't changed by values
+        ArrowColumnVector vector = new ArrowColumnVector("amount", 10, 1);
+        vector.resolveType(ArrowColumnVector.Type.DECIMAL);
+        vector.append(1);
+        vector.append(1.5);
+        Assert.assertEquals(ArrowColumnVector.Type.DECIMAL, vector.getType());
+        List<ArrowColumnVector.Buffer> buffers = new ArrayList<>();
+        vector.collectBuffers(buffers);
+        ByteBuffer values = ByteBuffer.wrap(buffers.get(1).toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(10L, values.getLong(0));
+        Assert.assertEquals(15L, values.getLong(16));
+    }
+
+    @Test
+    public void streamFraming() throws IOException {
+        List<ArrowColumnVector> columns = new ArrayList<>();
+        columns.add(new ArrowColumnVector("id", 0, 0));
+        columns.add(new ArrowColumnVector("name", 0, 0));
+        columns.get(0).append(1L);
+        columns.get(1).append("test");
+        columns.get(0).append(2L);
+        columns.get(1).append(null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ArrowStreamWriter writer = new ArrowStreamWriter(out);
+        writer.writeSchema(columns);
+        writer.writeRecordBatch(columns, 2);
+        writer.writeEndOfStream();
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(0, buffer.remaining() % 8);
+        // Schema without body
+        Assert.assertEquals(0, readMessage(buffer));
+        // Record batch: validity of name, id values, name offsets and data (each aligned to 8 bytes)
+        Assert.assertEquals(8 + 16 + 16 + 8, readMessage(buffer));
+        // End of stream
+        Assert.assertEquals(0xFFFFFFFF, buffer.getInt());
+        Assert.assertEquals(0, buffer.getInt());
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Reads encapsulated message and returns body length from the message metadata
+     */
+    private static long readMessage(ByteBuffer buffer) {
+        Assert.assertEquals(0xFFFFFFFF, buffer.getInt());
+        int metadataSize = buffer.getInt();
+        Assert.assertTrue(metadataSize > 0);
+        Assert.assertEquals(0, metadataSize % 8);
+        int metadataPos = buffer.position();
+        // Root table, its vtable, metadata version (#0) and body length (#3) fields
+        int tablePos = metadataPos + buffer.getInt(metadataPos);
+        int vtablePos = tablePos - buffer.getInt(tablePos);
+        Assert.assertEquals(4, buffer.getShort(tablePos + buffer.getShort(vtablePos + 4)));
+        long bodyLength = buffer.getLong(tablePos + buffer.getShort(vtablePos + 4 + 3 * 2));
+        buffer.position(metadataPos + metadataSize + (int) bodyLength);
+        return bodyLength;
+    }
+
+}
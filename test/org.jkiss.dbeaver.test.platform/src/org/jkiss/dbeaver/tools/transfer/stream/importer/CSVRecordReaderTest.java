@@ -0,0 +1,69 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CSVRecordReaderTest {
+
+    @Test
+    public void readRecords() throws IOException {
+        Assert.assertEquals(
+            Arrays.asList("[a, b, c]", "[]", "[1, 2]"),
+            readRecords("a,b,c\n\n1,2", 0, false));
+        Assert.assertEquals(
+            Arrays.asList("[a, b\nc, d]", "[x\"y, z]"),
+            readRecords("\"a\",\"b\r\nc\",d\r\n\"x\"\"y\",z\r\n", 0, false));
+        Assert.assertEquals(
+            Arrays.asList("[a\"b, c]"),
+            readRecords("a\\\"b,c", 0, false));
+        // Header and unterminated quoted value at the end
+        Assert.assertEquals(
+            Arrays.asList("[1, 2]", "[3]"),
+            readRecords("a,b\n1,2\n3,\"4", 0, true));
+    }
+
+    @Test
+    public void readRecordsInParallel() throws IOException {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            data.append(i).append(",\"value ").append(i).append("\n\"\"quoted\"\"\",").append(i * 1.5).append("\r\n");
+        }
+        List<String> expected = readRecords(data.toString(), 0, true);
+        Assert.assertEquals(99999, expected.size());
+        Assert.assertEquals("[1, value 1\n\"quoted\", 1.5]", expected.get(0));
+        Assert.assertEquals(expected, readRecords(data.toString(), 3, true));
+    }
+
+    private static List<String> readRecords(String data, int workerCount, boolean skipHeader) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (CSVRecordReader reader = new CSVRecordReader(new StringReader(data), ',', '"', '\\', workerCount, skipHeader, null)) {
+            for (Object[] record = reader.readNext(); record != null; record = reader.readNext()) {
+                records.add(Arrays.toString(record));
+            }
+        }
+        return records;
+    }
+
+}
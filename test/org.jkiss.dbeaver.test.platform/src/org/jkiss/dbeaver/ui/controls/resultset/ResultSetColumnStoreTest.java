@@ -0,0 +1,137 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+
+public class ResultSetColumnStoreTest {
+
+    private static final int PAGE_SIZE = ResultSetColumnStore.PAGE_SIZE;
+    private static final long MEMORY_LIMIT = 4 * 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void spillKeepsMemoryBounded() throws IOException {
+        ResultSetColumnStore store = new ResultSetColumnStore(3, MEMORY_LIMIT, tempFolder.getRoot());
+        try {
+            int rowCount = PAGE_SIZE * 20;
+            for (int i = 0; i < rowCount; i++) {
+                store.addRow(new Object[]{i, "value " + i, i % 2 == 0 ? null : (long) i});
+                Assert.assertTrue(store.getResidentSize() <= MEMORY_LIMIT);
+            }
+            Assert.assertTrue(store.hasSpilledPages());
+            for (int i = 0; i < rowCount; i += 997) {
+                Assert.assertArrayEquals(new Object[]{i, "value " + i, i % 2 == 0 ? null : (long) i}, store.getRowValues(i));
+                Assert.assertTrue(store.getResidentSize() <= MEMORY_LIMIT);
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void smallSegmentsAreSpilled() throws IOException {
+        ResultSetColumnStore store = new ResultSetColumnStore(2, MEMORY_LIMIT, tempFolder.getRoot());
+        try {
+            // Segments smaller than a page, like fetched by "Fetch next page"
+            int segmentSize = 200;
+            for (int segment = 0; segment < PAGE_SIZE * 20 / segmentSize; segment++) {
+                ResultSetColumnStore segmentStore = new ResultSetColumnStore(2, MEMORY_LIMIT, tempFolder.getRoot());
+                for (int i = 0; i < segmentSize; i++) {
+                    int row = segment * segmentSize + i;
+                    segmentStore.addRow(new Object[]{row, "value " + row});
+                }
+                segmentStore.trimToSize();
+                Assert.assertFalse(segmentStore.hasSpilledPages());
+                Assert.assertEquals(segment * segmentSize, store.appendRows(segmentStore));
+                Assert.assertTrue(store.getResidentSize() <= MEMORY_LIMIT);
+            }
+            Assert.assertTrue(store.hasSpilledPages());
+            Assert.assertArrayEquals(new Object[]{12345, "value 12345"}, store.getRowValues(12345));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void uniqueStringsFallBackToPlainStorage() {
+        ResultSetColumnStore store = new ResultSetColumnStore(1, MEMORY_LIMIT * 100, tempFolder.getRoot());
+        try {
+            String prefix = "unique string value ";
+            for (int i = 0; i <= PAGE_SIZE; i++) {
+                store.addRow(new Object[]{i % 10 == 0 ? null : prefix + i});
+            }
+            // Only the first page is full. Dictionary with hash index would cost 40 more bytes per value
+            long maxPlainSize = (long) PAGE_SIZE * (64 + 2 * (prefix.length() + 5));
+            Assert.assertTrue(store.getResidentSize() > 0);
+            Assert.assertTrue(store.getResidentSize() <= maxPlainSize);
+            Assert.assertNull(store.getValue(0, 0));
+            Assert.assertEquals(prefix + 1, store.getValue(1, 0));
+            Assert.assertEquals(prefix + PAGE_SIZE, store.getValue(PAGE_SIZE, 0));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void plainStringsAreSpilled() {
+        ResultSetColumnStore store = new ResultSetColumnStore(1, 1, tempFolder.getRoot());
+        try {
+            int rowCount = PAGE_SIZE * 3;
+            for (int i = 0; i < rowCount; i++) {
+                store.addRow(new Object[]{i % 10 == 0 ? null : "value " + i});
+            }
+            Assert.assertTrue(store.hasSpilledPages());
+            for (int i = 0; i < rowCount; i += 101) {
+                Assert.assertEquals(i % 10 == 0 ? null : "value " + i, store.getValue(i, 0));
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void releaseDoesNotLoadSpilledPages() {
+        ResultSetColumnStore store = new ResultSetColumnStore(2, 1, tempFolder.getRoot());
+        DBDValue[] objects = new DBDValue[PAGE_SIZE * 3];
+        for (int i = 0; i < objects.length; i++) {
+            objects[i] = Mockito.mock(DBDValue.class);
+            store.addRow(new Object[]{i, objects[i]});
+        }
+        Assert.assertTrue(store.hasSpilledPages());
+        long residentSize = store.getResidentSize();
+        // Spill file is deleted before release, so loading of pages would fail
+        store.close();
+        for (int i = 0; i < objects.length; i++) {
+            store.releaseRowObjects(i);
+        }
+        Assert.assertEquals(residentSize, store.getResidentSize());
+        for (DBDValue object : objects) {
+            Mockito.verify(object).release();
+        }
+    }
+
+}